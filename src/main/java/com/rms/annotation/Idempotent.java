@@ -0,0 +1,20 @@
+package com.rms.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Honor the Idempotency-Key request header for a write operation.
+ * Repeats with the same key return the first response without invoking the method.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Idempotent {
+
+    /**
+     * Key namespace, e.g. "orders" or "payments"
+     */
+    String value();
+}
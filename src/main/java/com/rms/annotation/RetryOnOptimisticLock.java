@@ -0,0 +1,29 @@
+package com.rms.annotation;
+
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Retry an order write whose transaction lost an optimistic lock (@Version) or another
+ * concurrency conflict, with jittered exponential backoff (app.orders.retry.*).
+ * Place it outside @Transactional so each attempt runs in a fresh transaction.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Retryable(
+        retryFor = ConcurrencyFailureException.class,
+        maxAttemptsExpression = "${app.orders.retry.max-attempts:4}",
+        backoff = @Backoff(
+                delayExpression = "${app.orders.retry.initial-delay-ms:20}",
+                maxDelayExpression = "${app.orders.retry.max-delay-ms:300}",
+                multiplier = 2.0,
+                random = true),
+        listeners = "orderWriteRetryListener")
+public @interface RetryOnOptimisticLock {
+}
@@ -0,0 +1,135 @@
+package com.rms.aspect;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.rms.annotation.Idempotent;
+import com.rms.exception.BadRequestException;
+import com.rms.exception.IdempotencyConflictException;
+import com.rms.security.UserPrincipal;
+import com.rms.service.idempotency.IdempotencyRecord;
+import com.rms.service.idempotency.IdempotencyStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Idempotency Aspect - Deduplicate retried writes by Idempotency-Key
+ *
+ * Runs ahead of the transaction and retry interceptors, so a repeated key is
+ * answered from the store without opening a transaction. Keys are scoped per
+ * user; reusing a key with a different payload is rejected.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyAspect {
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String FINGERPRINT_ALGORITHM = "SHA-256";
+
+    // Sorted properties and map keys, so equal requests serialize to the same bytes
+    private static final ObjectMapper CANONICAL_JSON = JsonMapper.builder()
+            .findAndAddModules()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final IdempotencyStore idempotencyStore;
+
+    @Around("@annotation(idempotent)")
+    public Object deduplicate(ProceedingJoinPoint joinPoint, Idempotent idempotent) throws Throwable {
+        String idempotencyKey = currentIdempotencyKey();
+        if (idempotencyKey == null) {
+            return joinPoint.proceed();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key cannot exceed " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String key = idempotent.value() + ":" + currentUserKey() + ":" + idempotencyKey;
+        String fingerprint = fingerprint(joinPoint.getArgs());
+
+        IdempotencyRecord existing = idempotencyStore.claim(key, fingerprint);
+        if (existing != null) {
+            if (!existing.getFingerprint().equals(fingerprint)) {
+                throw new BadRequestException("Idempotency-Key was already used for a different request");
+            }
+            if (!existing.isCompleted()) {
+                throw new IdempotencyConflictException("A request with this Idempotency-Key is still in progress");
+            }
+            log.debug("Replaying {} response for Idempotency-Key {}", idempotent.value(), idempotencyKey);
+            return existing.getResponse();
+        }
+
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable t) {
+            idempotencyStore.release(key);
+            throw t;
+        }
+        idempotencyStore.complete(key, fingerprint, result);
+        return result;
+    }
+
+    private String currentIdempotencyKey() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return null;
+        }
+        String header = servletAttributes.getRequest().getHeader(IdempotencyStore.HEADER);
+        return header == null || header.isBlank() ? null : header.trim();
+    }
+
+    private String currentUserKey() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return String.valueOf(principal.getId());
+        }
+        return "anonymous";
+    }
+
+    /**
+     * SHA-256 of the request arguments as canonical JSON; the caller is already part of the key
+     */
+    private String fingerprint(Object[] args) {
+        List<Object> payload = new ArrayList<>();
+        for (Object arg : args) {
+            if (!(arg instanceof UserPrincipal)) {
+                payload.add(arg);
+            }
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance(FINGERPRINT_ALGORITHM)
+                    .digest(CANONICAL_JSON.writeValueAsBytes(payload));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(FINGERPRINT_ALGORITHM + " is not available", e);
+        }
+    }
+}
@@ -1,4 +1,97 @@
 package com.rms.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executors for asynchronous work.
+ *
+ * Declaring any Executor bean switches off Boot's default application executor,
+ * so it is re-declared here unchanged.
+ */
+@Configuration
 public class AsyncConfig {
+
+    @Lazy
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Fan-out executor for the order event outbox. The runtime is Java 17, so this is a
+     * bounded platform-thread pool; handlers mostly wait on I/O, hence the pool is sized
+     * well above the core count. A full queue runs work on the dispatcher thread, which
+     * slows polling instead of dropping events. On Java 21 this can become
+     * Executors.newVirtualThreadPerTaskExecutor().
+     */
+    @Bean(name = "orderEventExecutor")
+    public ThreadPoolTaskExecutor orderEventExecutor(
+            @Value("${app.orders.events.workers:16}") int workers,
+            @Value("${app.orders.events.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("order-events-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Runs the nightly demand forecast for several restaurants at once. Every task holds a
+     * database connection, so keep this well below the connection pool size.
+     */
+    @Bean(name = "forecastExecutor")
+    public ThreadPoolTaskExecutor forecastExecutor(
+            @Value("${app.inventory.forecast.workers:4}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("forecast-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Rebuilds public menu documents after menu changes. Rebuilds per restaurant are
+     * coalesced, so a couple of threads keep up with bursts of edits.
+     */
+    @Bean(name = "menuReadModelExecutor")
+    public ThreadPoolTaskExecutor menuReadModelExecutor(
+            @Value("${app.menu.read-model.workers:2}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("menu-read-model-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Sends live availability events to SSE subscribers, so a slow client never holds up
+     * the order or inventory request that changed stock. Each restaurant's events are
+     * sent by one task at a time, in version order.
+     */
+    @Bean(name = "menuAvailabilityExecutor")
+    public ThreadPoolTaskExecutor menuAvailabilityExecutor(
+            @Value("${app.menu.availability.workers:4}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("menu-availability-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
 }
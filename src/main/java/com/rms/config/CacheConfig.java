@@ -1,20 +1,69 @@
 package com.rms.config;
 
+import com.rms.service.menu.MenuCacheInvalidator;
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.jcache.JCacheCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
 /**
  * Cache configuration for application-level caches.
+ *
+ * Spring caches are Ehcache caches behind JCache. Every cache keeps at most
+ * app.cache.max-entries entries on heap, evicting the least recently used, and drops an
+ * entry app.cache.ttl-seconds after it was written. Per-restaurant caches key their
+ * entries by restaurant id, so a tenant's entries are evicted by key (see
+ * MenuCacheInvalidator) without clearing other restaurants.
  */
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    static final List<String> CACHE_NAMES = List.of(
+            "displayData",
+            MenuCacheInvalidator.CATEGORIES_CACHE,
+            "userPermissions",
+            "dailySalesReport",
+            "popularItems",
+            "customerBehavior");
+
+    /**
+     * Own URI per application context: the provider hands out one manager per URI, and a
+     * context closing a shared one would close the caches of another
+     */
+    @Bean(destroyMethod = "close")
+    public javax.cache.CacheManager jCacheManager(@Value("${app.cache.max-entries:10000}") long maxEntries,
+                                                  @Value("${app.cache.ttl-seconds:600}") long ttlSeconds) {
+        CacheConfiguration<Object, Object> cacheConfiguration = CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ttlSeconds)))
+                .build();
+        ConfigurationBuilder configuration = ConfigurationBuilder.newConfigurationBuilder();
+        for (String name : CACHE_NAMES) {
+            configuration = configuration.withCache(name, cacheConfiguration);
+        }
+
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        return provider.getCacheManager(URI.create("urn:rms:cache:" + UUID.randomUUID()), configuration.build());
+    }
+
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager("displayData");
+    public CacheManager cacheManager(javax.cache.CacheManager jCacheManager) {
+        return new JCacheCacheManager(jCacheManager);
     }
 }
@@ -9,18 +9,27 @@ import com.rms.entity.LowStockAlert;
 import com.rms.security.CurrentUser;
 import com.rms.security.UserPrincipal;
 import com.rms.service.InventoryAlertService;
+import com.rms.service.InventoryReportService;
 import com.rms.service.InventoryService;
+import com.rms.service.inventory.InventoryBulkService;
+import com.rms.service.inventory.ReorderForecastService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -30,6 +39,9 @@ public class InventoryController {
 
     private final InventoryService inventoryService;
     private final InventoryAlertService alertService;
+    private final InventoryReportService reportService;
+    private final ReorderForecastService reorderForecastService;
+    private final InventoryBulkService bulkService;
 
     // ========== Inventory Item Management ==========
 
@@ -130,6 +142,82 @@ public class InventoryController {
                 ApiResponse.success("Stock transactions retrieved successfully", transactions));
     }
 
+    // ========== Branch Stock ==========
+
+    @PostMapping("/{itemId}/transfer")
+    @PreAuthorize("hasAnyRole('RESTAURANT_ADMIN', 'ADMIN')")
+    public ResponseEntity<ApiResponse<StockTransferResponse>> transferStock(
+            @PathVariable Long itemId,
+            @Valid @RequestBody TransferStockRequest request,
+            @CurrentUser UserPrincipal currentUser) {
+
+        StockTransferResponse transfer = inventoryService.transferStock(itemId, request, currentUser);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Stock transferred successfully", transfer));
+    }
+
+    @GetMapping("/transfers")
+    @PreAuthorize("hasAnyRole('RESTAURANT_ADMIN', 'ADMIN')")
+    public ResponseEntity<ApiResponse<Page<StockTransferResponse>>> getStockTransfers(
+            @PageableDefault(size = 50) Pageable pageable,
+            @CurrentUser UserPrincipal currentUser) {
+
+        Page<StockTransferResponse> transfers = inventoryService.getStockTransfers(currentUser, pageable);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Stock transfers retrieved successfully", transfers));
+    }
+
+    /**
+     * Stock per item code across all branches
+     */
+    @GetMapping("/rollup")
+    @PreAuthorize("hasAnyRole('RESTAURANT_ADMIN', 'ADMIN')")
+    public ResponseEntity<ApiResponse<List<StockRollupResponse>>> getStockRollup(
+            @CurrentUser UserPrincipal currentUser) {
+
+        List<StockRollupResponse> rollup = inventoryService.getStockRollup(currentUser);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Stock rollup retrieved successfully", rollup));
+    }
+
+    // ========== Bulk Import / Export ==========
+
+    /**
+     * Body is CSV with a header row, or JSON lines, using the create request's field names
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasAnyRole('RESTAURANT_ADMIN', 'ADMIN')")
+    public ResponseEntity<ApiResponse<InventoryImportResponse>> importInventoryItems(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body,
+            @CurrentUser UserPrincipal currentUser) {
+
+        InventoryImportResponse result = bulkService.importItems(
+                body, InventoryBulkService.Format.fromContentType(contentType), currentUser);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Inventory import completed", result));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('RESTAURANT_ADMIN', 'ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportInventoryItems(
+            @RequestParam(defaultValue = "CSV") InventoryBulkService.Format format,
+            @CurrentUser UserPrincipal currentUser) {
+
+        Long restaurantId = currentUser.getRestaurantId();
+        StreamingResponseBody body = out -> bulkService.exportItems(restaurantId, format, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"inventory."
+                        + format.name().toLowerCase() + "\"")
+                .body(body);
+    }
+
     // ========== Menu Item Linking ==========
 
     @PostMapping("/{itemId}/link-menu-item")
@@ -150,10 +238,11 @@ public class InventoryController {
     @PreAuthorize("hasAnyRole('RESTAURANT_ADMIN', 'CHEF', 'ADMIN')")
     public ResponseEntity<ApiResponse<StockAvailabilityResponse>> checkMenuItemAvailability(
             @PathVariable Long menuItemId,
-            @RequestParam(defaultValue = "1") int quantity) {
+            @RequestParam(defaultValue = "1") int quantity,
+            @CurrentUser UserPrincipal currentUser) {
 
         StockAvailabilityResponse availability = inventoryService.checkMenuItemAvailability(
-                menuItemId, quantity);
+                currentUser.getRestaurantId(), menuItemId, quantity);
 
         return ResponseEntity.ok(
                 ApiResponse.success("Availability checked successfully", availability));
@@ -172,6 +261,18 @@ public class InventoryController {
                 ApiResponse.success("Low stock items retrieved successfully", items));
     }
 
+    @GetMapping("/reorder-suggestions")
+    @PreAuthorize("hasAnyRole('RESTAURANT_ADMIN', 'ADMIN')")
+    public ResponseEntity<ApiResponse<List<ReorderSuggestionResponse>>> getReorderSuggestions(
+            @CurrentUser UserPrincipal currentUser) {
+
+        List<ReorderSuggestionResponse> suggestions =
+                reorderForecastService.getReorderSuggestions(currentUser);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Reorder suggestions retrieved successfully", suggestions));
+    }
+
     @GetMapping("/alerts")
     @PreAuthorize("hasAnyRole('RESTAURANT_ADMIN', 'ADMIN')")
     public ResponseEntity<ApiResponse<Page<LowStockAlertResponse>>> getAlerts(
@@ -232,4 +333,30 @@ public class InventoryController {
         return ResponseEntity.ok(
                 ApiResponse.success("Alert resolved successfully", null));
     }
+
+    @GetMapping("/reports/balances")
+    @PreAuthorize("hasAnyRole('RESTAURANT_ADMIN', 'ADMIN')")
+    public ResponseEntity<ApiResponse<List<StockBalanceResponse>>> getStockBalances(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+            @CurrentUser UserPrincipal currentUser) {
+
+        List<StockBalanceResponse> balances = reportService.getStockBalances(currentUser, at);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Stock balances retrieved successfully", balances));
+    }
+
+    @GetMapping("/reports/movements")
+    @PreAuthorize("hasAnyRole('RESTAURANT_ADMIN', 'ADMIN')")
+    public ResponseEntity<ApiResponse<List<StockMovementSummary>>> getStockMovements(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @CurrentUser UserPrincipal currentUser) {
+
+        List<StockMovementSummary> movements = reportService.getStockMovements(
+                currentUser, startDate, endDate);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Stock movements retrieved successfully", movements));
+    }
 }
@@ -3,6 +3,7 @@ package com.rms.controller;
 //package com.rms.controller;
 
 import com.rms.dto.auth.ApiResponse;
+import com.rms.dto.order.OrderDTO.OrderCursorPage;
 import com.rms.dto.order.OrderDTO.OrderResponse;
 import com.rms.dto.PreferenceDTO.*;
 import com.rms.entity.Order;
@@ -19,6 +20,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -50,6 +52,19 @@ public class KitchenController {
                 ApiResponse.success("Active kitchen orders retrieved successfully", orders));
     }
 
+    @GetMapping("/orders/active/cursor")
+    public ResponseEntity<ApiResponse<OrderCursorPage<OrderResponse>>> getActiveOrdersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @CurrentUser UserPrincipal currentUser) {
+
+        OrderCursorPage<OrderResponse> orders = orderService.getKitchenOrdersByCursor(
+                currentUser, cursor, size);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Active kitchen orders retrieved successfully", orders));
+    }
+
     @GetMapping("/orders/{orderId}/preferences")
     public ResponseEntity<ApiResponse<OrderPreferencesSummary>> getOrderPreferences(
             @PathVariable Long orderId,
@@ -98,16 +113,16 @@ public class KitchenController {
         // Get orders
         List<Order> orders = orderService.getOrdersForKitchen(currentUser, status);
 
-        // Enrich with preferences
-        List<Map<String, Object>> enrichedOrders = orders.stream()
-                .map(order -> {
-                    Map<String, Object> orderData = new HashMap<>();
-                    orderData.put("order", orderService.mapToOrderResponse(order));
-                    orderData.put("preferences",
-                            preferenceService.getOrderPreferences(order, currentUser));
-                    return orderData;
-                })
-                .collect(Collectors.toList());
+        // Map all orders in one batch, then enrich with preferences
+        List<OrderResponse> responses = orderService.mapToOrderResponses(orders);
+        List<Map<String, Object>> enrichedOrders = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            Map<String, Object> orderData = new HashMap<>();
+            orderData.put("order", responses.get(i));
+            orderData.put("preferences",
+                    preferenceService.getOrderPreferences(orders.get(i), currentUser));
+            enrichedOrders.add(orderData);
+        }
 
         return ResponseEntity.ok(
                 ApiResponse.success("Orders with preferences retrieved successfully", enrichedOrders));
@@ -11,6 +11,8 @@ import com.rms.dto.menu.ItemVariantRequest;
 import com.rms.dto.menu.ItemVariantResponse;
 import com.rms.dto.menu.MenuItemRequest;
 import com.rms.dto.menu.MenuItemResponse;
+import com.rms.dto.menu.MenuSearchRequest;
+import com.rms.dto.menu.MenuSearchResponse;
 import com.rms.dto.menu.MenuStatsResponse;
 import com.rms.dto.menu.ModifierGroupRequest;
 import com.rms.dto.menu.ModifierGroupResponse;
@@ -223,6 +225,22 @@ public class MenuController {
         return ResponseEntity.ok(menuService.getFeaturedItems(restaurantId));
     }
 
+    /**
+     * Search menu items
+     */
+    @GetMapping("/items/search")
+    @PreAuthorize("isAuthenticated()")
+    @RequirePermission(value = "menu:read", resource = "menu_item")
+    @Operation(
+            summary = "Search menu items",
+            description = "Find active items by words (prefix and typo tolerant) with filters and facet counts"
+    )
+    public ResponseEntity<ApiResponse<MenuSearchResponse>> searchItems(
+            @RequestParam Long restaurantId,
+            MenuSearchRequest request) {
+        return ResponseEntity.ok(menuService.searchItems(restaurantId, request));
+    }
+
     /**
      * Get menu statistics
      */
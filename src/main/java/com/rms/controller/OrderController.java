@@ -55,6 +55,25 @@ public class OrderController {
         return ResponseEntity.ok(ApiResponse.success("Orders retrieved successfully", orders));
     }
 
+    /**
+     * Keyset-paginated listing; follow nextCursor instead of page numbers
+     */
+    @GetMapping("/cursor")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<OrderCursorPage<OrderSummaryResponse>>> getOrdersByCursor(
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) Order.OrderType orderType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeCount,
+            @CurrentUser UserPrincipal currentUser) {
+
+        OrderCursorPage<OrderSummaryResponse> orders = orderService.getOrdersByCursor(
+                currentUser, status, orderType, cursor, size, includeCount);
+
+        return ResponseEntity.ok(ApiResponse.success("Orders retrieved successfully", orders));
+    }
+
     @GetMapping("/{orderId}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<ApiResponse<OrderResponse>> getOrderById(
@@ -78,6 +97,17 @@ public class OrderController {
         return ResponseEntity.ok(ApiResponse.success("Order status updated successfully", order));
     }
 
+    @PutMapping("/status/bulk")
+    @PreAuthorize("hasAnyRole('RESTAURANT_ADMIN', 'CHEF', 'DELIVERY_MAN', 'ADMIN')")
+    public ResponseEntity<ApiResponse<BulkUpdateOrderStatusResponse>> bulkUpdateOrderStatus(
+            @Valid @RequestBody BulkUpdateOrderStatusRequest request,
+            @CurrentUser UserPrincipal currentUser) {
+
+        BulkUpdateOrderStatusResponse result = orderService.bulkUpdateOrderStatus(request, currentUser);
+
+        return ResponseEntity.ok(ApiResponse.success("Order statuses updated", result));
+    }
+
     @PostMapping("/{orderId}/cancel")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<ApiResponse<OrderResponse>> cancelOrder(
@@ -2,21 +2,36 @@ package com.rms.controller;
 
 import com.rms.dto.auth.ApiResponse;
 import com.rms.dto.menu.CategoryResponse;
+import com.rms.dto.menu.MenuAvailabilityResponse;
 import com.rms.dto.menu.MenuItemResponse;
+import com.rms.dto.menu.MenuSearchRequest;
+import com.rms.dto.menu.MenuSearchResponse;
+import com.rms.dto.menu.PublicMenuResponse;
+import com.rms.service.menu.MenuAvailabilityService;
+import com.rms.service.menu.MenuReadModel;
+import com.rms.service.menu.MenuSearchIndex;
 import com.rms.service.menu.MenuService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Public Menu Controller - For customer-facing menu
+ *
+ * Menu reads are served from the precomputed menu document with its ETag; clients
+ * revalidate with If-None-Match and get 304 Not Modified while the menu is unchanged.
  */
 @RestController
 @RequestMapping("/api/v1/public/menu")
@@ -25,6 +40,26 @@ import java.util.List;
 public class PublicMenuController {
 
     private final MenuService menuService;
+    private final MenuReadModel menuReadModel;
+    private final MenuSearchIndex menuSearchIndex;
+    private final MenuAvailabilityService menuAvailabilityService;
+
+    /**
+     * Get the whole menu (public)
+     */
+    @GetMapping("/{restaurantId}")
+    @Operation(
+            summary = "Get public menu",
+            description = "Fetch categories, items and featured items in one document; supports If-None-Match"
+    )
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200",
+            content = @Content(schema = @Schema(implementation = PublicMenuResponse.class)))
+    public ResponseEntity<byte[]> getPublicMenu(
+            @PathVariable Long restaurantId,
+            WebRequest request) {
+        MenuReadModel.Document menu = menuReadModel.get(restaurantId);
+        return conditional(request, menu, menu.getMenu());
+    }
 
     /**
      * Get restaurant menu (public)
@@ -32,11 +67,15 @@ public class PublicMenuController {
     @GetMapping("/{restaurantId}/categories")
     @Operation(
             summary = "Get public menu categories",
-            description = "Fetch menu categories for public display"
+            description = "Fetch menu categories for public display; supports If-None-Match"
     )
-    public ResponseEntity<ApiResponse<List<CategoryResponse>>> getPublicCategories(
-            @PathVariable Long restaurantId) {
-        return ResponseEntity.ok(menuService.getRootCategories(restaurantId));
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200",
+            content = @Content(schema = @Schema(implementation = CategoryResponse.class)))
+    public ResponseEntity<byte[]> getPublicCategories(
+            @PathVariable Long restaurantId,
+            WebRequest request) {
+        MenuReadModel.Document menu = menuReadModel.get(restaurantId);
+        return conditional(request, menu, menu.getCategories());
     }
 
     /**
@@ -45,12 +84,16 @@ public class PublicMenuController {
     @GetMapping("/{restaurantId}/category/{categoryId}/items")
     @Operation(
             summary = "Get public menu items",
-            description = "Fetch menu items in a category for public display"
+            description = "Fetch menu items in a category for public display; supports If-None-Match"
     )
-    public ResponseEntity<ApiResponse<List<MenuItemResponse>>> getPublicItems(
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200",
+            content = @Content(schema = @Schema(implementation = MenuItemResponse.class)))
+    public ResponseEntity<byte[]> getPublicItems(
             @PathVariable Long restaurantId,
-            @PathVariable Long categoryId) {
-        return ResponseEntity.ok(menuService.getItemsByCategory(restaurantId, categoryId));
+            @PathVariable Long categoryId,
+            WebRequest request) {
+        MenuReadModel.Document menu = menuReadModel.get(restaurantId);
+        return conditional(request, menu, menu.items(categoryId));
     }
 
     /**
@@ -73,10 +116,73 @@ public class PublicMenuController {
     @GetMapping("/{restaurantId}/featured")
     @Operation(
             summary = "Get public featured items",
-            description = "Fetch featured menu items for public display"
+            description = "Fetch featured menu items for public display; supports If-None-Match"
+    )
+    @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200",
+            content = @Content(schema = @Schema(implementation = MenuItemResponse.class)))
+    public ResponseEntity<byte[]> getPublicFeatured(
+            @PathVariable Long restaurantId,
+            WebRequest request) {
+        MenuReadModel.Document menu = menuReadModel.get(restaurantId);
+        return conditional(request, menu, menu.getFeaturedItems());
+    }
+
+    /**
+     * Search menu items (public)
+     */
+    @GetMapping("/{restaurantId}/search")
+    @Operation(
+            summary = "Search public menu",
+            description = "Find items by words (prefix and typo tolerant) with filters and facet counts"
     )
-    public ResponseEntity<ApiResponse<List<MenuItemResponse>>> getPublicFeatured(
+    public ResponseEntity<ApiResponse<MenuSearchResponse>> searchPublicMenu(
+            @PathVariable Long restaurantId,
+            MenuSearchRequest request) {
+        return ResponseEntity.ok(ApiResponse.success("Menu search completed",
+                menuSearchIndex.search(restaurantId, request)));
+    }
+
+    /**
+     * Get live availability (public)
+     */
+    @GetMapping("/{restaurantId}/availability")
+    @Operation(
+            summary = "Get live menu availability",
+            description = "Sellable portions per stock-tracked menu item"
+    )
+    public ResponseEntity<ApiResponse<MenuAvailabilityResponse>> getPublicAvailability(
             @PathVariable Long restaurantId) {
-        return ResponseEntity.ok(menuService.getFeaturedItems(restaurantId));
+        return ResponseEntity.ok(ApiResponse.success("Menu availability fetched successfully",
+                menuAvailabilityService.getAvailability(restaurantId)));
+    }
+
+    /**
+     * Stream availability changes (public)
+     */
+    @GetMapping(value = "/{restaurantId}/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream live menu availability",
+            description = "SSE: one availability-snapshot event, then availability-delta events with changed items only " +
+                    "and items-toggled events when staff switch items on or off"
+    )
+    public SseEmitter streamPublicAvailability(@PathVariable Long restaurantId) {
+        return menuAvailabilityService.subscribe(restaurantId);
+    }
+
+    /**
+     * 304 if the client holds the document's ETag, else the pre-serialized body
+     */
+    private ResponseEntity<byte[]> conditional(WebRequest request, MenuReadModel.Document menu, byte[] body) {
+        if (request.checkNotModified(menu.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(menu.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(menu.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 }
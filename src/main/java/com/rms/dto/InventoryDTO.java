@@ -140,6 +140,11 @@ public class InventoryDTO {
 
         @Size(max = 1000)
         private String notes;
+
+        @Size(max = 100)
+        private String lotNumber; // Defaults to the reference number
+
+        private LocalDate expiryDate; // Of this delivery; null if it does not expire
     }
 
     @Data
@@ -158,6 +163,61 @@ public class InventoryDTO {
         private String notes;
     }
 
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TransferStockRequest {
+
+        private Long toBranchId; // Null: the restaurant-level item
+
+        @NotNull(message = "Quantity is required")
+        @DecimalMin(value = "0.001", message = "Quantity must be greater than 0")
+        private BigDecimal quantity;
+
+        @Size(max = 1000)
+        private String notes;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StockTransferResponse {
+
+        private Long id;
+        private String itemCode;
+        private Long fromItemId;
+        private Long fromBranchId;
+        private Long toItemId;
+        private Long toBranchId;
+        private BigDecimal quantity;
+        private BigDecimal fromQuantityAfter;
+        private BigDecimal toQuantityAfter;
+        private String referenceNumber;
+        private LocalDateTime createdAt;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StockRollupResponse {
+
+        private String itemCode;
+        private String name;
+        private InventoryItem.Unit unit;
+        private BigDecimal totalQuantity;
+        private List<BranchStock> branches;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BranchStock {
+
+        private Long branchId; // Null: restaurant-level stock
+        private Long inventoryItemId;
+        private BigDecimal quantity;
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -323,6 +383,69 @@ public class InventoryDTO {
         private BigDecimal totalValue;
     }
 
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StockBalanceResponse {
+
+        private Long inventoryItemId;
+        private String itemCode;
+        private String inventoryItemName;
+        private InventoryItem.Unit unit;
+        private BigDecimal quantity;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StockMovementSummary {
+
+        private Long inventoryItemId;
+        private String itemCode;
+        private String inventoryItemName;
+        private InventoryItem.Unit unit;
+        private BigDecimal quantityIn;
+        private BigDecimal quantityOut;
+        private BigDecimal purchaseCost;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ReorderSuggestionResponse {
+
+        private Long inventoryItemId;
+        private String itemCode;
+        private String inventoryItemName;
+        private InventoryItem.Unit unit;
+        private String supplierName;
+        private BigDecimal currentQuantity;
+        private BigDecimal dailyDemand;
+        private BigDecimal reorderPoint;
+        private BigDecimal suggestedQuantity;
+        private BigDecimal estimatedCost;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class InventoryImportResponse {
+
+        private long totalRows;
+        private long importedRows;
+        private List<ImportRowError> errors; // Rows not imported
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ImportRowError {
+
+        private long line; // Line of the row in the uploaded file
+        private String itemCode;
+        private String message;
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -0,0 +1,36 @@
+package com.rms.dto.menu;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Menu Availability Response - sellable portions per menu item
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Live sellable portions per menu item")
+public class MenuAvailabilityResponse {
+
+    private Long restaurantId;
+
+    @Schema(description = "Increases with every change, item toggles included; " +
+            "a stream event with a gap means the client should refetch",
+            example = "42")
+    private Long version;
+
+    @Schema(description = "Menu item ID -> portions that can still be sold (0 = sold out). " +
+            "Items without tracked ingredients are not listed; in a delta, null means no longer tracked")
+    private Map<Long, Integer> items;
+
+    @Schema(description = "Menu item IDs staff switched off. Snapshots only; later switches " +
+            "arrive as items-toggled events in the same version sequence")
+    private List<Long> unavailableItemIds;
+}
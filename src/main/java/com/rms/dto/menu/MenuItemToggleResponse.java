@@ -0,0 +1,31 @@
+package com.rms.dto.menu;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Menu Item Toggle Response - items staff switched on or off
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Menu items switched on or off")
+public class MenuItemToggleResponse {
+
+    private Long restaurantId;
+
+    @Schema(description = "Same sequence as the availability deltas of the stream", example = "43")
+    private Long version;
+
+    @Schema(description = "Menu item IDs whose availability changed")
+    private List<Long> itemIds;
+
+    @Schema(description = "Whether the items can now be ordered", example = "false")
+    private Boolean isAvailable;
+}
@@ -0,0 +1,35 @@
+package com.rms.dto.menu;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Menu Search Request - text query plus optional filters
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Menu search query and filters")
+public class MenuSearchRequest {
+
+    @Schema(description = "Words to find; prefixes and small typos match", example = "chiken burg")
+    private String query;
+
+    private Long categoryId;
+    private Boolean vegetarian;
+    private Boolean vegan;
+    private Boolean glutenFree;
+    private Boolean spicy;
+    private Boolean availableOnly;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+
+    @Schema(description = "Maximum number of hits returned", example = "20")
+    private Integer limit;
+}
@@ -0,0 +1,74 @@
+package com.rms.dto.menu;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Menu Search Response
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Menu search hits with facet counts")
+public class MenuSearchResponse {
+
+    private String query;
+
+    @Schema(description = "Number of items matching query and filters")
+    private Integer total;
+
+    @Schema(description = "Best matches first, at most the requested limit")
+    private List<Hit> items;
+
+    @Schema(description = "Counts over the items matching the query, before filters")
+    private Facets facets;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Hit {
+
+        private Long id;
+        private String name;
+        private String description;
+        private Long categoryId;
+        private String categoryName;
+        private BigDecimal finalPrice;
+        private String imageUrl;
+        private Boolean isAvailable;
+        private Boolean isVegetarian;
+        private Boolean isVegan;
+        private Boolean isGlutenFree;
+        private Boolean isSpicy;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Facets {
+
+        private List<FacetCount> categories;
+        private List<FacetCount> dietary;
+        private List<FacetCount> priceBands;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class FacetCount {
+
+        private String key;   // Category id, dietary flag or price band, e.g. "10-20"
+        private String label;
+        private Integer count;
+    }
+}
@@ -0,0 +1,31 @@
+package com.rms.dto.menu;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Public Menu Response - the whole customer-facing menu in one document
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Customer-facing menu: categories, active items and featured items")
+public class PublicMenuResponse {
+
+    private Long restaurantId;
+
+    @Schema(description = "Top-level categories with their active sub-categories")
+    private List<CategoryResponse> categories;
+
+    @Schema(description = "Active items in display order")
+    private List<MenuItemResponse> items;
+
+    @Schema(description = "IDs of featured items, in display order")
+    private List<Long> featuredItemIds;
+}
@@ -56,6 +56,8 @@ public class OrderDTO {
         private String specialInstructions;
 
         private List<Long> modifierIds;
+
+        private Long variantId; // Optional size/portion variant
     }
 
     @Data
@@ -70,6 +72,22 @@ public class OrderDTO {
         private String notes;
     }
 
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkUpdateOrderStatusRequest {
+
+        @NotEmpty(message = "Order IDs are required")
+        @Size(max = 200, message = "Cannot update more than 200 orders at once")
+        private List<Long> orderIds;
+
+        @NotNull(message = "Status is required")
+        private Order.OrderStatus status;
+
+        @Size(max = 500, message = "Notes cannot exceed 500 characters")
+        private String notes;
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -159,6 +177,39 @@ public class OrderDTO {
         private LocalDateTime createdAt;
     }
 
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderCursorPage<T> {
+
+        private List<T> items;
+        private String nextCursor; // Opaque; pass back as ?cursor= for the next page
+        private boolean hasMore;
+        private Long totalCount; // Only filled when includeCount=true
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkUpdateOrderStatusResponse {
+
+        private Order.OrderStatus status;
+        private int updatedCount;
+        private int failedCount;
+        private List<BulkOrderStatusResult> results; // In request order
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkOrderStatusResult {
+
+        private Long orderId;
+        private boolean updated;
+        private Order.OrderStatus fromStatus;
+        private String error;
+    }
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -0,0 +1,146 @@
+package com.rms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Demand model of one inventory item: exponentially smoothed daily order usage with
+ * multiplicative day-of-week factors, updated one observed day at a time, plus the
+ * reorder plan last derived from it
+ */
+@Entity
+@jakarta.persistence.Table(name = "inventory_forecasts",
+        indexes = {
+                @Index(name = "idx_inventory_forecast_restaurant", columnList = "restaurant_id")
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryForecast {
+
+    private static final double MIN_FACTOR = 0.2;
+    private static final double MAX_FACTOR = 5.0;
+
+    @Id
+    @Column(name = "inventory_item_id")
+    private Long inventoryItemId;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    @Column(name = "level", nullable = false)
+    private double level; // Deseasonalized daily usage
+
+    @Column(name = "error_variance", nullable = false)
+    private double errorVariance; // Smoothed squared one-day forecast error
+
+    @Column(name = "weekday_factors", nullable = false)
+    private double[] weekdayFactors; // Monday..Sunday
+
+    @Column(name = "observed_days", nullable = false)
+    private int observedDays;
+
+    @Column(name = "observed_through", nullable = false)
+    private LocalDate observedThrough;
+
+    @Column(name = "daily_demand", nullable = false, precision = 12, scale = 3)
+    private BigDecimal dailyDemand;
+
+    @Column(name = "reorder_point", nullable = false, precision = 12, scale = 3)
+    private BigDecimal reorderPoint;
+
+    @Column(name = "order_up_to", nullable = false, precision = 12, scale = 3)
+    private BigDecimal orderUpTo;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Empty model whose first observation will be firstDay
+     */
+    public static InventoryForecast start(Long inventoryItemId, Long restaurantId, LocalDate firstDay) {
+        InventoryForecast forecast = new InventoryForecast();
+        forecast.setInventoryItemId(inventoryItemId);
+        forecast.setRestaurantId(restaurantId);
+        forecast.setWeekdayFactors(filledFactors());
+        forecast.setObservedThrough(firstDay.minusDays(1));
+        forecast.setDailyDemand(BigDecimal.ZERO);
+        forecast.setReorderPoint(BigDecimal.ZERO);
+        forecast.setOrderUpTo(BigDecimal.ZERO);
+        return forecast;
+    }
+
+    /**
+     * Fold one day's usage into the model
+     *
+     * @param alpha smoothing of level and error variance
+     * @param gamma smoothing of the day-of-week factor
+     */
+    public void observe(LocalDate day, double usage, double alpha, double gamma) {
+        int weekday = day.getDayOfWeek().getValue() - 1;
+
+        if (observedDays == 0) {
+            level = usage;
+        } else {
+            double factor = weekdayFactors[weekday];
+            double error = usage - level * factor;
+            errorVariance = alpha * error * error + (1 - alpha) * errorVariance;
+            level = alpha * (usage / factor) + (1 - alpha) * level;
+            if (level > 0) {
+                double updated = gamma * (usage / level) + (1 - gamma) * factor;
+                weekdayFactors[weekday] = Math.max(MIN_FACTOR, Math.min(MAX_FACTOR, updated));
+            }
+        }
+
+        observedDays++;
+        observedThrough = day;
+    }
+
+    /**
+     * Expected usage over the given number of days starting at from
+     */
+    public double expectedUsage(LocalDate from, int days) {
+        double total = 0;
+        for (int i = 0; i < days; i++) {
+            total += level * weekdayFactors[from.plusDays(i).getDayOfWeek().getValue() - 1];
+        }
+        return total;
+    }
+
+    /**
+     * Reorder when stock falls to the lead-time usage plus safety stock, and order up to
+     * that point plus one review period of usage
+     *
+     * @param safetyFactor standard deviations of lead-time error covered (1.65 ~ 95% service level)
+     */
+    public void plan(LocalDate from, int leadTimeDays, int reviewPeriodDays, double safetyFactor) {
+        double safetyStock = safetyFactor * Math.sqrt(errorVariance * leadTimeDays);
+        double reorderAt = expectedUsage(from, leadTimeDays) + safetyStock;
+        double upTo = reorderAt + expectedUsage(from.plusDays(leadTimeDays), reviewPeriodDays);
+
+        dailyDemand = toQuantity(level);
+        reorderPoint = toQuantity(reorderAt);
+        orderUpTo = toQuantity(upTo);
+    }
+
+    private static BigDecimal toQuantity(double value) {
+        return BigDecimal.valueOf(Math.max(0, value)).setScale(3, RoundingMode.HALF_UP);
+    }
+
+    private static double[] filledFactors() {
+        double[] factors = new double[7];
+        Arrays.fill(factors, 1.0);
+        return factors;
+    }
+}
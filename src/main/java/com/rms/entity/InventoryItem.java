@@ -17,9 +17,6 @@ import java.util.List;
 
 @Entity
 @jakarta.persistence.Table(name = "inventory_items",
-        uniqueConstraints = {
-                @UniqueConstraint(columnNames = {"restaurant_id", "item_code"})
-        },
         indexes = {
                 @Index(name = "idx_inventory_restaurant", columnList = "restaurant_id"),
                 @Index(name = "idx_inventory_category", columnList = "category"),
@@ -40,7 +37,7 @@ public class InventoryItem {
     private Long restaurantId;
 
     @Column(name = "branch_id")
-    private Long branchId;
+    private Long branchId; // Null: restaurant-level stock; item codes are unique per branch
 
     @Column(name = "item_code", nullable = false, length = 50)
     private String itemCode; // SKU or unique identifier
@@ -96,6 +93,10 @@ public class InventoryItem {
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "inventoryItem", cascade = CascadeType.ALL)
     private List<MenuItemInventory> menuItemLinks = new ArrayList<>();
 
@@ -0,0 +1,51 @@
+package com.rms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One receipt of an inventory item; deductions consume open lots first-expired-first-out
+ */
+@Entity
+@jakarta.persistence.Table(name = "inventory_lots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryLot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "inventory_item_id", nullable = false)
+    private Long inventoryItemId;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    @Column(name = "lot_number", length = 100)
+    private String lotNumber; // Supplier batch number, PO or invoice reference
+
+    @Column(name = "received_quantity", nullable = false, precision = 10, scale = 3)
+    private BigDecimal receivedQuantity;
+
+    @Column(name = "remaining_quantity", nullable = false, precision = 10, scale = 3)
+    private BigDecimal remainingQuantity;
+
+    @Column(name = "cost_per_unit", precision = 10, scale = 2)
+    private BigDecimal costPerUnit;
+
+    @Column(name = "expiry_date")
+    private LocalDate expiryDate; // Null: does not expire, consumed after dated lots
+
+    @CreationTimestamp
+    @Column(name = "received_at", nullable = false, updatable = false)
+    private LocalDateTime receivedAt;
+}
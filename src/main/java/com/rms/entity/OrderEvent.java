@@ -0,0 +1,125 @@
+package com.rms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transactional outbox row for an order lifecycle side effect.
+ * Written in the same transaction as the state change, dispatched asynchronously
+ * to notifications, timeline, display and analytics by OrderEventDispatcher.
+ */
+@Entity
+@jakarta.persistence.Table(name = "order_events",
+        indexes = {
+                @Index(name = "idx_order_event_order", columnList = "order_id"),
+                @Index(name = "idx_order_event_status", columnList = "status, id")
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private EventType eventType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", length = 30)
+    private Order.OrderStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", length = 30)
+    private Order.OrderStatus toStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "timeline_event_type", length = 30)
+    private OrderTimeline.EventType timelineEventType;
+
+    @Column(name = "timeline_title", length = 200)
+    private String timelineTitle;
+
+    @Column(name = "timeline_description", length = 500)
+    private String timelineDescription;
+
+    @Column(name = "notification_message", length = 500)
+    private String notificationMessage;
+
+    @Column(name = "notify_customer", nullable = false)
+    @Builder.Default
+    private Boolean notifyCustomer = true;
+
+    @Column(name = "delivery_partner_id")
+    private Long deliveryPartnerId;
+
+    @Column(name = "delivery_assignment_id")
+    private Long deliveryAssignmentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private DispatchStatus status = DispatchStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    // Names of the handlers that processed the event, comma-separated
+    @Column(name = "delivered_to", length = 500)
+    private String deliveredTo;
+
+    // Not dispatched before this time: claimed by a dispatcher, or waiting to retry
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "dispatched_at")
+    private LocalDateTime dispatchedAt;
+
+    public static OrderEventBuilder forOrder(Order order, EventType eventType) {
+        return OrderEvent.builder()
+                .orderId(order.getId())
+                .restaurantId(order.getRestaurantId())
+                .eventType(eventType)
+                .toStatus(order.getStatus());
+    }
+
+    public enum EventType {
+        STATUS_CHANGED,
+        KITCHEN_STARTED,
+        FOOD_READY,
+        DELIVERY_ASSIGNED,
+        DELIVERY_ACCEPTED,
+        OUT_FOR_DELIVERY,
+        DELIVERED
+    }
+
+    public enum DispatchStatus {
+        PENDING,
+        DISPATCHED,
+        FAILED
+    }
+}
@@ -3,6 +3,7 @@ package com.rms.entity;
 // Payment.java
 //package com.rms.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
 import java.math.BigDecimal;
@@ -22,6 +23,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonIgnoreProperties({"order", "customer", "restaurant", "transactions", "refunds", "splitDetails",
+        "hibernateLazyInitializer"})
 public class Payment extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,66 @@
+package com.rms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Closing balance and movement totals of one inventory item for one day.
+ * Rolled up from stock_transactions by StockSnapshotJob; only days with movements have a row.
+ */
+@Entity
+@jakarta.persistence.Table(name = "stock_balance_snapshots",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_stock_snapshot_item_date",
+                        columnNames = {"inventory_item_id", "snapshot_date"})
+        },
+        indexes = {
+                @Index(name = "idx_stock_snapshot_restaurant_date", columnList = "restaurant_id, snapshot_date")
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockBalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "inventory_item_id", nullable = false)
+    private Long inventoryItemId;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Column(name = "closing_quantity", nullable = false, precision = 10, scale = 3)
+    private BigDecimal closingQuantity; // quantity_after of the day's last transaction
+
+    @Column(name = "quantity_in", nullable = false, precision = 14, scale = 3)
+    private BigDecimal quantityIn;
+
+    @Column(name = "quantity_out", nullable = false, precision = 14, scale = 3)
+    private BigDecimal quantityOut; // Positive total of the day's decreases
+
+    @Column(name = "purchase_cost", nullable = false, precision = 14, scale = 2)
+    private BigDecimal purchaseCost;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Integer transactionCount;
+
+    @Column(name = "last_transaction_id", nullable = false)
+    private Long lastTransactionId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
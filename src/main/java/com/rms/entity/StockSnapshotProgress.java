@@ -0,0 +1,32 @@
+package com.rms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Last day whose stock transactions are rolled up into stock_balance_snapshots for a restaurant
+ */
+@Entity
+@jakarta.persistence.Table(name = "stock_snapshot_progress")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockSnapshotProgress {
+
+    @Id
+    @Column(name = "restaurant_id")
+    private Long restaurantId;
+
+    @Column(name = "snapshot_through", nullable = false)
+    private LocalDate snapshotThrough;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
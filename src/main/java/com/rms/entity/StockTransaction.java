@@ -81,6 +81,7 @@ public class StockTransaction {
         PURCHASE,           // Stock received from supplier
         MANUAL_ADDITION,    // Manual stock increase
         ORDER_DEDUCTION,    // Stock used for order
+        ORDER_REVERSAL,     // Order deduction returned on cancellation
         WASTAGE,            // Stock wasted/spoiled
         MANUAL_DEDUCTION,   // Manual stock decrease
         ADJUSTMENT,         // Stock count adjustment
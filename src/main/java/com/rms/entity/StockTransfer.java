@@ -0,0 +1,63 @@
+package com.rms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Stock moved between two locations of the same item code. Booked as a TRANSFER_OUT and a
+ * TRANSFER_IN stock transaction that both carry {@link #getReferenceNumber()}.
+ */
+@Entity
+@jakarta.persistence.Table(name = "stock_transfers", indexes = {
+        @Index(name = "idx_stock_transfer_restaurant_created", columnList = "restaurant_id, created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockTransfer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    @Column(name = "item_code", nullable = false, length = 50)
+    private String itemCode;
+
+    @Column(name = "from_item_id", nullable = false)
+    private Long fromItemId;
+
+    @Column(name = "to_item_id", nullable = false)
+    private Long toItemId;
+
+    @Column(name = "from_branch_id")
+    private Long fromBranchId; // Null: restaurant-level stock
+
+    @Column(name = "to_branch_id")
+    private Long toBranchId;
+
+    @Column(nullable = false, precision = 10, scale = 3)
+    private BigDecimal quantity;
+
+    @Column(name = "performed_by", nullable = false)
+    private Long performedBy;
+
+    @Column(columnDefinition = "TEXT")
+    private String notes;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public String getReferenceNumber() {
+        return "TRF-" + id;
+    }
+}
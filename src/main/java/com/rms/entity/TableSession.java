@@ -63,6 +63,10 @@ public class TableSession {
     @Column(name = "notes", columnDefinition = "TEXT")
     private String notes;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "session", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<TableSessionGuest> guests = new ArrayList<>();
 
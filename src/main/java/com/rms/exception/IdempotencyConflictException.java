@@ -0,0 +1,11 @@
+package com.rms.exception;
+
+/**
+ * Exception thrown when a request with the same Idempotency-Key is still in progress
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
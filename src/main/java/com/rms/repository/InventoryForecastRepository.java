@@ -0,0 +1,24 @@
+package com.rms.repository;
+
+import com.rms.entity.InventoryForecast;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface InventoryForecastRepository extends JpaRepository<InventoryForecast, Long> {
+
+    List<InventoryForecast> findByRestaurantId(Long restaurantId);
+
+    /**
+     * Active items at or below their forecast reorder point, as (InventoryItem, InventoryForecast)
+     */
+    @Query("SELECT i, f FROM InventoryItem i JOIN InventoryForecast f ON f.inventoryItemId = i.id " +
+            "WHERE i.restaurantId = :restaurantId AND i.isActive = true AND f.observedDays > 0 " +
+            "AND i.currentQuantity <= f.reorderPoint " +
+            "ORDER BY i.supplierName, i.name")
+    List<Object[]> findReorderCandidates(@Param("restaurantId") Long restaurantId);
+}
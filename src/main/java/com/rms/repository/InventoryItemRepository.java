@@ -55,5 +55,25 @@ public interface InventoryItemRepository extends JpaRepository<InventoryItem, Lo
             @Param("endDate") LocalDate endDate
     );
 
-    boolean existsByRestaurantIdAndItemCode(Long restaurantId, String itemCode);
+    // A null branch id matches the restaurant-level item
+    boolean existsByRestaurantIdAndBranchIdAndItemCode(Long restaurantId, Long branchId, String itemCode);
+
+    Optional<InventoryItem> findByRestaurantIdAndBranchIdAndItemCode(Long restaurantId, Long branchId,
+                                                                    String itemCode);
+
+    /**
+     * (itemCode, branchId) of every item of the restaurant
+     */
+    @Query("SELECT i.itemCode, i.branchId FROM InventoryItem i WHERE i.restaurantId = :restaurantId")
+    List<Object[]> findItemCodesAndBranchesByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    /**
+     * (id, itemCode, branchId, name, unit, currentQuantity, isActive) of every item of the restaurant
+     */
+    @Query("SELECT i.id, i.itemCode, i.branchId, i.name, i.unit, i.currentQuantity, i.isActive " +
+            "FROM InventoryItem i WHERE i.restaurantId = :restaurantId")
+    List<Object[]> findStockPositionsByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    @Query("SELECT i.id, i.currentQuantity FROM InventoryItem i WHERE i.id IN :ids")
+    List<Object[]> findCurrentQuantitiesByIdIn(@Param("ids") List<Long> ids);
 }
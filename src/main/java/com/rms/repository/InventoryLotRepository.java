@@ -0,0 +1,23 @@
+package com.rms.repository;
+
+import com.rms.entity.InventoryLot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InventoryLotRepository extends JpaRepository<InventoryLot, Long> {
+
+    /**
+     * Open lots of the given items in FEFO order, as
+     * (inventoryItemId, lotId, remainingQuantity, expiryDate)
+     */
+    @Query("SELECT l.inventoryItemId, l.id, l.remainingQuantity, l.expiryDate FROM InventoryLot l " +
+            "WHERE l.inventoryItemId IN :inventoryItemIds AND l.remainingQuantity > 0 " +
+            "ORDER BY l.inventoryItemId, l.expiryDate ASC NULLS LAST, l.id")
+    List<Object[]> findOpenLots(@Param("inventoryItemIds") Collection<Long> inventoryItemIds);
+}
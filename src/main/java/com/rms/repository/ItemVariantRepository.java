@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +26,10 @@ public interface ItemVariantRepository extends JpaRepository<ItemVariant, Long>
     @Query("SELECT iv FROM ItemVariant iv WHERE iv.menuItem.id = :menuItemId AND iv.isDefault = true")
     Optional<ItemVariant> findByMenuItemIdAndIsDefaultTrue(@Param("menuItemId") Long menuItemId);
 
+    @Query("SELECT iv FROM ItemVariant iv WHERE iv.id IN :ids AND iv.menuItem.id IN :menuItemIds")
+    List<ItemVariant> findByIdInAndMenuItemIdIn(@Param("ids") Collection<Long> ids,
+                                                @Param("menuItemIds") Collection<Long> menuItemIds);
+
     @Modifying
     @Query("UPDATE ItemVariant iv SET iv.isDefault = false WHERE iv.menuItem.id = :menuItemId")
     void clearDefaultVariants(@Param("menuItemId") Long menuItemId);
@@ -25,6 +25,8 @@ public interface MenuCategoryRepository extends JpaRepository<MenuCategory, Long
 
     Boolean existsByRestaurantIdAndName(Long restaurantId, String name);
 
+    long countByRestaurantIdAndIsActiveTrue(Long restaurantId);
+
     @Query("SELECT c FROM MenuCategory c WHERE c.restaurantId = :restaurantId AND c.isFeatured = true AND c.isActive = true ORDER BY c.displayOrder")
     List<MenuCategory> findFeaturedCategories(@Param("restaurantId") Long restaurantId);
 
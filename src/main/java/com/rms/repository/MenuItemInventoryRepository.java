@@ -17,6 +17,15 @@ public interface MenuItemInventoryRepository extends JpaRepository<MenuItemInven
     @Query("SELECT m FROM MenuItemInventory m WHERE m.menuItem.id = :menuItemId")
     List<MenuItemInventory> findByMenuItemId(@Param("menuItemId") Long menuItemId);
 
+    /**
+     * Recipe rows of a whole restaurant as (menuItemId, inventoryItemId, quantityRequired, isOptional),
+     * grouped by menu item
+     */
+    @Query("SELECT m.menuItem.id, m.inventoryItem.id, m.quantityRequired, m.isOptional " +
+            "FROM MenuItemInventory m WHERE m.menuItem.restaurantId = :restaurantId " +
+            "ORDER BY m.menuItem.id, m.id")
+    List<Object[]> findRecipeRowsByRestaurantId(@Param("restaurantId") Long restaurantId);
+
     @Query("SELECT m FROM MenuItemInventory m WHERE m.inventoryItem.id = :inventoryItemId")
     List<MenuItemInventory> findByInventoryItemId(@Param("inventoryItemId") Long inventoryItemId);
 
@@ -1,8 +1,6 @@
 package com.rms.repository;
 
 import com.rms.entity.MenuItem;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -10,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +24,8 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
 
     Optional<MenuItem> findByIdAndRestaurantId(Long id, Long restaurantId);
 
+    List<MenuItem> findByIdInAndRestaurantId(Collection<Long> ids, Long restaurantId);
+
     Optional<MenuItem> findBySkuAndRestaurantId(String sku, Long restaurantId);
 
     Boolean existsBySkuAndRestaurantId(String sku, Long restaurantId);
@@ -38,12 +39,12 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     @Query("SELECT mi FROM MenuItem mi WHERE mi.restaurantId = :restaurantId AND mi.isActive = true AND mi.isAvailable = false")
     List<MenuItem> findUnavailableItems(@Param("restaurantId") Long restaurantId);
 
+    @Query("SELECT mi.id FROM MenuItem mi WHERE mi.restaurantId = :restaurantId AND mi.isAvailable = false")
+    List<Long> findUnavailableIdsByRestaurantId(@Param("restaurantId") Long restaurantId);
+
     @Query("SELECT mi FROM MenuItem mi WHERE mi.restaurantId = :restaurantId AND mi.stockQuantity IS NOT NULL AND mi.stockQuantity <= mi.lowStockThreshold")
     List<MenuItem> findLowStockItems(@Param("restaurantId") Long restaurantId);
 
-    @Query("SELECT mi FROM MenuItem mi WHERE mi.restaurantId = :restaurantId AND LOWER(mi.name) LIKE LOWER(CONCAT('%', :search, '%'))")
-    Page<MenuItem> searchByName(@Param("restaurantId") Long restaurantId, @Param("search") String search, Pageable pageable);
-
     @Query("SELECT mi FROM MenuItem mi WHERE mi.category.id = :categoryId AND mi.isActive = true AND mi.isAvailable = true ORDER BY mi.displayOrder")
     List<MenuItem> findAvailableItemsByCategory(@Param("categoryId") Long categoryId);
 
@@ -53,11 +54,44 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     @Query("SELECT AVG(mi.basePrice) FROM MenuItem mi WHERE mi.restaurantId = :restaurantId AND mi.isActive = true")
     BigDecimal getAveragePrice(@Param("restaurantId") Long restaurantId);
 
+    @Query("SELECT mi.id FROM MenuItem mi WHERE mi.restaurantId = :restaurantId AND mi.id IN :ids " +
+            "AND (mi.isAvailable IS NULL OR mi.isAvailable <> :isAvailable)")
+    List<Long> findIdsWithOtherAvailability(@Param("restaurantId") Long restaurantId,
+                                            @Param("ids") Collection<Long> ids,
+                                            @Param("isAvailable") Boolean isAvailable);
+
     @Modifying
-    @Query("UPDATE MenuItem mi SET mi.isAvailable = :isAvailable WHERE mi.id IN :ids")
-    void bulkUpdateAvailability(@Param("ids") List<Long> ids, @Param("isAvailable") Boolean isAvailable);
+    @Query("UPDATE MenuItem mi SET mi.isAvailable = :isAvailable, mi.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE mi.restaurantId = :restaurantId AND mi.id IN :ids")
+    int bulkUpdateAvailability(@Param("restaurantId") Long restaurantId,
+                               @Param("ids") Collection<Long> ids,
+                               @Param("isAvailable") Boolean isAvailable);
 
     @Modifying
     @Query("UPDATE MenuItem mi SET mi.stockQuantity = mi.stockQuantity - :quantity WHERE mi.id = :id AND mi.stockQuantity >= :quantity")
     int decrementStock(@Param("id") Long id, @Param("quantity") Integer quantity);
+
+    @Query("SELECT mi.id, mi.name, mi.description, c.id, c.name, mi.itemType, mi.allergenInfo, " +
+            "mi.basePrice, mi.discountedPrice, mi.isVegetarian, mi.isVegan, mi.isGlutenFree, mi.isSpicy, " +
+            "mi.isFeatured, mi.isBestSeller, mi.isAvailable, mi.displayOrder, mi.imageUrl " +
+            "FROM MenuItem mi JOIN mi.category c WHERE mi.restaurantId = :restaurantId AND mi.isActive = true")
+    List<Object[]> findSearchRowsByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    @Query("SELECT mi.id, mi.name, mi.description, c.id, c.name, mi.itemType, mi.allergenInfo, " +
+            "mi.basePrice, mi.discountedPrice, mi.isVegetarian, mi.isVegan, mi.isGlutenFree, mi.isSpicy, " +
+            "mi.isFeatured, mi.isBestSeller, mi.isAvailable, mi.displayOrder, mi.imageUrl " +
+            "FROM MenuItem mi JOIN mi.category c " +
+            "WHERE mi.restaurantId = :restaurantId AND mi.isActive = true AND mi.id IN :ids")
+    List<Object[]> findSearchRowsByRestaurantIdAndIdIn(@Param("restaurantId") Long restaurantId,
+                                                       @Param("ids") Collection<Long> ids);
+
+    @Query("SELECT mi.id, mi.isActive, mi.isAvailable, mi.isFeatured, mi.isBestSeller, mi.basePrice, " +
+            "mi.stockQuantity, mi.lowStockThreshold FROM MenuItem mi WHERE mi.restaurantId = :restaurantId")
+    List<Object[]> findStatsRowsByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    @Query("SELECT mi.id, mi.isActive, mi.isAvailable, mi.isFeatured, mi.isBestSeller, mi.basePrice, " +
+            "mi.stockQuantity, mi.lowStockThreshold FROM MenuItem mi " +
+            "WHERE mi.restaurantId = :restaurantId AND mi.id IN :ids")
+    List<Object[]> findStatsRowsByRestaurantIdAndIdIn(@Param("restaurantId") Long restaurantId,
+                                                      @Param("ids") Collection<Long> ids);
 }
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,4 +24,9 @@ public interface ModifierOptionRepository extends JpaRepository<ModifierOption,
 
     @Query("SELECT mo FROM ModifierOption mo WHERE mo.modifierGroup.id = :modifierGroupId AND mo.isDefault = true")
     Optional<ModifierOption> findByModifierGroupIdAndIsDefaultTrue(@Param("modifierGroupId") Long modifierGroupId);
+
+    @Query("SELECT mo FROM ModifierOption mo JOIN FETCH mo.modifierGroup mg " +
+            "WHERE mo.id IN :ids AND mg.restaurantId = :restaurantId")
+    List<ModifierOption> findByIdInAndRestaurantId(@Param("ids") Collection<Long> ids,
+                                                   @Param("restaurantId") Long restaurantId);
 }
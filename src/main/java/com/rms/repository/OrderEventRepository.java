@@ -0,0 +1,29 @@
+package com.rms.repository;
+
+import com.rms.entity.OrderEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+
+    /**
+     * Lock the oldest pending events that are due; rows locked by another dispatcher are skipped
+     */
+    @Query(value = "SELECT * FROM order_events WHERE status = 'PENDING' " +
+            "AND (next_attempt_at IS NULL OR next_attempt_at <= :now) " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OrderEvent> lockNextPendingBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    long countByStatus(OrderEvent.DispatchStatus status);
+
+    @Modifying
+    @Query("DELETE FROM OrderEvent e WHERE e.status = 'DISPATCHED' AND e.dispatchedAt < :before")
+    int deleteDispatchedBefore(@Param("before") LocalDateTime before);
+}
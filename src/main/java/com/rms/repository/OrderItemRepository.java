@@ -0,0 +1,36 @@
+package com.rms.repository;
+
+import com.rms.entity.OrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read-side access to order lines, used to map a batch of orders with a fixed
+ * number of statements instead of walking the lazy collections per order.
+ */
+@Repository
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    @Query("SELECT oi FROM OrderItem oi " +
+            "JOIN FETCH oi.order " +
+            "LEFT JOIN FETCH oi.modifiers " +
+            "WHERE oi.order.id IN :orderIds " +
+            "ORDER BY oi.id")
+    List<OrderItem> findWithModifiersByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("SELECT oi.order.id AS orderId, COUNT(oi) AS itemCount FROM OrderItem oi " +
+            "WHERE oi.order.id IN :orderIds " +
+            "GROUP BY oi.order.id")
+    List<ItemCount> countByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    interface ItemCount {
+        Long getOrderId();
+
+        Long getItemCount();
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +20,8 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     Optional<Order> findByIdAndRestaurantId(Long id, Long restaurantId);
 
+    List<Order> findByIdInAndRestaurantId(Collection<Long> ids, Long restaurantId);
+
     Optional<Order> findByOrderNumberAndRestaurantId(String orderNumber, Long restaurantId);
 
     Page<Order> findByRestaurantId(Long restaurantId, Pageable pageable);
@@ -41,6 +44,9 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     Page<Order> findByDeliveryManId(Long deliveryManId, Pageable pageable);
 
+    @Query("SELECT o FROM Order o WHERE o.tableSession.id = :sessionId ORDER BY o.createdAt DESC")
+    List<Order> findByTableSessionIdOrderByCreatedAtDesc(@Param("sessionId") Long sessionId);
+
     List<Order> findByRestaurantIdAndCreatedAtBetween(
             Long restaurantId, LocalDateTime startDate, LocalDateTime endDate);
 
@@ -95,4 +101,56 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findActiveOrdersForDisplay(@Param("restaurantId") Long restaurantId);
 
     boolean existsByOrderNumber(String orderNumber);
+
+    // Keyset pages over (restaurant_id, created_at, id); the caller passes the last row seen
+    // and a Pageable with offset 0, so page depth does not change the plan and no COUNT runs.
+
+    @Query("SELECT o FROM Order o WHERE o.restaurantId = :restaurantId " +
+            "AND (:customerId IS NULL OR o.customerId = :customerId) " +
+            "AND (:status IS NULL OR o.status = :status) " +
+            "AND (:orderType IS NULL OR o.orderType = :orderType) " +
+            "AND o.createdAt <= :createdAt AND (o.createdAt < :createdAt OR o.id < :id) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findRestaurantPageBefore(
+            @Param("restaurantId") Long restaurantId,
+            @Param("customerId") Long customerId,
+            @Param("status") Order.OrderStatus status,
+            @Param("orderType") Order.OrderType orderType,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    @Query("SELECT o FROM Order o WHERE o.restaurantId = :restaurantId " +
+            "AND o.createdAt >= :createdAt AND (o.createdAt > :createdAt OR o.id > :id) " +
+            "ORDER BY o.createdAt ASC, o.id ASC")
+    List<Order> findRestaurantPageAfter(
+            @Param("restaurantId") Long restaurantId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    @Query("SELECT o FROM Order o WHERE o.deliveryManId = :deliveryManId " +
+            "AND o.createdAt <= :createdAt AND (o.createdAt < :createdAt OR o.id < :id) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findDeliveryManPageBefore(
+            @Param("deliveryManId") Long deliveryManId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    @Query("SELECT COUNT(o) FROM Order o WHERE o.restaurantId = :restaurantId " +
+            "AND (:customerId IS NULL OR o.customerId = :customerId) " +
+            "AND (:status IS NULL OR o.status = :status) " +
+            "AND (:orderType IS NULL OR o.orderType = :orderType)")
+    long countRestaurantOrders(
+            @Param("restaurantId") Long restaurantId,
+            @Param("customerId") Long customerId,
+            @Param("status") Order.OrderStatus status,
+            @Param("orderType") Order.OrderType orderType
+    );
+
+    long countByDeliveryManId(Long deliveryManId);
 }
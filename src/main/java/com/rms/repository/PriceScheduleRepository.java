@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -28,4 +29,20 @@ public interface PriceScheduleRepository extends JpaRepository<PriceSchedule, Lo
             @Param("currentTime") java.time.LocalTime currentTime,
             @Param("currentDate") java.time.LocalDateTime currentDate
     );
+
+    @Query("SELECT ps FROM PriceSchedule ps WHERE ps.menuItem.id IN :menuItemIds AND ps.isActive = true " +
+            "AND (ps.dayOfWeek IS NULL OR ps.dayOfWeek = :dayOfWeek) " +
+            "AND (ps.startTime IS NULL OR :currentTime BETWEEN ps.startTime AND ps.endTime) " +
+            "AND (ps.startDate IS NULL OR :currentDate BETWEEN ps.startDate AND ps.endDate) " +
+            "ORDER BY ps.menuItem.id, ps.id DESC")
+    List<PriceSchedule> findActivePriceSchedules(
+            @Param("menuItemIds") Collection<Long> menuItemIds,
+            @Param("dayOfWeek") Integer dayOfWeek,
+            @Param("currentTime") java.time.LocalTime currentTime,
+            @Param("currentDate") java.time.LocalDateTime currentDate
+    );
+
+    @Query("SELECT ps.id, ps.menuItem.id, ps.price, ps.dayOfWeek, ps.startTime, ps.endTime, ps.startDate, ps.endDate " +
+            "FROM PriceSchedule ps WHERE ps.menuItem.restaurantId = :restaurantId AND ps.isActive = true")
+    List<Object[]> findActiveScheduleRowsByRestaurantId(@Param("restaurantId") Long restaurantId);
 }
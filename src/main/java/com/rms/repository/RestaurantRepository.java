@@ -23,6 +23,8 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
 
     Boolean existsByRestaurantCode(String restaurantCode);
 
+    boolean existsByIdAndIsActiveTrue(Long id);
+
     @Query("SELECT r FROM Restaurant r WHERE r.isActive = true AND r.subscriptionStatus = 'ACTIVE'")
     java.util.List<Restaurant> findAllActiveRestaurants();
 
@@ -0,0 +1,40 @@
+package com.rms.repository;
+
+import com.rms.entity.StockBalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface StockBalanceSnapshotRepository extends JpaRepository<StockBalanceSnapshot, Long> {
+
+    /**
+     * Roll one day of a restaurant's stock transactions up into one row per item moved that day.
+     * Re-running a day overwrites its rows, so a backfill can be repeated safely.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stock_balance_snapshots (inventory_item_id, restaurant_id, snapshot_date, " +
+            "closing_quantity, quantity_in, quantity_out, purchase_cost, transaction_count, " +
+            "last_transaction_id, created_at) " +
+            "SELECT t.inventory_item_id, t.restaurant_id, CAST(:day AS date), " +
+            "(ARRAY_AGG(t.quantity_after ORDER BY t.created_at DESC, t.id DESC))[1], " +
+            "COALESCE(SUM(t.quantity) FILTER (WHERE t.quantity > 0), 0), " +
+            "COALESCE(-SUM(t.quantity) FILTER (WHERE t.quantity < 0), 0), " +
+            "COALESCE(SUM(t.total_cost) FILTER (WHERE t.transaction_type = 'PURCHASE'), 0), " +
+            "COUNT(*), MAX(t.id), CURRENT_TIMESTAMP " +
+            "FROM stock_transactions t " +
+            "WHERE t.restaurant_id = :restaurantId " +
+            "AND t.created_at >= CAST(:day AS date) AND t.created_at < CAST(:day AS date) + 1 " +
+            "GROUP BY t.inventory_item_id, t.restaurant_id " +
+            "ON CONFLICT (inventory_item_id, snapshot_date) DO UPDATE SET " +
+            "closing_quantity = EXCLUDED.closing_quantity, quantity_in = EXCLUDED.quantity_in, " +
+            "quantity_out = EXCLUDED.quantity_out, purchase_cost = EXCLUDED.purchase_cost, " +
+            "transaction_count = EXCLUDED.transaction_count, " +
+            "last_transaction_id = EXCLUDED.last_transaction_id",
+            nativeQuery = true)
+    int rollUpDay(@Param("restaurantId") Long restaurantId, @Param("day") LocalDate day);
+}
@@ -0,0 +1,9 @@
+package com.rms.repository;
+
+import com.rms.entity.StockSnapshotProgress;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockSnapshotProgressRepository extends JpaRepository<StockSnapshotProgress, Long> {
+}
@@ -8,7 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -40,13 +40,113 @@ public interface StockTransactionRepository extends JpaRepository<StockTransacti
             Pageable pageable
     );
 
-    @Query("SELECT SUM(s.totalCost) FROM StockTransaction s " +
-            "WHERE s.restaurantId = :restaurantId " +
-            "AND s.transactionType = 'PURCHASE' " +
-            "AND s.createdAt BETWEEN :startDate AND :endDate")
-    BigDecimal calculatePurchaseCost(
+    @Query("SELECT MIN(s.createdAt) FROM StockTransaction s WHERE s.restaurantId = :restaurantId")
+    LocalDateTime findFirstTransactionAt(@Param("restaurantId") Long restaurantId);
+
+    /**
+     * Order usage per inventory item and day from fromDate (inclusive) to toDate (exclusive),
+     * as (inventoryItemId, dayOffsetFromFromDate, quantity); days without orders are absent.
+     * Cancelled orders count against the day they were cancelled.
+     */
+    @Query(value = "SELECT t.inventory_item_id, CAST(t.created_at AS date) - CAST(:fromDate AS date), " +
+            "SUM(-t.quantity) FROM stock_transactions t " +
+            "WHERE t.restaurant_id = :restaurantId AND t.transaction_type IN ('ORDER_DEDUCTION', 'ORDER_REVERSAL') " +
+            "AND t.created_at >= CAST(:fromDate AS date) AND t.created_at < CAST(:toDate AS date) " +
+            "GROUP BY t.inventory_item_id, CAST(t.created_at AS date)",
+            nativeQuery = true)
+    List<Object[]> findDailyOrderUsage(
+            @Param("restaurantId") Long restaurantId,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate
+    );
+
+    /**
+     * Quantity used by orders and quantity written off as waste in [startDate, endDate),
+     * as a single (used, wasted) row; a sum is null when there were no such transactions
+     */
+    @Query("SELECT SUM(CASE WHEN s.transactionType IN ('ORDER_DEDUCTION', 'ORDER_REVERSAL') THEN -s.quantity END), " +
+            "SUM(CASE WHEN s.transactionType = 'WASTAGE' THEN -s.quantity END) " +
+            "FROM StockTransaction s WHERE s.restaurantId = :restaurantId " +
+            "AND s.transactionType IN ('ORDER_DEDUCTION', 'ORDER_REVERSAL', 'WASTAGE') " +
+            "AND s.createdAt >= :startDate AND s.createdAt < :endDate")
+    List<Object[]> sumUsageAndWastage(
             @Param("restaurantId") Long restaurantId,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate
     );
+
+    /**
+     * What an order still holds deducted, as (inventoryItemId, quantity); items already
+     * returned by a reversal are absent
+     */
+    @Query("SELECT s.inventoryItem.id, -SUM(s.quantity) FROM StockTransaction s " +
+            "WHERE s.orderId = :orderId AND s.transactionType IN ('ORDER_DEDUCTION', 'ORDER_REVERSAL') " +
+            "GROUP BY s.inventoryItem.id HAVING SUM(s.quantity) < 0")
+    List<Object[]> findOutstandingOrderDeductions(@Param("orderId") Long orderId);
+
+    // ========== Snapshot-backed range queries (see StockBalanceSnapshot) ==========
+
+    /**
+     * Quantity of every inventory item of the restaurant at a point in time, as
+     * (inventoryItemId, quantity). Reads the item's latest daily snapshot plus the
+     * transactions after the last rolled-up day only.
+     */
+    @Query(value = "WITH bounds AS (SELECT LEAST(CAST(:at AS date), " +
+            "COALESCE((SELECT p.snapshot_through FROM stock_snapshot_progress p " +
+            "WHERE p.restaurant_id = :restaurantId), DATE '1970-01-01') + 1) AS tail_day) " +
+            "SELECT i.id, COALESCE(tail.quantity_after, snap.closing_quantity, 0) " +
+            "FROM inventory_items i CROSS JOIN bounds b " +
+            "LEFT JOIN LATERAL (SELECT s.closing_quantity FROM stock_balance_snapshots s " +
+            "WHERE s.inventory_item_id = i.id AND s.snapshot_date < b.tail_day " +
+            "ORDER BY s.snapshot_date DESC LIMIT 1) snap ON TRUE " +
+            "LEFT JOIN LATERAL (SELECT t.quantity_after FROM stock_transactions t " +
+            "WHERE t.inventory_item_id = i.id AND t.created_at >= b.tail_day AND t.created_at <= :at " +
+            "ORDER BY t.created_at DESC, t.id DESC LIMIT 1) tail ON TRUE " +
+            "WHERE i.restaurant_id = :restaurantId AND i.created_at <= :at " +
+            "ORDER BY i.id",
+            nativeQuery = true)
+    List<Object[]> findBalancesAt(
+            @Param("restaurantId") Long restaurantId,
+            @Param("at") LocalDateTime at
+    );
+
+    /**
+     * Movements per inventory item between startDate and endDate (inclusive), as
+     * (inventoryItemId, quantityIn, quantityOut, purchaseCost). Whole days from firstDay
+     * to lastDay are read from snapshots where rolled up; the partial days at the edges
+     * and the days not rolled up yet are read from stock_transactions.
+     *
+     * @param firstDay first day that starts at or after startDate
+     * @param lastDay  last day that ends at or before endDate
+     */
+    @Query(value = "WITH bounds AS (SELECT CAST(:firstDay AS date) AS first_day, " +
+            "LEAST(CAST(:lastDay AS date), " +
+            "COALESCE((SELECT p.snapshot_through FROM stock_snapshot_progress p " +
+            "WHERE p.restaurant_id = :restaurantId), DATE '1970-01-01')) AS last_day) " +
+            "SELECT m.item_id, SUM(m.quantity_in), SUM(m.quantity_out), SUM(m.purchase_cost) FROM (" +
+            "SELECT s.inventory_item_id AS item_id, s.quantity_in, s.quantity_out, s.purchase_cost " +
+            "FROM stock_balance_snapshots s CROSS JOIN bounds b " +
+            "WHERE s.restaurant_id = :restaurantId AND s.snapshot_date BETWEEN b.first_day AND b.last_day " +
+            "UNION ALL " +
+            "SELECT t.inventory_item_id, GREATEST(t.quantity, 0), GREATEST(-t.quantity, 0), " +
+            "CASE WHEN t.transaction_type = 'PURCHASE' THEN COALESCE(t.total_cost, 0) ELSE 0 END " +
+            "FROM stock_transactions t CROSS JOIN bounds b " +
+            "WHERE t.restaurant_id = :restaurantId " +
+            "AND t.created_at >= :startDate AND t.created_at <= :endDate AND t.created_at < b.first_day " +
+            "UNION ALL " +
+            "SELECT t.inventory_item_id, GREATEST(t.quantity, 0), GREATEST(-t.quantity, 0), " +
+            "CASE WHEN t.transaction_type = 'PURCHASE' THEN COALESCE(t.total_cost, 0) ELSE 0 END " +
+            "FROM stock_transactions t CROSS JOIN bounds b " +
+            "WHERE t.restaurant_id = :restaurantId " +
+            "AND t.created_at >= GREATEST(b.last_day + 1, b.first_day) " +
+            "AND t.created_at >= :startDate AND t.created_at <= :endDate" +
+            ") m GROUP BY m.item_id ORDER BY m.item_id",
+            nativeQuery = true)
+    List<Object[]> findMovementsByItem(
+            @Param("restaurantId") Long restaurantId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("firstDay") LocalDate firstDay,
+            @Param("lastDay") LocalDate lastDay
+    );
 }
@@ -0,0 +1,13 @@
+package com.rms.repository;
+
+import com.rms.entity.StockTransfer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockTransferRepository extends JpaRepository<StockTransfer, Long> {
+
+    Page<StockTransfer> findByRestaurantIdOrderByCreatedAtDesc(Long restaurantId, Pageable pageable);
+}
@@ -22,6 +22,7 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
@@ -189,7 +190,7 @@ public class DisplayService {
 
         return OrderDisplayDetail.builder()
                 .orderNumber(order.getOrderNumber())
-                .displayNumber(extractDisplayNumber(order.getOrderNumber()))
+                .displayNumber(displayNumberOf(order))
                 .tableNumber(order.getTableNumber())
                 .orderType(order.getOrderType().name())
                 .status(order.getStatus().name())
@@ -203,7 +204,7 @@ public class DisplayService {
                 .build();
     }
 
-    @Scheduled(fixedDelay = 5000) // Every 5 seconds
+    @Scheduled(fixedDelayString = "${app.display.refresh-interval-ms:5000}") // Every 5 seconds by default
     @Async
     public void refreshOrderSnapshots() {
 
@@ -224,6 +225,19 @@ public class DisplayService {
         }
     }
 
+    /**
+     * Refresh one restaurant's display right away, e.g. after an order event
+     */
+    @Transactional
+    public void refreshRestaurant(Long restaurantId) {
+        displayConfigRepository.findByRestaurantId(restaurantId)
+                .filter(config -> Boolean.TRUE.equals(config.getIsActive()))
+                .ifPresent(config -> {
+                    updateSnapshotsForRestaurant(restaurantId);
+                    notifyDisplayClients(config.getDisplayToken());
+                });
+    }
+
     private void updateSnapshotsForRestaurant(Long restaurantId) {
 
         // Get active orders
@@ -239,7 +253,7 @@ public class DisplayService {
             snapshot.setRestaurant(order.getRestaurant());
             snapshot.setOrder(order);
             snapshot.setOrderNumber(order.getOrderNumber());
-            snapshot.setDisplayNumber(extractDisplayNumber(order.getOrderNumber()));
+            snapshot.setDisplayNumber(displayNumberOf(order));
             snapshot.setTableNumber(order.getTableNumber());
             snapshot.setOrderType(order.getOrderType());
             snapshot.setDisplayStatus(mapOrderStatusToDisplayStatus(order.getStatus()));
@@ -396,10 +410,13 @@ public class DisplayService {
         }
     }
 
-    private String extractDisplayNumber(String orderNumber) {
-        // Extract numeric portion for display
+    private String displayNumberOf(Order order) {
+        if (order.getDisplayNumber() != null) {
+            return order.getDisplayNumber();
+        }
+        // Orders created before display numbers were stored
         // ORD20240202001 -> 001
-        String numeric = orderNumber.replaceAll("\\D+", "");
+        String numeric = order.getOrderNumber().replaceAll("\\D+", "");
         return numeric.substring(Math.max(0, numeric.length() - 3));
     }
 
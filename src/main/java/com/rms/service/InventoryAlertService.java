@@ -8,6 +8,7 @@ import com.rms.exception.BadRequestException;
 import com.rms.exception.ResourceNotFoundException;
 import com.rms.repository.LowStockAlertRepository;
 import com.rms.security.UserPrincipal;
+import com.rms.service.inventory.LowStockAlertEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -24,6 +25,7 @@ import java.util.stream.Collectors;
 public class InventoryAlertService {
 
     private final LowStockAlertRepository alertRepository;
+    private final LowStockAlertEngine alertEngine;
 
     @Transactional(readOnly = true)
     public Page<LowStockAlertResponse> getAlerts(UserPrincipal currentUser,
@@ -54,7 +56,7 @@ public class InventoryAlertService {
 
     @Transactional(readOnly = true)
     public Long getActiveAlertsCount(UserPrincipal currentUser) {
-        return alertRepository.countActiveAlerts(currentUser.getRestaurantId());
+        return alertEngine.getActiveCount(currentUser.getRestaurantId());
     }
 
     @Transactional
@@ -74,6 +76,7 @@ public class InventoryAlertService {
 
         alert.acknowledge(currentUser.getId());
         LowStockAlert updatedAlert = alertRepository.save(alert);
+        alertEngine.adjustActiveCountAfterCommit(alert.getRestaurantId(), -1);
 
         log.info("Alert {} acknowledged successfully", alertId);
         return mapToAlertResponse(updatedAlert);
@@ -90,8 +93,12 @@ public class InventoryAlertService {
             throw new ResourceNotFoundException("Alert not found");
         }
 
+        boolean wasActive = alert.getStatus() == LowStockAlert.AlertStatus.ACTIVE;
         alert.resolve();
         alertRepository.save(alert);
+        if (wasActive) {
+            alertEngine.adjustActiveCountAfterCommit(alert.getRestaurantId(), -1);
+        }
 
         log.info("Alert {} resolved successfully", alertId);
     }
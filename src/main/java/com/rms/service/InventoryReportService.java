@@ -16,9 +16,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -102,10 +105,60 @@ public class InventoryReportService {
     public BigDecimal calculatePurchaseCost(UserPrincipal currentUser,
                                             LocalDateTime startDate,
                                             LocalDateTime endDate) {
-        BigDecimal cost = transactionRepository.calculatePurchaseCost(
-                currentUser.getRestaurantId(), startDate, endDate);
+        return findMovements(currentUser.getRestaurantId(), startDate, endDate).stream()
+                .map(row -> (BigDecimal) row[3])
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
 
-        return cost != null ? cost : BigDecimal.ZERO;
+    /**
+     * Quantity of every inventory item at a point in time, from the daily snapshots
+     * plus the transactions not rolled up yet
+     */
+    @Transactional(readOnly = true)
+    public List<StockBalanceResponse> getStockBalances(UserPrincipal currentUser, LocalDateTime at) {
+        List<Object[]> rows = transactionRepository.findBalancesAt(currentUser.getRestaurantId(), at);
+        Map<Long, InventoryItem> items = loadItems(rows);
+
+        return rows.stream()
+                .filter(row -> items.containsKey((Long) row[0]))
+                .map(row -> {
+                    InventoryItem item = items.get((Long) row[0]);
+                    StockBalanceResponse response = new StockBalanceResponse();
+                    response.setInventoryItemId(item.getId());
+                    response.setItemCode(item.getItemCode());
+                    response.setInventoryItemName(item.getName());
+                    response.setUnit(item.getUnit());
+                    response.setQuantity((BigDecimal) row[1]);
+                    return response;
+                })
+                .toList();
+    }
+
+    /**
+     * Stock received and used per inventory item over a period (both ends inclusive)
+     */
+    @Transactional(readOnly = true)
+    public List<StockMovementSummary> getStockMovements(UserPrincipal currentUser,
+                                                        LocalDateTime startDate,
+                                                        LocalDateTime endDate) {
+        List<Object[]> rows = findMovements(currentUser.getRestaurantId(), startDate, endDate);
+        Map<Long, InventoryItem> items = loadItems(rows);
+
+        return rows.stream()
+                .filter(row -> items.containsKey((Long) row[0]))
+                .map(row -> {
+                    InventoryItem item = items.get((Long) row[0]);
+                    StockMovementSummary summary = new StockMovementSummary();
+                    summary.setInventoryItemId(item.getId());
+                    summary.setItemCode(item.getItemCode());
+                    summary.setInventoryItemName(item.getName());
+                    summary.setUnit(item.getUnit());
+                    summary.setQuantityIn((BigDecimal) row[1]);
+                    summary.setQuantityOut((BigDecimal) row[2]);
+                    summary.setPurchaseCost((BigDecimal) row[3]);
+                    return summary;
+                })
+                .toList();
     }
 
     @Transactional(readOnly = true)
@@ -121,6 +174,26 @@ public class InventoryReportService {
                 .toList();
     }
 
+    /**
+     * Whole days inside the range can be read from snapshots; the partial days at
+     * either end always come from stock_transactions
+     */
+    private List<Object[]> findMovements(Long restaurantId, LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDate firstDay = startDate.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? startDate.toLocalDate()
+                : startDate.toLocalDate().plusDays(1);
+        LocalDate lastDay = endDate.toLocalDate().minusDays(1);
+
+        return transactionRepository.findMovementsByItem(
+                restaurantId, startDate, endDate, firstDay, lastDay);
+    }
+
+    private Map<Long, InventoryItem> loadItems(List<Object[]> rows) {
+        List<Long> ids = rows.stream().map(row -> (Long) row[0]).toList();
+        return inventoryRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(InventoryItem::getId, Function.identity()));
+    }
+
     private InventoryItemResponse mapToInventoryItemResponse(InventoryItem item) {
         InventoryItemResponse response = new InventoryItemResponse();
         response.setId(item.getId());
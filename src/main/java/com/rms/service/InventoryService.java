@@ -8,17 +8,35 @@ import com.rms.exception.InsufficientStockException;
 import com.rms.exception.ResourceNotFoundException;
 import com.rms.repository.*;
 import com.rms.security.UserPrincipal;
+import com.rms.service.inventory.BranchStockIndex;
+import com.rms.service.inventory.FefoLotAllocator;
+import com.rms.service.inventory.LowStockAlertEngine;
+import com.rms.service.inventory.RecipeGraph;
+import com.rms.service.inventory.RecipeGraph.RecipeLine;
+import com.rms.service.inventory.StockDeductionWriter;
+import com.rms.service.inventory.StockDeductionWriter.DeductionLine;
+import com.rms.service.inventory.StockReservationLedger;
+import com.rms.service.menu.MenuAvailabilityService;
+import com.rms.service.support.TransactionCallbacks;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,8 +47,16 @@ public class InventoryService {
     private final InventoryItemRepository inventoryRepository;
     private final MenuItemInventoryRepository menuItemInventoryRepository;
     private final StockTransactionRepository transactionRepository;
-    private final LowStockAlertRepository alertRepository;
     private final UserRepository userRepository;
+    private final StockReservationLedger reservationLedger;
+    private final StockDeductionWriter stockDeductionWriter;
+    private final RecipeGraph recipeGraph;
+    private final MenuAvailabilityService menuAvailability;
+    private final LowStockAlertEngine alertEngine;
+    private final FefoLotAllocator lotAllocator;
+    private final BranchStockIndex branchStock;
+    private final RestaurantBranchRepository branchRepository;
+    private final StockTransferRepository transferRepository;
 
     @Transactional
     public InventoryItemResponse createInventoryItem(CreateInventoryItemRequest request,
@@ -38,9 +64,9 @@ public class InventoryService {
         log.info("Creating inventory item {} for restaurant {}",
                 request.getItemCode(), currentUser.getRestaurantId());
 
-        // Check if item code already exists
-        if (inventoryRepository.existsByRestaurantIdAndItemCode(
-                currentUser.getRestaurantId(), request.getItemCode())) {
+        // Check if item code already exists at this location
+        if (inventoryRepository.existsByRestaurantIdAndBranchIdAndItemCode(
+                currentUser.getRestaurantId(), request.getBranchId(), request.getItemCode())) {
             throw new BadRequestException("Item code already exists");
         }
 
@@ -79,7 +105,10 @@ public class InventoryService {
                     null,
                     null
             );
+            lotAllocator.receive(savedItem, request.getInitialQuantity(), request.getCostPerUnit(),
+                    request.getExpiryDate(), null);
         }
+        branchStock.invalidateAfterCommit(savedItem.getRestaurantId());
 
         log.info("Inventory item {} created successfully", savedItem.getItemCode());
         return mapToInventoryItemResponse(savedItem);
@@ -109,6 +138,12 @@ public class InventoryService {
 
         item.updateStatus();
         InventoryItem updatedItem = inventoryRepository.save(item);
+        if (request.getMinimumQuantity() != null) {
+            alertEngine.markDirty(updatedItem.getId());
+        }
+        if (request.getIsActive() != null) {
+            branchStock.invalidateAfterCommit(updatedItem.getRestaurantId());
+        }
 
         log.info("Inventory item {} updated successfully", itemId);
         return mapToInventoryItemResponse(updatedItem);
@@ -121,14 +156,19 @@ public class InventoryService {
         InventoryItem item = findItemByIdAndRestaurantId(itemId, currentUser.getRestaurantId());
 
         BigDecimal newQuantity = item.getCurrentQuantity().add(request.getQuantity());
+        BigDecimal costPerUnit = request.getCostPerUnit() != null ? request.getCostPerUnit() : item.getCostPerUnit();
         item.setCurrentQuantity(newQuantity);
+        if (request.getExpiryDate() != null
+                && (item.getExpiryDate() == null || request.getExpiryDate().isBefore(item.getExpiryDate()))) {
+            item.setExpiryDate(request.getExpiryDate());
+        }
         item.updateStatus();
 
         createStockTransaction(
                 item,
                 request.getTransactionType(),
                 request.getQuantity(),
-                request.getCostPerUnit() != null ? request.getCostPerUnit() : item.getCostPerUnit(),
+                costPerUnit,
                 currentUser.getId(),
                 request.getNotes(),
                 request.getReferenceNumber(),
@@ -136,9 +176,13 @@ public class InventoryService {
         );
 
         inventoryRepository.save(item);
+        lotAllocator.receive(item, request.getQuantity(), costPerUnit, request.getExpiryDate(),
+                request.getLotNumber() != null ? request.getLotNumber() : request.getReferenceNumber());
+        TransactionCallbacks.afterCommit(() -> reservationLedger.adjust(item.getId(), request.getQuantity()));
+        branchStock.applyAfterCommit(item.getRestaurantId(), Map.of(item.getId(), request.getQuantity()));
+        menuAvailability.refreshAfterCommit(List.of(item.getId()));
 
-        // Check if low stock alert should be resolved
-        checkAndResolveAlert(item);
+        alertEngine.markDirty(item.getId());
 
         log.info("Stock added successfully. New quantity: {}", newQuantity);
     }
@@ -171,98 +215,283 @@ public class InventoryService {
         );
 
         inventoryRepository.save(item);
+        if (request.getTransactionType() == StockTransaction.TransactionType.WASTAGE) {
+            // Spoilage is written off from the expired lots that consumption leaves behind
+            lotAllocator.writeOff(Map.of(item.getId(), request.getQuantity()));
+        } else {
+            lotAllocator.consume(Map.of(item.getId(), request.getQuantity()));
+        }
+        TransactionCallbacks.afterCommit(() -> reservationLedger.adjust(item.getId(), request.getQuantity().negate()));
+        branchStock.applyAfterCommit(item.getRestaurantId(), Map.of(item.getId(), request.getQuantity().negate()));
+        menuAvailability.refreshAfterCommit(List.of(item.getId()));
 
-        // Check if low stock alert should be created
-        checkAndCreateAlert(item);
+        alertEngine.markDirty(item.getId());
 
         log.info("Stock deducted successfully. New quantity: {}", newQuantity);
     }
 
+    /**
+     * Move stock to another location holding the same item code, creating the item there on
+     * the first transfer. Booked as a TRANSFER_OUT / TRANSFER_IN pair sharing the transfer's
+     * reference; the source's lots are drawn first-expired-first-out and arrive as one lot
+     * dated with the source's earliest expiry.
+     */
     @Transactional
-    public void deductStockForOrder(Order order, UserPrincipal currentUser) {
-        log.info("Deducting stock for order {}", order.getOrderNumber());
+    public StockTransferResponse transferStock(Long itemId, TransferStockRequest request,
+                                               UserPrincipal currentUser) {
+        log.info("Transferring {} units of inventory item {} to branch {}",
+                request.getQuantity(), itemId, request.getToBranchId());
+
+        Long restaurantId = currentUser.getRestaurantId();
+        InventoryItem source = findItemByIdAndRestaurantId(itemId, restaurantId);
+        if (Objects.equals(source.getBranchId(), request.getToBranchId())) {
+            throw new BadRequestException("Stock is already at this location");
+        }
+        if (request.getToBranchId() != null
+                && branchRepository.findByIdAndRestaurantId(request.getToBranchId(), restaurantId).isEmpty()) {
+            throw new ResourceNotFoundException("Branch not found");
+        }
+        if (source.getCurrentQuantity().compareTo(request.getQuantity()) < 0) {
+            throw new InsufficientStockException(
+                    String.format("Insufficient stock. Available: %s, Required: %s",
+                            source.getCurrentQuantity(), request.getQuantity()));
+        }
 
-        for (OrderItem orderItem : order.getOrderItems()) {
-            List<MenuItemInventory> ingredients = menuItemInventoryRepository
-                    .findByMenuItemId(orderItem.getMenuItemId());
+        InventoryItem destination = inventoryRepository
+                .findByRestaurantIdAndBranchIdAndItemCode(restaurantId, request.getToBranchId(), source.getItemCode())
+                .orElse(null);
+        boolean newLocation = destination == null;
+        if (newLocation) {
+            destination = inventoryRepository.save(copyToBranch(source, request.getToBranchId()));
+        }
+
+        StockTransfer transfer = new StockTransfer();
+        transfer.setRestaurantId(restaurantId);
+        transfer.setItemCode(source.getItemCode());
+        transfer.setFromItemId(source.getId());
+        transfer.setFromBranchId(source.getBranchId());
+        transfer.setToItemId(destination.getId());
+        transfer.setToBranchId(destination.getBranchId());
+        transfer.setQuantity(request.getQuantity());
+        transfer.setPerformedBy(currentUser.getId());
+        transfer.setNotes(request.getNotes());
+        StockTransfer savedTransfer = transferRepository.save(transfer);
+        String reference = savedTransfer.getReferenceNumber();
+        LocalDate expiryDate = source.getExpiryDate();
+
+        source.setCurrentQuantity(source.getCurrentQuantity().subtract(request.getQuantity()));
+        source.updateStatus();
+        destination.setCurrentQuantity(destination.getCurrentQuantity().add(request.getQuantity()));
+        if (expiryDate != null
+                && (destination.getExpiryDate() == null || expiryDate.isBefore(destination.getExpiryDate()))) {
+            destination.setExpiryDate(expiryDate);
+        }
+        destination.updateStatus();
+
+        createStockTransaction(source, StockTransaction.TransactionType.TRANSFER_OUT,
+                request.getQuantity().negate(), source.getCostPerUnit(), currentUser.getId(),
+                request.getNotes(), reference, null);
+        createStockTransaction(destination, StockTransaction.TransactionType.TRANSFER_IN,
+                request.getQuantity(), source.getCostPerUnit(), currentUser.getId(),
+                request.getNotes(), reference, null);
+
+        inventoryRepository.save(source);
+        inventoryRepository.save(destination);
+        lotAllocator.consume(Map.of(source.getId(), request.getQuantity()));
+        lotAllocator.receive(destination, request.getQuantity(), source.getCostPerUnit(), expiryDate, reference);
+        Long destinationId = destination.getId();
+        TransactionCallbacks.afterCommit(() -> {
+            reservationLedger.adjust(source.getId(), request.getQuantity().negate());
+            reservationLedger.adjust(destinationId, request.getQuantity());
+        });
+        if (newLocation) {
+            branchStock.invalidateAfterCommit(restaurantId);
+        } else {
+            branchStock.applyAfterCommit(restaurantId, Map.of(
+                    source.getId(), request.getQuantity().negate(),
+                    destination.getId(), request.getQuantity()));
+        }
+        menuAvailability.refreshAfterCommit(List.of(source.getId(), destination.getId()));
+        alertEngine.markDirty(List.of(source.getId(), destination.getId()));
 
-            for (MenuItemInventory ingredient : ingredients) {
-                BigDecimal requiredQuantity = ingredient.calculateRequiredQuantity(
-                        orderItem.getQuantity());
+        log.info("Transfer {} completed: {} -> {}", reference, source.getId(), destination.getId());
+        return mapToStockTransferResponse(savedTransfer, source, destination);
+    }
 
-                InventoryItem inventoryItem = ingredient.getInventoryItem();
+    /**
+     * Deduct the ingredients of a whole order set-wise: recipes come from the cached
+     * recipe graph and the touched inventory items are loaded in one query, quantities
+     * are summed per inventory item and applied with one conditional batched UPDATE,
+     * and the audit rows are batch-inserted. Lots are then drawn first-expired-first-out.
+     * Orders placed at a table draw on the stock of that table's branch.
+     */
+    @Transactional
+    public void deductStockForOrder(Order order, UserPrincipal currentUser) {
+        log.info("Deducting stock for order {}", order.getOrderNumber());
 
-                // Skip optional ingredients if out of stock
-                if (ingredient.getIsOptional() &&
-                        inventoryItem.getCurrentQuantity().compareTo(requiredQuantity) < 0) {
-                    log.warn("Optional ingredient {} is out of stock, skipping",
-                            inventoryItem.getName());
-                    continue;
+        RecipeGraph.Recipes recipes = recipeGraph.forRestaurant(order.getRestaurantId());
+        Long branchId = branchOf(order);
+        // Linked inventory item -> the item this order's location consumes
+        Map<Long, Long> located = new HashMap<>();
+        for (OrderItem orderItem : order.getOrderItems()) {
+            for (RecipeLine ingredient : recipes.ingredients(orderItem.getMenuItemId())) {
+                located.computeIfAbsent(ingredient.inventoryItemId(),
+                        itemId -> locate(order.getRestaurantId(), branchId, itemId));
+            }
+        }
+        Map<Long, InventoryItem> inventoryItems = inventoryRepository.findAllById(new HashSet<>(located.values()))
+                .stream()
+                .collect(Collectors.toMap(InventoryItem::getId, item -> item));
+
+        // TreeMap: rows are updated in id order so concurrent orders lock them consistently
+        Map<Long, BigDecimal> totals = new TreeMap<>();
+        Map<Long, InventoryItem> items = new HashMap<>();
+        List<DeductionLine> lines = new ArrayList<>();
+        // Optional share of each total, dropped if the conditional UPDATE refuses the item
+        Map<Long, BigDecimal> optionalTotals = new HashMap<>();
+        List<DeductionLine> optionalLines = new ArrayList<>();
+
+        // Required ingredients first, so optional ones only take what is left over
+        for (boolean optionalPass : new boolean[]{false, true}) {
+            for (OrderItem orderItem : order.getOrderItems()) {
+                for (RecipeLine ingredient : recipes.ingredients(orderItem.getMenuItemId())) {
+                    InventoryItem inventoryItem = inventoryItems.get(located.get(ingredient.inventoryItemId()));
+                    if (ingredient.optional() != optionalPass || inventoryItem == null) {
+                        continue;
+                    }
+
+                    BigDecimal requiredQuantity = ingredient.requiredFor(orderItem.getQuantity());
+                    BigDecimal total = totals.getOrDefault(inventoryItem.getId(), BigDecimal.ZERO)
+                            .add(requiredQuantity);
+
+                    if (inventoryItem.getCurrentQuantity().compareTo(total) < 0) {
+                        // Skip optional ingredients if out of stock
+                        if (optionalPass) {
+                            log.warn("Optional ingredient {} is out of stock, skipping",
+                                    inventoryItem.getName());
+                            continue;
+                        }
+                        throw new InsufficientStockException(
+                                String.format("Insufficient stock for %s. Available: %s, Required: %s",
+                                        inventoryItem.getName(),
+                                        inventoryItem.getCurrentQuantity(),
+                                        total));
+                    }
+
+                    totals.put(inventoryItem.getId(), total);
+                    items.put(inventoryItem.getId(), inventoryItem);
+                    DeductionLine line = new DeductionLine(inventoryItem.getId(), requiredQuantity,
+                            String.format("Order #%s - %s x%d",
+                                    order.getOrderNumber(),
+                                    orderItem.getItemName(),
+                                    orderItem.getQuantity()));
+                    if (optionalPass) {
+                        optionalTotals.merge(inventoryItem.getId(), requiredQuantity, BigDecimal::add);
+                        optionalLines.add(line);
+                    } else {
+                        lines.add(line);
+                    }
                 }
+            }
+        }
 
-                // Check stock availability
-                if (inventoryItem.getCurrentQuantity().compareTo(requiredQuantity) < 0) {
-                    throw new InsufficientStockException(
-                            String.format("Insufficient stock for %s. Available: %s, Required: %s",
-                                    inventoryItem.getName(),
-                                    inventoryItem.getCurrentQuantity(),
-                                    requiredQuantity));
+        // The quantities above were checked against the loaded rows; the conditional
+        // UPDATE is what guards against a concurrent deduction in between. A refused row
+        // deducted nothing, so it is retried with its required share only.
+        List<Long> insufficient = stockDeductionWriter.deduct(totals);
+        if (!insufficient.isEmpty()) {
+            Map<Long, BigDecimal> retry = new TreeMap<>();
+            for (Long itemId : insufficient) {
+                BigDecimal optional = optionalTotals.get(itemId);
+                if (optional == null) {
+                    throw insufficientStock(items.get(itemId), totals.get(itemId));
                 }
-
-                // Deduct stock
-                BigDecimal newQuantity = inventoryItem.getCurrentQuantity().subtract(requiredQuantity);
-                inventoryItem.setCurrentQuantity(newQuantity);
-                inventoryItem.updateStatus();
-
-                // Create transaction
-                createStockTransaction(
-                        inventoryItem,
-                        StockTransaction.TransactionType.ORDER_DEDUCTION,
-                        requiredQuantity.negate(),
-                        inventoryItem.getCostPerUnit(),
-                        currentUser.getId(),
-                        String.format("Order #%s - %s x%d",
-                                order.getOrderNumber(),
-                                orderItem.getItemName(),
-                                orderItem.getQuantity()),
-                        order.getOrderNumber(),
-                        null
-                );
-
-                // Set order ID
-                StockTransaction transaction = inventoryItem.getTransactions().get(
-                        inventoryItem.getTransactions().size() - 1);
-                transaction.setOrderId(order.getId());
-
-                inventoryRepository.save(inventoryItem);
-
-                // Check and create alert
-                checkAndCreateAlert(inventoryItem);
+                log.warn("Optional ingredient {} is out of stock, skipping", items.get(itemId).getName());
+                optionalLines.removeIf(line -> line.inventoryItemId().equals(itemId));
+                BigDecimal required = totals.remove(itemId).subtract(optional);
+                if (required.signum() > 0) {
+                    totals.put(itemId, required);
+                    retry.put(itemId, required);
+                }
+            }
+            List<Long> stillInsufficient = stockDeductionWriter.deduct(retry);
+            if (!stillInsufficient.isEmpty()) {
+                Long itemId = stillInsufficient.get(0);
+                throw insufficientStock(items.get(itemId), totals.get(itemId));
             }
         }
+        lines.addAll(optionalLines);
+        stockDeductionWriter.insertTransactions(
+                lines, order.getId(), order.getOrderNumber(), currentUser.getId());
+        lotAllocator.consume(totals, order.getId());
+
+        Map<Long, Long> deducted = new HashMap<>();
+        totals.forEach((itemId, quantity) ->
+                deducted.put(itemId, StockReservationLedger.toScaledUp(quantity)));
+        settleReservation(order.getOrderNumber(), deducted);
+        Map<Long, BigDecimal> changes = new HashMap<>();
+        totals.forEach((itemId, quantity) -> changes.put(itemId, quantity.negate()));
+        branchStock.applyAfterCommit(order.getRestaurantId(), changes);
+        menuAvailability.refreshAfterCommit(totals.keySet());
+        alertEngine.markDirty(totals.keySet());
 
         log.info("Stock deducted successfully for order {}", order.getOrderNumber());
     }
 
+    /**
+     * Put back the stock a cancelled order had deducted: whatever its ORDER_DEDUCTION rows
+     * still hold goes back to the items it came from with one ORDER_REVERSAL row each, and
+     * the recorded lot draws go back to their lots. Does nothing for an order that was never
+     * deducted or was already reversed.
+     */
+    @Transactional
+    public void restoreStockForOrder(Order order, UserPrincipal currentUser) {
+        // TreeMap: rows are updated in id order, as for a deduction
+        Map<Long, BigDecimal> restored = new TreeMap<>();
+        for (Object[] row : transactionRepository.findOutstandingOrderDeductions(order.getId())) {
+            restored.put((Long) row[0], (BigDecimal) row[1]);
+        }
+        if (restored.isEmpty()) {
+            return;
+        }
+        log.info("Restoring stock of cancelled order {}", order.getOrderNumber());
+
+        stockDeductionWriter.restore(restored, order.getId(), order.getOrderNumber(), currentUser.getId());
+        lotAllocator.returnOrder(order.getId());
+
+        TransactionCallbacks.afterCommit(() -> restored.forEach(reservationLedger::adjust));
+        branchStock.applyAfterCommit(order.getRestaurantId(), restored);
+        menuAvailability.refreshAfterCommit(restored.keySet());
+        alertEngine.markDirty(restored.keySet());
+
+        log.info("Stock restored for order {}", order.getOrderNumber());
+    }
+
     @Transactional(readOnly = true)
-    public StockAvailabilityResponse checkMenuItemAvailability(Long menuItemId,
+    public StockAvailabilityResponse checkMenuItemAvailability(Long restaurantId,
+                                                               Long menuItemId,
                                                                int quantity) {
-        List<MenuItemInventory> ingredients = menuItemInventoryRepository
-                .findByMenuItemId(menuItemId);
+        List<RecipeLine> ingredients = recipeGraph.ingredients(restaurantId, menuItemId);
+        Map<Long, InventoryItem> inventoryItems = inventoryRepository.findAllById(
+                        ingredients.stream().map(RecipeLine::inventoryItemId).toList())
+                .stream()
+                .collect(Collectors.toMap(InventoryItem::getId, item -> item));
 
         List<IngredientAvailability> ingredientList = ingredients.stream()
+                .filter(ingredient -> inventoryItems.containsKey(ingredient.inventoryItemId()))
                 .map(ingredient -> {
-                    BigDecimal required = ingredient.calculateRequiredQuantity(quantity);
-                    BigDecimal available = ingredient.getInventoryItem().getCurrentQuantity();
+                    InventoryItem inventoryItem = inventoryItems.get(ingredient.inventoryItemId());
+                    BigDecimal required = ingredient.requiredFor(quantity);
+                    BigDecimal available = inventoryItem.getCurrentQuantity();
                     boolean hasEnough = available.compareTo(required) >= 0;
 
                     IngredientAvailability avail = new IngredientAvailability();
-                    avail.setInventoryItemId(ingredient.getInventoryItem().getId());
-                    avail.setInventoryItemName(ingredient.getInventoryItem().getName());
+                    avail.setInventoryItemId(inventoryItem.getId());
+                    avail.setInventoryItemName(inventoryItem.getName());
                     avail.setRequiredQuantity(required);
                     avail.setAvailableQuantity(available);
                     avail.setIsAvailable(hasEnough);
-                    avail.setIsOptional(ingredient.getIsOptional());
+                    avail.setIsOptional(ingredient.optional());
                     return avail;
                 })
                 .collect(Collectors.toList());
@@ -277,10 +506,59 @@ public class InventoryService {
         return response;
     }
 
+    /**
+     * Reserve stock for one order line under the given reservation key (the order number).
+     * All lines of an order share the key; a failed line releases the whole reservation.
+     * The reservation is released automatically if the surrounding transaction rolls back.
+     */
+    @Transactional(readOnly = true)
+    public boolean checkAndReserve(String reservationKey, Long restaurantId, Long menuItemId, int quantity) {
+        return checkAndReserve(reservationKey, restaurantId, null, menuItemId, quantity);
+    }
+
+    /**
+     * Reserve as above against the stock of the given branch; null for the linked items
+     */
     @Transactional(readOnly = true)
-    public boolean checkAndReserve(Long menuItemId, int quantity) {
-        StockAvailabilityResponse availability = checkMenuItemAvailability(menuItemId, quantity);
-        return availability.getIsAvailable();
+    public boolean checkAndReserve(String reservationKey, Long restaurantId, Long branchId,
+                                   Long menuItemId, int quantity) {
+        List<RecipeLine> ingredients = recipeGraph.ingredients(restaurantId, menuItemId);
+
+        if (!reservationLedger.hasReservation(reservationKey)) {
+            releaseOnRollback(reservationKey);
+        }
+
+        List<Long> reservedItemIds = new ArrayList<>(ingredients.size());
+        for (RecipeLine ingredient : ingredients) {
+            Long inventoryItemId = locate(restaurantId, branchId, ingredient.inventoryItemId());
+            boolean reserved = reservationLedger.reserve(
+                    reservationKey,
+                    inventoryItemId,
+                    ingredient.requiredFor(quantity),
+                    () -> loadCurrentQuantity(inventoryItemId));
+
+            // Optional ingredients never block the order
+            if (!reserved && !ingredient.optional()) {
+                reservationLedger.release(reservationKey);
+                return false;
+            }
+            if (reserved) {
+                reservedItemIds.add(inventoryItemId);
+            }
+        }
+        menuAvailability.refreshAfterCommit(reservedItemIds);
+        return true;
+    }
+
+    /**
+     * Return reserved stock to the pool, e.g. when a pending order is cancelled, once the
+     * current transaction commits. No-op if the reservation was already committed or expired.
+     */
+    public void releaseReservation(String reservationKey) {
+        TransactionCallbacks.afterCommit(() -> {
+            Map<Long, Long> released = reservationLedger.release(reservationKey);
+            menuAvailability.refresh(released.keySet());
+        });
     }
 
     @Transactional
@@ -306,6 +584,7 @@ public class InventoryService {
         link.setNotes(request.getNotes());
 
         MenuItemInventory savedLink = menuItemInventoryRepository.save(link);
+        recipeGraph.invalidateAfterCommit(inventoryItem.getRestaurantId());
         log.info("Inventory item linked successfully");
 
         return mapToMenuItemInventoryResponse(savedLink);
@@ -348,6 +627,17 @@ public class InventoryService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public List<StockRollupResponse> getStockRollup(UserPrincipal currentUser) {
+        return branchStock.rollup(currentUser.getRestaurantId());
+    }
+
+    @Transactional(readOnly = true)
+    public Page<StockTransferResponse> getStockTransfers(UserPrincipal currentUser, Pageable pageable) {
+        return transferRepository.findByRestaurantIdOrderByCreatedAtDesc(currentUser.getRestaurantId(), pageable)
+                .map(transfer -> mapToStockTransferResponse(transfer, null, null));
+    }
+
     @Transactional(readOnly = true)
     public Page<StockTransactionResponse> getStockTransactions(Long itemId,
                                                                UserPrincipal currentUser,
@@ -385,47 +675,87 @@ public class InventoryService {
         item.addTransaction(transaction);
     }
 
-    private void checkAndCreateAlert(InventoryItem item) {
-        // Check if alert already exists
-        Optional<LowStockAlert> existingAlert = alertRepository
-                .findByInventoryItemIdAndStatus(item.getId(), LowStockAlert.AlertStatus.ACTIVE);
+    /**
+     * An empty item of the same stock at another location
+     */
+    private InventoryItem copyToBranch(InventoryItem source, Long branchId) {
+        InventoryItem item = new InventoryItem();
+        item.setRestaurantId(source.getRestaurantId());
+        item.setBranchId(branchId);
+        item.setItemCode(source.getItemCode());
+        item.setName(source.getName());
+        item.setDescription(source.getDescription());
+        item.setCategory(source.getCategory());
+        item.setUnit(source.getUnit());
+        item.setCurrentQuantity(BigDecimal.ZERO);
+        item.setMinimumQuantity(source.getMinimumQuantity());
+        item.setMaximumQuantity(source.getMaximumQuantity());
+        item.setReorderQuantity(source.getReorderQuantity());
+        item.setCostPerUnit(source.getCostPerUnit());
+        item.setSupplierName(source.getSupplierName());
+        item.setSupplierContact(source.getSupplierContact());
+        item.setIsActive(true);
+        item.updateStatus();
+        return item;
+    }
 
-        if (existingAlert.isPresent()) {
-            return; // Alert already exists
+    private void releaseOnRollback(String reservationKey) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    reservationLedger.release(reservationKey);
+                }
+            }
+        });
+    }
 
-        LowStockAlert alert = null;
+    private void settleReservation(String reservationKey, Map<Long, Long> deducted) {
+        // Whatever was reserved but not deducted goes back to the pool; whatever was
+        // deducted without a reservation is taken out of it. After commit only: a rolled
+        // back deduction keeps its reservation.
+        TransactionCallbacks.afterCommit(() -> {
+            Map<Long, Long> reserved = reservationLedger.commit(reservationKey);
+            Map<Long, Long> difference = new HashMap<>(reserved);
+            deducted.forEach((itemId, quantity) -> difference.merge(itemId, -quantity, Long::sum));
+            difference.forEach((itemId, quantity) -> {
+                if (quantity != 0) {
+                    reservationLedger.adjust(itemId,
+                            BigDecimal.valueOf(quantity, StockReservationLedger.QUANTITY_SCALE));
+                }
+            });
+        });
+    }
 
-        if (item.isOutOfStock()) {
-            alert = new LowStockAlert();
-            alert.setAlertType(LowStockAlert.AlertType.OUT_OF_STOCK);
-        } else if (item.isLowStock()) {
-            alert = new LowStockAlert();
-            alert.setAlertType(LowStockAlert.AlertType.LOW_STOCK);
-        }
+    private static InsufficientStockException insufficientStock(InventoryItem item, BigDecimal required) {
+        return new InsufficientStockException(
+                String.format("Insufficient stock for %s. Required: %s", item.getName(), required));
+    }
 
-        if (alert != null) {
-            alert.setInventoryItem(item);
-            alert.setRestaurantId(item.getRestaurantId());
-            alert.setCurrentQuantity(item.getCurrentQuantity());
-            alert.setMinimumQuantity(item.getMinimumQuantity());
-            alert.setStatus(LowStockAlert.AlertStatus.ACTIVE);
-            alertRepository.save(alert);
+    /**
+     * The item a branch consumes for the inventory item a recipe links to
+     */
+    private Long locate(Long restaurantId, Long branchId, Long inventoryItemId) {
+        return branchId != null ? branchStock.resolve(restaurantId, branchId, inventoryItemId) : inventoryItemId;
+    }
 
-            log.warn("Alert created for {}: {}", item.getName(), alert.getAlertType());
-        }
+    /**
+     * Branch of the table an order was placed at; null for orders not placed at a table
+     */
+    private static Long branchOf(Order order) {
+        TableSession session = order.getTableSession();
+        return session != null && session.getTable() != null ? session.getTable().getBranchId() : null;
     }
 
-    private void checkAndResolveAlert(InventoryItem item) {
-        if (!item.isLowStock() && !item.isOutOfStock()) {
-            alertRepository.findByInventoryItemIdAndStatus(
-                            item.getId(), LowStockAlert.AlertStatus.ACTIVE)
-                    .ifPresent(alert -> {
-                        alert.resolve();
-                        alertRepository.save(alert);
-                        log.info("Alert resolved for {}", item.getName());
-                    });
-        }
+    /**
+     * Database quantity for warming a ledger counter; only runs on the first use of an item
+     */
+    private BigDecimal loadCurrentQuantity(Long inventoryItemId) {
+        List<Object[]> rows = inventoryRepository.findCurrentQuantitiesByIdIn(List.of(inventoryItemId));
+        return rows.isEmpty() ? BigDecimal.ZERO : (BigDecimal) rows.get(0)[1];
     }
 
     private InventoryItem findItemByIdAndRestaurantId(Long itemId, Long restaurantId) {
@@ -482,6 +812,27 @@ public class InventoryService {
         return response;
     }
 
+    /**
+     * Quantities after the transfer are only known when the items are at hand
+     */
+    private StockTransferResponse mapToStockTransferResponse(StockTransfer transfer,
+                                                             InventoryItem source,
+                                                             InventoryItem destination) {
+        StockTransferResponse response = new StockTransferResponse();
+        response.setId(transfer.getId());
+        response.setItemCode(transfer.getItemCode());
+        response.setFromItemId(transfer.getFromItemId());
+        response.setFromBranchId(transfer.getFromBranchId());
+        response.setToItemId(transfer.getToItemId());
+        response.setToBranchId(transfer.getToBranchId());
+        response.setQuantity(transfer.getQuantity());
+        response.setFromQuantityAfter(source != null ? source.getCurrentQuantity() : null);
+        response.setToQuantityAfter(destination != null ? destination.getCurrentQuantity() : null);
+        response.setReferenceNumber(transfer.getReferenceNumber());
+        response.setCreatedAt(transfer.getCreatedAt());
+        return response;
+    }
+
     private MenuItemInventoryResponse mapToMenuItemInventoryResponse(MenuItemInventory link) {
         MenuItemInventoryResponse response = new MenuItemInventoryResponse();
         response.setId(link.getId());
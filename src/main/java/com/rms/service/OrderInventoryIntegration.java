@@ -75,7 +75,8 @@ public class OrderInventoryIntegration {
      *     // CHECK AVAILABILITY BEFORE CREATING ORDER
      *     for (OrderItemRequest itemRequest : request.getItems()) {
      *         StockAvailabilityResponse availability = inventoryService
-     *             .checkMenuItemAvailability(itemRequest.getMenuItemId(), itemRequest.getQuantity());
+     *             .checkMenuItemAvailability(currentUser.getRestaurantId(), itemRequest.getMenuItemId(),
+     *                 itemRequest.getQuantity());
      *
      *         if (!availability.getIsAvailable()) {
      *             throw new BadRequestException(
@@ -92,7 +93,8 @@ public class OrderInventoryIntegration {
 
         order.getOrderItems().forEach(orderItem -> {
             InventoryDTO.StockAvailabilityResponse availability = inventoryService
-                    .checkMenuItemAvailability(orderItem.getMenuItemId(), orderItem.getQuantity());
+                    .checkMenuItemAvailability(order.getRestaurantId(), orderItem.getMenuItemId(),
+                            orderItem.getQuantity());
 
             if (!availability.getIsAvailable()) {
                 throw new BadRequestException(
@@ -125,7 +127,8 @@ public class OrderInventoryIntegration {
  *    // Check stock availability before creating order
  *    for (OrderItemRequest itemRequest : request.getItems()) {
  *        StockAvailabilityResponse availability = inventoryService
- *            .checkMenuItemAvailability(itemRequest.getMenuItemId(), itemRequest.getQuantity());
+ *            .checkMenuItemAvailability(currentUser.getRestaurantId(), itemRequest.getMenuItemId(),
+ *                itemRequest.getQuantity());
  *        if (!availability.getIsAvailable()) {
  *            throw new BadRequestException(
  *                String.format("Menu item is not available. Insufficient stock."));
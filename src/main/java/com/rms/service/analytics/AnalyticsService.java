@@ -37,6 +37,7 @@ public class AnalyticsService {
     private final MenuItemRepository menuItemRepository;
     private final UserRepository userRepository;
     private final InventoryItemRepository inventoryItemRepository;
+    private final StockTransactionRepository stockTransactionRepository;
     private final Map<String, ReportExportResponse> exportReports = new ConcurrentHashMap<>();
 
     // ==================== Sales Reports ====================
@@ -410,16 +411,11 @@ public class AnalyticsService {
                 .map(i -> i.getCurrentQuantity().multiply(i.getCostPerUnit()))
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
-        List<InventoryUsage> usage = inventoryUsageRepository
-                .findByRestaurantIdAndAnalysisDate(restaurantId, date);
-
-        BigDecimal totalUsed = usage.stream()
-                .map(InventoryUsage::getQuantityUsed)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalWaste = usage.stream()
-                .map(InventoryUsage::getWastageQuantity)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Waste is what was written off that day (spoiled lots, drawn first-expired-first-out)
+        Object[] usage = stockTransactionRepository.sumUsageAndWastage(
+                restaurantId, date.atStartOfDay(), date.plusDays(1).atStartOfDay()).get(0);
+        BigDecimal totalUsed = usage[0] != null ? (BigDecimal) usage[0] : BigDecimal.ZERO;
+        BigDecimal totalWaste = usage[1] != null ? (BigDecimal) usage[1] : BigDecimal.ZERO;
 
         BigDecimal wastePercentage = totalUsed.compareTo(BigDecimal.ZERO) > 0
                 ? totalWaste.divide(totalUsed, 4, RoundingMode.HALF_UP).multiply(new BigDecimal("100"))
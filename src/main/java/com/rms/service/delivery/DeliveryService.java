@@ -5,8 +5,8 @@ import com.rms.entity.*;
 import com.rms.enums.RoleName;
 import com.rms.exception.*;
 import com.rms.repository.*;
-import com.rms.service.notification.NotificationService;
-import com.rms.service.tracking.OrderTimelineService;
+import com.rms.service.order.event.OrderEventPublisher;
+import com.rms.service.order.state.OrderStateMachine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -27,8 +27,8 @@ public class DeliveryService {
     private final OrderRepository orderRepository;
     private final DeliveryAssignmentRepository deliveryAssignmentRepository;
     private final UserRepository userRepository;
-    private final OrderTimelineService timelineService;
-    private final NotificationService notificationService;
+    private final OrderEventPublisher eventPublisher;
+    private final OrderStateMachine stateMachine;
 
     public List<DeliveryOrderResponse> getAvailableDeliveryOrders(Long restaurantId) {
 
@@ -90,12 +90,13 @@ public class DeliveryService {
 
         deliveryAssignmentRepository.save(assignment);
 
-        timelineService.addEvent(order, OrderTimeline.EventType.DELIVERY_ASSIGNED,
-                "Delivery partner assigned",
-                "Your delivery partner will pick up the order shortly");
-
-        notificationService.sendDeliveryAssignment(deliveryPartner, order);
-        notificationService.sendDeliveryPartnerAssigned(order, deliveryPartner);
+        eventPublisher.publish(OrderEvent.forOrder(order, OrderEvent.EventType.DELIVERY_ASSIGNED)
+                .timelineEventType(OrderTimeline.EventType.DELIVERY_ASSIGNED)
+                .timelineTitle("Delivery partner assigned")
+                .timelineDescription("Your delivery partner will pick up the order shortly")
+                .deliveryPartnerId(deliveryPartner.getId())
+                .deliveryAssignmentId(assignment.getId())
+                .build());
 
         log.info("Delivery partner assigned successfully: assignmentId={}", assignment.getId());
 
@@ -120,13 +121,13 @@ public class DeliveryService {
 
         deliveryAssignmentRepository.save(assignment);
 
-        timelineService.addEvent(assignment.getOrder(),
-                OrderTimeline.EventType.DELIVERY_ASSIGNED,
-                "Delivery partner on the way",
-                "Your delivery partner is heading to the restaurant");
-
-        notificationService.sendOrderUpdate(assignment.getOrder(),
-                "Delivery partner accepted your order");
+        eventPublisher.publish(OrderEvent.forOrder(assignment.getOrder(), OrderEvent.EventType.DELIVERY_ACCEPTED)
+                .timelineEventType(OrderTimeline.EventType.DELIVERY_ASSIGNED)
+                .timelineTitle("Delivery partner on the way")
+                .timelineDescription("Your delivery partner is heading to the restaurant")
+                .notificationMessage("Delivery partner accepted your order")
+                .deliveryAssignmentId(assignment.getId())
+                .build());
 
         log.info("Delivery accepted successfully");
 
@@ -159,14 +160,17 @@ public class DeliveryService {
         deliveryAssignmentRepository.save(assignment);
 
         Order order = assignment.getOrder();
-        order.setStatus(Order.OrderStatus.OUT_FOR_DELIVERY);
+        Order.OrderStatus previousStatus = stateMachine.transition(
+                order, Order.OrderStatus.OUT_FOR_DELIVERY, deliveryPartnerId);
         orderRepository.save(order);
 
-        timelineService.addEvent(order, OrderTimeline.EventType.OUT_FOR_DELIVERY,
-                "Order is on the way!",
-                "Your delivery partner is heading to your location");
-
-        notificationService.sendOrderOutForDelivery(order, assignment);
+        eventPublisher.publish(OrderEvent.forOrder(order, OrderEvent.EventType.OUT_FOR_DELIVERY)
+                .fromStatus(previousStatus)
+                .timelineEventType(OrderTimeline.EventType.OUT_FOR_DELIVERY)
+                .timelineTitle("Order is on the way!")
+                .timelineDescription("Your delivery partner is heading to your location")
+                .deliveryAssignmentId(assignment.getId())
+                .build());
 
         log.info("Order marked as picked up");
 
@@ -214,14 +218,17 @@ public class DeliveryService {
         deliveryAssignmentRepository.save(assignment);
 
         Order order = assignment.getOrder();
-        order.setStatus(Order.OrderStatus.DELIVERED);
+        Order.OrderStatus previousStatus = stateMachine.transition(
+                order, Order.OrderStatus.DELIVERED, deliveryPartnerId);
         orderRepository.save(order);
 
-        timelineService.addEvent(order, OrderTimeline.EventType.DELIVERED,
-                "Order delivered!",
-                "Your order has been delivered. Enjoy your meal!");
-
-        notificationService.sendOrderDelivered(order);
+        eventPublisher.publish(OrderEvent.forOrder(order, OrderEvent.EventType.DELIVERED)
+                .fromStatus(previousStatus)
+                .timelineEventType(OrderTimeline.EventType.DELIVERED)
+                .timelineTitle("Order delivered!")
+                .timelineDescription("Your order has been delivered. Enjoy your meal!")
+                .deliveryAssignmentId(assignment.getId())
+                .build());
 
         log.info("Order delivered successfully");
 
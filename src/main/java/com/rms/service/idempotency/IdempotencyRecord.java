@@ -0,0 +1,25 @@
+package com.rms.service.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Stored state of one idempotency key: the request fingerprint and, once the
+ * first call finished, its response.
+ */
+@Getter
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    private final String fingerprint;
+    private final boolean completed;
+    private final Object response;
+
+    public static IdempotencyRecord inProgress(String fingerprint) {
+        return new IdempotencyRecord(fingerprint, false, null);
+    }
+
+    public static IdempotencyRecord completed(String fingerprint, Object response) {
+        return new IdempotencyRecord(fingerprint, true, response);
+    }
+}
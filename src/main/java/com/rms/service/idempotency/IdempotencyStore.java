@@ -0,0 +1,26 @@
+package com.rms.service.idempotency;
+
+/**
+ * Bounded, TTL-evicting store of idempotency keys and their responses
+ */
+public interface IdempotencyStore {
+
+    String HEADER = "Idempotency-Key";
+
+    /**
+     * Atomically claim a key for a new request.
+     *
+     * @return null if the caller now owns the key, otherwise the existing record
+     */
+    IdempotencyRecord claim(String key, String fingerprint);
+
+    /**
+     * Store the response of a claimed key for the completed-key TTL
+     */
+    void complete(String key, String fingerprint, Object response);
+
+    /**
+     * Drop a claimed key after a failure so the client can retry
+     */
+    void release(String key);
+}
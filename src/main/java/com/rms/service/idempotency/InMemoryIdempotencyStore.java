@@ -0,0 +1,108 @@
+package com.rms.service.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Single-node idempotency store
+ *
+ * Entries are kept by key and, in a second index, by expiry time. Expired
+ * entries are dropped on every claim; when the store is over max-entries the
+ * entries closest to expiry go first, other than the one being written.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private static final Comparator<Entry> BY_EXPIRY = Comparator
+            .comparingLong((Entry entry) -> entry.expiresAt)
+            .thenComparingLong(entry -> entry.sequence);
+
+    private final long ttlMillis;
+    private final long inProgressTtlMillis;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> byExpiry = new TreeSet<>(BY_EXPIRY);
+    private long sequence;
+
+    public InMemoryIdempotencyStore(@Value("${app.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                                    @Value("${app.idempotency.in-progress-ttl-seconds:60}") long inProgressTtlSeconds,
+                                    @Value("${app.idempotency.max-entries:10000}") int maxEntries) {
+        this.ttlMillis = ttlMinutes * 60_000L;
+        this.inProgressTtlMillis = inProgressTtlSeconds * 1000L;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public synchronized IdempotencyRecord claim(String key, String fingerprint) {
+        long now = System.currentTimeMillis();
+        evictExpired(now);
+
+        Entry existing = entries.get(key);
+        if (existing != null) {
+            return existing.record;
+        }
+        put(key, IdempotencyRecord.inProgress(fingerprint), now + inProgressTtlMillis);
+        return null;
+    }
+
+    @Override
+    public synchronized void complete(String key, String fingerprint, Object response) {
+        put(key, IdempotencyRecord.completed(fingerprint, response), System.currentTimeMillis() + ttlMillis);
+    }
+
+    @Override
+    public synchronized void release(String key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            byExpiry.remove(removed);
+        }
+    }
+
+    private void put(String key, IdempotencyRecord record, long expiresAt) {
+        Entry entry = new Entry(key, record, expiresAt, sequence++);
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            byExpiry.remove(previous);
+        }
+        byExpiry.add(entry);
+        while (entries.size() > maxEntries) {
+            // Never the entry just written
+            Entry evicted = byExpiry.first() != entry ? byExpiry.first() : byExpiry.higher(entry);
+            if (evicted == null) {
+                break;
+            }
+            byExpiry.remove(evicted);
+            entries.remove(evicted.key);
+        }
+    }
+
+    private void evictExpired(long now) {
+        while (!byExpiry.isEmpty() && byExpiry.first().expiresAt <= now) {
+            entries.remove(byExpiry.pollFirst().key);
+        }
+    }
+
+    private static final class Entry {
+
+        private final String key;
+        private final IdempotencyRecord record;
+        private final long expiresAt;
+        private final long sequence;
+
+        private Entry(String key, IdempotencyRecord record, long expiresAt, long sequence) {
+            this.key = key;
+            this.record = record;
+            this.expiresAt = expiresAt;
+            this.sequence = sequence;
+        }
+    }
+}
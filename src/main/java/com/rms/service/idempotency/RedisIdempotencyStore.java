@@ -0,0 +1,94 @@
+package com.rms.service.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.time.Duration;
+
+/**
+ * Idempotency store shared by all nodes, backed by Redis
+ *
+ * Value format: "P|fingerprint" while in progress, "C|fingerprint|class|json" once
+ * completed. Keys expire through Redis TTLs, so the store needs no sweeper.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "redis")
+@Slf4j
+public class RedisIdempotencyStore implements IdempotencyStore {
+
+    private static final String KEY_PREFIX = "rms:idempotency:";
+    private static final String IN_PROGRESS = "P";
+    private static final String COMPLETED = "C";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration inProgressTtl;
+
+    public RedisIdempotencyStore(StringRedisTemplate redisTemplate,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                                 @Value("${app.idempotency.in-progress-ttl-seconds:60}") long inProgressTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.inProgressTtl = Duration.ofSeconds(inProgressTtlSeconds);
+    }
+
+    @Override
+    public IdempotencyRecord claim(String key, String fingerprint) {
+        Boolean claimed = redisTemplate.opsForValue()
+                .setIfAbsent(KEY_PREFIX + key, IN_PROGRESS + "|" + fingerprint, inProgressTtl);
+        if (Boolean.TRUE.equals(claimed)) {
+            return null;
+        }
+
+        String value = redisTemplate.opsForValue().get(KEY_PREFIX + key);
+        if (value == null) {
+            // Expired between the two calls, try once more
+            return claim(key, fingerprint);
+        }
+        return decode(value);
+    }
+
+    @Override
+    public void complete(String key, String fingerprint, Object response) {
+        try {
+            String className = response == null ? "" : response.getClass().getName();
+            String json = response == null ? "" : objectMapper.writeValueAsString(response);
+            redisTemplate.opsForValue().set(KEY_PREFIX + key,
+                    COMPLETED + "|" + fingerprint + "|" + className + "|" + json, ttl);
+        } catch (JsonProcessingException e) {
+            // The write itself succeeded; a retry will simply not be deduplicated
+            log.warn("Could not serialize idempotent response for key {}: {}", key, e.getMessage());
+            release(key);
+        }
+    }
+
+    @Override
+    public void release(String key) {
+        redisTemplate.delete(KEY_PREFIX + key);
+    }
+
+    private IdempotencyRecord decode(String value) {
+        String[] parts = value.split("\\|", 4);
+        if (IN_PROGRESS.equals(parts[0])) {
+            return IdempotencyRecord.inProgress(parts[1]);
+        }
+        if (parts[2].isEmpty()) {
+            return IdempotencyRecord.completed(parts[1], null);
+        }
+        try {
+            Class<?> type = ClassUtils.forName(parts[2], null);
+            return IdempotencyRecord.completed(parts[1], objectMapper.readValue(parts[3], type));
+        } catch (ClassNotFoundException | JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable idempotent response of type " + parts[2], e);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.rms.service.inventory;
+
+import com.rms.dto.InventoryDTO.BranchStock;
+import com.rms.dto.InventoryDTO.StockRollupResponse;
+import com.rms.entity.InventoryItem;
+import com.rms.repository.InventoryItemRepository;
+import com.rms.service.support.SnapshotCache;
+import com.rms.service.support.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-restaurant index of stock by item code and location.
+ *
+ * Items sharing an item code are the same stock held at different locations: one item per
+ * branch plus, optionally, a restaurant-level item without a branch. The index is loaded
+ * with one query per restaurant and then moved by the quantity changes of committed
+ * transactions, so the rollup across locations is kept incrementally instead of summing
+ * inventory_items on each request, and an order's ingredients are resolved to its branch's
+ * items in memory. New or (de)activated items drop the restaurant's index; the TTL bounds
+ * drift from changes made elsewhere (other nodes, SQL).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BranchStockIndex {
+
+    // Key of the restaurant-level location in the per-code maps
+    private static final long NO_BRANCH = 0L;
+
+    private final InventoryItemRepository inventoryRepository;
+
+    @Value("${app.inventory.branches.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final SnapshotCache<Long, Locations> byRestaurant = new SnapshotCache<>();
+
+    /**
+     * The branch's own item for the stock a recipe links to. Recipes link one item per
+     * ingredient; the same code held at the branch is what its orders consume. A branch
+     * without an active item of that code draws on the restaurant-level item, and failing
+     * that on the linked item itself.
+     */
+    public Long resolve(Long restaurantId, Long branchId, Long inventoryItemId) {
+        if (branchId == null) {
+            return inventoryItemId;
+        }
+        return forRestaurant(restaurantId).resolve(branchId, inventoryItemId);
+    }
+
+    /**
+     * Active stock per item code, totalled across locations, ordered by code
+     */
+    public List<StockRollupResponse> rollup(Long restaurantId) {
+        return forRestaurant(restaurantId).rollup();
+    }
+
+    /**
+     * Move the indexed quantities by the given signed changes per inventory item once the
+     * current transaction commits
+     */
+    public void applyAfterCommit(Long restaurantId, Map<Long, BigDecimal> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Map<Long, BigDecimal> committed = Map.copyOf(changes);
+        TransactionCallbacks.afterCommit(() -> {
+            Locations cached = byRestaurant.changed(restaurantId);
+            if (cached != null && !cached.apply(committed)) {
+                byRestaurant.remove(restaurantId, cached); // an item the index has not seen yet
+            }
+        });
+    }
+
+    /**
+     * Drop the restaurant's index once the current transaction commits, so a reload cannot
+     * read the items before the change is visible
+     */
+    public void invalidateAfterCommit(Long restaurantId) {
+        TransactionCallbacks.afterCommit(() -> invalidate(restaurantId));
+    }
+
+    public void invalidate(Long restaurantId) {
+        byRestaurant.invalidate(restaurantId);
+    }
+
+    private Locations forRestaurant(Long restaurantId) {
+        return byRestaurant.get(restaurantId, ttlSeconds, this::load);
+    }
+
+    private Locations load(Long restaurantId) {
+        Locations loaded = new Locations(inventoryRepository.findStockPositionsByRestaurantId(restaurantId));
+        log.debug("Branch stock index loaded for restaurant {}: {} item codes", restaurantId, loaded.codes());
+        return loaded;
+    }
+
+    /**
+     * One item at one location; quantity moves with committed changes
+     */
+    private static final class Position {
+
+        private final long id;
+        private final String itemCode;
+        private final Long branchId;
+        private final String name;
+        private final InventoryItem.Unit unit;
+        private final boolean active;
+        private BigDecimal quantity;
+
+        private Position(Object[] row) {
+            this.id = (Long) row[0];
+            this.itemCode = (String) row[1];
+            this.branchId = (Long) row[2];
+            this.name = (String) row[3];
+            this.unit = (InventoryItem.Unit) row[4];
+            this.quantity = (BigDecimal) row[5];
+            this.active = Boolean.TRUE.equals(row[6]);
+        }
+    }
+
+    /**
+     * One restaurant's items by code and location; guarded by the instance's monitor
+     */
+    private static final class Locations {
+
+        private final Map<Long, Position> items = new HashMap<>();
+        // item code -> branch id (NO_BRANCH for restaurant level) -> active item
+        private final Map<String, Map<Long, Position>> byCode = new TreeMap<>();
+        private final Map<String, BigDecimal> totals = new HashMap<>();
+
+        /**
+         * @param rows (id, itemCode, branchId, name, unit, currentQuantity, isActive)
+         */
+        private Locations(List<Object[]> rows) {
+            for (Object[] row : rows) {
+                Position position = new Position(row);
+                items.put(position.id, position);
+                if (position.active) {
+                    byCode.computeIfAbsent(position.itemCode, code -> new HashMap<>())
+                            .put(branchKey(position.branchId), position);
+                    totals.merge(position.itemCode, position.quantity, BigDecimal::add);
+                }
+            }
+        }
+
+        private synchronized Long resolve(long branchId, Long inventoryItemId) {
+            Position linked = items.get(inventoryItemId);
+            if (linked == null) {
+                return inventoryItemId;
+            }
+            Map<Long, Position> locations = byCode.getOrDefault(linked.itemCode, Map.of());
+            Position local = locations.get(branchId);
+            if (local == null) {
+                local = locations.get(NO_BRANCH);
+            }
+            return local != null ? local.id : inventoryItemId;
+        }
+
+        /**
+         * @return false if a change is for an item the index does not hold
+         */
+        private synchronized boolean apply(Map<Long, BigDecimal> changes) {
+            for (Map.Entry<Long, BigDecimal> change : changes.entrySet()) {
+                Position position = items.get(change.getKey());
+                if (position == null) {
+                    return false;
+                }
+                position.quantity = position.quantity.add(change.getValue());
+                if (position.active) {
+                    totals.merge(position.itemCode, change.getValue(), BigDecimal::add);
+                }
+            }
+            return true;
+        }
+
+        private synchronized List<StockRollupResponse> rollup() {
+            List<StockRollupResponse> rollup = new ArrayList<>(byCode.size());
+            byCode.forEach((code, locations) -> {
+                List<Position> positions = locations.values().stream()
+                        .sorted(Comparator.comparing(position -> branchKey(position.branchId)))
+                        .toList();
+                Position first = positions.get(0);
+                List<BranchStock> branches = positions.stream()
+                        .map(position -> new BranchStock(position.branchId, position.id, position.quantity))
+                        .toList();
+                rollup.add(new StockRollupResponse(code, first.name, first.unit, totals.get(code), branches));
+            });
+            return rollup;
+        }
+
+        private synchronized int codes() {
+            return byCode.size();
+        }
+
+        private static long branchKey(Long branchId) {
+            return branchId != null ? branchId : NO_BRANCH;
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package com.rms.service.inventory;
+
+import com.rms.entity.InventoryItem;
+import com.rms.entity.InventoryLot;
+import com.rms.repository.InventoryLotRepository;
+import com.rms.service.support.SnapshotCache;
+import com.rms.service.support.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * First-expired-first-out lot allocation.
+ *
+ * inventory_items.current_quantity stays the authoritative total; lots break it down by
+ * receipt. Each item's open lots are cached as a set ordered by expiry (undated lots last)
+ * and receipt, so a deduction is planned in memory and applied with one conditional
+ * batched UPDATE. A lot that no longer holds what the cache said makes that item reload
+ * from the database and re-plan once. Lots past their expiry date are never drawn from
+ * by consumption; they stay open until written off as wastage, which takes them first. An order's draws are recorded so that cancelling it
+ * returns the quantities to the lots they came from. The cache only changes after commit;
+ * the TTL bounds staleness caused by changes made elsewhere (other nodes, SQL).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FefoLotAllocator {
+
+    private static final String CONSUME_SQL =
+            "UPDATE inventory_lots SET remaining_quantity = remaining_quantity - ? " +
+            "WHERE id = ? AND remaining_quantity >= ?";
+
+    private static final String RECORD_DRAW_SQL =
+            "INSERT INTO inventory_lot_draws (order_id, lot_id, quantity) VALUES (?, ?, ?)";
+
+    // Deleting the draws in the same statement keeps a second return from adding them twice
+    private static final String RETURN_DRAWS_SQL =
+            "WITH returned AS (DELETE FROM inventory_lot_draws WHERE order_id = ? RETURNING lot_id, quantity) " +
+            "UPDATE inventory_lots l SET remaining_quantity = l.remaining_quantity + r.quantity " +
+            "FROM (SELECT lot_id, SUM(quantity) AS quantity FROM returned GROUP BY lot_id) r " +
+            "WHERE l.id = r.lot_id RETURNING l.inventory_item_id";
+
+    private static final Comparator<OpenLot> FEFO = Comparator
+            .comparing(OpenLot::expiryDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingLong(OpenLot::id);
+
+    private final InventoryLotRepository lotRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.inventory.lots.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    private final SnapshotCache<Long, ItemLots> byItem = new SnapshotCache<>();
+
+    /**
+     * Record a receipt of the item as a new lot
+     */
+    public InventoryLot receive(InventoryItem item, BigDecimal quantity, BigDecimal costPerUnit,
+                                LocalDate expiryDate, String lotNumber) {
+        InventoryLot lot = new InventoryLot();
+        lot.setInventoryItemId(item.getId());
+        lot.setRestaurantId(item.getRestaurantId());
+        lot.setLotNumber(lotNumber);
+        lot.setReceivedQuantity(quantity);
+        lot.setRemainingQuantity(quantity);
+        lot.setCostPerUnit(costPerUnit);
+        lot.setExpiryDate(expiryDate);
+        InventoryLot saved = lotRepository.save(lot);
+
+        OpenLot open = new OpenLot(saved.getId(), expiryDate, quantity);
+        TransactionCallbacks.afterCommit(() -> {
+            ItemLots cached = byItem.changed(item.getId());
+            if (cached != null) {
+                cached.add(open);
+            }
+        });
+        return saved;
+    }
+
+    /**
+     * Take the given quantity per inventory item from its open lots, earliest expiry first.
+     * Lots short of an item's quantity are logged rather than failing the deduction: the
+     * item total has already been checked and updated by the caller.
+     */
+    public void consume(Map<Long, BigDecimal> quantities) {
+        draw(quantities, null, false);
+    }
+
+    /**
+     * As {@link #consume(Map)}, recording the draws against the order when one is given
+     */
+    public void consume(Map<Long, BigDecimal> quantities, Long orderId) {
+        draw(quantities, orderId, false);
+    }
+
+    /**
+     * Take written-off stock from expired lots first, then earliest expiry first
+     */
+    public void writeOff(Map<Long, BigDecimal> quantities) {
+        draw(quantities, null, true);
+    }
+
+    private void draw(Map<Long, BigDecimal> quantities, Long orderId, boolean writeOff) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        Map<Long, List<OpenLot>> lots = openLots(quantities.keySet(), false);
+        List<Draw> draws = plan(quantities, lots, today, writeOff);
+        Set<Long> stale = apply(draws);
+        List<Draw> redraws = List.of();
+
+        if (!stale.isEmpty()) {
+            // Re-plan what the refused draws did not take, against the lots as they are now
+            redraws = plan(shortfall(quantities, draws, stale), openLots(stale, true), today, writeOff);
+            Set<Long> failed = apply(redraws);
+            if (!failed.isEmpty()) {
+                log.warn("Lots of inventory items {} changed concurrently; lot quantities left as they are", failed);
+            }
+        }
+        if (orderId != null) {
+            record(orderId, draws, redraws);
+        }
+
+        Set<Long> consumed = new HashSet<>(quantities.keySet());
+        TransactionCallbacks.afterCommit(() -> {
+            for (Long itemId : consumed) {
+                ItemLots cached = byItem.changed(itemId);
+                if (cached == null) {
+                    continue;
+                }
+                if (stale.contains(itemId)) {
+                    byItem.remove(itemId, cached);
+                } else {
+                    draws.stream()
+                            .filter(draw -> draw.applied && draw.inventoryItemId() == itemId)
+                            .forEach(draw -> cached.take(draw.lotId(), draw.quantity()));
+                }
+            }
+        });
+    }
+
+    /**
+     * Return everything drawn for the order to the lots it was drawn from
+     */
+    public void returnOrder(Long orderId) {
+        List<Long> returned = jdbcTemplate.queryForList(RETURN_DRAWS_SQL, Long.class, orderId);
+        if (returned.isEmpty()) {
+            return;
+        }
+
+        Set<Long> itemIds = new HashSet<>(returned);
+        TransactionCallbacks.afterCommit(() -> itemIds.forEach(byItem::invalidate));
+    }
+
+    public void invalidate(Long inventoryItemId) {
+        byItem.invalidate(inventoryItemId);
+    }
+
+    /**
+     * Open lots per item in FEFO order, from the cache where fresh; one query for the rest
+     */
+    private Map<Long, List<OpenLot>> openLots(Collection<Long> inventoryItemIds, boolean reload) {
+        Map<Long, List<OpenLot>> lots = new HashMap<>();
+        Map<Long, SnapshotCache.Stamp> cold = new LinkedHashMap<>();
+        for (Long itemId : inventoryItemIds) {
+            ItemLots cached = reload ? null : byItem.getFresh(itemId, ttlSeconds);
+            if (cached != null) {
+                lots.put(itemId, cached.snapshot());
+            } else {
+                cold.put(itemId, byItem.stamp(itemId));
+            }
+        }
+        if (cold.isEmpty()) {
+            return lots;
+        }
+
+        Map<Long, List<OpenLot>> loaded = new HashMap<>();
+        for (Object[] row : lotRepository.findOpenLots(List.copyOf(cold.keySet()))) {
+            loaded.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add(new OpenLot((Long) row[1], (LocalDate) row[3], (BigDecimal) row[2]));
+        }
+        cold.forEach((itemId, stamp) -> {
+            List<OpenLot> itemLots = loaded.getOrDefault(itemId, List.of());
+            lots.put(itemId, itemLots);
+            // A reload inside the transaction already sees its own draws; only cache clean reads
+            if (!reload) {
+                byItem.putIfUnchanged(itemId, new ItemLots(itemLots), stamp);
+            }
+        });
+        return lots;
+    }
+
+    /**
+     * Lots come in FEFO order, so expired lots are at the front: a write-off takes them first,
+     * consumption skips them
+     */
+    static List<Draw> plan(Map<Long, BigDecimal> quantities, Map<Long, List<OpenLot>> lots, LocalDate today,
+                           boolean writeOff) {
+        List<Draw> draws = new ArrayList<>();
+        quantities.forEach((itemId, quantity) -> {
+            BigDecimal left = quantity;
+            for (OpenLot lot : lots.getOrDefault(itemId, List.of())) {
+                if (left.signum() <= 0) {
+                    break;
+                }
+                if (!writeOff && lot.expiryDate() != null && lot.expiryDate().isBefore(today)) {
+                    continue; // Expired stock is written off, not served
+                }
+                BigDecimal take = left.min(lot.remaining());
+                if (take.signum() > 0) {
+                    draws.add(new Draw(itemId, lot.id(), take));
+                    left = left.subtract(take);
+                }
+            }
+            if (left.signum() > 0) {
+                log.warn("{} lots of inventory item {} are {} short of the deducted quantity",
+                        writeOff ? "Open" : "Unexpired open", itemId, left);
+            }
+        });
+        return draws;
+    }
+
+    /**
+     * @return items with a draw the database refused because the lot held less than planned
+     */
+    private Set<Long> apply(List<Draw> draws) {
+        Set<Long> stale = new HashSet<>();
+        if (draws.isEmpty()) {
+            return stale;
+        }
+
+        int[][] updateCounts = jdbcTemplate.batchUpdate(CONSUME_SQL, draws, batchSize,
+                (ps, draw) -> {
+                    ps.setBigDecimal(1, draw.quantity());
+                    ps.setLong(2, draw.lotId());
+                    ps.setBigDecimal(3, draw.quantity());
+                });
+
+        int index = 0;
+        for (int[] batch : updateCounts) {
+            for (int count : batch) {
+                Draw draw = draws.get(index++);
+                draw.applied = count > 0;
+                if (!draw.applied) {
+                    stale.add(draw.inventoryItemId());
+                }
+            }
+        }
+        return stale;
+    }
+
+    private void record(Long orderId, List<Draw> draws, List<Draw> redraws) {
+        List<Draw> applied = new ArrayList<>();
+        for (List<Draw> pass : List.of(draws, redraws)) {
+            pass.stream().filter(draw -> draw.applied).forEach(applied::add);
+        }
+        if (applied.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(RECORD_DRAW_SQL, applied, batchSize, (ps, draw) -> {
+            ps.setLong(1, orderId);
+            ps.setLong(2, draw.lotId());
+            ps.setBigDecimal(3, draw.quantity());
+        });
+    }
+
+    private static Map<Long, BigDecimal> shortfall(Map<Long, BigDecimal> quantities, List<Draw> draws,
+                                                   Set<Long> stale) {
+        Map<Long, BigDecimal> missing = new HashMap<>();
+        for (Long itemId : stale) {
+            missing.put(itemId, quantities.get(itemId));
+        }
+        for (Draw draw : draws) {
+            if (draw.applied && stale.contains(draw.inventoryItemId())) {
+                missing.merge(draw.inventoryItemId(), draw.quantity().negate(), BigDecimal::add);
+            }
+        }
+        return missing;
+    }
+
+    record OpenLot(long id, LocalDate expiryDate, BigDecimal remaining) {
+    }
+
+    static final class Draw {
+
+        private final long inventoryItemId;
+        private final long lotId;
+        private final BigDecimal quantity;
+        private boolean applied;
+
+        Draw(long inventoryItemId, long lotId, BigDecimal quantity) {
+            this.inventoryItemId = inventoryItemId;
+            this.lotId = lotId;
+            this.quantity = quantity;
+        }
+
+        long inventoryItemId() {
+            return inventoryItemId;
+        }
+
+        long lotId() {
+            return lotId;
+        }
+
+        BigDecimal quantity() {
+            return quantity;
+        }
+    }
+
+    /**
+     * One item's open lots in FEFO order; guarded by the instance's monitor
+     */
+    private static final class ItemLots {
+
+        private final TreeSet<OpenLot> lots = new TreeSet<>(FEFO);
+
+        private ItemLots(List<OpenLot> open) {
+            lots.addAll(open);
+        }
+
+        private synchronized List<OpenLot> snapshot() {
+            return new ArrayList<>(lots);
+        }
+
+        private synchronized void add(OpenLot lot) {
+            lots.add(lot);
+        }
+
+        private synchronized void take(long lotId, BigDecimal quantity) {
+            for (OpenLot lot : lots) {
+                if (lot.id() == lotId) {
+                    lots.remove(lot);
+                    BigDecimal remaining = lot.remaining().subtract(quantity);
+                    if (remaining.signum() > 0) {
+                        lots.add(new OpenLot(lot.id(), lot.expiryDate(), remaining));
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
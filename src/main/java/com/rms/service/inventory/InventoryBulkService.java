@@ -0,0 +1,505 @@
+package com.rms.service.inventory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rms.dto.InventoryDTO.CreateInventoryItemRequest;
+import com.rms.dto.InventoryDTO.ImportRowError;
+import com.rms.dto.InventoryDTO.InventoryImportResponse;
+import com.rms.entity.InventoryItem;
+import com.rms.entity.RestaurantBranch;
+import com.rms.exception.BadRequestException;
+import com.rms.repository.InventoryItemRepository;
+import com.rms.repository.RestaurantBranchRepository;
+import com.rms.security.UserPrincipal;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk inventory import and export for onboarding and backups.
+ *
+ * Import parses the upload one row at a time, validates each row like a single create,
+ * checks item codes against the restaurant's codes per branch, loaded once, and inserts
+ * accepted rows in JDBC batches, one transaction per chunk. A row that fails is reported
+ * with its line and does not stop the others. Export streams rows from a database cursor in the same
+ * format, so an export can be edited and imported elsewhere.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryBulkService {
+
+    public static final List<String> COLUMNS = List.of(
+            "itemCode", "name", "description", "category", "unit", "initialQuantity",
+            "minimumQuantity", "maximumQuantity", "reorderQuantity", "costPerUnit",
+            "supplierName", "supplierContact", "expiryDate", "storageLocation", "notes", "branchId");
+
+    // A concurrent create of the same code is reported as a row error instead of failing the chunk
+    private static final String INSERT_ITEM_SQL =
+            "INSERT INTO inventory_items (restaurant_id, branch_id, item_code, name, description, category, " +
+            "unit, current_quantity, minimum_quantity, maximum_quantity, reorder_quantity, cost_per_unit, " +
+            "supplier_name, supplier_contact, status, expiry_date, storage_location, notes, is_active, " +
+            "version, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE, 0, ?, ?) " +
+            "ON CONFLICT (restaurant_id, (COALESCE(branch_id, 0)), item_code) DO NOTHING";
+
+    private static final String INSERT_TRANSACTION_SQL =
+            "INSERT INTO stock_transactions (inventory_item_id, restaurant_id, transaction_type, quantity, " +
+            "quantity_before, quantity_after, cost_per_unit, total_cost, performed_by, notes, created_at) " +
+            "SELECT i.id, i.restaurant_id, 'MANUAL_ADDITION', i.current_quantity, 0, i.current_quantity, " +
+            "i.cost_per_unit, i.current_quantity * i.cost_per_unit, ?, 'Initial stock', ? " +
+            "FROM inventory_items i WHERE i.restaurant_id = ? AND COALESCE(i.branch_id, 0) = ? " +
+            "AND i.item_code = ?";
+
+    private static final String INSERT_LOT_SQL =
+            "INSERT INTO inventory_lots (inventory_item_id, restaurant_id, received_quantity, " +
+            "remaining_quantity, cost_per_unit, expiry_date, received_at) " +
+            "SELECT i.id, i.restaurant_id, i.current_quantity, i.current_quantity, i.cost_per_unit, " +
+            "i.expiry_date, ? FROM inventory_items i WHERE i.restaurant_id = ? AND COALESCE(i.branch_id, 0) = ? " +
+            "AND i.item_code = ?";
+
+    private static final String EXPORT_SQL =
+            "SELECT item_code, name, description, category, unit, current_quantity, minimum_quantity, " +
+            "maximum_quantity, reorder_quantity, cost_per_unit, supplier_name, supplier_contact, " +
+            "expiry_date, storage_location, notes, branch_id " +
+            "FROM inventory_items WHERE restaurant_id = ? ORDER BY item_code";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryItemRepository inventoryRepository;
+    private final RestaurantBranchRepository branchRepository;
+    private final BranchStockIndex branchStock;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Value("${app.inventory.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.inventory.bulk.export-fetch-size:500}")
+    private int exportFetchSize;
+
+    public enum Format {
+        CSV("text/csv"),
+        JSONL("application/x-ndjson");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public static Format fromContentType(String contentType) {
+            for (Format format : values()) {
+                if (contentType != null && contentType.toLowerCase().startsWith(format.contentType)) {
+                    return format;
+                }
+            }
+            throw new BadRequestException("Unsupported import format: " + contentType);
+        }
+    }
+
+    public InventoryImportResponse importItems(InputStream body, Format format, UserPrincipal currentUser) {
+        Long restaurantId = currentUser.getRestaurantId();
+        Set<String> existingCodes = inventoryRepository.findItemCodesAndBranchesByRestaurantId(restaurantId).stream()
+                .map(row -> location((Long) row[1], (String) row[0]))
+                .collect(Collectors.toSet());
+        Set<Long> branchIds = branchRepository.findByRestaurantId(restaurantId).stream()
+                .map(RestaurantBranch::getId)
+                .collect(Collectors.toSet());
+
+        Import result = new Import(restaurantId, currentUser.getId());
+        Map<String, Long> codesInFile = new HashMap<>();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        RowSource rows = format == Format.CSV ? csvRows(reader) : jsonLines(reader);
+        try {
+            for (Row row = rows.next(); row != null; row = rows.next()) {
+                result.totalRows++;
+                String error = row.error != null ? row.error : check(row.request, existingCodes, branchIds);
+                if (error == null) {
+                    Long firstLine = codesInFile.putIfAbsent(
+                            location(row.request.getBranchId(), row.request.getItemCode()), row.line);
+                    if (firstLine != null) {
+                        error = "Item code repeated in this file, first on line " + firstLine;
+                    }
+                }
+                if (error != null) {
+                    result.reject(row, error);
+                    continue;
+                }
+
+                row.item = toItem(row.request, restaurantId);
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    flush(chunk, result);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        flush(chunk, result);
+        if (result.importedRows > 0) {
+            branchStock.invalidate(restaurantId);
+        }
+
+        log.info("Inventory import for restaurant {}: {} of {} rows imported",
+                restaurantId, result.importedRows, result.totalRows);
+        return new InventoryImportResponse(result.totalRows, result.importedRows, result.errors);
+    }
+
+    /**
+     * Write the restaurant's items to the stream as they are read, in the import format
+     */
+    public void exportItems(Long restaurantId, Format format, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            write(writer, CsvRecordReader.format(COLUMNS));
+        }
+        // PostgreSQL only honours the fetch size inside a transaction
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(EXPORT_SQL);
+            statement.setFetchSize(exportFetchSize);
+            statement.setLong(1, restaurantId);
+            return statement;
+        }, (ResultSet rs) -> write(writer, format == Format.CSV ? csvRecord(rs) : jsonLine(rs))));
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void write(Writer writer, String text) {
+        try {
+            writer.write(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static InventoryItem toItem(CreateInventoryItemRequest request, Long restaurantId) {
+        InventoryItem item = new InventoryItem();
+        item.setRestaurantId(restaurantId);
+        item.setBranchId(request.getBranchId());
+        item.setItemCode(request.getItemCode());
+        item.setName(request.getName());
+        item.setDescription(request.getDescription());
+        item.setCategory(request.getCategory());
+        item.setUnit(request.getUnit());
+        item.setCurrentQuantity(request.getInitialQuantity());
+        item.setMinimumQuantity(request.getMinimumQuantity());
+        item.setMaximumQuantity(request.getMaximumQuantity());
+        item.setReorderQuantity(request.getReorderQuantity());
+        item.setCostPerUnit(request.getCostPerUnit());
+        item.setSupplierName(request.getSupplierName());
+        item.setSupplierContact(request.getSupplierContact());
+        item.setExpiryDate(request.getExpiryDate());
+        item.setStorageLocation(request.getStorageLocation());
+        item.setNotes(request.getNotes());
+        item.updateStatus();
+        return item;
+    }
+
+    private String check(CreateInventoryItemRequest request, Set<String> existingCodes, Set<Long> branchIds) {
+        Set<ConstraintViolation<CreateInventoryItemRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (existingCodes.contains(location(request.getBranchId(), request.getItemCode()))) {
+            return "Item code already exists";
+        }
+        if (request.getBranchId() != null && !branchIds.contains(request.getBranchId())) {
+            return "Branch not found";
+        }
+        return null;
+    }
+
+    /**
+     * Insert the chunk in one transaction; when the database rejects it, retry row by row
+     * so only the offending rows fail
+     */
+    private void flush(List<Row> chunk, Import result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            result.record(chunk, transactionTemplate.execute(status -> insert(chunk, result)));
+        } catch (DataAccessException e) {
+            log.warn("Inventory import chunk rejected, retrying row by row: {}", e.getMessage());
+            for (Row row : chunk) {
+                try {
+                    result.record(List.of(row), transactionTemplate.execute(status -> insert(List.of(row), result)));
+                } catch (DataAccessException rowFailure) {
+                    result.reject(row, "Rejected by the database");
+                }
+            }
+        }
+    }
+
+    /**
+     * @return rows inserted; rows whose code was taken concurrently are left out
+     */
+    private List<Row> insert(List<Row> rows, Import result) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, rows, batchSize, (ps, row) -> {
+            InventoryItem item = row.item;
+            ps.setLong(1, result.restaurantId);
+            ps.setObject(2, item.getBranchId(), Types.BIGINT);
+            ps.setString(3, item.getItemCode());
+            ps.setString(4, item.getName());
+            ps.setString(5, item.getDescription());
+            ps.setString(6, item.getCategory().name());
+            ps.setString(7, item.getUnit().name());
+            ps.setBigDecimal(8, item.getCurrentQuantity());
+            ps.setBigDecimal(9, item.getMinimumQuantity());
+            ps.setBigDecimal(10, item.getMaximumQuantity());
+            ps.setBigDecimal(11, item.getReorderQuantity());
+            ps.setBigDecimal(12, item.getCostPerUnit());
+            ps.setString(13, item.getSupplierName());
+            ps.setString(14, item.getSupplierContact());
+            ps.setString(15, item.getStatus().name());
+            ps.setObject(16, item.getExpiryDate() != null ? Date.valueOf(item.getExpiryDate()) : null, Types.DATE);
+            ps.setString(17, item.getStorageLocation());
+            ps.setString(18, item.getNotes());
+            ps.setTimestamp(19, now);
+            ps.setTimestamp(20, now);
+        });
+
+        List<Row> inserted = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                Row row = rows.get(index++);
+                if (count != 0) {
+                    inserted.add(row);
+                }
+            }
+        }
+
+        List<Row> stocked = inserted.stream()
+                .filter(row -> row.item.getCurrentQuantity().signum() > 0)
+                .toList();
+        if (!stocked.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, stocked, batchSize, (ps, row) -> {
+                ps.setLong(1, result.performedBy);
+                ps.setTimestamp(2, now);
+                ps.setLong(3, result.restaurantId);
+                ps.setLong(4, branchKey(row.item));
+                ps.setString(5, row.item.getItemCode());
+            });
+            jdbcTemplate.batchUpdate(INSERT_LOT_SQL, stocked, batchSize, (ps, row) -> {
+                ps.setTimestamp(1, now);
+                ps.setLong(2, result.restaurantId);
+                ps.setLong(3, branchKey(row.item));
+                ps.setString(4, row.item.getItemCode());
+            });
+        }
+        return inserted;
+    }
+
+    /**
+     * Item codes are unique per branch; restaurant-level items have no branch
+     */
+    private static String location(Long branchId, String itemCode) {
+        return (branchId != null ? branchId.toString() : "") + "/" + itemCode;
+    }
+
+    // Matches COALESCE(branch_id, 0) of the unique index
+    private static long branchKey(InventoryItem item) {
+        return item.getBranchId() != null ? item.getBranchId() : 0L;
+    }
+
+    private RowSource csvRows(BufferedReader reader) {
+        CsvRecordReader records = new CsvRecordReader(reader);
+        List<String> header;
+        try {
+            header = records.next();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (header == null) {
+            throw new BadRequestException("CSV import needs a header row");
+        }
+        header.replaceAll(String::trim);
+        header.set(0, header.get(0).replace("\uFEFF", "") /* byte order mark */);
+        if (!header.contains("itemCode")) {
+            throw new BadRequestException("CSV header must name the columns: " + String.join(",", COLUMNS));
+        }
+
+        return () -> {
+            List<String> fields = records.next();
+            if (fields == null) {
+                return null;
+            }
+            long line = records.getRecordLine();
+            Map<String, String> values = new LinkedHashMap<>();
+            for (int i = 0; i < header.size() && i < fields.size(); i++) {
+                String value = fields.get(i).trim();
+                if (!value.isEmpty()) {
+                    values.put(header.get(i), value);
+                }
+            }
+            try {
+                return Row.of(line, objectMapper.convertValue(values, CreateInventoryItemRequest.class));
+            } catch (IllegalArgumentException e) {
+                return Row.failed(line, values.get("itemCode"), describe(e.getCause()));
+            }
+        };
+    }
+
+    private RowSource jsonLines(BufferedReader reader) {
+        long[] line = {0};
+        return () -> {
+            String text;
+            do {
+                text = reader.readLine();
+                line[0]++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            try {
+                return Row.of(line[0], objectMapper.readValue(text, CreateInventoryItemRequest.class));
+            } catch (JsonProcessingException e) {
+                return Row.failed(line[0], null, describe(e));
+            }
+        };
+    }
+
+    private static String describe(Throwable e) {
+        if (e instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()) {
+            return "Invalid value for " + mapping.getPath().get(mapping.getPath().size() - 1).getFieldName();
+        }
+        return "Malformed row";
+    }
+
+    private static String csvRecord(ResultSet rs) throws SQLException {
+        List<String> fields = new ArrayList<>(COLUMNS.size());
+        for (int i = 1; i <= COLUMNS.size(); i++) {
+            fields.add(rs.getString(i));
+        }
+        return CsvRecordReader.format(fields);
+    }
+
+    private String jsonLine(ResultSet rs) throws SQLException {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 1; i <= COLUMNS.size(); i++) {
+            Object value = rs.getObject(i);
+            if (value instanceof Date date) {
+                value = date.toLocalDate().toString();
+            }
+            if (value != null) {
+                values.put(COLUMNS.get(i - 1), value);
+            }
+        }
+        try {
+            return objectMapper.writeValueAsString(values) + "\n";
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        Row next() throws IOException;
+    }
+
+    private static final class Row {
+
+        private final long line;
+        private final CreateInventoryItemRequest request;
+        private final String itemCode;
+        private final String error;
+        private InventoryItem item;
+
+        private Row(long line, CreateInventoryItemRequest request, String itemCode, String error) {
+            this.line = line;
+            this.request = request;
+            this.itemCode = itemCode;
+            this.error = error;
+        }
+
+        private static Row of(long line, CreateInventoryItemRequest request) {
+            return new Row(line, request, request.getItemCode(), null);
+        }
+
+        private static Row failed(long line, String itemCode, String error) {
+            return new Row(line, null, itemCode, error);
+        }
+    }
+
+    /**
+     * Running totals of one import
+     */
+    private static final class Import {
+
+        private final Long restaurantId;
+        private final Long performedBy;
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private long totalRows;
+        private long importedRows;
+
+        private Import(Long restaurantId, Long performedBy) {
+            this.restaurantId = restaurantId;
+            this.performedBy = performedBy;
+        }
+
+        private void reject(Row row, String message) {
+            errors.add(new ImportRowError(row.line, row.itemCode, message));
+        }
+
+        private void record(List<Row> rows, List<Row> inserted) {
+            for (Row row : rows) {
+                if (!inserted.contains(row)) {
+                    reject(row, "Item code already exists");
+                }
+            }
+            importedRows += inserted.size();
+        }
+    }
+}
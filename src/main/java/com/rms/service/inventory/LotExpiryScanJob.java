@@ -0,0 +1,116 @@
+package com.rms.service.inventory;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Raises EXPIRING_SOON alerts for items holding open lots that expire within the warning
+ * window and resolves them once those lots are used up.
+ *
+ * Reads only open lots with an expiry date through their partial index, so the scan costs
+ * in proportion to the dated stock on hand rather than to the number of items.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LotExpiryScanJob {
+
+    // Data-modifying CTEs share one snapshot; the partial unique index keeps one open
+    // expiry alert per item, the quantity is what expires within the window
+    private static final String SCAN_SQL =
+            "WITH expiring AS (" +
+            "SELECT l.inventory_item_id, l.restaurant_id, SUM(l.remaining_quantity) AS quantity " +
+            "FROM inventory_lots l JOIN inventory_items i ON i.id = l.inventory_item_id " +
+            "WHERE l.remaining_quantity > 0 AND l.expiry_date IS NOT NULL AND l.expiry_date <= :warnThrough " +
+            "AND i.is_active = TRUE " +
+            "GROUP BY l.inventory_item_id, l.restaurant_id), " +
+            "resolved AS (" +
+            "UPDATE low_stock_alerts a SET status = 'RESOLVED', resolved_at = :now " +
+            "FROM low_stock_alerts previous " +
+            "WHERE previous.id = a.id AND a.alert_type = 'EXPIRING_SOON' " +
+            "AND a.status IN ('ACTIVE', 'ACKNOWLEDGED') " +
+            "AND NOT EXISTS (SELECT 1 FROM expiring e WHERE e.inventory_item_id = a.inventory_item_id) " +
+            "RETURNING a.restaurant_id, previous.status AS previous_status), " +
+            "raised AS (" +
+            "INSERT INTO low_stock_alerts (inventory_item_id, restaurant_id, alert_type, " +
+            "current_quantity, minimum_quantity, status, created_at) " +
+            "SELECT e.inventory_item_id, e.restaurant_id, 'EXPIRING_SOON', e.quantity, i.minimum_quantity, " +
+            "'ACTIVE', :now FROM expiring e JOIN inventory_items i ON i.id = e.inventory_item_id " +
+            "ON CONFLICT (inventory_item_id) WHERE status IN ('ACTIVE', 'ACKNOWLEDGED') " +
+            "AND alert_type = 'EXPIRING_SOON' DO NOTHING " +
+            "RETURNING restaurant_id) " +
+            "SELECT restaurant_id, 1 AS delta FROM raised " +
+            "UNION ALL " +
+            "SELECT restaurant_id, -1 FROM resolved WHERE previous_status = 'ACTIVE'";
+
+    // The item's expiry date shows its earliest open dated lot; the version bump makes a
+    // concurrent JPA update of the item fail instead of undoing it. Only open lots are read,
+    // through idx_inventory_lot_open, so drained lots never enter the aggregate
+    private static final String SYNC_EXPIRY_SQL =
+            "UPDATE inventory_items i SET expiry_date = l.earliest, version = i.version + 1 " +
+            "FROM (SELECT inventory_item_id, MIN(expiry_date) AS earliest " +
+            "FROM inventory_lots WHERE remaining_quantity > 0 GROUP BY inventory_item_id) l " +
+            "WHERE i.id = l.inventory_item_id AND i.expiry_date IS DISTINCT FROM l.earliest";
+
+    // Dated items whose lots are all used up no longer expire
+    private static final String CLEAR_EXPIRY_SQL =
+            "UPDATE inventory_items i SET expiry_date = NULL, version = i.version + 1 " +
+            "WHERE i.expiry_date IS NOT NULL " +
+            "AND EXISTS (SELECT 1 FROM inventory_lots l WHERE l.inventory_item_id = i.id) " +
+            "AND NOT EXISTS (SELECT 1 FROM inventory_lots l " +
+            "WHERE l.inventory_item_id = i.id AND l.remaining_quantity > 0)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LowStockAlertEngine alertEngine;
+
+    @Value("${app.inventory.lots.expiry-warning-days:2}")
+    private int expiryWarningDays;
+
+    @Scheduled(cron = "${app.inventory.lots.expiry-scan-cron:0 5 * * * *}")
+    public void scanExpiringLots() {
+        try {
+            scan(LocalDate.now());
+        } catch (Exception e) {
+            log.error("Lot expiry scan failed", e);
+        }
+    }
+
+    /**
+     * @return change of the ACTIVE alert count per restaurant
+     */
+    public Map<Long, Long> scan(LocalDate today) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("warnThrough", Date.valueOf(today.plusDays(expiryWarningDays)))
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+
+        Map<Long, Long> deltas = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<long[]> changes = jdbcTemplate.query(SCAN_SQL, params,
+                    (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+            for (long[] change : changes) {
+                deltas.merge(change[0], change[1], Long::sum);
+            }
+            jdbcTemplate.update(SYNC_EXPIRY_SQL, params);
+            jdbcTemplate.update(CLEAR_EXPIRY_SQL, params);
+            deltas.forEach(alertEngine::adjustActiveCountAfterCommit);
+        });
+
+        log.info("Lot expiry scan through {}: active alert changes {}", today.plusDays(expiryWarningDays), deltas);
+        return deltas;
+    }
+}
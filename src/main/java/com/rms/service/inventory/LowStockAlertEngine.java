@@ -0,0 +1,236 @@
+package com.rms.service.inventory;
+
+import com.rms.repository.LowStockAlertRepository;
+import com.rms.service.support.SnapshotCache;
+import com.rms.service.support.TransactionCallbacks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Low stock alert engine.
+ *
+ * Stock changes mark inventory items dirty; each transaction's dirty set is evaluated once
+ * after commit with a single statement that resolves alerts of items back above their
+ * minimum, escalates LOW_STOCK to OUT_OF_STOCK and raises new alerts. An item has at most
+ * one open (ACTIVE or ACKNOWLEDGED) stock-level alert, and is not raised again within the debounce
+ * window after its last alert was resolved, so stock hovering around the minimum does
+ * not flood the alert list. Items still below their minimum when the window ends are
+ * raised by a scheduled re-check, which also catches evaluations that failed after commit.
+ * EXPIRING_SOON alerts belong to {@link LotExpiryScanJob}.
+ *
+ * Also keeps the per-restaurant ACTIVE alert count. Counters are seeded with one COUNT
+ * and then adjusted by the deltas of committed changes; the TTL bounds drift caused by
+ * changes made elsewhere (other nodes, SQL).
+ */
+@Component
+@Slf4j
+public class LowStockAlertEngine {
+
+    // Data-modifying CTEs share one snapshot: the resolve and raise branches are disjoint
+    // on "below", and the partial unique index turns a concurrent duplicate raise into a no-op
+    private static final String EVALUATE_SQL =
+            "WITH evaluated AS (" +
+            "SELECT i.id, i.restaurant_id, i.current_quantity, i.minimum_quantity, " +
+            "i.current_quantity <= i.minimum_quantity AS below, " +
+            "CASE WHEN i.current_quantity <= 0 THEN 'OUT_OF_STOCK' ELSE 'LOW_STOCK' END AS alert_type " +
+            "FROM inventory_items i WHERE i.id IN (:ids)), " +
+            "resolved AS (" +
+            "UPDATE low_stock_alerts a SET status = 'RESOLVED', resolved_at = :now " +
+            "FROM evaluated e, low_stock_alerts previous " +
+            "WHERE a.inventory_item_id = e.id AND NOT e.below AND previous.id = a.id " +
+            "AND a.status IN ('ACTIVE', 'ACKNOWLEDGED') AND a.alert_type <> 'EXPIRING_SOON' " +
+            "RETURNING a.restaurant_id, previous.status AS previous_status), " +
+            "escalated AS (" +
+            "UPDATE low_stock_alerts a SET alert_type = e.alert_type, " +
+            "current_quantity = e.current_quantity, minimum_quantity = e.minimum_quantity " +
+            "FROM evaluated e " +
+            "WHERE a.inventory_item_id = e.id AND e.below AND a.alert_type <> e.alert_type " +
+            "AND a.status IN ('ACTIVE', 'ACKNOWLEDGED') AND a.alert_type <> 'EXPIRING_SOON'), " +
+            "raised AS (" +
+            "INSERT INTO low_stock_alerts (inventory_item_id, restaurant_id, alert_type, " +
+            "current_quantity, minimum_quantity, status, created_at) " +
+            "SELECT e.id, e.restaurant_id, e.alert_type, e.current_quantity, e.minimum_quantity, " +
+            "'ACTIVE', :now FROM evaluated e " +
+            "WHERE e.below AND NOT EXISTS (SELECT 1 FROM low_stock_alerts a " +
+            "WHERE a.inventory_item_id = e.id AND a.alert_type <> 'EXPIRING_SOON' " +
+            "AND (a.status IN ('ACTIVE', 'ACKNOWLEDGED') OR a.resolved_at > :debounceSince)) " +
+            "ON CONFLICT (inventory_item_id) WHERE status IN ('ACTIVE', 'ACKNOWLEDGED') " +
+            "AND alert_type <> 'EXPIRING_SOON' DO NOTHING " +
+            "RETURNING restaurant_id) " +
+            "SELECT restaurant_id, 1 AS delta FROM raised " +
+            "UNION ALL " +
+            "SELECT restaurant_id, -1 FROM resolved WHERE previous_status = 'ACTIVE'";
+
+    // Items the raise branch of EVALUATE_SQL would insert for
+    private static final String PENDING_SQL =
+            "SELECT i.id FROM inventory_items i WHERE i.current_quantity <= i.minimum_quantity " +
+            "AND NOT EXISTS (SELECT 1 FROM low_stock_alerts a " +
+            "WHERE a.inventory_item_id = i.id AND a.alert_type <> 'EXPIRING_SOON' " +
+            "AND (a.status IN ('ACTIVE', 'ACKNOWLEDGED') OR a.resolved_at > :debounceSince)) " +
+            "ORDER BY i.id LIMIT :limit";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final LowStockAlertRepository alertRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.inventory.alerts.debounce-seconds:900}")
+    private long debounceSeconds;
+
+    @Value("${app.inventory.alerts.recheck-batch-size:500}")
+    private int recheckBatchSize;
+
+    @Value("${app.inventory.alerts.count-ttl-seconds:300}")
+    private long countTtlSeconds;
+
+    private final SnapshotCache<Long, AtomicLong> activeCounts = new SnapshotCache<>();
+
+    public LowStockAlertEngine(NamedParameterJdbcTemplate jdbcTemplate,
+                               LowStockAlertRepository alertRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.alertRepository = alertRepository;
+        // Runs from afterCommit, where the finished transaction's resources are still bound
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void markDirty(Long inventoryItemId) {
+        markDirty(List.of(inventoryItemId));
+    }
+
+    /**
+     * Queue items for evaluation when the current transaction commits; evaluated right
+     * away when there is no transaction
+     */
+    public void markDirty(Collection<Long> inventoryItemIds) {
+        if (inventoryItemIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evaluate(inventoryItemIds);
+            return;
+        }
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof DirtyItems dirty && dirty.engine == this) {
+                dirty.ids.addAll(inventoryItemIds);
+                return;
+            }
+        }
+        DirtyItems dirty = new DirtyItems(this, new TreeSet<>(inventoryItemIds));
+        TransactionSynchronizationManager.registerSynchronization(dirty);
+    }
+
+    /**
+     * Evaluate thresholds for the given items in one statement and apply the resulting
+     * changes to the active alert counters
+     */
+    public void evaluate(Collection<Long> inventoryItemIds) {
+        if (inventoryItemIds.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", new ArrayList<>(inventoryItemIds))
+                .addValue("now", Timestamp.valueOf(now))
+                .addValue("debounceSince", Timestamp.valueOf(now.minusSeconds(debounceSeconds)));
+
+        List<long[]> changes = transactionTemplate.execute(status -> jdbcTemplate.query(EVALUATE_SQL, params,
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)}));
+
+        Map<Long, Long> deltas = new HashMap<>();
+        if (changes != null) {
+            for (long[] change : changes) {
+                deltas.merge(change[0], change[1], Long::sum);
+            }
+        }
+        deltas.forEach(this::adjustActiveCount);
+
+        log.debug("Evaluated low stock alerts for {} items: {}", inventoryItemIds.size(), deltas);
+    }
+
+    /**
+     * Raise alerts for items below their minimum that have none, e.g. because they were
+     * debounced when they dropped and the window has since ended
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.alerts.recheck-interval-ms:60000}")
+    public void recheckPending() {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("debounceSince", Timestamp.valueOf(LocalDateTime.now().minusSeconds(debounceSeconds)))
+                .addValue("limit", recheckBatchSize);
+        List<Long> pending = jdbcTemplate.queryForList(PENDING_SQL, params, Long.class);
+        if (!pending.isEmpty()) {
+            log.info("Re-evaluating {} items below minimum without an alert", pending.size());
+            evaluate(pending);
+        }
+    }
+
+    public long getActiveCount(Long restaurantId) {
+        AtomicLong count = activeCounts.get(restaurantId, countTtlSeconds, id -> {
+            Long seeded = alertRepository.countActiveAlerts(id);
+            return new AtomicLong(seeded != null ? seeded : 0L);
+        });
+        return Math.max(0L, count.get());
+    }
+
+    /**
+     * Apply a change to the restaurant's ACTIVE alert count once the current transaction
+     * commits, e.g. -1 when an active alert is acknowledged or resolved by a user
+     */
+    public void adjustActiveCountAfterCommit(Long restaurantId, long delta) {
+        TransactionCallbacks.afterCommit(() -> adjustActiveCount(restaurantId, delta));
+    }
+
+    private void adjustActiveCount(Long restaurantId, long delta) {
+        // An unseeded restaurant is counted on its next read
+        AtomicLong count = activeCounts.changed(restaurantId);
+        if (count != null) {
+            count.addAndGet(delta);
+        }
+    }
+
+    /**
+     * One transaction's dirty items; identity equality because the set grows after registration
+     */
+    private static final class DirtyItems implements TransactionSynchronization {
+
+        private final LowStockAlertEngine engine;
+        private final Set<Long> ids;
+
+        private DirtyItems(LowStockAlertEngine engine, Set<Long> ids) {
+            this.engine = engine;
+            this.ids = ids;
+        }
+
+        @Override
+        public void afterCommit() {
+            try {
+                engine.evaluate(ids);
+            } catch (Exception e) {
+                // The stock change itself is committed; the next change of these items retries
+                log.error("Low stock alert evaluation failed for items {}", ids, e);
+            }
+        }
+    }
+}
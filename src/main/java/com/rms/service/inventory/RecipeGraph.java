@@ -0,0 +1,137 @@
+package com.rms.service.inventory;
+
+import com.rms.repository.MenuItemInventoryRepository;
+import com.rms.service.support.SnapshotCache;
+import com.rms.service.support.TransactionCallbacks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * In-memory recipe (bill of materials) graph: menu item -> inventory items it consumes.
+ *
+ * Built per restaurant from menu_item_inventory in one query and kept as a sorted
+ * long[] of menu item ids with offsets into one flat array of recipe lines, so a
+ * lookup is a binary search with no boxing. Invalidated after commit when links
+ * change; the TTL bounds staleness for changes made elsewhere (other nodes, SQL).
+ *
+ * Recipes come from menu_item_inventory only: item_ingredients/ingredients carry no
+ * stock that orders consume, so they cannot decide availability.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecipeGraph {
+
+    private final MenuItemInventoryRepository menuItemInventoryRepository;
+
+    @Value("${app.inventory.recipes.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final SnapshotCache<Long, Recipes> byRestaurant = new SnapshotCache<>();
+
+    public Recipes forRestaurant(Long restaurantId) {
+        return byRestaurant.get(restaurantId, ttlSeconds, this::build);
+    }
+
+    public List<RecipeLine> ingredients(Long restaurantId, Long menuItemId) {
+        return forRestaurant(restaurantId).ingredients(menuItemId);
+    }
+
+    /**
+     * Drop the restaurant's graph once the current transaction commits, so a rebuild
+     * cannot read the links before the change is visible
+     */
+    public void invalidateAfterCommit(Long restaurantId) {
+        TransactionCallbacks.afterCommit(() -> invalidate(restaurantId));
+    }
+
+    public void invalidate(Long restaurantId) {
+        byRestaurant.invalidate(restaurantId);
+    }
+
+    private Recipes build(Long restaurantId) {
+        Recipes built = Recipes.build(menuItemInventoryRepository.findRecipeRowsByRestaurantId(restaurantId));
+        log.debug("Recipe graph built for restaurant {}: {} menu items", restaurantId, built.size());
+        return built;
+    }
+
+    /**
+     * One ingredient of a menu item: quantity of the inventory item per portion
+     */
+    public record RecipeLine(long inventoryItemId, BigDecimal quantityRequired, boolean optional) {
+
+        public BigDecimal requiredFor(int portions) {
+            return quantityRequired.multiply(new BigDecimal(portions));
+        }
+    }
+
+    /**
+     * Immutable snapshot of one restaurant's recipes
+     */
+    public static final class Recipes {
+
+        private final long[] menuItemIds;
+        private final int[] offsets;
+        private final RecipeLine[] lines;
+
+        private Recipes(long[] menuItemIds, int[] offsets, RecipeLine[] lines) {
+            this.menuItemIds = menuItemIds;
+            this.offsets = offsets;
+            this.lines = lines;
+        }
+
+        /**
+         * @param rows (menuItemId, inventoryItemId, quantityRequired, isOptional) ordered by menu item
+         */
+        public static Recipes build(List<Object[]> rows) {
+            RecipeLine[] lines = new RecipeLine[rows.size()];
+            long[] menuItemIds = new long[rows.size()];
+            int[] offsets = new int[rows.size() + 1];
+            int menuItems = 0;
+            long previous = 0;
+
+            for (int i = 0; i < rows.size(); i++) {
+                Object[] row = rows.get(i);
+                long menuItemId = (Long) row[0];
+                if (i == 0 || menuItemId != previous) {
+                    menuItemIds[menuItems] = menuItemId;
+                    offsets[menuItems] = i;
+                    menuItems++;
+                    previous = menuItemId;
+                }
+                lines[i] = new RecipeLine((Long) row[1], (BigDecimal) row[2], Boolean.TRUE.equals(row[3]));
+            }
+            offsets[menuItems] = rows.size();
+
+            return new Recipes(
+                    Arrays.copyOf(menuItemIds, menuItems),
+                    Arrays.copyOf(offsets, menuItems + 1),
+                    lines);
+        }
+
+        /**
+         * Ingredients of a menu item; empty when it has no tracked ingredients
+         */
+        public List<RecipeLine> ingredients(long menuItemId) {
+            int index = Arrays.binarySearch(menuItemIds, menuItemId);
+            if (index < 0) {
+                return List.of();
+            }
+            return Arrays.asList(lines).subList(offsets[index], offsets[index + 1]);
+        }
+
+        public long[] menuItemIds() {
+            return menuItemIds.clone();
+        }
+
+        public int size() {
+            return menuItemIds.length;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.rms.service.inventory;
+
+import com.rms.dto.InventoryDTO.ReorderSuggestionResponse;
+import com.rms.entity.InventoryForecast;
+import com.rms.entity.InventoryItem;
+import com.rms.entity.Restaurant;
+import com.rms.repository.InventoryForecastRepository;
+import com.rms.repository.InventoryItemRepository;
+import com.rms.repository.RestaurantRepository;
+import com.rms.repository.StockTransactionRepository;
+import com.rms.security.UserPrincipal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Demand forecasting and reorder suggestions.
+ *
+ * Every night each restaurant's order usage (ORDER_DEDUCTION movements net of reversals, i.e.
+ * sales already expanded through the recipes) for the days since the last run is folded into a per-item
+ * exponential smoothing model with day-of-week factors. The model yields a reorder point
+ * (lead-time usage plus safety stock) and an order-up-to level; items at or below their
+ * reorder point are suggested for purchase. Restaurants are processed in parallel, each
+ * in its own transaction.
+ */
+@Service
+@Slf4j
+public class ReorderForecastService {
+
+    private final RestaurantRepository restaurantRepository;
+    private final InventoryItemRepository inventoryRepository;
+    private final InventoryForecastRepository forecastRepository;
+    private final StockTransactionRepository transactionRepository;
+    private final TaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.inventory.forecast.history-days:56}")
+    private int historyDays;
+
+    @Value("${app.inventory.forecast.alpha:0.3}")
+    private double alpha;
+
+    @Value("${app.inventory.forecast.gamma:0.1}")
+    private double gamma;
+
+    @Value("${app.inventory.forecast.lead-time-days:2}")
+    private int leadTimeDays;
+
+    @Value("${app.inventory.forecast.review-period-days:7}")
+    private int reviewPeriodDays;
+
+    @Value("${app.inventory.forecast.safety-factor:1.65}")
+    private double safetyFactor;
+
+    public ReorderForecastService(RestaurantRepository restaurantRepository,
+                                  InventoryItemRepository inventoryRepository,
+                                  InventoryForecastRepository forecastRepository,
+                                  StockTransactionRepository transactionRepository,
+                                  @Qualifier("forecastExecutor") TaskExecutor executor,
+                                  PlatformTransactionManager transactionManager) {
+        this.restaurantRepository = restaurantRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.forecastRepository = forecastRepository;
+        this.transactionRepository = transactionRepository;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Runs after the stock snapshots, once the previous day is complete
+     */
+    @Scheduled(cron = "${app.inventory.forecast.cron:0 45 0 * * *}")
+    public void forecastAllRestaurants() {
+        LocalDate through = LocalDate.now().minusDays(1);
+        AtomicInteger items = new AtomicInteger();
+
+        List<CompletableFuture<Void>> runs = new ArrayList<>();
+        for (Restaurant restaurant : restaurantRepository.findAll()) {
+            runs.add(CompletableFuture.runAsync(() -> {
+                try {
+                    items.addAndGet(forecastRestaurant(restaurant.getId(), through));
+                } catch (Exception e) {
+                    log.error("Failed to forecast demand for restaurant: {}", restaurant.getId(), e);
+                }
+            }, executor));
+        }
+        CompletableFuture.allOf(runs.toArray(new CompletableFuture[0])).join();
+
+        log.info("Demand forecast updated through {}: {} restaurants, {} items", through, runs.size(), items.get());
+    }
+
+    /**
+     * Fold the days after each item's last observation, up to and including through,
+     * into its model and re-plan it
+     *
+     * @return number of items forecast
+     */
+    public int forecastRestaurant(Long restaurantId, LocalDate through) {
+        Integer forecast = transactionTemplate.execute(status -> {
+            LocalDate historyStart = through.minusDays(historyDays - 1L);
+
+            Map<Long, InventoryForecast> forecasts = forecastRepository.findByRestaurantId(restaurantId).stream()
+                    .collect(Collectors.toMap(InventoryForecast::getInventoryItemId, Function.identity()));
+            for (InventoryItem item : inventoryRepository.findByRestaurantIdAndIsActive(restaurantId, true)) {
+                forecasts.computeIfAbsent(item.getId(),
+                        id -> InventoryForecast.start(id, restaurantId, historyStart));
+            }
+            if (forecasts.isEmpty()) {
+                return 0;
+            }
+
+            LocalDate from = forecasts.values().stream()
+                    .map(f -> nextDay(f, historyStart))
+                    .min(LocalDate::compareTo)
+                    .orElse(historyStart);
+            if (from.isAfter(through)) {
+                return 0; // Already up to date
+            }
+
+            // One read for the whole window; days without orders count as zero usage
+            int days = (int) ChronoUnit.DAYS.between(from, through) + 1;
+            Map<Long, double[]> usage = new HashMap<>();
+            for (Object[] row : transactionRepository.findDailyOrderUsage(restaurantId, from, through.plusDays(1))) {
+                usage.computeIfAbsent((Long) row[0], id -> new double[days])
+                        [((Number) row[1]).intValue()] = ((BigDecimal) row[2]).doubleValue();
+            }
+
+            LocalDate tomorrow = through.plusDays(1);
+            for (InventoryForecast itemForecast : forecasts.values()) {
+                double[] daily = usage.get(itemForecast.getInventoryItemId());
+                for (LocalDate day = nextDay(itemForecast, historyStart); !day.isAfter(through); day = day.plusDays(1)) {
+                    double quantity = daily != null ? daily[(int) ChronoUnit.DAYS.between(from, day)] : 0;
+                    itemForecast.observe(day, quantity, alpha, gamma);
+                }
+                itemForecast.plan(tomorrow, leadTimeDays, reviewPeriodDays, safetyFactor);
+            }
+
+            forecastRepository.saveAll(forecasts.values());
+            return forecasts.size();
+        });
+        return forecast != null ? forecast : 0;
+    }
+
+    /**
+     * Items at or below their forecast reorder point with the quantity to order: up to
+     * the forecast level, capped at the item's maximum and rounded up to its reorder
+     * quantity. Sorted by supplier so the list reads as draft purchase orders.
+     */
+    @Transactional(readOnly = true)
+    public List<ReorderSuggestionResponse> getReorderSuggestions(UserPrincipal currentUser) {
+        List<ReorderSuggestionResponse> suggestions = new ArrayList<>();
+
+        for (Object[] row : forecastRepository.findReorderCandidates(currentUser.getRestaurantId())) {
+            InventoryItem item = (InventoryItem) row[0];
+            InventoryForecast forecast = (InventoryForecast) row[1];
+
+            BigDecimal quantity = suggestedQuantity(item, forecast);
+            if (quantity.signum() <= 0) {
+                continue;
+            }
+
+            ReorderSuggestionResponse suggestion = new ReorderSuggestionResponse();
+            suggestion.setInventoryItemId(item.getId());
+            suggestion.setItemCode(item.getItemCode());
+            suggestion.setInventoryItemName(item.getName());
+            suggestion.setUnit(item.getUnit());
+            suggestion.setSupplierName(item.getSupplierName());
+            suggestion.setCurrentQuantity(item.getCurrentQuantity());
+            suggestion.setDailyDemand(forecast.getDailyDemand());
+            suggestion.setReorderPoint(forecast.getReorderPoint());
+            suggestion.setSuggestedQuantity(quantity);
+            suggestion.setEstimatedCost(quantity.multiply(item.getCostPerUnit()).setScale(2, RoundingMode.HALF_UP));
+            suggestions.add(suggestion);
+        }
+        return suggestions;
+    }
+
+    static BigDecimal suggestedQuantity(InventoryItem item, InventoryForecast forecast) {
+        BigDecimal target = forecast.getOrderUpTo();
+        if (item.getMaximumQuantity() != null && item.getMaximumQuantity().signum() > 0) {
+            target = target.min(item.getMaximumQuantity());
+        }
+        BigDecimal quantity = target.subtract(item.getCurrentQuantity());
+        if (quantity.signum() <= 0) {
+            return BigDecimal.ZERO;
+        }
+
+        BigDecimal packSize = item.getReorderQuantity();
+        if (packSize != null && packSize.signum() > 0) {
+            quantity = quantity.divide(packSize, 0, RoundingMode.CEILING).multiply(packSize);
+        }
+        return quantity;
+    }
+
+    private static LocalDate nextDay(InventoryForecast forecast, LocalDate historyStart) {
+        LocalDate next = forecast.getObservedThrough().plusDays(1);
+        return next.isBefore(historyStart) ? historyStart : next;
+    }
+}
@@ -0,0 +1,173 @@
+package com.rms.service.inventory;
+
+import com.rms.entity.StockTransaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies an order's stock deduction as two JDBC batches: one conditional UPDATE per
+ * inventory item and one stock_transactions INSERT per order line and ingredient.
+ * Transaction rows use IDENTITY keys, which Hibernate cannot batch, hence plain JDBC.
+ * A cancelled order's deduction is reversed the same way, one ORDER_REVERSAL row per item.
+ *
+ * The UPDATE bumps the version, so callers must not modify the loaded InventoryItem
+ * entities afterwards, otherwise Hibernate would flush them against a stale version.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockDeductionWriter {
+
+    // SET expressions all read the pre-update row, so status is derived from the new quantity
+    private static final String DEDUCT_SQL =
+            "UPDATE inventory_items SET current_quantity = current_quantity - ?, " +
+            "status = CASE WHEN current_quantity - ? <= 0 THEN 'OUT_OF_STOCK' " +
+            "WHEN current_quantity - ? <= minimum_quantity THEN 'LOW_STOCK' ELSE 'IN_STOCK' END, " +
+            "version = version + 1, updated_at = ? " +
+            "WHERE id = ? AND current_quantity >= ?";
+
+    private static final String RESTORE_SQL =
+            "UPDATE inventory_items SET current_quantity = current_quantity + ?, " +
+            "status = CASE WHEN current_quantity + ? <= 0 THEN 'OUT_OF_STOCK' " +
+            "WHEN current_quantity + ? <= minimum_quantity THEN 'LOW_STOCK' ELSE 'IN_STOCK' END, " +
+            "version = version + 1, updated_at = ? " +
+            "WHERE id = ?";
+
+    // Runs after the UPDATE in the same transaction, so current_quantity is the row's
+    // post-deduction value; before/after are offset by the lines still to be recorded
+    private static final String INSERT_TRANSACTION_SQL =
+            "INSERT INTO stock_transactions " +
+            "(inventory_item_id, restaurant_id, transaction_type, quantity, quantity_before, quantity_after, " +
+            "cost_per_unit, total_cost, order_id, performed_by, reference_number, notes, created_at) " +
+            "SELECT i.id, i.restaurant_id, ?, ?, i.current_quantity + ?, i.current_quantity + ?, " +
+            "i.cost_per_unit, ? * i.cost_per_unit, ?, ?, ?, ?, ? " +
+            "FROM inventory_items i WHERE i.id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    /**
+     * Deduct the given total per inventory item. Iterate the map in id order so concurrent
+     * orders lock rows in the same sequence.
+     *
+     * @return ids whose stock was below the requested quantity; nothing was deducted for them
+     */
+    public List<Long> deduct(Map<Long, BigDecimal> quantities) {
+        if (quantities.isEmpty()) {
+            return List.of();
+        }
+
+        List<Map.Entry<Long, BigDecimal>> entries = new ArrayList<>(quantities.entrySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] updateCounts = jdbcTemplate.batchUpdate(DEDUCT_SQL, entries, batchSize,
+                (ps, entry) -> {
+                    ps.setBigDecimal(1, entry.getValue());
+                    ps.setBigDecimal(2, entry.getValue());
+                    ps.setBigDecimal(3, entry.getValue());
+                    ps.setTimestamp(4, now);
+                    ps.setLong(5, entry.getKey());
+                    ps.setBigDecimal(6, entry.getValue());
+                });
+
+        List<Long> insufficient = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : updateCounts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    insufficient.add(entries.get(index).getKey());
+                }
+                index++;
+            }
+        }
+        return insufficient;
+    }
+
+    /**
+     * Record one ORDER_DEDUCTION row per line, in line order, for items already deducted
+     */
+    public void insertTransactions(List<DeductionLine> lines, Long orderId, String referenceNumber,
+                                   Long performedBy) {
+        if (lines.isEmpty()) {
+            return;
+        }
+
+        // Quantity of each item deducted by the lines after line i
+        BigDecimal[] remainingAfter = new BigDecimal[lines.size()];
+        Map<Long, BigDecimal> running = new HashMap<>();
+        for (int i = lines.size() - 1; i >= 0; i--) {
+            DeductionLine line = lines.get(i);
+            remainingAfter[i] = running.getOrDefault(line.inventoryItemId(), BigDecimal.ZERO);
+            running.merge(line.inventoryItemId(), line.quantity(), BigDecimal::add);
+        }
+
+        List<Integer> positions = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            positions.add(i);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, positions, batchSize, (ps, i) -> {
+            DeductionLine line = lines.get(i);
+            BigDecimal after = remainingAfter[i];
+            ps.setString(1, StockTransaction.TransactionType.ORDER_DEDUCTION.name());
+            ps.setBigDecimal(2, line.quantity().negate());
+            ps.setBigDecimal(3, after.add(line.quantity()));
+            ps.setBigDecimal(4, after);
+            ps.setBigDecimal(5, line.quantity());
+            ps.setLong(6, orderId);
+            ps.setLong(7, performedBy);
+            ps.setString(8, referenceNumber);
+            ps.setString(9, line.notes());
+            ps.setTimestamp(10, now);
+            ps.setLong(11, line.inventoryItemId());
+        });
+    }
+
+    /**
+     * Put back what an order had deducted, per inventory item, and record one ORDER_REVERSAL
+     * row per item against the order. Iterate the map in id order, as for {@link #deduct}.
+     */
+    public void restore(Map<Long, BigDecimal> quantities, Long orderId, String referenceNumber,
+                        Long performedBy) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<Long, BigDecimal>> entries = new ArrayList<>(quantities.entrySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(RESTORE_SQL, entries, batchSize, (ps, entry) -> {
+            ps.setBigDecimal(1, entry.getValue());
+            ps.setBigDecimal(2, entry.getValue());
+            ps.setBigDecimal(3, entry.getValue());
+            ps.setTimestamp(4, now);
+            ps.setLong(5, entry.getKey());
+        });
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, entries, batchSize, (ps, entry) -> {
+            ps.setString(1, StockTransaction.TransactionType.ORDER_REVERSAL.name());
+            ps.setBigDecimal(2, entry.getValue());
+            ps.setBigDecimal(3, entry.getValue().negate());
+            ps.setBigDecimal(4, BigDecimal.ZERO);
+            ps.setBigDecimal(5, entry.getValue());
+            ps.setLong(6, orderId);
+            ps.setLong(7, performedBy);
+            ps.setString(8, referenceNumber);
+            ps.setString(9, "Order #" + referenceNumber + " cancelled");
+            ps.setTimestamp(10, now);
+            ps.setLong(11, entry.getKey());
+        });
+    }
+
+    public record DeductionLine(Long inventoryItemId, BigDecimal quantity, String notes) {
+    }
+}
@@ -0,0 +1,270 @@
+package com.rms.service.inventory;
+
+import com.rms.repository.InventoryItemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-memory stock reservation ledger
+ *
+ * Keeps one atomic counter per inventory item holding the quantity that is still
+ * free to reserve. Quantities are stored as longs scaled by 1000 (the column scale
+ * of inventory_items.current_quantity) so reservations are plain CAS operations.
+ *
+ * Flow: checkAndReserve -> reserve, deductStockForOrder -> commit, cancelOrder -> release.
+ * Reservations that are neither committed nor released expire after the TTL.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationLedger {
+
+    public static final int QUANTITY_SCALE = 3;
+
+    private static final int RECONCILE_BATCH_SIZE = 500;
+
+    private final InventoryItemRepository inventoryRepository;
+
+    @Value("${app.inventory.reservation.ttl-minutes:30}")
+    private long reservationTtlMinutes;
+
+    // inventoryItemId -> quantity free to reserve (scaled)
+    private final Map<Long, AtomicLong> available = new ConcurrentHashMap<>();
+
+    // reservation key (order number) -> reserved quantities
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+
+    /**
+     * Try to reserve the given quantity of an inventory item under a reservation key.
+     * Repeated calls with the same key accumulate into one reservation.
+     *
+     * @param onHand loader for the current database quantity, used only when the item is not warmed yet
+     */
+    public boolean reserve(String key, Long inventoryItemId, BigDecimal quantity,
+                           Supplier<BigDecimal> onHand) {
+        long required = toScaledUp(quantity);
+        if (required <= 0) {
+            return true;
+        }
+
+        AtomicLong counter = counterFor(inventoryItemId, onHand);
+        long current;
+        do {
+            current = counter.get();
+            if (current < required) {
+                return false;
+            }
+        } while (!counter.compareAndSet(current, current - required));
+
+        reservations.computeIfAbsent(key, k -> new Reservation(expiryFromNow()))
+                .add(inventoryItemId, required);
+        return true;
+    }
+
+    /**
+     * Stock reserved under the key has been deducted in the database; drop the reservation
+     * without returning quantity to the pool.
+     *
+     * @return reserved quantities per inventory item (scaled), empty if nothing was reserved
+     */
+    public Map<Long, Long> commit(String key) {
+        Reservation reservation = reservations.remove(key);
+        if (reservation == null) {
+            return Map.of();
+        }
+        return reservation.snapshot();
+    }
+
+    /**
+     * Return everything reserved under the key to the pool
+     *
+     * @return released quantities per inventory item (scaled), empty if nothing was reserved
+     */
+    public Map<Long, Long> release(String key) {
+        Reservation reservation = reservations.remove(key);
+        if (reservation == null) {
+            return Map.of();
+        }
+        Map<Long, Long> released = reservation.snapshot();
+        released.forEach(this::credit);
+        log.debug("Released stock reservation {}", key);
+        return released;
+    }
+
+    public boolean hasReservation(String key) {
+        return reservations.containsKey(key);
+    }
+
+    /**
+     * Apply a stock movement made outside of reservations (purchases, manual deductions,
+     * order deductions without a reservation). No-op if the item is not warmed.
+     */
+    public void adjust(Long inventoryItemId, BigDecimal delta) {
+        AtomicLong counter = available.get(inventoryItemId);
+        if (counter != null) {
+            counter.addAndGet(delta.signum() >= 0 ? toScaledDown(delta) : -toScaledUp(delta.negate()));
+        }
+    }
+
+    /**
+     * Forget an item so it is reloaded from the database on next use
+     */
+    public void evict(Long inventoryItemId) {
+        available.remove(inventoryItemId);
+    }
+
+    public BigDecimal getAvailable(Long inventoryItemId) {
+        AtomicLong counter = available.get(inventoryItemId);
+        return counter == null ? null : BigDecimal.valueOf(counter.get(), QUANTITY_SCALE);
+    }
+
+    /**
+     * Quantity free to reserve, warming the item from {@code onHand} if needed
+     */
+    public BigDecimal getAvailable(Long inventoryItemId, Supplier<BigDecimal> onHand) {
+        return BigDecimal.valueOf(counterFor(inventoryItemId, onHand).get(), QUANTITY_SCALE);
+    }
+
+    public static long toScaledUp(BigDecimal quantity) {
+        return quantity.setScale(QUANTITY_SCALE, RoundingMode.UP).unscaledValue().longValueExact();
+    }
+
+    public static long toScaledDown(BigDecimal quantity) {
+        return quantity.setScale(QUANTITY_SCALE, RoundingMode.DOWN).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Release reservations whose TTL has passed (abandoned checkouts, lost cancellations)
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.reservation.sweep-interval-ms:60000}")
+    public void releaseExpiredReservations() {
+        Instant now = Instant.now();
+        int released = 0;
+        for (Map.Entry<String, Reservation> entry : reservations.entrySet()) {
+            if (entry.getValue().expiresAt.isBefore(now)
+                    && reservations.remove(entry.getKey(), entry.getValue())) {
+                entry.getValue().snapshot().forEach(this::credit);
+                released++;
+            }
+        }
+        if (released > 0) {
+            log.info("Released {} expired stock reservations", released);
+        }
+    }
+
+    /**
+     * Re-sync warmed counters with inventory_items so that changes made outside this
+     * service (imports, direct SQL, other nodes) do not drift forever.
+     * Expected free quantity = database quantity - outstanding reservations.
+     * A counter that moved while its row was read is left for the next run rather than
+     * overwritten, so reservations and adjustments made meanwhile are not lost.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.reservation.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        if (available.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = new ArrayList<>(available.keySet());
+        int corrected = 0;
+        int skipped = 0;
+        for (int from = 0; from < ids.size(); from += RECONCILE_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + RECONCILE_BATCH_SIZE, ids.size()));
+            Map<Long, Long> observed = new HashMap<>();
+            for (Long itemId : batch) {
+                AtomicLong counter = available.get(itemId);
+                if (counter != null) {
+                    observed.put(itemId, counter.get());
+                }
+            }
+            for (Object[] row : inventoryRepository.findCurrentQuantitiesByIdIn(batch)) {
+                Long itemId = (Long) row[0];
+                AtomicLong counter = available.get(itemId);
+                Long previous = observed.get(itemId);
+                if (counter == null || previous == null) {
+                    continue;
+                }
+                long expected = toScaledDown((BigDecimal) row[1]) - outstanding(itemId);
+                if (previous == expected) {
+                    continue;
+                }
+                if (counter.compareAndSet(previous, expected)) {
+                    corrected++;
+                    log.warn("Stock ledger drift for inventory item {}: {} -> {}",
+                            itemId, previous, expected);
+                } else {
+                    skipped++;
+                }
+            }
+        }
+        if (corrected > 0 || skipped > 0) {
+            log.info("Stock ledger reconciled, {} items corrected, {} changed meanwhile and left for the next run",
+                    corrected, skipped);
+        }
+    }
+
+    private long outstanding(Long inventoryItemId) {
+        long total = 0;
+        for (Reservation reservation : reservations.values()) {
+            total += reservation.get(inventoryItemId);
+        }
+        return total;
+    }
+
+    private void credit(Long inventoryItemId, Long scaledQuantity) {
+        AtomicLong counter = available.get(inventoryItemId);
+        if (counter != null) {
+            counter.addAndGet(scaledQuantity);
+        }
+    }
+
+    private AtomicLong counterFor(Long inventoryItemId, Supplier<BigDecimal> onHand) {
+        AtomicLong counter = available.get(inventoryItemId);
+        if (counter != null) {
+            return counter;
+        }
+        return available.computeIfAbsent(inventoryItemId,
+                id -> new AtomicLong(toScaledDown(onHand.get()) - outstanding(id)));
+    }
+
+    private Instant expiryFromNow() {
+        return Instant.now().plus(Duration.ofMinutes(reservationTtlMinutes));
+    }
+
+    private static final class Reservation {
+
+        private final Instant expiresAt;
+        private final Map<Long, Long> quantities = new HashMap<>();
+
+        private Reservation(Instant expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        private synchronized void add(Long inventoryItemId, long scaledQuantity) {
+            quantities.merge(inventoryItemId, scaledQuantity, Long::sum);
+        }
+
+        private synchronized long get(Long inventoryItemId) {
+            return quantities.getOrDefault(inventoryItemId, 0L);
+        }
+
+        private synchronized Map<Long, Long> snapshot() {
+            return new HashMap<>(quantities);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.rms.service.inventory;
+
+import com.rms.entity.Restaurant;
+import com.rms.entity.StockSnapshotProgress;
+import com.rms.repository.RestaurantRepository;
+import com.rms.repository.StockBalanceSnapshotRepository;
+import com.rms.repository.StockSnapshotProgressRepository;
+import com.rms.repository.StockTransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Rolls the append-only stock_transactions ledger up into daily per-item snapshots.
+ *
+ * Each restaurant's progress row records the last day rolled up, so the job resumes where
+ * it stopped: the first run backfills the whole history, later runs add the day that just
+ * ended. Every day commits on its own, which keeps transactions short during a backfill.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockSnapshotJob {
+
+    private final RestaurantRepository restaurantRepository;
+    private final StockTransactionRepository transactionRepository;
+    private final StockBalanceSnapshotRepository snapshotRepository;
+    private final StockSnapshotProgressRepository progressRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Roll up all completed days. Runs shortly after midnight so transactions
+     * committed just before it are included.
+     */
+    @Scheduled(cron = "${app.inventory.snapshots.cron:0 15 0 * * *}")
+    public void snapshotCompletedDays() {
+        LocalDate through = LocalDate.now().minusDays(1);
+        int days = 0;
+
+        for (Restaurant restaurant : restaurantRepository.findAll()) {
+            try {
+                days += backfill(restaurant.getId(), through);
+            } catch (Exception e) {
+                log.error("Failed to snapshot stock balances for restaurant: {}", restaurant.getId(), e);
+            }
+        }
+
+        log.info("Stock balance snapshots rolled up through {}: {} restaurant days", through, days);
+    }
+
+    /**
+     * Roll up the days after the restaurant's progress marker, up to and including through
+     *
+     * @return number of days rolled up
+     */
+    public int backfill(Long restaurantId, LocalDate through) {
+        LocalDate from = progressRepository.findById(restaurantId)
+                .map(progress -> progress.getSnapshotThrough().plusDays(1))
+                .orElse(null);
+
+        if (from == null) {
+            LocalDateTime first = transactionRepository.findFirstTransactionAt(restaurantId);
+            if (first == null) {
+                // No history yet: nothing to roll up before today
+                progressRepository.save(new StockSnapshotProgress(restaurantId, through, null));
+                return 0;
+            }
+            from = first.toLocalDate();
+        }
+
+        int days = 0;
+        for (LocalDate day = from; !day.isAfter(through); day = day.plusDays(1)) {
+            LocalDate current = day;
+            Integer items = transactionTemplate.execute(status -> {
+                int rows = snapshotRepository.rollUpDay(restaurantId, current);
+                progressRepository.save(new StockSnapshotProgress(restaurantId, current, null));
+                return rows;
+            });
+            log.debug("Stock snapshot for restaurant {} on {}: {} items", restaurantId, current, items);
+            days++;
+        }
+        return days;
+    }
+}
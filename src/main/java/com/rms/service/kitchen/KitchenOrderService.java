@@ -9,8 +9,8 @@ import com.rms.entity.*;
 import com.rms.exception.*;
 import com.rms.repository.*;
 import com.rms.security.SecurityUtil;
-import com.rms.service.notification.NotificationService;
-import com.rms.service.tracking.OrderTimelineService;
+import com.rms.service.order.event.OrderEventPublisher;
+import com.rms.service.order.state.OrderStateMachine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -33,8 +33,8 @@ public class KitchenOrderService {
     private final OrderStatusHistoryRepository statusHistoryRepository;
     private final OrderPreparationMetricsRepository metricsRepository;
     private final UserRepository userRepository;
-    private final OrderTimelineService timelineService;
-    private final NotificationService notificationService;
+    private final OrderEventPublisher eventPublisher;
+    private final OrderStateMachine stateMachine;
 
     public List<KitchenOrderResponse> getActiveKitchenOrders(
             Long restaurantId, String statusFilter, String stationFilter) {
@@ -84,12 +84,7 @@ public class KitchenOrderService {
 
         validateRestaurantAccess(order.getRestaurantId());
 
-        if (order.getStatus() != Order.OrderStatus.CONFIRMED) {
-            throw new BadRequestException("Order must be in CONFIRMED status to start preparing");
-        }
-
-        Order.OrderStatus previousStatus = order.getStatus();
-        order.setStatus(Order.OrderStatus.PREPARING);
+        Order.OrderStatus previousStatus = stateMachine.transition(order, Order.OrderStatus.PREPARING, userId);
 
         Integer estimatedTime = request != null && request.getEstimatedTimeMinutes() != null
                 ? request.getEstimatedTimeMinutes()
@@ -106,16 +101,17 @@ public class KitchenOrderService {
         recordStatusChange(order, previousStatus, userId,
                 request != null ? request.getNotes() : null);
 
-        timelineService.addEvent(order, OrderTimeline.EventType.KITCHEN_STARTED,
-                "Kitchen has started preparing your order",
-                "Your delicious food is being prepared by our chefs");
-
         updateMetrics(order);
 
         orderRepository.save(order);
 
-        notificationService.sendOrderStatusUpdate(order,
-                "Your order #" + order.getOrderNumber() + " is being prepared");
+        eventPublisher.publish(OrderEvent.forOrder(order, OrderEvent.EventType.KITCHEN_STARTED)
+                .fromStatus(previousStatus)
+                .timelineEventType(OrderTimeline.EventType.KITCHEN_STARTED)
+                .timelineTitle("Kitchen has started preparing your order")
+                .timelineDescription("Your delicious food is being prepared by our chefs")
+                .notificationMessage("Your order #" + order.getOrderNumber() + " is being prepared")
+                .build());
 
         log.info("Order preparation started successfully: {}", orderId);
 
@@ -169,13 +165,7 @@ public class KitchenOrderService {
 
         validateRestaurantAccess(order.getRestaurantId());
 
-        if (order.getStatus() != Order.OrderStatus.PREPARING) {
-            throw new BadRequestException("Order must be in PREPARING status");
-        }
-
-        Order.OrderStatus previousStatus = order.getStatus();
-        order.setStatus(Order.OrderStatus.READY);
-        order.setActualReadyTime(LocalDateTime.now());
+        Order.OrderStatus previousStatus = stateMachine.transition(order, Order.OrderStatus.READY, userId);
 
         recordStatusChange(order, previousStatus, userId,
                 request != null ? request.getNotes() : null);
@@ -184,17 +174,17 @@ public class KitchenOrderService {
                 ? "Your food will be served shortly"
                 : "Your order is ready for pickup";
 
-        timelineService.addEvent(order, OrderTimeline.EventType.FOOD_READY,
-                "Your order is ready!",
-                timelineDescription);
-
         updateMetrics(order);
 
         orderRepository.save(order);
 
-        if (request == null || request.getNotifyCustomer()) {
-            notificationService.sendOrderReadyNotification(order);
-        }
+        eventPublisher.publish(OrderEvent.forOrder(order, OrderEvent.EventType.FOOD_READY)
+                .fromStatus(previousStatus)
+                .timelineEventType(OrderTimeline.EventType.FOOD_READY)
+                .timelineTitle("Your order is ready!")
+                .timelineDescription(timelineDescription)
+                .notifyCustomer(request == null || request.getNotifyCustomer())
+                .build());
 
         log.info("Order marked as ready: {}", orderId);
 
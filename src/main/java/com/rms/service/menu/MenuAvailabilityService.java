@@ -0,0 +1,467 @@
+package com.rms.service.menu;
+
+import com.rms.dto.menu.MenuAvailabilityResponse;
+import com.rms.dto.menu.MenuItemToggleResponse;
+import com.rms.exception.ResourceNotFoundException;
+import com.rms.repository.InventoryItemRepository;
+import com.rms.repository.MenuItemRepository;
+import com.rms.repository.RestaurantRepository;
+import com.rms.service.inventory.RecipeGraph;
+import com.rms.service.inventory.RecipeGraph.RecipeLine;
+import com.rms.service.inventory.StockReservationLedger;
+import com.rms.service.support.TransactionCallbacks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Menu Availability Service - live "sellable portions per menu item" for the public menu
+ *
+ * Sellable portions = min over required ingredients of free stock / quantity per portion,
+ * where free stock is the reservation ledger's figure, i.e. what checkAndReserve would
+ * still grant. A stock change recomputes only the menu items that use the changed
+ * inventory items and pushes the changed values to SSE subscribers. Items staff switch on
+ * or off are part of the view too: the snapshot lists them and each switch is pushed on
+ * the same stream, in the same version sequence.
+ *
+ * Events are queued per restaurant while its view is locked and sent in that order on
+ * menuAvailabilityExecutor, so subscribers see versions in order and a slow client never
+ * holds up the thread that changed stock. Views exist only for active restaurants and
+ * are dropped once nobody has read or streamed them for idle-minutes.
+ */
+@Service
+@Slf4j
+public class MenuAvailabilityService {
+
+    private static final String SNAPSHOT_EVENT = "availability-snapshot";
+    private static final String DELTA_EVENT = "availability-delta";
+    private static final String TOGGLE_EVENT = "items-toggled";
+
+    private final RecipeGraph recipeGraph;
+    private final StockReservationLedger reservationLedger;
+    private final InventoryItemRepository inventoryRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final TaskExecutor executor;
+
+    @Value("${app.menu.availability.stream-timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    @Value("${app.menu.availability.idle-minutes:60}")
+    private long idleMinutes;
+
+    private final Map<Long, View> views = new ConcurrentHashMap<>();
+
+    // Only restaurants with a built view are tracked
+    private final Map<Long, Long> restaurantByInventoryItem = new ConcurrentHashMap<>();
+
+    public MenuAvailabilityService(RecipeGraph recipeGraph,
+                                   StockReservationLedger reservationLedger,
+                                   InventoryItemRepository inventoryRepository,
+                                   MenuItemRepository menuItemRepository,
+                                   RestaurantRepository restaurantRepository,
+                                   @Qualifier("menuAvailabilityExecutor") TaskExecutor executor) {
+        this.recipeGraph = recipeGraph;
+        this.reservationLedger = reservationLedger;
+        this.inventoryRepository = inventoryRepository;
+        this.menuItemRepository = menuItemRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.executor = executor;
+    }
+
+    public MenuAvailabilityResponse getAvailability(Long restaurantId) {
+        while (true) {
+            View view = view(restaurantId);
+            synchronized (view) {
+                if (view.evicted) {
+                    continue;
+                }
+                enqueue(view, null, syncRecipes(restaurantId, view));
+                return snapshot(restaurantId, view);
+            }
+        }
+    }
+
+    public SseEmitter subscribe(Long restaurantId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        while (true) {
+            View view = view(restaurantId);
+            synchronized (view) {
+                if (view.evicted) {
+                    continue;
+                }
+                view.subscribers.add(subscriber);
+                emitter.onCompletion(() -> view.subscribers.remove(subscriber));
+                emitter.onTimeout(() -> view.subscribers.remove(subscriber));
+                emitter.onError(e -> view.subscribers.remove(subscriber));
+
+                // Deltas queued from here on are newer than the snapshot and follow it
+                enqueue(view, null, syncRecipes(restaurantId, view));
+                enqueue(view, subscriber, snapshot(restaurantId, view));
+                return emitter;
+            }
+        }
+    }
+
+    /**
+     * Forget views nobody has read or streamed for a while; their next read builds afresh
+     */
+    @Scheduled(fixedDelayString = "${app.menu.availability.sweep-interval-ms:300000}")
+    public void evictIdle() {
+        long idleNanos = TimeUnit.MINUTES.toNanos(idleMinutes);
+        long now = System.nanoTime();
+        views.forEach((restaurantId, view) -> {
+            synchronized (view) {
+                if (view.subscribers.isEmpty() && now - view.lastAccessAt > idleNanos) {
+                    view.evicted = true;
+                    views.remove(restaurantId, view);
+                    view.menuItemsByInventoryItem.keySet()
+                            .forEach(inventoryItemId -> restaurantByInventoryItem.remove(inventoryItemId, restaurantId));
+                }
+            }
+        });
+    }
+
+    /**
+     * Recompute the menu items using these inventory items once the current transaction
+     * commits, so the new quantities are visible
+     */
+    public void refreshAfterCommit(Collection<Long> inventoryItemIds) {
+        if (inventoryItemIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(inventoryItemIds);
+        TransactionCallbacks.afterCommit(() -> refresh(ids));
+    }
+
+    /**
+     * Tell subscribers that these menu items were switched on or off, once the current
+     * transaction commits
+     */
+    public void publishToggleAfterCommit(Long restaurantId, Collection<Long> menuItemIds, boolean isAvailable) {
+        if (menuItemIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(menuItemIds);
+        TransactionCallbacks.afterCommit(() -> publishToggle(restaurantId, ids, isAvailable));
+    }
+
+    public void refresh(Collection<Long> inventoryItemIds) {
+        Map<Long, Set<Long>> byRestaurant = new HashMap<>();
+        for (Long inventoryItemId : inventoryItemIds) {
+            Long restaurantId = restaurantByInventoryItem.get(inventoryItemId);
+            if (restaurantId != null) {
+                byRestaurant.computeIfAbsent(restaurantId, id -> new HashSet<>()).add(inventoryItemId);
+            }
+        }
+
+        byRestaurant.forEach((restaurantId, changed) -> {
+            View view = views.get(restaurantId);
+            if (view == null) {
+                return;
+            }
+            synchronized (view) {
+                if (view.evicted) {
+                    return;
+                }
+                MenuAvailabilityResponse delta = syncRecipes(restaurantId, view);
+                enqueue(view, null, delta != null ? delta : recompute(restaurantId, view, changed));
+            }
+        });
+    }
+
+    /**
+     * Rebuild the view when the recipe graph changed (link edits, TTL refresh).
+     * Returns the resulting delta, or null when nothing changed.
+     */
+    private MenuAvailabilityResponse syncRecipes(Long restaurantId, View view) {
+        RecipeGraph.Recipes recipes = recipeGraph.forRestaurant(restaurantId);
+        if (view.recipes == recipes) {
+            return null;
+        }
+
+        Map<Long, List<Long>> menuItemsByInventoryItem = new HashMap<>();
+        long[] menuItemIds = recipes.menuItemIds();
+        for (long menuItemId : menuItemIds) {
+            for (RecipeLine line : recipes.ingredients(menuItemId)) {
+                if (!line.optional()) {
+                    menuItemsByInventoryItem.computeIfAbsent(line.inventoryItemId(), id -> new ArrayList<>())
+                            .add(menuItemId);
+                }
+            }
+        }
+
+        // One query for items the ledger has not seen yet
+        List<Long> cold = menuItemsByInventoryItem.keySet().stream()
+                .filter(id -> reservationLedger.getAvailable(id) == null)
+                .toList();
+        Map<Long, BigDecimal> onHand = new HashMap<>();
+        if (!cold.isEmpty()) {
+            for (Object[] row : inventoryRepository.findCurrentQuantitiesByIdIn(cold)) {
+                onHand.put((Long) row[0], (BigDecimal) row[1]);
+            }
+        }
+
+        Map<Long, Integer> sellable = new HashMap<>();
+        for (long menuItemId : menuItemIds) {
+            Integer portions = sellablePortions(recipes.ingredients(menuItemId), onHand);
+            if (portions != null) {
+                sellable.put(menuItemId, portions);
+            }
+        }
+
+        Map<Long, Integer> changed = new HashMap<>();
+        sellable.forEach((menuItemId, portions) -> {
+            if (!portions.equals(view.sellable.get(menuItemId))) {
+                changed.put(menuItemId, portions);
+            }
+        });
+        view.sellable.keySet().stream()
+                .filter(menuItemId -> !sellable.containsKey(menuItemId))
+                .forEach(menuItemId -> changed.put(menuItemId, null));
+
+        menuItemsByInventoryItem.keySet().forEach(id -> restaurantByInventoryItem.put(id, restaurantId));
+        view.recipes = recipes;
+        view.menuItemsByInventoryItem = menuItemsByInventoryItem;
+        view.sellable = sellable;
+        log.debug("Menu availability rebuilt for restaurant {}: {} tracked items", restaurantId, sellable.size());
+
+        return bump(restaurantId, view, changed);
+    }
+
+    private MenuAvailabilityResponse recompute(Long restaurantId, View view, Set<Long> inventoryItemIds) {
+        Set<Long> menuItemIds = new HashSet<>();
+        for (Long inventoryItemId : inventoryItemIds) {
+            menuItemIds.addAll(view.menuItemsByInventoryItem.getOrDefault(inventoryItemId, List.of()));
+        }
+
+        Map<Long, Integer> changed = new HashMap<>();
+        for (Long menuItemId : menuItemIds) {
+            Integer portions = sellablePortions(view.recipes.ingredients(menuItemId), Map.of());
+            if (!Objects.equals(portions, view.sellable.get(menuItemId))) {
+                view.sellable.put(menuItemId, portions);
+                changed.put(menuItemId, portions);
+            }
+        }
+        return bump(restaurantId, view, changed);
+    }
+
+    private MenuAvailabilityResponse bump(Long restaurantId, View view, Map<Long, Integer> changed) {
+        if (changed.isEmpty()) {
+            return null;
+        }
+        view.version++;
+        return toResponse(restaurantId, view.version, changed);
+    }
+
+    /**
+     * Null when the item has no required ingredients, i.e. stock never limits it
+     */
+    private Integer sellablePortions(List<RecipeLine> ingredients, Map<Long, BigDecimal> onHand) {
+        Integer portions = null;
+        for (RecipeLine line : ingredients) {
+            if (line.optional() || line.quantityRequired().signum() <= 0) {
+                continue;
+            }
+            BigDecimal free = reservationLedger.getAvailable(line.inventoryItemId(),
+                    () -> onHand.containsKey(line.inventoryItemId())
+                            ? onHand.get(line.inventoryItemId())
+                            : loadQuantity(line.inventoryItemId()));
+            BigDecimal perIngredient = free.signum() <= 0
+                    ? BigDecimal.ZERO
+                    : free.divide(line.quantityRequired(), 0, RoundingMode.DOWN);
+            int value = perIngredient.min(BigDecimal.valueOf(Integer.MAX_VALUE)).intValue();
+            portions = portions == null ? value : Math.min(portions, value);
+        }
+        return portions;
+    }
+
+    private BigDecimal loadQuantity(Long inventoryItemId) {
+        List<Object[]> rows = inventoryRepository.findCurrentQuantitiesByIdIn(List.of(inventoryItemId));
+        return rows.isEmpty() ? BigDecimal.ZERO : (BigDecimal) rows.get(0)[1];
+    }
+
+    /**
+     * Apply the switch to a view that has loaded its switched-off items; one that has not
+     * will read it from the database. The version is bumped so clients tracking it see no gap.
+     */
+    private void publishToggle(Long restaurantId, List<Long> menuItemIds, boolean isAvailable) {
+        View view = views.get(restaurantId);
+        if (view == null) {
+            return;
+        }
+        synchronized (view) {
+            if (view.evicted || view.unavailable == null) {
+                return;
+            }
+            if (isAvailable) {
+                view.unavailable.removeAll(menuItemIds);
+            } else {
+                view.unavailable.addAll(menuItemIds);
+            }
+            long version = ++view.version;
+            enqueue(view, null, MenuItemToggleResponse.builder()
+                    .restaurantId(restaurantId)
+                    .version(version)
+                    .itemIds(menuItemIds)
+                    .isAvailable(isAvailable)
+                    .build());
+        }
+    }
+
+    /**
+     * Full state of the view; call with the view locked
+     */
+    private MenuAvailabilityResponse snapshot(Long restaurantId, View view) {
+        if (view.unavailable == null) {
+            view.unavailable = new HashSet<>(menuItemRepository.findUnavailableIdsByRestaurantId(restaurantId));
+        }
+        MenuAvailabilityResponse snapshot = toResponse(restaurantId, view.version, new HashMap<>(view.sellable));
+        snapshot.setUnavailableItemIds(view.unavailable.stream().sorted().toList());
+        return snapshot;
+    }
+
+    /**
+     * Existing view, or a new empty one for an active restaurant; callers sync it under its lock
+     */
+    private View view(Long restaurantId) {
+        View view = views.get(restaurantId);
+        if (view == null) {
+            if (!restaurantRepository.existsByIdAndIsActiveTrue(restaurantId)) {
+                throw new ResourceNotFoundException("Restaurant not found");
+            }
+            view = views.computeIfAbsent(restaurantId, id -> new View());
+        }
+        view.lastAccessAt = System.nanoTime();
+        return view;
+    }
+
+    /**
+     * Queue an event behind those already queued for the view; call with the view locked.
+     * A null target sends to every subscriber that has had its snapshot.
+     */
+    private void enqueue(View view, Subscriber target, Object data) {
+        if (data == null || view.subscribers.isEmpty()) {
+            return;
+        }
+        String eventName = data instanceof MenuItemToggleResponse ? TOGGLE_EVENT
+                : target != null ? SNAPSHOT_EVENT : DELTA_EVENT;
+        long version = data instanceof MenuItemToggleResponse toggle
+                ? toggle.getVersion()
+                : ((MenuAvailabilityResponse) data).getVersion();
+        view.outbox.add(new Outgoing(target, eventName, version, data));
+        drain(view);
+    }
+
+    /**
+     * At most one drain per view runs at a time, so events leave in the order they were queued
+     */
+    private void drain(View view) {
+        if (!view.sending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    Outgoing outgoing;
+                    while ((outgoing = view.outbox.poll()) != null) {
+                        send(view, outgoing);
+                    }
+                } finally {
+                    view.sending.set(false);
+                    if (!view.outbox.isEmpty()) {
+                        drain(view);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            view.sending.set(false);
+            log.error("Could not schedule menu availability events", e);
+        }
+    }
+
+    private void send(View view, Outgoing outgoing) {
+        Collection<Subscriber> targets = outgoing.target() != null
+                ? List.of(outgoing.target())
+                : view.subscribers;
+        for (Subscriber subscriber : targets) {
+            if (outgoing.target() == null && !subscriber.ready) {
+                continue; // Its snapshot is still queued and already includes this change
+            }
+            try {
+                subscriber.emitter.send(SseEmitter.event()
+                        .name(outgoing.eventName())
+                        .id(String.valueOf(outgoing.version()))
+                        .data(outgoing.data()));
+                subscriber.ready = true;
+            } catch (IOException | IllegalStateException e) {
+                view.subscribers.remove(subscriber);
+                subscriber.emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private MenuAvailabilityResponse toResponse(Long restaurantId, long version, Map<Long, Integer> items) {
+        return MenuAvailabilityResponse.builder()
+                .restaurantId(restaurantId)
+                .version(version)
+                .items(items)
+                .build();
+    }
+
+    /**
+     * One restaurant's projection; all fields are guarded by the instance's monitor
+     */
+    private static final class View {
+        private RecipeGraph.Recipes recipes;
+        private Map<Long, List<Long>> menuItemsByInventoryItem = Map.of();
+        private Map<Long, Integer> sellable = new HashMap<>();
+        private long version;
+
+        // Loaded with the first snapshot, then kept up to date by toggles
+        private Set<Long> unavailable;
+
+        private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+        private final Queue<Outgoing> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile long lastAccessAt = System.nanoTime();
+        private boolean evicted;
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+
+        // Set once its snapshot went out; only the view's drain touches it
+        private volatile boolean ready;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    private record Outgoing(Subscriber target, String eventName, long version, Object data) {
+    }
+}
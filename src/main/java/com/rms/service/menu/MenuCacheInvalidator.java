@@ -0,0 +1,30 @@
+package com.rms.service.menu;
+
+import com.rms.service.menu.event.MenuChange;
+import com.rms.service.menu.event.MenuChangeListener;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts the changed restaurant's entries from the menu caches; other restaurants keep theirs
+ */
+@Component
+@RequiredArgsConstructor
+public class MenuCacheInvalidator implements MenuChangeListener {
+
+    public static final String CATEGORIES_CACHE = "menuCategories"; // Keyed by restaurant id
+
+    private final CacheManager cacheManager;
+
+    @Override
+    public void onMenuChanged(MenuChange change) {
+        if (change.affects(MenuChange.Scope.CATEGORIES)) {
+            Cache categories = cacheManager.getCache(CATEGORIES_CACHE);
+            if (categories != null) {
+                categories.evict(change.restaurantId());
+            }
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.rms.service.menu;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rms.dto.auth.ApiResponse;
+import com.rms.dto.menu.CategoryResponse;
+import com.rms.dto.menu.MenuItemResponse;
+import com.rms.dto.menu.PublicMenuResponse;
+import com.rms.entity.MenuItem;
+import com.rms.exception.ResourceNotFoundException;
+import com.rms.repository.MenuCategoryRepository;
+import com.rms.repository.MenuItemRepository;
+import com.rms.repository.RestaurantRepository;
+import com.rms.service.menu.event.MenuChange;
+import com.rms.service.menu.event.MenuChangeListener;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Precomputed public menu per restaurant.
+ *
+ * The public menu is read far more often than it changes, so each restaurant's menu is
+ * built once into a document holding the already serialized responses, and requests copy
+ * bytes instead of loading and mapping entities. The document's ETag is a hash of its
+ * content, so clients revalidate with If-None-Match and get a 304 until the menu changes.
+ * Menu mutations rebuild the document in the background after commit; readers keep the
+ * previous document until the new one is published. Documents are also rebuilt on read
+ * once a scheduled price changes (see PriceScheduleIndex) or after the max age, which
+ * bounds drift from changes made elsewhere (other nodes, SQL).
+ */
+@Component
+@Slf4j
+public class MenuReadModel implements MenuChangeListener {
+
+    private static final String ETAG_ALGORITHM = "SHA-256";
+    private static final int ETAG_HEX_LENGTH = 32;
+
+    private static final Comparator<MenuItem> DISPLAY_ORDER = Comparator
+            .comparing(MenuItem::getDisplayOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(MenuItem::getId);
+
+    private final MenuCategoryRepository categoryRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final MenuResponseMapper responseMapper;
+    private final PriceScheduleIndex priceScheduleIndex;
+    private final RestaurantRepository restaurantRepository;
+    private final ObjectMapper objectMapper;
+    private final TaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.menu.read-model.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    @Value("${app.menu.read-model.idle-minutes:60}")
+    private long idleMinutes;
+
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+
+    public MenuReadModel(MenuCategoryRepository categoryRepository,
+                         MenuItemRepository menuItemRepository,
+                         MenuResponseMapper responseMapper,
+                         PriceScheduleIndex priceScheduleIndex,
+                         RestaurantRepository restaurantRepository,
+                         ObjectMapper objectMapper,
+                         @Qualifier("menuReadModelExecutor") TaskExecutor executor,
+                         PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        this.menuItemRepository = menuItemRepository;
+        this.responseMapper = responseMapper;
+        this.priceScheduleIndex = priceScheduleIndex;
+        this.restaurantRepository = restaurantRepository;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * The restaurant's current document; the first read builds it, for active restaurants only
+     */
+    public Document get(Long restaurantId) {
+        Slot slot = slots.get(restaurantId);
+        if (slot == null) {
+            if (!restaurantRepository.existsByIdAndIsActiveTrue(restaurantId)) {
+                throw new ResourceNotFoundException("Restaurant not found");
+            }
+            slot = slots.computeIfAbsent(restaurantId, id -> new Slot());
+        }
+        slot.lastReadAt = System.nanoTime();
+
+        Document document = slot.document;
+        if (document == null) {
+            synchronized (slot) {
+                if (slot.document == null) {
+                    long sequence = slot.requested.get();
+                    slot.publish(build(restaurantId), sequence);
+                }
+                return slot.document;
+            }
+        }
+        if (document.isStale(maxAgeSeconds, LocalDateTime.now())) {
+            requestRebuild(restaurantId);
+        }
+        return document;
+    }
+
+    /**
+     * Rebuild the restaurant's document; the bus calls this after the change committed
+     */
+    @Override
+    public void onMenuChanged(MenuChange change) {
+        requestRebuild(change.restaurantId());
+    }
+
+    /**
+     * Queue a rebuild; requests made while one is queued share it. Restaurants nobody has
+     * read are skipped, their first read builds from committed data.
+     */
+    void requestRebuild(Long restaurantId) {
+        Slot slot = slots.get(restaurantId);
+        if (slot == null) {
+            return;
+        }
+        slot.requested.incrementAndGet();
+        if (slot.queued.compareAndSet(false, true)) {
+            executor.execute(() -> rebuild(restaurantId, slot));
+        }
+    }
+
+    /**
+     * Forget documents nobody has read for a while; their next read builds afresh
+     */
+    @Scheduled(fixedDelayString = "${app.menu.read-model.sweep-interval-ms:300000}")
+    public void evictIdle() {
+        long idleNanos = TimeUnit.MINUTES.toNanos(idleMinutes);
+        long now = System.nanoTime();
+        slots.entrySet().removeIf(entry -> now - entry.getValue().lastReadAt > idleNanos);
+    }
+
+    private void rebuild(Long restaurantId, Slot slot) {
+        // Cleared first: a change committed from here on queues another rebuild
+        slot.queued.set(false);
+        long sequence = slot.requested.get();
+        try {
+            slot.publish(build(restaurantId), sequence);
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild the menu document for restaurant {}", restaurantId, e);
+        }
+    }
+
+    private Document build(Long restaurantId) {
+        LocalDateTime builtAt = LocalDateTime.now();
+        PublicMenuResponse menu = transactionTemplate.execute(status -> load(restaurantId, builtAt));
+
+        Map<Long, List<MenuItemResponse>> itemsByCategory = new LinkedHashMap<>();
+        for (MenuItemResponse item : menu.getItems()) {
+            itemsByCategory.computeIfAbsent(item.getCategoryId(), id -> new ArrayList<>()).add(item);
+        }
+        Map<Long, byte[]> itemPages = new HashMap<>();
+        itemsByCategory.forEach((categoryId, items) ->
+                itemPages.put(categoryId, serialize(response("Menu items fetched successfully", items, builtAt))));
+        Set<Long> featuredIds = Set.copyOf(menu.getFeaturedItemIds());
+        List<MenuItemResponse> featured = menu.getItems().stream()
+                .filter(item -> featuredIds.contains(item.getId()))
+                .toList();
+
+        Document document = new Document(
+                etag(serialize(menu)),
+                builtAt,
+                priceScheduleIndex.nextChangeAfter(restaurantId, builtAt),
+                serialize(response("Menu fetched successfully", menu, builtAt)),
+                serialize(response("Root categories fetched successfully", menu.getCategories(), builtAt)),
+                serialize(response("Featured items fetched successfully", featured, builtAt)),
+                itemPages,
+                serialize(response("Menu items fetched successfully", List.of(), builtAt)));
+        log.debug("Menu document built for restaurant {}: {} items, etag {}",
+                restaurantId, menu.getItems().size(), document.getEtag());
+        return document;
+    }
+
+    private PublicMenuResponse load(Long restaurantId, LocalDateTime pricedAt) {
+        List<CategoryResponse> categories = categoryRepository
+                .findByRestaurantIdAndParentCategoryIsNullAndIsActiveTrueOrderByDisplayOrderAsc(restaurantId)
+                .stream()
+                .map(responseMapper::mapToCategoryResponseWithChildren)
+                .toList();
+
+        List<MenuItem> items = menuItemRepository.findByRestaurantIdAndIsActiveTrueOrderByDisplayOrderAsc(restaurantId)
+                .stream()
+                .sorted(DISPLAY_ORDER)
+                .toList();
+
+        return PublicMenuResponse.builder()
+                .restaurantId(restaurantId)
+                .categories(categories)
+                .items(items.stream().map(item -> responseMapper.mapToMenuItemResponse(item, pricedAt)).toList())
+                .featuredItemIds(items.stream()
+                        .filter(item -> Boolean.TRUE.equals(item.getIsFeatured()))
+                        .map(MenuItem::getId)
+                        .toList())
+                .build();
+    }
+
+    private static <T> ApiResponse<T> response(String message, T data, LocalDateTime builtAt) {
+        return ApiResponse.<T>builder()
+                .success(true)
+                .message(message)
+                .data(data)
+                .timestamp(builtAt)
+                .build();
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String etag(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance(ETAG_ALGORITHM).digest(content);
+            return "\"" + HexFormat.of().formatHex(digest).substring(0, ETAG_HEX_LENGTH) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ETAG_ALGORITHM + " is not available", e);
+        }
+    }
+
+    /**
+     * One restaurant's published document and its rebuild bookkeeping
+     */
+    private static final class Slot {
+
+        private volatile Document document;
+        private volatile long lastReadAt = System.nanoTime();
+        private long publishedSequence = -1; // guarded by the slot's monitor
+
+        // Bumped per committed change; a build carries the value it started from
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicBoolean queued = new AtomicBoolean();
+
+        /**
+         * Publish unless a build that saw later changes already did. An unchanged menu keeps
+         * the published document, so its bytes stay identical under the same ETag.
+         */
+        private synchronized void publish(Document built, long sequence) {
+            if (sequence < publishedSequence) {
+                return;
+            }
+            publishedSequence = sequence;
+            if (document != null && document.getEtag().equals(built.getEtag())) {
+                document.touch(built.getValidUntil());
+                return;
+            }
+            document = built;
+        }
+    }
+
+    /**
+     * A built public menu: the serialized API responses sharing one ETag
+     */
+    @Getter
+    public static final class Document {
+
+        private final String etag;
+        private final LocalDateTime builtAt;
+        private volatile LocalDateTime validUntil; // Next scheduled price change; null if none
+        private final byte[] menu;
+        private final byte[] categories;
+        private final byte[] featuredItems;
+        private final Map<Long, byte[]> itemsByCategory;
+        private final byte[] noItems;
+        private volatile long checkedAt = System.nanoTime();
+
+        private Document(String etag, LocalDateTime builtAt, LocalDateTime validUntil, byte[] menu, byte[] categories,
+                         byte[] featuredItems, Map<Long, byte[]> itemsByCategory, byte[] noItems) {
+            this.etag = etag;
+            this.builtAt = builtAt;
+            this.validUntil = validUntil;
+            this.menu = menu;
+            this.categories = categories;
+            this.featuredItems = featuredItems;
+            this.itemsByCategory = Collections.unmodifiableMap(itemsByCategory);
+            this.noItems = noItems;
+        }
+
+        /**
+         * Active items of one category; empty for a category without any
+         */
+        public byte[] items(Long categoryId) {
+            return itemsByCategory.getOrDefault(categoryId, noItems);
+        }
+
+        private void touch(LocalDateTime validUntil) {
+            this.validUntil = validUntil;
+            checkedAt = System.nanoTime();
+        }
+
+        boolean isStale(long maxAgeSeconds, LocalDateTime now) {
+            return (validUntil != null && !now.isBefore(validUntil))
+                    || System.nanoTime() - checkedAt > TimeUnit.SECONDS.toNanos(maxAgeSeconds);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.rms.service.menu;
+
+import com.rms.dto.menu.CategoryResponse;
+import com.rms.dto.menu.MenuItemResponse;
+import com.rms.entity.MenuCategory;
+import com.rms.entity.MenuItem;
+import com.rms.repository.MenuCategoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Maps menu entities to the responses shared by the admin and public menu
+ */
+@Component
+@RequiredArgsConstructor
+public class MenuResponseMapper {
+
+    // Sub-categories are a set; order them like the category lists
+    private static final Comparator<MenuCategory> DISPLAY_ORDER = Comparator
+            .comparing(MenuCategory::getDisplayOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(MenuCategory::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final MenuCategoryRepository categoryRepository;
+    private final PriceScheduleIndex priceScheduleIndex;
+
+    public CategoryResponse mapToCategoryResponse(MenuCategory category) {
+        Long itemCount = categoryRepository.countItemsByCategory(category.getId());
+
+        return CategoryResponse.builder()
+                .id(category.getId())
+                .restaurantId(category.getRestaurantId())
+                .name(category.getName())
+                .description(category.getDescription())
+                .imageUrl(category.getImageUrl())
+                .iconName(category.getIconName())
+                .displayOrder(category.getDisplayOrder())
+                .parentCategoryId(category.getParentCategory() != null ? category.getParentCategory().getId() : null)
+                .parentCategoryName(category.getParentCategory() != null ? category.getParentCategory().getName() : null)
+                .itemCount(itemCount.intValue())
+                .isActive(category.getIsActive())
+                .isFeatured(category.getIsFeatured())
+                .availableFrom(category.getAvailableFrom())
+                .availableTo(category.getAvailableTo())
+                .createdAt(category.getCreatedAt())
+                .build();
+    }
+
+    public CategoryResponse mapToCategoryResponseWithChildren(MenuCategory category) {
+        CategoryResponse response = mapToCategoryResponse(category);
+
+        if (!category.getSubCategories().isEmpty()) {
+            List<CategoryResponse> children = category.getSubCategories().stream()
+                    .filter(MenuCategory::getIsActive)
+                    .sorted(DISPLAY_ORDER)
+                    .map(this::mapToCategoryResponse)
+                    .collect(Collectors.toList());
+            response.setSubCategories(children);
+        }
+
+        return response;
+    }
+
+    public MenuItemResponse mapToMenuItemResponse(MenuItem item) {
+        return mapToMenuItemResponse(item, LocalDateTime.now());
+    }
+
+    /**
+     * @param pricedAt when the final price applies: active price schedule, else discounted
+     *                 price, else base price, as orders are priced
+     */
+    public MenuItemResponse mapToMenuItemResponse(MenuItem item, LocalDateTime pricedAt) {
+        BigDecimal finalPrice = priceScheduleIndex.scheduledPrice(item.getRestaurantId(), item.getId(), pricedAt);
+        if (finalPrice == null) {
+            finalPrice = item.getDiscountedPrice() != null ?
+                    item.getDiscountedPrice() : item.getBasePrice();
+        }
+
+        Boolean isLowStock = item.getStockQuantity() != null &&
+                item.getLowStockThreshold() != null &&
+                item.getStockQuantity() <= item.getLowStockThreshold();
+
+        return MenuItemResponse.builder()
+                .id(item.getId())
+                .restaurantId(item.getRestaurantId())
+                .categoryId(item.getCategory().getId())
+                .categoryName(item.getCategory().getName())
+                .sku(item.getSku())
+                .name(item.getName())
+                .description(item.getDescription())
+                .basePrice(item.getBasePrice())
+                .discountedPrice(item.getDiscountedPrice())
+                .finalPrice(finalPrice)
+                .imageUrl(item.getImageUrl())
+                .preparationTimeMinutes(item.getPreparationTimeMinutes())
+                .itemType(item.getItemType() != null ? item.getItemType().name() : null)
+                .isVegetarian(item.getIsVegetarian())
+                .isVegan(item.getIsVegan())
+                .isGlutenFree(item.getIsGlutenFree())
+                .isSpicy(item.getIsSpicy())
+                .spiceLevel(item.getSpiceLevel())
+                .calories(item.getCalories())
+                .allergenInfo(item.getAllergenInfo())
+                .isAvailable(item.getIsAvailable())
+                .isActive(item.getIsActive())
+                .isFeatured(item.getIsFeatured())
+                .isBestSeller(item.getIsBestSeller())
+                .availableFrom(item.getAvailableFrom())
+                .availableTo(item.getAvailableTo())
+                .availableForDineIn(item.getAvailableForDineIn())
+                .availableForTakeaway(item.getAvailableForTakeaway())
+                .availableForDelivery(item.getAvailableForDelivery())
+                .stockQuantity(item.getStockQuantity())
+                .lowStockThreshold(item.getLowStockThreshold())
+                .isLowStock(isLowStock)
+                .createdAt(item.getCreatedAt())
+                .updatedAt(item.getUpdatedAt())
+                .build();
+    }
+}
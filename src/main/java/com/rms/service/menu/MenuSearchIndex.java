@@ -0,0 +1,518 @@
+package com.rms.service.menu;
+
+import com.rms.dto.menu.MenuSearchRequest;
+import com.rms.dto.menu.MenuSearchResponse;
+import com.rms.dto.menu.MenuSearchResponse.FacetCount;
+import com.rms.dto.menu.MenuSearchResponse.Facets;
+import com.rms.dto.menu.MenuSearchResponse.Hit;
+import com.rms.enums.ItemType;
+import com.rms.exception.ResourceNotFoundException;
+import com.rms.repository.MenuItemRepository;
+import com.rms.repository.RestaurantRepository;
+import com.rms.service.menu.event.MenuChange;
+import com.rms.service.menu.event.MenuChangeListener;
+import com.rms.service.support.SnapshotCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Per-restaurant in-memory search over active menu items.
+ *
+ * Item name, description, category, allergen info, item type and dietary tags are
+ * tokenized (lower case, accents removed) into an inverted index of term -> item bitset,
+ * loaded with one query per restaurant. Every query word must match a term of the item
+ * exactly, as a prefix, or within one edit (two for words of eight letters or more);
+ * matches in the name rank higher. Facet counts cover the items matching the words,
+ * before filters. Committed changes to known items are re-read on the next search, other
+ * changes drop the restaurant's index; the TTL bounds drift from changes made elsewhere.
+ * Indexes are only built for active restaurants and dropped when nobody searched them for
+ * a while.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MenuSearchIndex implements MenuChangeListener {
+
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+
+    // Per query word; a word matched in the item name scores one more
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int TYPO = 1;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final MenuItemRepository menuItemRepository;
+    private final PriceScheduleIndex priceScheduleIndex;
+    private final RestaurantRepository restaurantRepository;
+
+    @Value("${app.menu.search.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${app.menu.search.idle-minutes:60}")
+    private long idleMinutes;
+
+    @Value("${app.menu.search.price-bands:5,10,20,50}")
+    private List<BigDecimal> priceBands;
+
+    private final SnapshotCache<Long, Index> byRestaurant = new SnapshotCache<>();
+
+    public MenuSearchResponse search(Long restaurantId, MenuSearchRequest request) {
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(tokenize(request.getQuery())));
+        List<Match> matches = forRestaurant(restaurantId).match(words);
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BigDecimal> prices = priceScheduleIndex.scheduledPrices(restaurantId,
+                matches.stream().map(match -> match.item().id()).toList(), now);
+        List<Priced> matched = matches.stream()
+                .map(match -> new Priced(match, prices.getOrDefault(match.item().id(), match.item().listedPrice())))
+                .toList();
+
+        Predicate<Priced> filters = filters(request);
+        List<Priced> hits = matched.stream()
+                .filter(filters)
+                .sorted(Comparator.comparingInt((Priced priced) -> priced.match().score()).reversed()
+                        .thenComparing(priced -> priced.match().item().displayOrder(),
+                                Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(priced -> priced.match().item().id()))
+                .toList();
+
+        int limit = request.getLimit() != null ? Math.max(1, Math.min(request.getLimit(), MAX_LIMIT)) : DEFAULT_LIMIT;
+        return MenuSearchResponse.builder()
+                .query(request.getQuery())
+                .total(hits.size())
+                .items(hits.stream().limit(limit).map(MenuSearchIndex::toHit).toList())
+                .facets(facets(matched))
+                .build();
+    }
+
+    /**
+     * Re-read the changed items on the next search; a change not known per item drops the
+     * restaurant's index
+     */
+    @Override
+    public void onMenuChanged(MenuChange change) {
+        Index cached = byRestaurant.changed(change.restaurantId());
+        if (cached == null) {
+            return;
+        }
+        if (change.itemIds().isEmpty()) {
+            byRestaurant.remove(change.restaurantId(), cached);
+        } else {
+            cached.markStale(change.itemIds());
+        }
+    }
+
+    /**
+     * Forget indexes nobody has searched for a while, and the generations of restaurants
+     * without an index; their next search loads afresh
+     */
+    @Scheduled(fixedDelayString = "${app.menu.search.sweep-interval-ms:300000}")
+    public void evictIdle() {
+        byRestaurant.evictIdle(idleMinutes, TimeUnit.MINUTES);
+    }
+
+    private Index forRestaurant(Long restaurantId) {
+        Index cached = byRestaurant.getFresh(restaurantId, ttlSeconds);
+        if (cached != null) {
+            cached.refresh(ids -> menuItemRepository.findSearchRowsByRestaurantIdAndIdIn(restaurantId, ids));
+            return cached;
+        }
+        if (byRestaurant.peek(restaurantId) == null && !restaurantRepository.existsByIdAndIsActiveTrue(restaurantId)) {
+            throw new ResourceNotFoundException("Restaurant not found");
+        }
+
+        SnapshotCache.Stamp stamp = byRestaurant.stamp(restaurantId);
+        Index loaded = new Index(menuItemRepository.findSearchRowsByRestaurantId(restaurantId));
+        byRestaurant.putIfUnchanged(restaurantId, loaded, stamp);
+        log.debug("Menu search index loaded for restaurant {}: {} items", restaurantId, loaded.size());
+        return loaded;
+    }
+
+    private static Predicate<Priced> filters(MenuSearchRequest request) {
+        Predicate<Priced> filter = priced -> true;
+        if (request.getCategoryId() != null) {
+            filter = filter.and(priced -> request.getCategoryId().equals(priced.match().item().categoryId()));
+        }
+        if (request.getVegetarian() != null) {
+            filter = filter.and(priced -> priced.match().item().vegetarian() == request.getVegetarian());
+        }
+        if (request.getVegan() != null) {
+            filter = filter.and(priced -> priced.match().item().vegan() == request.getVegan());
+        }
+        if (request.getGlutenFree() != null) {
+            filter = filter.and(priced -> priced.match().item().glutenFree() == request.getGlutenFree());
+        }
+        if (request.getSpicy() != null) {
+            filter = filter.and(priced -> priced.match().item().spicy() == request.getSpicy());
+        }
+        if (Boolean.TRUE.equals(request.getAvailableOnly())) {
+            filter = filter.and(priced -> priced.match().item().available());
+        }
+        if (request.getMinPrice() != null) {
+            filter = filter.and(priced -> priced.price() != null && priced.price().compareTo(request.getMinPrice()) >= 0);
+        }
+        if (request.getMaxPrice() != null) {
+            filter = filter.and(priced -> priced.price() != null && priced.price().compareTo(request.getMaxPrice()) <= 0);
+        }
+        return filter;
+    }
+
+    private Facets facets(List<Priced> matched) {
+        Map<Long, FacetCount> categories = new LinkedHashMap<>();
+        Map<String, Integer> dietary = new LinkedHashMap<>();
+        int[] bands = new int[priceBands.size() + 1];
+        for (Priced priced : matched) {
+            Item item = priced.match().item();
+            FacetCount category = categories.computeIfAbsent(item.categoryId(),
+                    id -> new FacetCount(String.valueOf(id), item.categoryName(), 0));
+            category.setCount(category.getCount() + 1);
+            countIf(dietary, "vegetarian", item.vegetarian());
+            countIf(dietary, "vegan", item.vegan());
+            countIf(dietary, "glutenFree", item.glutenFree());
+            countIf(dietary, "spicy", item.spicy());
+            if (priced.price() != null) {
+                bands[band(priced.price())]++;
+            }
+        }
+
+        List<FacetCount> priceBandCounts = new ArrayList<>();
+        for (int band = 0; band < bands.length; band++) {
+            if (bands[band] > 0) {
+                String key = band < priceBands.size()
+                        ? (band == 0 ? "0" : priceBands.get(band - 1).toPlainString()) + "-" + priceBands.get(band).toPlainString()
+                        : priceBands.get(band - 1).toPlainString() + "+";
+                priceBandCounts.add(new FacetCount(key, key, bands[band]));
+            }
+        }
+        return Facets.builder()
+                .categories(categories.values().stream()
+                        .sorted(Comparator.comparing(FacetCount::getCount).reversed()
+                                .thenComparing(FacetCount::getLabel, Comparator.nullsLast(Comparator.naturalOrder())))
+                        .toList())
+                .dietary(dietary.entrySet().stream()
+                        .map(entry -> new FacetCount(entry.getKey(), entry.getKey(), entry.getValue()))
+                        .toList())
+                .priceBands(priceBandCounts)
+                .build();
+    }
+
+    private static void countIf(Map<String, Integer> counts, String key, boolean flag) {
+        if (flag) {
+            counts.merge(key, 1, Integer::sum);
+        }
+    }
+
+    // Index of the first band edge above the price; the last band is open-ended
+    private int band(BigDecimal price) {
+        for (int band = 0; band < priceBands.size(); band++) {
+            if (price.compareTo(priceBands.get(band)) < 0) {
+                return band;
+            }
+        }
+        return priceBands.size();
+    }
+
+    private static Hit toHit(Priced priced) {
+        Item item = priced.match().item();
+        return Hit.builder()
+                .id(item.id())
+                .name(item.name())
+                .description(item.description())
+                .categoryId(item.categoryId())
+                .categoryName(item.categoryName())
+                .finalPrice(priced.price())
+                .imageUrl(item.imageUrl())
+                .isAvailable(item.available())
+                .isVegetarian(item.vegetarian())
+                .isVegan(item.vegan())
+                .isGlutenFree(item.glutenFree())
+                .isSpicy(item.spicy())
+                .build();
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Edit distance counting an adjacent transposition as one edit; anything above max is max + 1
+     */
+    static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], beforePrevious[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    private static int maxEdits(String word) {
+        return word.length() >= 8 ? 2 : word.length() >= 4 ? 1 : 0;
+    }
+
+    /**
+     * One indexed item; built from (id, name, description, categoryId, categoryName, itemType,
+     * allergenInfo, basePrice, discountedPrice, isVegetarian, isVegan, isGlutenFree, isSpicy,
+     * isFeatured, isBestSeller, isAvailable, displayOrder, imageUrl)
+     */
+    private record Item(Long id, String name, String description, Long categoryId, String categoryName,
+                        BigDecimal listedPrice, boolean vegetarian, boolean vegan, boolean glutenFree,
+                        boolean spicy, boolean available, Integer displayOrder, String imageUrl,
+                        Set<String> nameTerms, Set<String> terms) {
+
+        private static Item of(Object[] row) {
+            String name = (String) row[1];
+            String description = (String) row[2];
+            String categoryName = (String) row[4];
+            ItemType itemType = (ItemType) row[5];
+            BigDecimal discountedPrice = (BigDecimal) row[8];
+            boolean vegetarian = Boolean.TRUE.equals(row[9]);
+            boolean vegan = Boolean.TRUE.equals(row[10]);
+            boolean glutenFree = Boolean.TRUE.equals(row[11]);
+            boolean spicy = Boolean.TRUE.equals(row[12]);
+
+            Set<String> nameTerms = new HashSet<>(tokenize(name));
+            Set<String> terms = new HashSet<>(nameTerms);
+            terms.addAll(tokenize(description));
+            terms.addAll(tokenize(categoryName));
+            terms.addAll(tokenize((String) row[6]));
+            if (itemType != null) {
+                terms.addAll(tokenize(itemType.name()));
+            }
+            if (vegetarian) {
+                terms.addAll(List.of("vegetarian", "veg"));
+            }
+            if (vegan) {
+                terms.add("vegan");
+            }
+            if (glutenFree) {
+                terms.addAll(List.of("glutenfree", "gluten", "free"));
+            }
+            if (spicy) {
+                terms.add("spicy");
+            }
+            if (Boolean.TRUE.equals(row[13])) {
+                terms.add("featured");
+            }
+            if (Boolean.TRUE.equals(row[14])) {
+                terms.add("bestseller");
+            }
+
+            return new Item((Long) row[0], name, description, (Long) row[3], categoryName,
+                    discountedPrice != null ? discountedPrice : (BigDecimal) row[7],
+                    vegetarian, vegan, glutenFree, spicy, Boolean.TRUE.equals(row[15]),
+                    (Integer) row[16], (String) row[17], Set.copyOf(nameTerms), Set.copyOf(terms));
+        }
+    }
+
+    private record Match(Item item, int score) {
+    }
+
+    private record Priced(Match match, BigDecimal price) {
+    }
+
+    /**
+     * One restaurant's items by slot and the term postings over those slots; guarded by
+     * the instance's monitor
+     */
+    private static final class Index {
+
+        private final List<Item> slots = new ArrayList<>(); // Null where an item was removed
+        private final Deque<Integer> freeSlots = new ArrayDeque<>();
+        private final Map<Long, Integer> slotById = new HashMap<>();
+        private final TreeMap<String, BitSet> postings = new TreeMap<>();
+        private final Set<Long> stale = ConcurrentHashMap.newKeySet();
+
+        private Index(List<Object[]> rows) {
+            for (Object[] row : rows) {
+                add(Item.of(row));
+            }
+        }
+
+        private void markStale(Collection<Long> itemIds) {
+            stale.addAll(itemIds);
+        }
+
+        /**
+         * Re-read the items changed since the last search; items no longer returned were
+         * deactivated or removed
+         */
+        private synchronized void refresh(Function<Set<Long>, List<Object[]>> loader) {
+            if (stale.isEmpty()) {
+                return;
+            }
+            Set<Long> ids = new HashSet<>(stale);
+            stale.removeAll(ids);
+            Map<Long, Item> reloaded = new HashMap<>();
+            for (Object[] row : loader.apply(ids)) {
+                Item item = Item.of(row);
+                reloaded.put(item.id(), item);
+            }
+            for (Long id : ids) {
+                remove(id);
+                Item item = reloaded.get(id);
+                if (item != null) {
+                    add(item);
+                }
+            }
+        }
+
+        private synchronized List<Match> match(List<String> words) {
+            BitSet matched = new BitSet();
+            int[] scores = new int[slots.size()];
+            if (words.isEmpty()) {
+                slotById.values().forEach(matched::set);
+            } else {
+                for (int w = 0; w < words.size(); w++) {
+                    BitSet wordHits = matchWord(words.get(w), scores);
+                    if (w == 0) {
+                        matched.or(wordHits);
+                    } else {
+                        matched.and(wordHits);
+                    }
+                }
+            }
+
+            List<Match> matches = new ArrayList<>(matched.cardinality());
+            for (int slot = matched.nextSetBit(0); slot >= 0; slot = matched.nextSetBit(slot + 1)) {
+                matches.add(new Match(slots.get(slot), scores[slot]));
+            }
+            return matches;
+        }
+
+        /**
+         * Items with a term matching the word; adds each item's best score for the word
+         */
+        private BitSet matchWord(String word, int[] scores) {
+            int[] best = new int[slots.size()];
+            BitSet hits = new BitSet();
+
+            BitSet exact = postings.get(word);
+            if (exact != null) {
+                collect(word, exact, EXACT, best, hits);
+            }
+            if (word.length() >= 2) {
+                postings.subMap(word, false, word + Character.MAX_VALUE, false)
+                        .forEach((term, items) -> collect(term, items, PREFIX, best, hits));
+            }
+            int maxEdits = maxEdits(word);
+            if (maxEdits > 0) {
+                postings.forEach((term, items) -> {
+                    if (!term.startsWith(word) && distance(word, term, maxEdits) <= maxEdits) {
+                        collect(term, items, TYPO, best, hits);
+                    }
+                });
+            }
+
+            for (int slot = hits.nextSetBit(0); slot >= 0; slot = hits.nextSetBit(slot + 1)) {
+                scores[slot] += best[slot];
+            }
+            return hits;
+        }
+
+        private void collect(String term, BitSet items, int weight, int[] best, BitSet hits) {
+            for (int slot = items.nextSetBit(0); slot >= 0; slot = items.nextSetBit(slot + 1)) {
+                int score = slots.get(slot).nameTerms().contains(term) ? weight + 1 : weight;
+                best[slot] = Math.max(best[slot], score);
+            }
+            hits.or(items);
+        }
+
+        private void add(Item item) {
+            Integer slot = freeSlots.poll();
+            if (slot == null) {
+                slot = slots.size();
+                slots.add(item);
+            } else {
+                slots.set(slot, item);
+            }
+            slotById.put(item.id(), slot);
+            for (String term : item.terms()) {
+                postings.computeIfAbsent(term, t -> new BitSet()).set(slot);
+            }
+        }
+
+        private void remove(Long itemId) {
+            Integer slot = slotById.remove(itemId);
+            if (slot == null) {
+                return;
+            }
+            for (String term : slots.get(slot).terms()) {
+                BitSet items = postings.get(term);
+                items.clear(slot);
+                if (items.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+            slots.set(slot, null);
+            freeSlots.push(slot);
+        }
+
+        private synchronized int size() {
+            return slotById.size();
+        }
+    }
+}
@@ -9,6 +9,8 @@ import com.rms.dto.menu.ItemVariantRequest;
 import com.rms.dto.menu.ItemVariantResponse;
 import com.rms.dto.menu.MenuItemRequest;
 import com.rms.dto.menu.MenuItemResponse;
+import com.rms.dto.menu.MenuSearchRequest;
+import com.rms.dto.menu.MenuSearchResponse;
 import com.rms.dto.menu.MenuStatsResponse;
 import com.rms.dto.menu.ModifierGroupRequest;
 import com.rms.dto.menu.ModifierGroupResponse;
@@ -37,15 +39,16 @@ import com.rms.enums.SelectionType;
 import com.rms.exception.BadRequestException;
 import com.rms.exception.ResourceNotFoundException;
 import com.rms.security.SecurityUtil;
+import com.rms.service.menu.event.MenuChange.Scope;
+import com.rms.service.menu.event.MenuInvalidationBus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -69,6 +72,11 @@ public class MenuService {
     private final PriceScheduleRepository priceScheduleRepository;
     private final IngredientRepository ingredientRepository;
     private final ItemIngredientRepository itemIngredientRepository;
+    private final MenuResponseMapper responseMapper;
+    private final MenuInvalidationBus invalidationBus;
+    private final MenuSearchIndex searchIndex;
+    private final MenuStatsAggregates statsAggregates;
+    private final MenuAvailabilityService menuAvailabilityService;
 
     // ==================== CATEGORY MANAGEMENT ====================
 
@@ -76,7 +84,6 @@ public class MenuService {
      * Create menu category
      */
     @Transactional
-    @CacheEvict(value = "menuCategories", key = "#restaurantId")
     public ApiResponse<CategoryResponse> createCategory(Long restaurantId, CategoryRequest request) {
         validateRestaurantAccess(restaurantId);
 
@@ -107,17 +114,19 @@ public class MenuService {
 
         category = categoryRepository.save(category);
 
+        invalidationBus.publish(restaurantId, Scope.CATEGORIES);
+
         log.info("Category created: {} for restaurant ID: {}", category.getName(), restaurantId);
 
         return ApiResponse.success("Category created successfully",
-                mapToCategoryResponse(category));
+                responseMapper.mapToCategoryResponse(category));
     }
 
     /**
      * Get all categories for restaurant
      */
     @Transactional(readOnly = true)
-    @Cacheable(value = "menuCategories", key = "#restaurantId")
+    @Cacheable(value = MenuCacheInvalidator.CATEGORIES_CACHE, key = "#restaurantId")
     public ApiResponse<List<CategoryResponse>> getAllCategories(Long restaurantId) {
         validateRestaurantAccess(restaurantId);
 
@@ -125,7 +134,7 @@ public class MenuService {
                 .findByRestaurantIdAndIsActiveTrueOrderByDisplayOrderAsc(restaurantId);
 
         List<CategoryResponse> responses = categories.stream()
-                .map(this::mapToCategoryResponse)
+                .map(responseMapper::mapToCategoryResponse)
                 .collect(Collectors.toList());
 
         return ApiResponse.success("Categories fetched successfully", responses);
@@ -142,7 +151,7 @@ public class MenuService {
                 .findByRestaurantIdAndParentCategoryIsNullAndIsActiveTrueOrderByDisplayOrderAsc(restaurantId);
 
         List<CategoryResponse> responses = categories.stream()
-                .map(this::mapToCategoryResponseWithChildren)
+                .map(responseMapper::mapToCategoryResponseWithChildren)
                 .collect(Collectors.toList());
 
         return ApiResponse.success("Root categories fetched successfully", responses);
@@ -152,7 +161,6 @@ public class MenuService {
      * Update category
      */
     @Transactional
-    @CacheEvict(value = "menuCategories", key = "#restaurantId")
     public ApiResponse<CategoryResponse> updateCategory(
             Long restaurantId, Long categoryId, CategoryRequest request) {
 
@@ -172,10 +180,12 @@ public class MenuService {
 
         category = categoryRepository.save(category);
 
+        invalidationBus.publish(restaurantId, Scope.CATEGORIES);
+
         log.info("Category updated: {} for restaurant ID: {}", category.getName(), restaurantId);
 
         return ApiResponse.success("Category updated successfully",
-                mapToCategoryResponse(category));
+                responseMapper.mapToCategoryResponse(category));
     }
 
     // ==================== MENU ITEM MANAGEMENT ====================
@@ -184,7 +194,6 @@ public class MenuService {
      * Create menu item
      */
     @Transactional
-    @CacheEvict(value = {"menuItems", "menuCategories"}, allEntries = true)
     public ApiResponse<MenuItemResponse> createMenuItem(Long restaurantId, MenuItemRequest request) {
         validateRestaurantAccess(restaurantId);
 
@@ -241,11 +250,14 @@ public class MenuService {
             createIngredientRequirements(menuItem, request.getIngredients());
         }
 
+        // New item counts towards its category
+        invalidationBus.publish(restaurantId, List.of(menuItem.getId()), Scope.ITEMS, Scope.CATEGORIES);
+
         log.info("Menu item created: {} (SKU: {}) for restaurant ID: {}",
                 menuItem.getName(), sku, restaurantId);
 
         return ApiResponse.success("Menu item created successfully",
-                mapToMenuItemResponse(menuItem));
+                responseMapper.mapToMenuItemResponse(menuItem));
     }
 
     /**
@@ -259,7 +271,7 @@ public class MenuService {
                 .findByCategoryIdAndIsActiveTrueOrderByDisplayOrderAsc(categoryId);
 
         List<MenuItemResponse> responses = items.stream()
-                .map(this::mapToMenuItemResponse)
+                .map(responseMapper::mapToMenuItemResponse)
                 .collect(Collectors.toList());
 
         return ApiResponse.success("Menu items fetched successfully", responses);
@@ -276,14 +288,13 @@ public class MenuService {
                 .orElseThrow(() -> new ResourceNotFoundException("Menu item not found"));
 
         return ApiResponse.success("Menu item fetched successfully",
-                mapToMenuItemResponse(item));
+                responseMapper.mapToMenuItemResponse(item));
     }
 
     /**
      * Update menu item
      */
     @Transactional
-    @CacheEvict(value = {"menuItems", "menuCategories"}, allEntries = true)
     public ApiResponse<MenuItemResponse> updateMenuItem(
             Long restaurantId, Long itemId, MenuItemRequest request) {
 
@@ -292,7 +303,9 @@ public class MenuService {
         MenuItem item = menuItemRepository.findByIdAndRestaurantId(itemId, restaurantId)
                 .orElseThrow(() -> new ResourceNotFoundException("Menu item not found"));
 
-        if (request.getCategoryId() != null && !request.getCategoryId().equals(item.getCategory().getId())) {
+        boolean categoryChanged = request.getCategoryId() != null
+                && !request.getCategoryId().equals(item.getCategory().getId());
+        if (categoryChanged) {
             MenuCategory newCategory = categoryRepository.findByIdAndRestaurantId(
                             request.getCategoryId(), restaurantId)
                     .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
@@ -316,10 +329,17 @@ public class MenuService {
 
         item = menuItemRepository.save(item);
 
+        // Category item counts only move with the item
+        if (categoryChanged) {
+            invalidationBus.publish(restaurantId, List.of(itemId), Scope.ITEMS, Scope.CATEGORIES);
+        } else {
+            invalidationBus.publish(restaurantId, List.of(itemId), Scope.ITEMS);
+        }
+
         log.info("Menu item updated: {} for restaurant ID: {}", item.getName(), restaurantId);
 
         return ApiResponse.success("Menu item updated successfully",
-                mapToMenuItemResponse(item));
+                responseMapper.mapToMenuItemResponse(item));
     }
 
     /**
@@ -332,8 +352,7 @@ public class MenuService {
         MenuItem item = menuItemRepository.findByIdAndRestaurantId(itemId, restaurantId)
                 .orElseThrow(() -> new ResourceNotFoundException("Menu item not found"));
 
-        item.setIsAvailable(isAvailable);
-        menuItemRepository.save(item);
+        setAvailability(restaurantId, List.of(itemId), isAvailable);
 
         log.info("Menu item {} availability set to: {} for restaurant ID: {}",
                 item.getName(), isAvailable, restaurantId);
@@ -350,14 +369,33 @@ public class MenuService {
     public ApiResponse<Void> bulkUpdateAvailability(Long restaurantId, BulkAvailabilityRequest request) {
         validateRestaurantAccess(restaurantId);
 
-        menuItemRepository.bulkUpdateAvailability(request.getItemIds(), request.getIsAvailable());
+        List<Long> changed = setAvailability(restaurantId, request.getItemIds(), request.getIsAvailable());
 
-        log.info("Bulk availability update: {} items set to {} for restaurant ID: {}",
-                request.getItemIds().size(), request.getIsAvailable(), restaurantId);
+        log.info("Bulk availability update: {} of {} items set to {} for restaurant ID: {}, reason: {}",
+                changed.size(), request.getItemIds().size(), request.getIsAvailable(), restaurantId,
+                request.getReason());
 
         return ApiResponse.success("Availability updated successfully", null);
     }
 
+    /**
+     * Switch the restaurant's items on or off with one UPDATE. Items already in that state
+     * are left out, so only real changes reach caches and stream subscribers.
+     *
+     * @return the items that changed
+     */
+    private List<Long> setAvailability(Long restaurantId, Collection<Long> itemIds, Boolean isAvailable) {
+        List<Long> changed = menuItemRepository.findIdsWithOtherAvailability(restaurantId, itemIds, isAvailable);
+        if (changed.isEmpty()) {
+            return changed;
+        }
+        menuItemRepository.bulkUpdateAvailability(restaurantId, changed, isAvailable);
+
+        invalidationBus.publish(restaurantId, changed, Scope.ITEMS);
+        menuAvailabilityService.publishToggleAfterCommit(restaurantId, changed, isAvailable);
+        return changed;
+    }
+
     /**
      * Get featured items
      */
@@ -368,45 +406,28 @@ public class MenuService {
         List<MenuItem> items = menuItemRepository.findFeaturedItems(restaurantId);
 
         List<MenuItemResponse> responses = items.stream()
-                .map(this::mapToMenuItemResponse)
+                .map(responseMapper::mapToMenuItemResponse)
                 .collect(Collectors.toList());
 
         return ApiResponse.success("Featured items fetched successfully", responses);
     }
 
     /**
-     * Get menu statistics
+     * Search active menu items
      */
-    @Transactional(readOnly = true)
-    public ApiResponse<MenuStatsResponse> getMenuStats(Long restaurantId) {
+    public ApiResponse<MenuSearchResponse> searchItems(Long restaurantId, MenuSearchRequest request) {
         validateRestaurantAccess(restaurantId);
 
-        Long totalCategories = categoryRepository
-                .findByRestaurantIdAndIsActiveTrueOrderByDisplayOrderAsc(restaurantId).stream().count();
-
-        List<MenuItem> allItems = menuItemRepository
-                .findByRestaurantIdAndIsActiveTrueOrderByDisplayOrderAsc(restaurantId);
+        return ApiResponse.success("Menu search completed", searchIndex.search(restaurantId, request));
+    }
 
-        MenuStatsResponse stats = MenuStatsResponse.builder()
-                .totalCategories(totalCategories)
-                .totalItems((long) allItems.size())
-                .activeItems(allItems.stream().filter(MenuItem::getIsActive).count())
-                .unavailableItems(allItems.stream().filter(item -> !item.getIsAvailable()).count())
-                .lowStockItems(menuItemRepository.findLowStockItems(restaurantId).stream().count())
-                .featuredItems(allItems.stream().filter(MenuItem::getIsFeatured).count())
-                .bestSellerItems(allItems.stream().filter(MenuItem::getIsBestSeller).count())
-                .averagePrice(menuItemRepository.getAveragePrice(restaurantId))
-                .lowestPrice(allItems.stream()
-                        .map(MenuItem::getBasePrice)
-                        .min(BigDecimal::compareTo)
-                        .orElse(BigDecimal.ZERO))
-                .highestPrice(allItems.stream()
-                        .map(MenuItem::getBasePrice)
-                        .max(BigDecimal::compareTo)
-                        .orElse(BigDecimal.ZERO))
-                .build();
+    /**
+     * Get menu statistics
+     */
+    public ApiResponse<MenuStatsResponse> getMenuStats(Long restaurantId) {
+        validateRestaurantAccess(restaurantId);
 
-        return ApiResponse.success("Menu statistics fetched successfully", stats);
+        return ApiResponse.success("Menu statistics fetched successfully", statsAggregates.stats(restaurantId));
     }
 
     // ==================== MODIFIER MANAGEMENT ====================
@@ -524,88 +545,6 @@ public class MenuService {
         }
     }
 
-    private CategoryResponse mapToCategoryResponse(MenuCategory category) {
-        Long itemCount = categoryRepository.countItemsByCategory(category.getId());
-
-        return CategoryResponse.builder()
-                .id(category.getId())
-                .restaurantId(category.getRestaurantId())
-                .name(category.getName())
-                .description(category.getDescription())
-                .imageUrl(category.getImageUrl())
-                .iconName(category.getIconName())
-                .displayOrder(category.getDisplayOrder())
-                .parentCategoryId(category.getParentCategory() != null ? category.getParentCategory().getId() : null)
-                .parentCategoryName(category.getParentCategory() != null ? category.getParentCategory().getName() : null)
-                .itemCount(itemCount.intValue())
-                .isActive(category.getIsActive())
-                .isFeatured(category.getIsFeatured())
-                .availableFrom(category.getAvailableFrom())
-                .availableTo(category.getAvailableTo())
-                .createdAt(category.getCreatedAt())
-                .build();
-    }
-
-    private CategoryResponse mapToCategoryResponseWithChildren(MenuCategory category) {
-        CategoryResponse response = mapToCategoryResponse(category);
-
-        if (!category.getSubCategories().isEmpty()) {
-            List<CategoryResponse> children = category.getSubCategories().stream()
-                    .filter(MenuCategory::getIsActive)
-                    .map(this::mapToCategoryResponse)
-                    .collect(Collectors.toList());
-            response.setSubCategories(children);
-        }
-
-        return response;
-    }
-
-    private MenuItemResponse mapToMenuItemResponse(MenuItem item) {
-        BigDecimal finalPrice = item.getDiscountedPrice() != null ?
-                item.getDiscountedPrice() : item.getBasePrice();
-
-        Boolean isLowStock = item.getStockQuantity() != null &&
-                item.getLowStockThreshold() != null &&
-                item.getStockQuantity() <= item.getLowStockThreshold();
-
-        return MenuItemResponse.builder()
-                .id(item.getId())
-                .restaurantId(item.getRestaurantId())
-                .categoryId(item.getCategory().getId())
-                .categoryName(item.getCategory().getName())
-                .sku(item.getSku())
-                .name(item.getName())
-                .description(item.getDescription())
-                .basePrice(item.getBasePrice())
-                .discountedPrice(item.getDiscountedPrice())
-                .finalPrice(finalPrice)
-                .imageUrl(item.getImageUrl())
-                .preparationTimeMinutes(item.getPreparationTimeMinutes())
-                .itemType(item.getItemType() != null ? item.getItemType().name() : null)
-                .isVegetarian(item.getIsVegetarian())
-                .isVegan(item.getIsVegan())
-                .isGlutenFree(item.getIsGlutenFree())
-                .isSpicy(item.getIsSpicy())
-                .spiceLevel(item.getSpiceLevel())
-                .calories(item.getCalories())
-                .allergenInfo(item.getAllergenInfo())
-                .isAvailable(item.getIsAvailable())
-                .isActive(item.getIsActive())
-                .isFeatured(item.getIsFeatured())
-                .isBestSeller(item.getIsBestSeller())
-                .availableFrom(item.getAvailableFrom())
-                .availableTo(item.getAvailableTo())
-                .availableForDineIn(item.getAvailableForDineIn())
-                .availableForTakeaway(item.getAvailableForTakeaway())
-                .availableForDelivery(item.getAvailableForDelivery())
-                .stockQuantity(item.getStockQuantity())
-                .lowStockThreshold(item.getLowStockThreshold())
-                .isLowStock(isLowStock)
-                .createdAt(item.getCreatedAt())
-                .updatedAt(item.getUpdatedAt())
-                .build();
-    }
-
     private ModifierGroupResponse mapToModifierGroupResponse(ModifierGroup group) {
         List<ModifierOption> options = modifierOptionRepository.findByModifierGroupId(group.getId());
 
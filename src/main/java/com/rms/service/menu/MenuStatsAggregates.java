@@ -0,0 +1,262 @@
+package com.rms.service.menu;
+
+import com.rms.dto.menu.MenuStatsResponse;
+import com.rms.repository.MenuCategoryRepository;
+import com.rms.repository.MenuItemRepository;
+import com.rms.service.menu.event.MenuChange;
+import com.rms.service.menu.event.MenuChange.Scope;
+import com.rms.service.menu.event.MenuChangeListener;
+import com.rms.service.support.SnapshotCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-restaurant menu statistics kept as running aggregates.
+ *
+ * A restaurant's aggregate is loaded with one projection query and then maintained from
+ * committed menu changes: the changed items are re-read on the next read and their old
+ * contribution to the counters is swapped for the new one, so stats never load the whole
+ * menu. Prices sit in a sorted multiset for the lowest and highest price; the category
+ * count is re-counted after category changes. A scheduled check recomputes every
+ * aggregate from the database and repairs drift (changes made elsewhere, other nodes);
+ * aggregates nobody has read for a while are dropped instead.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MenuStatsAggregates implements MenuChangeListener {
+
+    private final MenuItemRepository menuItemRepository;
+    private final MenuCategoryRepository categoryRepository;
+
+    @Value("${app.menu.stats.idle-minutes:60}")
+    private long idleMinutes;
+
+    private final SnapshotCache<Long, Aggregate> byRestaurant = new SnapshotCache<>();
+
+    public MenuStatsResponse stats(Long restaurantId) {
+        Aggregate aggregate = byRestaurant.get(restaurantId, 0, this::load);
+        refresh(restaurantId, aggregate);
+        return aggregate.snapshot();
+    }
+
+    /**
+     * Re-read the changed items on the next read; a change to items not known per item
+     * drops the restaurant's aggregate
+     */
+    @Override
+    public void onMenuChanged(MenuChange change) {
+        Aggregate cached = byRestaurant.changed(change.restaurantId());
+        if (cached == null) {
+            return;
+        }
+        if (change.affects(Scope.ITEMS) && change.itemIds().isEmpty()) {
+            byRestaurant.remove(change.restaurantId(), cached);
+        } else {
+            cached.markStale(change.itemIds(), change.affects(Scope.CATEGORIES));
+        }
+    }
+
+    /**
+     * Recompute each aggregate from the database and replace it if it drifted
+     */
+    @Scheduled(fixedDelayString = "${app.menu.stats.check-interval-ms:900000}")
+    public void checkConsistency() {
+        byRestaurant.evictIdle(idleMinutes, TimeUnit.MINUTES);
+
+        for (Long restaurantId : byRestaurant.keys()) {
+            try {
+                check(restaurantId);
+            } catch (RuntimeException e) {
+                log.error("Menu stats consistency check failed for restaurant {}", restaurantId, e);
+            }
+        }
+    }
+
+    private void check(Long restaurantId) {
+        Aggregate cached = byRestaurant.peek(restaurantId);
+        if (cached == null) {
+            return;
+        }
+        SnapshotCache.Stamp stamp = byRestaurant.stamp(restaurantId);
+        refresh(restaurantId, cached);
+        Aggregate loaded = load(restaurantId);
+
+        MenuStatsResponse maintained = cached.snapshot();
+        MenuStatsResponse actual = loaded.snapshot();
+        if (!maintained.equals(actual)) {
+            // Not replaced if it changed meanwhile; the next run compares again
+            if (byRestaurant.replaceIfUnchanged(restaurantId, cached, loaded, stamp)) {
+                log.warn("Menu stats for restaurant {} drifted, replaced {} with {}", restaurantId, maintained, actual);
+            }
+        }
+    }
+
+    private Aggregate load(Long restaurantId) {
+        Aggregate loaded = new Aggregate(menuItemRepository.findStatsRowsByRestaurantId(restaurantId),
+                categoryRepository.countByRestaurantIdAndIsActiveTrue(restaurantId));
+        log.debug("Menu stats loaded for restaurant {}: {} items", restaurantId, loaded.size());
+        return loaded;
+    }
+
+    private void refresh(Long restaurantId, Aggregate aggregate) {
+        aggregate.refresh(
+                ids -> menuItemRepository.findStatsRowsByRestaurantIdAndIdIn(restaurantId, ids),
+                () -> categoryRepository.countByRestaurantIdAndIsActiveTrue(restaurantId));
+    }
+
+    /**
+     * What one item adds to the counters; built from (id, isActive, isAvailable, isFeatured,
+     * isBestSeller, basePrice, stockQuantity, lowStockThreshold)
+     */
+    private record Contribution(boolean active, boolean available, boolean featured, boolean bestSeller,
+                                boolean lowStock, BigDecimal price) {
+
+        private static Contribution of(Object[] row) {
+            Integer stockQuantity = (Integer) row[6];
+            Integer lowStockThreshold = (Integer) row[7];
+            return new Contribution(
+                    Boolean.TRUE.equals(row[1]),
+                    Boolean.TRUE.equals(row[2]),
+                    Boolean.TRUE.equals(row[3]),
+                    Boolean.TRUE.equals(row[4]),
+                    // As MenuItemRepository.findLowStockItems, which does not look at isActive
+                    stockQuantity != null && lowStockThreshold != null && stockQuantity <= lowStockThreshold,
+                    (BigDecimal) row[5]);
+        }
+    }
+
+    /**
+     * One restaurant's counters and the contribution of each item to them; guarded by the
+     * instance's monitor. Featured, best seller, unavailable and price figures cover active
+     * items only, as the stats always have.
+     */
+    private static final class Aggregate {
+
+        private final Map<Long, Contribution> items = new HashMap<>();
+        private final TreeMap<BigDecimal, Integer> prices = new TreeMap<>();
+        private long active;
+        private long inactive;
+        private long unavailable;
+        private long lowStock;
+        private long featured;
+        private long bestSellers;
+        private long priced;
+        private BigDecimal priceTotal = BigDecimal.ZERO;
+        private long categories;
+
+        private final Set<Long> stale = ConcurrentHashMap.newKeySet();
+        private volatile boolean categoriesStale;
+
+        private Aggregate(List<Object[]> rows, long categories) {
+            for (Object[] row : rows) {
+                Contribution contribution = Contribution.of(row);
+                items.put((Long) row[0], contribution);
+                apply(contribution, 1);
+            }
+            this.categories = categories;
+        }
+
+        private void markStale(Collection<Long> itemIds, boolean categoriesChanged) {
+            stale.addAll(itemIds);
+            if (categoriesChanged) {
+                categoriesStale = true;
+            }
+        }
+
+        /**
+         * Swap in the items changed since the last read; an item no longer returned was deleted
+         */
+        private synchronized void refresh(Function<Set<Long>, List<Object[]>> loader, LongSupplier categoryCounter) {
+            if (categoriesStale) {
+                categoriesStale = false;
+                categories = categoryCounter.getAsLong();
+            }
+            if (stale.isEmpty()) {
+                return;
+            }
+            Set<Long> ids = new HashSet<>(stale);
+            stale.removeAll(ids);
+            Map<Long, Contribution> reloaded = new HashMap<>();
+            for (Object[] row : loader.apply(ids)) {
+                reloaded.put((Long) row[0], Contribution.of(row));
+            }
+            for (Long id : ids) {
+                Contribution previous = items.remove(id);
+                if (previous != null) {
+                    apply(previous, -1);
+                }
+                Contribution current = reloaded.get(id);
+                if (current != null) {
+                    items.put(id, current);
+                    apply(current, 1);
+                }
+            }
+        }
+
+        private void apply(Contribution contribution, int sign) {
+            if (contribution.lowStock()) {
+                lowStock += sign;
+            }
+            if (!contribution.active()) {
+                inactive += sign;
+                return;
+            }
+            active += sign;
+            if (!contribution.available()) {
+                unavailable += sign;
+            }
+            if (contribution.featured()) {
+                featured += sign;
+            }
+            if (contribution.bestSeller()) {
+                bestSellers += sign;
+            }
+            BigDecimal price = contribution.price();
+            if (price != null) {
+                priced += sign;
+                priceTotal = sign > 0 ? priceTotal.add(price) : priceTotal.subtract(price);
+                prices.merge(price, sign, (count, delta) -> count + delta == 0 ? null : count + delta);
+            }
+        }
+
+        private synchronized MenuStatsResponse snapshot() {
+            return MenuStatsResponse.builder()
+                    .totalCategories(categories)
+                    .totalItems(active)
+                    .activeItems(active)
+                    .inactiveItems(inactive)
+                    .unavailableItems(unavailable)
+                    .lowStockItems(lowStock)
+                    .featuredItems(featured)
+                    .bestSellerItems(bestSellers)
+                    .averagePrice(priced > 0
+                            ? priceTotal.divide(BigDecimal.valueOf(priced), 2, RoundingMode.HALF_UP)
+                            : null)
+                    .lowestPrice(prices.isEmpty() ? BigDecimal.ZERO : prices.firstKey())
+                    .highestPrice(prices.isEmpty() ? BigDecimal.ZERO : prices.lastKey())
+                    .build();
+        }
+
+        private synchronized int size() {
+            return items.size();
+        }
+    }
+}
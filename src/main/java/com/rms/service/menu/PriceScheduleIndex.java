@@ -0,0 +1,255 @@
+package com.rms.service.menu;
+
+import com.rms.repository.PriceScheduleRepository;
+import com.rms.service.support.SnapshotCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Per-restaurant index of active price schedules.
+ *
+ * A restaurant's schedules are loaded with one query and compiled, per menu item and
+ * weekday, into a sorted list of time-of-day segments with the schedules that apply in
+ * each, so the effective price at an instant is a binary search instead of a query per
+ * lookup. Matching is that of PriceScheduleRepository.findActivePriceSchedules: a null
+ * weekday, time window or date range matches always, windows and date ranges include
+ * both ends, and the newest matching schedule wins. Boundaries are kept to the second.
+ *
+ * The index also knows when a restaurant's prices next change, so menus built from it
+ * can be refreshed then. Schedules have no write path in this application, so the TTL
+ * is what picks up schedules changed elsewhere (SQL, admin tooling).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PriceScheduleIndex {
+
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+
+    private final PriceScheduleRepository priceScheduleRepository;
+
+    @Value("${app.menu.pricing.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final SnapshotCache<Long, Schedules> byRestaurant = new SnapshotCache<>();
+
+    /**
+     * The scheduled price of a menu item at the given time, or null if no schedule applies
+     */
+    public BigDecimal scheduledPrice(Long restaurantId, Long menuItemId, LocalDateTime at) {
+        return forRestaurant(restaurantId).priceAt(menuItemId, at);
+    }
+
+    /**
+     * Scheduled prices at the given time by menu item; items without one are left out
+     */
+    public Map<Long, BigDecimal> scheduledPrices(Long restaurantId, Collection<Long> menuItemIds, LocalDateTime at) {
+        Schedules schedules = forRestaurant(restaurantId);
+        Map<Long, BigDecimal> prices = new HashMap<>();
+        for (Long menuItemId : menuItemIds) {
+            BigDecimal price = schedules.priceAt(menuItemId, at);
+            if (price != null) {
+                prices.put(menuItemId, price);
+            }
+        }
+        return prices;
+    }
+
+    /**
+     * The first instant after the given time at which a scheduled price of the restaurant
+     * may change, or null if it has no schedules
+     */
+    public LocalDateTime nextChangeAfter(Long restaurantId, LocalDateTime at) {
+        return forRestaurant(restaurantId).nextChangeAfter(at);
+    }
+
+    private Schedules forRestaurant(Long restaurantId) {
+        return byRestaurant.get(restaurantId, ttlSeconds, this::load);
+    }
+
+    private Schedules load(Long restaurantId) {
+        Schedules loaded = Schedules.compile(priceScheduleRepository.findActiveScheduleRowsByRestaurantId(restaurantId));
+        log.debug("Price schedule index loaded for restaurant {}: {} menu items", restaurantId, loaded.items());
+        return loaded;
+    }
+
+    /**
+     * One active schedule; the time window is [start, end) in seconds of the day
+     */
+    private record Schedule(long id, Long menuItemId, BigDecimal price, Integer dayOfWeek,
+                            int start, int end, LocalDateTime startDate, LocalDateTime endDate) {
+
+        private static final Comparator<Schedule> NEWEST_FIRST = Comparator.comparingLong(Schedule::id).reversed();
+
+        /**
+         * @param row (id, menuItemId, price, dayOfWeek, startTime, endTime, startDate, endDate)
+         * @return null for a schedule that can never match, e.g. a window ending before it starts
+         */
+        private static Schedule of(Object[] row) {
+            LocalTime startTime = (LocalTime) row[4];
+            LocalTime endTime = (LocalTime) row[5];
+            LocalDateTime startDate = (LocalDateTime) row[6];
+            LocalDateTime endDate = (LocalDateTime) row[7];
+
+            int start = 0;
+            int end = SECONDS_PER_DAY;
+            if (startTime != null) {
+                if (endTime == null || endTime.isBefore(startTime)) {
+                    return null;
+                }
+                start = startTime.toSecondOfDay();
+                end = endTime.toSecondOfDay() + 1;
+            }
+            if (startDate != null && (endDate == null || endDate.isBefore(startDate))) {
+                return null;
+            }
+            return new Schedule((Long) row[0], (Long) row[1], (BigDecimal) row[2], (Integer) row[3],
+                    start, end, startDate, endDate);
+        }
+
+        private boolean appliesOn(int weekday) {
+            return dayOfWeek == null || dayOfWeek == weekday;
+        }
+
+        private boolean coversDate(LocalDateTime at) {
+            return startDate == null || (!at.isBefore(startDate) && !at.isAfter(endDate));
+        }
+    }
+
+    /**
+     * One item's schedules on one weekday: segment i covers [starts[i], starts[i + 1])
+     */
+    private record Timeline(int[] starts, Schedule[][] segments) {
+
+        private static Timeline compile(List<Schedule> schedules) {
+            TreeSet<Integer> boundaries = new TreeSet<>(List.of(0));
+            for (Schedule schedule : schedules) {
+                boundaries.add(schedule.start());
+                if (schedule.end() < SECONDS_PER_DAY) {
+                    boundaries.add(schedule.end());
+                }
+            }
+
+            int[] starts = boundaries.stream().mapToInt(Integer::intValue).toArray();
+            Schedule[][] segments = new Schedule[starts.length][];
+            for (int i = 0; i < starts.length; i++) {
+                int second = starts[i];
+                segments[i] = schedules.stream()
+                        .filter(schedule -> schedule.start() <= second && second < schedule.end())
+                        .sorted(Schedule.NEWEST_FIRST)
+                        .toArray(Schedule[]::new);
+            }
+            return new Timeline(starts, segments);
+        }
+
+        private BigDecimal priceAt(LocalDateTime at) {
+            int index = Arrays.binarySearch(starts, at.toLocalTime().toSecondOfDay());
+            if (index < 0) {
+                index = -index - 2;
+            }
+            for (Schedule schedule : segments[index]) {
+                if (schedule.coversDate(at)) {
+                    return schedule.price();
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * One restaurant's compiled schedules; immutable once built
+     */
+    private static final class Schedules {
+
+        // menu item id -> timeline per ISO weekday (index 1-7); null where no schedule applies
+        private final Map<Long, Timeline[]> timelines = new HashMap<>();
+        // Seconds of the day at which some item's schedule starts or ends, per ISO weekday
+        private final int[][] boundaries = new int[8][];
+        private final NavigableSet<LocalDateTime> dateBoundaries = new TreeSet<>();
+
+        private static Schedules compile(List<Object[]> rows) {
+            Map<Long, List<Schedule>> byItem = new HashMap<>();
+            for (Object[] row : rows) {
+                Schedule schedule = Schedule.of(row);
+                if (schedule != null) {
+                    byItem.computeIfAbsent(schedule.menuItemId(), id -> new ArrayList<>()).add(schedule);
+                }
+            }
+
+            Schedules compiled = new Schedules();
+            List<TreeSet<Integer>> daySeconds = new ArrayList<>();
+            for (int weekday = 0; weekday <= 7; weekday++) {
+                daySeconds.add(new TreeSet<>());
+            }
+            byItem.forEach((menuItemId, schedules) -> {
+                Timeline[] week = new Timeline[8];
+                for (DayOfWeek day : DayOfWeek.values()) {
+                    int weekday = day.getValue();
+                    List<Schedule> applying = schedules.stream().filter(s -> s.appliesOn(weekday)).toList();
+                    if (!applying.isEmpty()) {
+                        week[weekday] = Timeline.compile(applying);
+                        for (int second : week[weekday].starts()) {
+                            daySeconds.get(weekday).add(second);
+                        }
+                    }
+                }
+                compiled.timelines.put(menuItemId, week);
+                for (Schedule schedule : schedules) {
+                    if (schedule.startDate() != null) {
+                        compiled.dateBoundaries.add(schedule.startDate());
+                        compiled.dateBoundaries.add(schedule.endDate().plusSeconds(1));
+                    }
+                }
+            });
+            for (int weekday = 1; weekday <= 7; weekday++) {
+                compiled.boundaries[weekday] = daySeconds.get(weekday).stream().mapToInt(Integer::intValue).toArray();
+            }
+            return compiled;
+        }
+
+        private BigDecimal priceAt(Long menuItemId, LocalDateTime at) {
+            Timeline[] week = timelines.get(menuItemId);
+            if (week == null) {
+                return null;
+            }
+            Timeline timeline = week[at.getDayOfWeek().getValue()];
+            return timeline != null ? timeline.priceAt(at) : null;
+        }
+
+        private LocalDateTime nextChangeAfter(LocalDateTime at) {
+            if (timelines.isEmpty()) {
+                return null;
+            }
+            // Weekday schedules switch at midnight, so the next day's start bounds the search
+            LocalDateTime next = at.toLocalDate().plusDays(1).atStartOfDay();
+            int[] today = boundaries[at.getDayOfWeek().getValue()];
+            int index = Arrays.binarySearch(today, at.toLocalTime().toSecondOfDay());
+            index = index >= 0 ? index + 1 : -index - 1;
+            if (index < today.length) {
+                next = at.toLocalDate().atStartOfDay().plusSeconds(today[index]);
+            }
+            LocalDateTime dateBoundary = dateBoundaries.higher(at);
+            return dateBoundary != null && dateBoundary.isBefore(next) ? dateBoundary : next;
+        }
+
+        private int items() {
+            return timelines.size();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.rms.service.menu.event;
+
+import java.util.Set;
+
+/**
+ * What committed transactions changed in one restaurant's menu
+ *
+ * @param itemIds the changed items; empty if not known per item, i.e. any item may have changed
+ */
+public record MenuChange(Long restaurantId, Set<Scope> scopes, Set<Long> itemIds) {
+
+    public enum Scope {
+        CATEGORIES, // The category list, including per-category item counts
+        ITEMS       // Items, their prices or availability
+    }
+
+    public MenuChange(Long restaurantId, Set<Scope> scopes) {
+        this(restaurantId, scopes, Set.of());
+    }
+
+    public boolean affects(Scope scope) {
+        return scopes.contains(scope);
+    }
+}
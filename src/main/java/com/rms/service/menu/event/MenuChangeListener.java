@@ -0,0 +1,12 @@
+package com.rms.service.menu.event;
+
+/**
+ * Consumer of committed menu changes, e.g. a cache holding menu data.
+ *
+ * Listeners run on the committing thread after commit, once per restaurant per
+ * transaction, so they should only drop or schedule work, not rebuild inline.
+ */
+public interface MenuChangeListener {
+
+    void onMenuChanged(MenuChange change);
+}
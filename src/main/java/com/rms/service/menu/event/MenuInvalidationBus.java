@@ -0,0 +1,99 @@
+package com.rms.service.menu.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tells menu caches what changed, so each evicts only the affected restaurant's entries.
+ *
+ * Changes published within a transaction are merged per restaurant and delivered once
+ * after commit, so a reload cannot read data from before the change and a rolled back
+ * transaction invalidates nothing. Outside a transaction changes are delivered at once.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MenuInvalidationBus {
+
+    private final List<MenuChangeListener> listeners;
+
+    public void publish(Long restaurantId, MenuChange.Scope scope, MenuChange.Scope... moreScopes) {
+        publish(restaurantId, null, scope, moreScopes);
+    }
+
+    /**
+     * @param itemIds the items changed; null if not known per item
+     */
+    public void publish(Long restaurantId, Collection<Long> itemIds,
+                        MenuChange.Scope scope, MenuChange.Scope... moreScopes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deliver(new MenuChange(restaurantId, EnumSet.of(scope, moreScopes),
+                    itemIds != null ? Set.copyOf(itemIds) : Set.of()));
+            return;
+        }
+
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(restaurantId, EnumSet.of(scope, moreScopes), itemIds);
+    }
+
+    private void deliver(MenuChange change) {
+        for (MenuChangeListener listener : listeners) {
+            try {
+                listener.onMenuChanged(change);
+            } catch (RuntimeException e) {
+                // Committed already; the other listeners still have to hear about it
+                log.error("Menu change listener {} failed for restaurant {}",
+                        listener.getClass().getSimpleName(), change.restaurantId(), e);
+            }
+        }
+    }
+
+    /**
+     * The current transaction's changes by restaurant
+     */
+    private final class Pending implements TransactionSynchronization {
+
+        private final Map<Long, Set<MenuChange.Scope>> scopes = new LinkedHashMap<>();
+        // Null once a change without item ids was published for the restaurant
+        private final Map<Long, Set<Long>> itemIds = new HashMap<>();
+
+        private void add(Long restaurantId, Set<MenuChange.Scope> changed, Collection<Long> changedItems) {
+            scopes.computeIfAbsent(restaurantId, id -> EnumSet.noneOf(MenuChange.Scope.class)).addAll(changed);
+            if (changedItems == null) {
+                itemIds.put(restaurantId, null);
+            } else if (!itemIds.containsKey(restaurantId) || itemIds.get(restaurantId) != null) {
+                itemIds.computeIfAbsent(restaurantId, id -> new HashSet<>()).addAll(changedItems);
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            scopes.forEach((restaurantId, changed) -> {
+                Set<Long> items = itemIds.get(restaurantId);
+                deliver(new MenuChange(restaurantId, Set.copyOf(changed), items != null ? Set.copyOf(items) : Set.of()));
+            });
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(MenuInvalidationBus.this);
+        }
+    }
+}
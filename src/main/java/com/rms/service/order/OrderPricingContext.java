@@ -0,0 +1,96 @@
+package com.rms.service.order;
+
+import com.rms.entity.ItemVariant;
+import com.rms.entity.MenuItem;
+import com.rms.entity.ModifierOption;
+import com.rms.exception.ResourceNotFoundException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of everything needed to price one order
+ *
+ * Built once per order by OrderPricingResolver; order lines are priced from
+ * memory so the number of queries does not grow with the number of lines.
+ */
+public final class OrderPricingContext {
+
+    private final Map<Long, MenuItem> menuItems;
+    private final Map<Long, ItemVariant> variants;
+    private final Map<Long, ModifierOption> modifiers;
+    private final Map<Long, BigDecimal> scheduledPrices;
+    private final LocalDateTime pricedAt;
+
+    public OrderPricingContext(Map<Long, MenuItem> menuItems,
+                               Map<Long, ItemVariant> variants,
+                               Map<Long, ModifierOption> modifiers,
+                               Map<Long, BigDecimal> scheduledPrices,
+                               LocalDateTime pricedAt) {
+        this.menuItems = Map.copyOf(menuItems);
+        this.variants = Map.copyOf(variants);
+        this.modifiers = Map.copyOf(modifiers);
+        this.scheduledPrices = Map.copyOf(scheduledPrices);
+        this.pricedAt = pricedAt;
+    }
+
+    public LocalDateTime getPricedAt() {
+        return pricedAt;
+    }
+
+    public MenuItem getMenuItem(Long menuItemId) {
+        MenuItem menuItem = menuItems.get(menuItemId);
+        if (menuItem == null) {
+            throw new ResourceNotFoundException("Menu item not found: " + menuItemId);
+        }
+        return menuItem;
+    }
+
+    public ModifierOption getModifier(Long modifierId) {
+        ModifierOption modifier = modifiers.get(modifierId);
+        if (modifier == null) {
+            throw new ResourceNotFoundException("Modifier not found: " + modifierId);
+        }
+        return modifier;
+    }
+
+    /**
+     * Name snapshot for an order line, e.g. "Margherita (Large)"
+     */
+    public String getItemName(Long menuItemId, Long variantId) {
+        String name = getMenuItem(menuItemId).getName();
+        if (variantId == null) {
+            return name;
+        }
+        return name + " (" + getVariant(variantId).getName() + ")";
+    }
+
+    /**
+     * Unit price before modifiers: active price schedule, else discounted price,
+     * else base price, plus the variant adjustment if a variant was chosen.
+     */
+    public BigDecimal getUnitPrice(Long menuItemId, Long variantId) {
+        MenuItem menuItem = getMenuItem(menuItemId);
+
+        BigDecimal price = scheduledPrices.get(menuItemId);
+        if (price == null) {
+            price = menuItem.getDiscountedPrice() != null
+                    ? menuItem.getDiscountedPrice()
+                    : menuItem.getBasePrice();
+        }
+
+        if (variantId != null && getVariant(variantId).getPriceAdjustment() != null) {
+            price = price.add(getVariant(variantId).getPriceAdjustment());
+        }
+        return price;
+    }
+
+    private ItemVariant getVariant(Long variantId) {
+        ItemVariant variant = variants.get(variantId);
+        if (variant == null) {
+            throw new ResourceNotFoundException("Item variant not found: " + variantId);
+        }
+        return variant;
+    }
+}
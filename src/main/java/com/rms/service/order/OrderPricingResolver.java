@@ -0,0 +1,130 @@
+package com.rms.service.order;
+
+import com.rms.dto.order.OrderDTO.OrderItemRequest;
+import com.rms.entity.ItemVariant;
+import com.rms.entity.MenuItem;
+import com.rms.entity.ModifierOption;
+import com.rms.exception.BadRequestException;
+import com.rms.exception.ResourceNotFoundException;
+import com.rms.repository.ItemVariantRepository;
+import com.rms.repository.MenuItemRepository;
+import com.rms.repository.ModifierOptionRepository;
+import com.rms.service.menu.PriceScheduleIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Batch pricing lookup for order creation
+ *
+ * Loads every menu item, variant and modifier option referenced by an order with
+ * one IN query per table (at most three queries, whatever the number of lines)
+ * and validates them before anything is reserved. Scheduled prices come from the
+ * in-memory PriceScheduleIndex.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderPricingResolver {
+
+    private final MenuItemRepository menuItemRepository;
+    private final ItemVariantRepository variantRepository;
+    private final ModifierOptionRepository modifierOptionRepository;
+    private final PriceScheduleIndex priceScheduleIndex;
+
+    public OrderPricingContext resolve(Long restaurantId, List<OrderItemRequest> items) {
+        return resolve(restaurantId, items, LocalDateTime.now());
+    }
+
+    OrderPricingContext resolve(Long restaurantId, List<OrderItemRequest> items, LocalDateTime pricedAt) {
+        Set<Long> menuItemIds = new LinkedHashSet<>();
+        Set<Long> variantIds = new LinkedHashSet<>();
+        Set<Long> modifierIds = new LinkedHashSet<>();
+        for (OrderItemRequest item : items) {
+            menuItemIds.add(item.getMenuItemId());
+            if (item.getVariantId() != null) {
+                variantIds.add(item.getVariantId());
+            }
+            if (item.getModifierIds() != null) {
+                modifierIds.addAll(item.getModifierIds());
+            }
+        }
+
+        Map<Long, MenuItem> menuItems = new HashMap<>();
+        for (MenuItem menuItem : menuItemRepository.findByIdInAndRestaurantId(menuItemIds, restaurantId)) {
+            menuItems.put(menuItem.getId(), menuItem);
+        }
+        for (Long menuItemId : menuItemIds) {
+            MenuItem menuItem = menuItems.get(menuItemId);
+            if (menuItem == null) {
+                throw new ResourceNotFoundException("Menu item not found: " + menuItemId);
+            }
+            if (!Boolean.TRUE.equals(menuItem.getIsActive()) || !Boolean.TRUE.equals(menuItem.getIsAvailable())) {
+                throw new BadRequestException("Menu item is not available: " + menuItem.getName());
+            }
+        }
+
+        Map<Long, ItemVariant> variants = new HashMap<>();
+        if (!variantIds.isEmpty()) {
+            for (ItemVariant variant : variantRepository.findByIdInAndMenuItemIdIn(variantIds, menuItemIds)) {
+                variants.put(variant.getId(), variant);
+            }
+        }
+
+        Map<Long, ModifierOption> modifiers = new HashMap<>();
+        if (!modifierIds.isEmpty()) {
+            for (ModifierOption option : modifierOptionRepository.findByIdInAndRestaurantId(modifierIds, restaurantId)) {
+                modifiers.put(option.getId(), option);
+            }
+        }
+
+        for (OrderItemRequest item : items) {
+            validateVariant(item, variants);
+            validateModifiers(item, modifiers);
+        }
+
+        Map<Long, BigDecimal> scheduledPrices = priceScheduleIndex.scheduledPrices(restaurantId, menuItemIds, pricedAt);
+
+        log.debug("Resolved pricing for {} lines: {} menu items, {} variants, {} modifiers, {} scheduled prices",
+                items.size(), menuItems.size(), variants.size(), modifiers.size(), scheduledPrices.size());
+
+        return new OrderPricingContext(menuItems, variants, modifiers, scheduledPrices, pricedAt);
+    }
+
+    private void validateVariant(OrderItemRequest item, Map<Long, ItemVariant> variants) {
+        if (item.getVariantId() == null) {
+            return;
+        }
+        ItemVariant variant = variants.get(item.getVariantId());
+        if (variant == null || !variant.getMenuItem().getId().equals(item.getMenuItemId())) {
+            throw new ResourceNotFoundException(String.format(
+                    "Variant %s not found for menu item %s", item.getVariantId(), item.getMenuItemId()));
+        }
+        if (!Boolean.TRUE.equals(variant.getIsAvailable())) {
+            throw new BadRequestException("Variant is not available: " + variant.getName());
+        }
+    }
+
+    private void validateModifiers(OrderItemRequest item, Map<Long, ModifierOption> modifiers) {
+        if (item.getModifierIds() == null) {
+            return;
+        }
+        for (Long modifierId : item.getModifierIds()) {
+            ModifierOption option = modifiers.get(modifierId);
+            if (option == null) {
+                throw new ResourceNotFoundException("Modifier not found: " + modifierId);
+            }
+            if (!Boolean.TRUE.equals(option.getIsAvailable())) {
+                throw new BadRequestException("Modifier is not available: " + option.getName());
+            }
+        }
+    }
+}
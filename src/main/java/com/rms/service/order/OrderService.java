@@ -2,6 +2,8 @@ package com.rms.service.order;
 
 //package com.rms.service;
 
+import com.rms.annotation.Idempotent;
+import com.rms.annotation.RetryOnOptimisticLock;
 import com.rms.dto.order.OrderDTO.*;
 import com.rms.entity.*;
 import com.rms.entity.*;
@@ -9,15 +11,23 @@ import com.rms.exception.BadRequestException;
 import com.rms.exception.ForbiddenException;
 import com.rms.exception.InsufficientStockException;
 import com.rms.exception.ResourceNotFoundException;
+import com.rms.repository.OrderItemRepository;
 import com.rms.repository.OrderRepository;
 import com.rms.repository.TableSessionRepository;
 import com.rms.repository.UserRepository;
 import com.rms.security.UserPrincipal;
 import com.rms.service.InventoryService;
 import com.rms.service.menu.MenuService;
+import com.rms.service.order.event.OrderEventPublisher;
+import com.rms.service.order.number.DisplayNumberAllocator;
+import com.rms.service.order.number.OrderNumberGenerator;
+import com.rms.service.order.state.OrderStateMachine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
@@ -27,25 +37,48 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional(isolation = Isolation.SERIALIZABLE, timeout = 10)
+@Transactional(isolation = Isolation.READ_COMMITTED, timeout = 10)
 public class OrderService {
 
     private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
     private final UserRepository userRepository;
     private final MenuService menuService;
     private final InventoryService inventoryService;
     private final TableSessionRepository sessionRepository;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final DisplayNumberAllocator displayNumberAllocator;
+    private final OrderPricingResolver pricingResolver;
+    private final OrderEventPublisher eventPublisher;
+    private final OrderStatusBatchWriter statusBatchWriter;
+    private final OrderStateMachine stateMachine;
 
     private static final BigDecimal TAX_RATE = new BigDecimal("0.10"); // 10% tax
     private static final BigDecimal DELIVERY_FEE = new BigDecimal("5.00");
     private static final int PREPARATION_TIME_MINUTES = 30;
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
 
-    @Transactional(isolation = Isolation.SERIALIZABLE, timeout = 10)
+    // Confirmation deducts stock and cancellation releases it, so those stay per order
+    private static final Set<Order.OrderStatus> BULK_TARGET_STATUSES = EnumSet.of(
+            Order.OrderStatus.PREPARING,
+            Order.OrderStatus.READY,
+            Order.OrderStatus.OUT_FOR_DELIVERY,
+            Order.OrderStatus.COMPLETED);
+
+    /**
+     * Order writes run at READ COMMITTED; concurrent writers are detected through
+     * @Version columns on Order, InventoryItem and TableSession and the whole
+     * transaction is retried with jittered exponential backoff.
+     */
+    @RetryOnOptimisticLock
+    @Idempotent("orders")
+    @Transactional(isolation = Isolation.READ_COMMITTED, timeout = 10)
     public OrderResponse createOrder(CreateOrderRequest request, UserPrincipal currentUser) {
         log.info("Creating order for user: {} in restaurant: {}",
                 currentUser.getId(), currentUser.getRestaurantId());
@@ -58,8 +91,13 @@ public class OrderService {
             throw new ForbiddenException("Only customers can create orders");
         }
 
+        OrderPricingContext pricing = pricingResolver.resolve(currentUser.getRestaurantId(), request.getItems());
+        String orderNumber = generateOrderNumber();
+
         for (OrderItemRequest item : request.getItems()) {
             boolean available = inventoryService.checkAndReserve(
+                    orderNumber,
+                    currentUser.getRestaurantId(),
                     item.getMenuItemId(),
                     item.getQuantity()
             );
@@ -72,7 +110,7 @@ public class OrderService {
         Order order = new Order();
         order.setRestaurantId(currentUser.getRestaurantId());
         order.setCustomerId(currentUser.getId());
-        order.setOrderNumber(generateOrderNumber());
+        order.setOrderNumber(orderNumber);
         order.setOrderType(request.getOrderType());
         order.setStatus(Order.OrderStatus.PENDING);
         order.setTableNumber(request.getTableNumber());
@@ -84,7 +122,7 @@ public class OrderService {
         // Process order items
         BigDecimal subtotal = BigDecimal.ZERO;
         for (OrderItemRequest itemRequest : request.getItems()) {
-            OrderItem orderItem = createOrderItem(itemRequest, currentUser.getRestaurantId());
+            OrderItem orderItem = createOrderItem(itemRequest, pricing);
             order.addOrderItem(orderItem);
             subtotal = subtotal.add(orderItem.getSubtotal());
         }
@@ -116,13 +154,17 @@ public class OrderService {
         history.setNotes("Order created");
         order.addStatusHistory(history);
 
+        // Last before the insert: the counter row stays locked until this transaction ends
+        order.setDisplayNumber(displayNumberAllocator.next(currentUser.getRestaurantId()));
         Order savedOrder = orderRepository.save(order);
         log.info("Order created successfully: {}", savedOrder.getOrderNumber());
 
         return mapToOrderResponse(savedOrder);
     }
 
-    @Transactional(isolation = Isolation.SERIALIZABLE, timeout = 10)
+    @RetryOnOptimisticLock
+    @Idempotent("session-orders")
+    @Transactional(isolation = Isolation.READ_COMMITTED, timeout = 10)
     public OrderResponse createSessionOrder(Long sessionId, CreateOrderRequest request,
                                             UserPrincipal currentUser) {
         log.info("Creating session order for session {} by user {}", sessionId, currentUser.getId());
@@ -147,8 +189,14 @@ public class OrderService {
         request.setTableNumber(session.getTable().getTableNumber());
         request.setDeliveryAddress(null);
 
+        OrderPricingContext pricing = pricingResolver.resolve(session.getRestaurantId(), request.getItems());
+        String orderNumber = generateOrderNumber();
+
         for (OrderItemRequest item : request.getItems()) {
             boolean available = inventoryService.checkAndReserve(
+                    orderNumber,
+                    session.getRestaurantId(),
+                    session.getTable().getBranchId(),
                     item.getMenuItemId(),
                     item.getQuantity()
             );
@@ -161,7 +209,7 @@ public class OrderService {
         Order order = new Order();
         order.setRestaurantId(session.getRestaurantId());
         order.setCustomerId(currentUser.getId());
-        order.setOrderNumber(generateOrderNumber());
+        order.setOrderNumber(orderNumber);
         order.setOrderType(Order.OrderType.DINE_IN);
         order.setStatus(Order.OrderStatus.PENDING);
         order.setTableNumber(session.getTable().getTableNumber());
@@ -174,7 +222,7 @@ public class OrderService {
 
         BigDecimal subtotal = BigDecimal.ZERO;
         for (OrderItemRequest itemRequest : request.getItems()) {
-            OrderItem orderItem = createOrderItem(itemRequest, session.getRestaurantId());
+            OrderItem orderItem = createOrderItem(itemRequest, pricing);
             order.addOrderItem(orderItem);
             subtotal = subtotal.add(orderItem.getSubtotal());
         }
@@ -197,6 +245,8 @@ public class OrderService {
         history.setNotes("Session order created");
         order.addStatusHistory(history);
 
+        // Last before the insert: the counter row stays locked until this transaction ends
+        order.setDisplayNumber(displayNumberAllocator.next(session.getRestaurantId()));
         Order savedOrder = orderRepository.save(order);
         updateSessionTotal(savedOrder);
 
@@ -224,10 +274,8 @@ public class OrderService {
             throw new ForbiddenException("You are not part of this session");
         }
 
-        return session.getOrders().stream()
-                .sorted(Comparator.comparing(Order::getCreatedAt).reversed())
-                .map(this::mapToOrderSummaryResponse)
-                .collect(Collectors.toList());
+        return mapToOrderSummaryResponses(
+                orderRepository.findByTableSessionIdOrderByCreatedAtDesc(sessionId));
     }
 
     private void validateOrderTypeRequirements(CreateOrderRequest request) {
@@ -242,25 +290,25 @@ public class OrderService {
         }
     }
 
-    private OrderItem createOrderItem(OrderItemRequest request, Long restaurantId) {
-        // Get menu item (this would call MenuService to get item details)
-        // For now, simulating with placeholder data
-        // In production, fetch actual menu item from MenuService
-
+    private OrderItem createOrderItem(OrderItemRequest request, OrderPricingContext pricing) {
+        // Prices and names are snapshotted from the batch-loaded pricing context
         OrderItem orderItem = new OrderItem();
         orderItem.setMenuItemId(request.getMenuItemId());
-        orderItem.setItemName("Menu Item " + request.getMenuItemId()); // Placeholder
+        orderItem.setItemName(pricing.getItemName(request.getMenuItemId(), request.getVariantId()));
         orderItem.setQuantity(request.getQuantity());
-        orderItem.setUnitPrice(new BigDecimal("10.00")); // Placeholder
+        orderItem.setUnitPrice(pricing.getUnitPrice(request.getMenuItemId(), request.getVariantId()));
         orderItem.setSpecialInstructions(request.getSpecialInstructions());
 
         // Process modifiers
         if (request.getModifierIds() != null && !request.getModifierIds().isEmpty()) {
             for (Long modifierId : request.getModifierIds()) {
+                ModifierOption option = pricing.getModifier(modifierId);
                 OrderItemModifier modifier = new OrderItemModifier();
                 modifier.setModifierId(modifierId);
-                modifier.setModifierName("Modifier " + modifierId); // Placeholder
-                modifier.setPrice(new BigDecimal("2.00")); // Placeholder
+                modifier.setModifierName(option.getName());
+                modifier.setPrice(option.getPriceAdjustment() != null
+                        ? option.getPriceAdjustment()
+                        : BigDecimal.ZERO);
                 orderItem.addModifier(modifier);
             }
         }
@@ -270,11 +318,10 @@ public class OrderService {
     }
 
     private String generateOrderNumber() {
-        String timestamp = String.valueOf(System.currentTimeMillis());
-        String random = String.valueOf(new Random().nextInt(1000));
-        return "ORD" + timestamp.substring(timestamp.length() - 8) + random;
+        return orderNumberGenerator.nextOrderNumber();
     }
 
+    @RetryOnOptimisticLock
     @Transactional
     public OrderResponse updateOrderStatus(Long orderId, UpdateOrderStatusRequest request,
                                            UserPrincipal currentUser) {
@@ -282,25 +329,13 @@ public class OrderService {
 
         Order order = findOrderWithAccess(orderId, currentUser);
 
-        // Validate status transition
-        validateStatusTransition(order.getStatus(), request.getStatus());
-
-        // Role-based status update validation
-        validateRoleCanUpdateStatus(currentUser, request.getStatus());
+        // Role-based status update validation, then the transition table and guards
+        stateMachine.checkRole(currentUser, request.getStatus());
+        Order.OrderStatus oldStatus = stateMachine.transition(order, request.getStatus(), currentUser.getId());
 
-        Order.OrderStatus oldStatus = order.getStatus();
-        order.setStatus(request.getStatus());
-
-        // Update timestamps based on status
-        switch (request.getStatus()) {
-            case READY:
-                order.setActualReadyTime(LocalDateTime.now());
-                break;
-            case COMPLETED:
-                if (order.getOrderType() == Order.OrderType.DELIVERY) {
-                    order.setDeliveryTime(LocalDateTime.now());
-                }
-                break;
+        // Confirmation consumes the stock reserved at checkout
+        if (request.getStatus() == Order.OrderStatus.CONFIRMED) {
+            inventoryService.deductStockForOrder(order, currentUser);
         }
 
         // Add status history
@@ -312,51 +347,122 @@ public class OrderService {
         order.addStatusHistory(history);
 
         Order updatedOrder = orderRepository.save(order);
+        publishStatusChange(updatedOrder, oldStatus, updatedOrder.getStatus());
         log.info("Order {} status updated from {} to {}",
                 orderId, oldStatus, request.getStatus());
 
         return mapToOrderResponse(updatedOrder);
     }
 
-    private void validateStatusTransition(Order.OrderStatus from, Order.OrderStatus to) {
-        if (from == Order.OrderStatus.CANCELLED) {
-            throw new BadRequestException("Cannot update status of cancelled order");
+    /**
+     * Move many orders to one status in a single transaction, e.g. CONFIRMED -> PREPARING
+     * at rush start. Transitions are validated in memory against one batch load; valid
+     * ones are written with one batched UPDATE and one batched history INSERT. Orders
+     * that fail validation or were changed concurrently are reported, not thrown.
+     */
+    @Transactional
+    public BulkUpdateOrderStatusResponse bulkUpdateOrderStatus(BulkUpdateOrderStatusRequest request,
+                                                               UserPrincipal currentUser) {
+        Order.OrderStatus target = request.getStatus();
+        if (!BULK_TARGET_STATUSES.contains(target)) {
+            throw new BadRequestException("Bulk status update supports only " + BULK_TARGET_STATUSES);
         }
-        if (from == Order.OrderStatus.COMPLETED) {
-            throw new BadRequestException("Cannot update status of completed order");
+        stateMachine.checkRole(currentUser, target);
+
+        List<Long> orderIds = request.getOrderIds().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        log.info("Bulk updating {} orders to {}", orderIds.size(), target);
+
+        Map<Long, Order> orders = orderRepository
+                .findByIdInAndRestaurantId(orderIds, currentUser.getRestaurantId()).stream()
+                .collect(Collectors.toMap(Order::getId, order -> order));
+
+        Map<Long, String> errors = new HashMap<>();
+        List<OrderStatusBatchWriter.StatusTransition> transitions = new ArrayList<>();
+        for (Long orderId : orderIds) {
+            Order order = orders.get(orderId);
+            String error = checkBulkTransition(order, target, currentUser);
+            if (error != null) {
+                errors.put(orderId, error);
+            } else {
+                transitions.add(new OrderStatusBatchWriter.StatusTransition(order, order.getStatus(), target));
+            }
         }
 
-        // Define valid transitions
-        Map<Order.OrderStatus, List<Order.OrderStatus>> validTransitions = Map.of(
-                Order.OrderStatus.PENDING, List.of(Order.OrderStatus.CONFIRMED, Order.OrderStatus.CANCELLED),
-                Order.OrderStatus.CONFIRMED, List.of(Order.OrderStatus.PREPARING, Order.OrderStatus.CANCELLED),
-                Order.OrderStatus.PREPARING, List.of(Order.OrderStatus.READY, Order.OrderStatus.CANCELLED),
-                Order.OrderStatus.READY, List.of(Order.OrderStatus.OUT_FOR_DELIVERY, Order.OrderStatus.COMPLETED),
-                Order.OrderStatus.OUT_FOR_DELIVERY, List.of(Order.OrderStatus.COMPLETED)
-        );
+        List<OrderStatusBatchWriter.StatusTransition> applied =
+                statusBatchWriter.apply(transitions, currentUser.getId(), request.getNotes());
+        // No transition listeners here: the batch UPDATE already set the status timestamps,
+        // and stamping the loaded entities would flush them against the bumped version
+        Set<Long> appliedIds = new HashSet<>();
+        for (OrderStatusBatchWriter.StatusTransition transition : applied) {
+            appliedIds.add(transition.order().getId());
+            publishStatusChange(transition.order(), transition.from(), transition.to());
+        }
 
-        if (!validTransitions.getOrDefault(from, Collections.emptyList()).contains(to)) {
-            throw new BadRequestException(
-                    String.format("Invalid status transition from %s to %s", from, to));
+        List<BulkOrderStatusResult> results = new ArrayList<>(orderIds.size());
+        for (Long orderId : orderIds) {
+            Order order = orders.get(orderId);
+            Order.OrderStatus fromStatus = order != null ? order.getStatus() : null;
+            if (appliedIds.contains(orderId)) {
+                results.add(new BulkOrderStatusResult(orderId, true, fromStatus, null));
+            } else {
+                String error = errors.getOrDefault(orderId, "Order was modified concurrently, please retry");
+                results.add(new BulkOrderStatusResult(orderId, false, fromStatus, error));
+            }
         }
+
+        log.info("Bulk status update to {}: {} updated, {} failed",
+                target, appliedIds.size(), orderIds.size() - appliedIds.size());
+        return new BulkUpdateOrderStatusResponse(target, appliedIds.size(),
+                orderIds.size() - appliedIds.size(), results);
     }
 
-    private void validateRoleCanUpdateStatus(UserPrincipal user, Order.OrderStatus newStatus) {
-        if (newStatus == Order.OrderStatus.CONFIRMED &&
-                !user.hasAnyRole("RESTAURANT_ADMIN", "ADMIN")) {
-            throw new ForbiddenException("Only restaurant admin can confirm orders");
+    private String checkBulkTransition(Order order, Order.OrderStatus target, UserPrincipal currentUser) {
+        if (order == null) {
+            return "Order not found";
         }
-        if ((newStatus == Order.OrderStatus.PREPARING || newStatus == Order.OrderStatus.READY) &&
-                !user.hasAnyRole("CHEF", "RESTAURANT_ADMIN", "ADMIN")) {
-            throw new ForbiddenException("Only chef can update preparation status");
+        if (currentUser.hasRole("DELIVERY_MAN") && !currentUser.getId().equals(order.getDeliveryManId())) {
+            return "Access denied to this order";
         }
-        if ((newStatus == Order.OrderStatus.OUT_FOR_DELIVERY ||
-                (newStatus == Order.OrderStatus.COMPLETED && user.hasRole("DELIVERY_MAN"))) &&
-                !user.hasAnyRole("DELIVERY_MAN", "RESTAURANT_ADMIN", "ADMIN")) {
-            throw new ForbiddenException("Only delivery man can update delivery status");
+        try {
+            stateMachine.checkTransition(order, target, currentUser.getId());
+        } catch (BadRequestException e) {
+            return e.getMessage();
         }
+        return null;
     }
 
+    /**
+     * Side effects (notifications, timeline, display, analytics) go through the
+     * order_events outbox and run after commit.
+     */
+    private void publishStatusChange(Order order, Order.OrderStatus fromStatus, Order.OrderStatus toStatus) {
+        OrderEvent.OrderEventBuilder event = OrderEvent.forOrder(order, OrderEvent.EventType.STATUS_CHANGED)
+                .fromStatus(fromStatus)
+                .toStatus(toStatus)
+                .notificationMessage(String.format("Your order #%s is now %s",
+                        order.getOrderNumber(), toStatus.name().toLowerCase().replace('_', ' ')));
+
+        OrderTimeline.EventType timelineEvent = switch (toStatus) {
+            case CONFIRMED -> OrderTimeline.EventType.ORDER_CONFIRMED;
+            case PREPARING -> OrderTimeline.EventType.FOOD_PREPARING;
+            case READY -> OrderTimeline.EventType.FOOD_READY;
+            case OUT_FOR_DELIVERY -> OrderTimeline.EventType.OUT_FOR_DELIVERY;
+            case DELIVERED, COMPLETED -> OrderTimeline.EventType.DELIVERED;
+            case CANCELLED -> OrderTimeline.EventType.CANCELLED;
+            default -> null;
+        };
+        if (timelineEvent != null) {
+            event.timelineEventType(timelineEvent)
+                    .timelineTitle("Order " + toStatus.name().toLowerCase().replace('_', ' '));
+        }
+
+        eventPublisher.publish(event.build());
+    }
+
+    @RetryOnOptimisticLock
     @Transactional
     public OrderResponse cancelOrder(Long orderId, CancelOrderRequest request,
                                      UserPrincipal currentUser) {
@@ -377,8 +483,8 @@ public class OrderService {
             throw new ForbiddenException("Customers can only cancel pending orders");
         }
 
-        Order.OrderStatus oldStatus = order.getStatus();
-        order.setStatus(Order.OrderStatus.CANCELLED);
+        Order.OrderStatus oldStatus = stateMachine.transition(
+                order, Order.OrderStatus.CANCELLED, currentUser.getId());
         order.setCancelledAt(LocalDateTime.now());
         order.setCancelledBy(currentUser.getId());
         order.setCancellationReason(request.getReason());
@@ -392,6 +498,12 @@ public class OrderService {
         order.addStatusHistory(history);
 
         Order cancelledOrder = orderRepository.save(order);
+        if (oldStatus != Order.OrderStatus.PENDING) {
+            // Confirmation deducted the stock; a pending order only holds a reservation
+            inventoryService.restoreStockForOrder(cancelledOrder, currentUser);
+        }
+        inventoryService.releaseReservation(order.getOrderNumber());
+        publishStatusChange(cancelledOrder, oldStatus, cancelledOrder.getStatus());
         log.info("Order {} cancelled successfully", orderId);
 
         return mapToOrderResponse(cancelledOrder);
@@ -467,14 +579,81 @@ public class OrderService {
             }
         }
 
-        return orders.map(this::mapToOrderSummaryResponse);
+        return new PageImpl<>(mapToOrderSummaryResponses(orders.getContent()),
+                orders.getPageable(), orders.getTotalElements());
     }
 
     @Transactional(readOnly = true)
     public Page<OrderResponse> getKitchenOrdersPage(UserPrincipal currentUser, Pageable pageable) {
         Page<Order> orders = orderRepository.findByRestaurantId(
                 currentUser.getRestaurantId(), pageable);
-        return orders.map(this::mapToOrderResponse);
+        return new PageImpl<>(mapToOrderResponses(orders.getContent()),
+                orders.getPageable(), orders.getTotalElements());
+    }
+
+    /**
+     * Keyset variant of getOrders: newest first, resumed from an opaque cursor.
+     * Fetches one extra row to detect a further page instead of running COUNT(*).
+     */
+    @Transactional(readOnly = true)
+    public OrderCursorPage<OrderSummaryResponse> getOrdersByCursor(UserPrincipal currentUser,
+                                                                   Order.OrderStatus status,
+                                                                   Order.OrderType orderType,
+                                                                   String cursor,
+                                                                   int size,
+                                                                   boolean includeCount) {
+        int pageSize = clampPageSize(size);
+        OrderCursor after = OrderCursor.decode(cursor, OrderCursor.NEWEST);
+        Pageable window = PageRequest.of(0, pageSize + 1);
+
+        List<Order> orders;
+        Long totalCount = null;
+
+        if (currentUser.hasRole("DELIVERY_MAN") && !currentUser.hasRole("CUSTOMER")) {
+            // Delivery men see orders assigned to them
+            orders = orderRepository.findDeliveryManPageBefore(
+                    currentUser.getId(), after.createdAt(), after.id(), window);
+            if (includeCount) {
+                totalCount = orderRepository.countByDeliveryManId(currentUser.getId());
+            }
+        } else {
+            // Customers see only their orders; restaurant staff see all restaurant orders
+            Long customerId = currentUser.hasRole("CUSTOMER") ? currentUser.getId() : null;
+            orders = orderRepository.findRestaurantPageBefore(currentUser.getRestaurantId(),
+                    customerId, status, orderType, after.createdAt(), after.id(), window);
+            if (includeCount) {
+                totalCount = orderRepository.countRestaurantOrders(
+                        currentUser.getRestaurantId(), customerId, status, orderType);
+            }
+        }
+
+        return toCursorPage(orders, pageSize, totalCount, this::mapToOrderSummaryResponses);
+    }
+
+    /**
+     * Keyset variant of getKitchenOrdersPage: oldest first, so the kitchen works the queue in order.
+     */
+    @Transactional(readOnly = true)
+    public OrderCursorPage<OrderResponse> getKitchenOrdersByCursor(UserPrincipal currentUser,
+                                                                   String cursor,
+                                                                   int size) {
+        int pageSize = clampPageSize(size);
+        OrderCursor after = OrderCursor.decode(cursor, OrderCursor.OLDEST);
+        List<Order> orders = orderRepository.findRestaurantPageAfter(currentUser.getRestaurantId(),
+                after.createdAt(), after.id(), PageRequest.of(0, pageSize + 1));
+        return toCursorPage(orders, pageSize, null, this::mapToOrderResponses);
+    }
+
+    private <T> OrderCursorPage<T> toCursorPage(List<Order> orders, int pageSize, Long totalCount,
+                                                Function<List<Order>, List<T>> mapper) {
+        boolean hasMore = orders.size() > pageSize;
+        List<Order> page = hasMore ? orders.subList(0, pageSize) : orders;
+        String nextCursor = hasMore ? OrderCursor.of(page.get(page.size() - 1)).encode() : null;
+        return new OrderCursorPage<>(mapper.apply(page), nextCursor, hasMore, totalCount);
+    }
+
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
     }
 
     @Transactional(readOnly = true)
@@ -532,6 +711,49 @@ public class OrderService {
     }
 
     public OrderResponse mapToOrderResponse(Order order) {
+        return mapToOrderResponses(List.of(order)).get(0);
+    }
+
+    /**
+     * Map orders with their lines in one pass. Lines already in memory (a freshly created
+     * order) are used as is; the rest are loaded for all orders in a single JOIN FETCH,
+     * so the statement count does not grow with the number of items or modifiers.
+     */
+    public List<OrderResponse> mapToOrderResponses(List<Order> orders) {
+        Map<Long, List<OrderItem>> itemsByOrder = loadOrderItems(orders);
+        List<OrderResponse> responses = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            responses.add(mapToOrderResponse(order,
+                    itemsByOrder.getOrDefault(order.getId(), order.getOrderItems())));
+        }
+        return responses;
+    }
+
+    private Map<Long, List<OrderItem>> loadOrderItems(List<Order> orders) {
+        List<Long> unloaded = orders.stream()
+                .filter(order -> !isItemGraphLoaded(order))
+                .map(Order::getId)
+                .collect(Collectors.toList());
+        if (unloaded.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<Long, List<OrderItem>> itemsByOrder = new HashMap<>();
+        for (Long orderId : unloaded) {
+            itemsByOrder.put(orderId, new ArrayList<>());
+        }
+        for (OrderItem item : orderItemRepository.findWithModifiersByOrderIdIn(unloaded)) {
+            itemsByOrder.get(item.getOrder().getId()).add(item);
+        }
+        return itemsByOrder;
+    }
+
+    private boolean isItemGraphLoaded(Order order) {
+        return Hibernate.isInitialized(order.getOrderItems())
+                && order.getOrderItems().stream().allMatch(item -> Hibernate.isInitialized(item.getModifiers()));
+    }
+
+    private OrderResponse mapToOrderResponse(Order order, List<OrderItem> items) {
         OrderResponse response = new OrderResponse();
         response.setId(order.getId());
         response.setRestaurantId(order.getRestaurantId());
@@ -554,7 +776,7 @@ public class OrderService {
         response.setCreatedAt(order.getCreatedAt());
         response.setUpdatedAt(order.getUpdatedAt());
 
-        response.setItems(order.getOrderItems().stream()
+        response.setItems(items.stream()
                 .map(this::mapToOrderItemResponse)
                 .collect(Collectors.toList()));
 
@@ -587,14 +809,41 @@ public class OrderService {
         return response;
     }
 
-    private OrderSummaryResponse mapToOrderSummaryResponse(Order order) {
+    /**
+     * Summaries only need the line count; it comes from one grouped COUNT for the whole
+     * batch rather than initialising each order's item collection.
+     */
+    private List<OrderSummaryResponse> mapToOrderSummaryResponses(List<Order> orders) {
+        List<Long> unloaded = orders.stream()
+                .filter(order -> !Hibernate.isInitialized(order.getOrderItems()))
+                .map(Order::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, Integer> itemCounts = new HashMap<>();
+        if (!unloaded.isEmpty()) {
+            for (OrderItemRepository.ItemCount count : orderItemRepository.countByOrderIdIn(unloaded)) {
+                itemCounts.put(count.getOrderId(), count.getItemCount().intValue());
+            }
+        }
+
+        List<OrderSummaryResponse> responses = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            int itemCount = Hibernate.isInitialized(order.getOrderItems())
+                    ? order.getOrderItems().size()
+                    : itemCounts.getOrDefault(order.getId(), 0);
+            responses.add(mapToOrderSummaryResponse(order, itemCount));
+        }
+        return responses;
+    }
+
+    private OrderSummaryResponse mapToOrderSummaryResponse(Order order, int itemCount) {
         OrderSummaryResponse response = new OrderSummaryResponse();
         response.setId(order.getId());
         response.setOrderNumber(order.getOrderNumber());
         response.setOrderType(order.getOrderType());
         response.setStatus(order.getStatus());
         response.setTotalAmount(order.getTotalAmount());
-        response.setItemCount(order.getOrderItems().size());
+        response.setItemCount(itemCount);
         response.setCreatedAt(order.getCreatedAt());
         return response;
     }
@@ -0,0 +1,95 @@
+package com.rms.service.order;
+
+import com.rms.entity.Order;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes bulk status transitions as two JDBC batches: one versioned UPDATE per order
+ * and one order_status_history INSERT per applied transition, flushed in groups of
+ * hibernate.jdbc.batch_size. History rows use IDENTITY keys, which Hibernate cannot
+ * batch, hence plain JDBC here.
+ *
+ * Callers must not modify the loaded Order entities afterwards, otherwise Hibernate
+ * would flush them again against the bumped version.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderStatusBatchWriter {
+
+    private static final String UPDATE_STATUS_SQL =
+            "UPDATE orders SET status = ?, version = version + 1, updated_at = ?, " +
+            "actual_ready_time = COALESCE(?, actual_ready_time), " +
+            "delivery_time = COALESCE(?, delivery_time) " +
+            "WHERE id = ? AND version = ?";
+
+    private static final String INSERT_HISTORY_SQL =
+            "INSERT INTO order_status_history " +
+            "(order_id, status, previous_status, updated_by, notes, timestamp, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    /**
+     * Apply the transitions and return those that were written. A transition is skipped
+     * when its order's version moved since it was loaded.
+     */
+    public List<StatusTransition> apply(List<StatusTransition> transitions, Long changedBy, String notes) {
+        if (transitions.isEmpty()) {
+            return List.of();
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] updateCounts = jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, transitions, batchSize,
+                (ps, transition) -> {
+                    Order order = transition.order();
+                    Order.OrderStatus to = transition.to();
+                    boolean completesDelivery = to == Order.OrderStatus.COMPLETED
+                            && order.getOrderType() == Order.OrderType.DELIVERY;
+                    ps.setString(1, to.name());
+                    ps.setTimestamp(2, now);
+                    ps.setTimestamp(3, to == Order.OrderStatus.READY ? now : null);
+                    ps.setTimestamp(4, completesDelivery ? now : null);
+                    ps.setLong(5, order.getId());
+                    ps.setLong(6, order.getVersion());
+                });
+
+        List<StatusTransition> applied = new ArrayList<>(transitions.size());
+        int index = 0;
+        for (int[] batch : updateCounts) {
+            for (int count : batch) {
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    applied.add(transitions.get(index));
+                }
+                index++;
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_HISTORY_SQL, applied, batchSize, (ps, transition) -> {
+            ps.setLong(1, transition.order().getId());
+            ps.setString(2, transition.to().name());
+            ps.setString(3, transition.from().name());
+            ps.setLong(4, changedBy);
+            ps.setString(5, notes);
+            ps.setTimestamp(6, now);
+            ps.setTimestamp(7, now);
+            ps.setTimestamp(8, now);
+        });
+
+        return applied;
+    }
+
+    public record StatusTransition(Order order, Order.OrderStatus from, Order.OrderStatus to) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.rms.service.order;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.interceptor.MethodInvocationRetryCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records retry and abort counts for the optimistic order write path.
+ *
+ * rms.orders.write.retries - attempts that hit a version conflict or lock failure
+ * rms.orders.write.aborts  - operations that still conflicted after the last attempt
+ */
+@Component("orderWriteRetryListener")
+@RequiredArgsConstructor
+@Slf4j
+public class OrderWriteRetryListener implements RetryListener {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context,
+                                                 RetryCallback<T, E> callback,
+                                                 Throwable throwable) {
+        if (throwable instanceof ConcurrencyFailureException) {
+            String operation = operation(callback);
+            counter("rms.orders.write.retries", operation).increment();
+            log.debug("Order write conflict in {} (attempt {}): {}",
+                    operation, context.getRetryCount(), throwable.getMessage());
+        }
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context,
+                                               RetryCallback<T, E> callback,
+                                               Throwable throwable) {
+        if (throwable instanceof ConcurrencyFailureException) {
+            String operation = operation(callback);
+            counter("rms.orders.write.aborts", operation).increment();
+            log.warn("Order write {} aborted after {} attempts", operation, context.getRetryCount());
+        }
+    }
+
+    private Counter counter(String name, String operation) {
+        return Counter.builder(name)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private String operation(RetryCallback<?, ?> callback) {
+        if (callback instanceof MethodInvocationRetryCallback<?, ?> methodCallback) {
+            return methodCallback.getInvocation().getMethod().getName();
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,51 @@
+package com.rms.service.order.event;
+
+import com.rms.entity.OrderEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Order lifecycle metrics
+ *
+ * rms.orders.events       - dispatched events by type and target status
+ * rms.orders.events.lag   - time from commit to dispatch
+ */
+@Component
+@RequiredArgsConstructor
+public class AnalyticsOrderEventHandler implements OrderEventHandler {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public String name() {
+        return "analytics";
+    }
+
+    @Override
+    public boolean isBatchAtomic() {
+        return false;
+    }
+
+    @Override
+    public void handle(List<OrderEvent> events) {
+        LocalDateTime now = LocalDateTime.now();
+        Timer lag = meterRegistry.timer("rms.orders.events.lag");
+        for (OrderEvent event : events) {
+            Counter.builder("rms.orders.events")
+                    .tag("type", event.getEventType().name())
+                    .tag("status", event.getToStatus() != null ? event.getToStatus().name() : "none")
+                    .register(meterRegistry)
+                    .increment();
+            if (event.getCreatedAt() != null) {
+                lag.record(Duration.between(event.getCreatedAt(), now));
+            }
+        }
+    }
+}
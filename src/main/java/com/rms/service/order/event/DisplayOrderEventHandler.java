@@ -0,0 +1,32 @@
+package com.rms.service.order.event;
+
+import com.rms.entity.OrderEvent;
+import com.rms.service.DisplayService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Refreshes customer display snapshots of the restaurants touched by a batch,
+ * instead of waiting for the periodic full refresh.
+ */
+@Component
+@RequiredArgsConstructor
+public class DisplayOrderEventHandler implements OrderEventHandler {
+
+    private final DisplayService displayService;
+
+    @Override
+    public String name() {
+        return "display";
+    }
+
+    @Override
+    public void handle(List<OrderEvent> events) {
+        events.stream()
+                .map(OrderEvent::getRestaurantId)
+                .distinct()
+                .forEach(displayService::refreshRestaurant);
+    }
+}
@@ -0,0 +1,92 @@
+package com.rms.service.order.event;
+
+import com.rms.entity.DeliveryAssignment;
+import com.rms.entity.Order;
+import com.rms.entity.OrderEvent;
+import com.rms.entity.User;
+import com.rms.repository.DeliveryAssignmentRepository;
+import com.rms.repository.OrderRepository;
+import com.rms.repository.UserRepository;
+import com.rms.service.notification.NotificationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sends customer and delivery partner notifications for dispatched order events
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationOrderEventHandler implements OrderEventHandler {
+
+    private final NotificationService notificationService;
+    private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final DeliveryAssignmentRepository deliveryAssignmentRepository;
+
+    @Override
+    public String name() {
+        return "notification";
+    }
+
+    @Override
+    public boolean isBatchAtomic() {
+        return false;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void handle(List<OrderEvent> events) {
+        Map<Long, Order> orders = byId(orderRepository.findAllById(
+                events.stream().map(OrderEvent::getOrderId).distinct().toList()), Order::getId);
+        Map<Long, User> partners = byId(userRepository.findAllById(
+                events.stream().map(OrderEvent::getDeliveryPartnerId).filter(Objects::nonNull).distinct().toList()),
+                User::getId);
+        Map<Long, DeliveryAssignment> assignments = byId(deliveryAssignmentRepository.findAllById(
+                events.stream().map(OrderEvent::getDeliveryAssignmentId).filter(Objects::nonNull).distinct().toList()),
+                DeliveryAssignment::getId);
+
+        for (OrderEvent event : events) {
+            Order order = orders.get(event.getOrderId());
+            if (order == null || !Boolean.TRUE.equals(event.getNotifyCustomer())) {
+                continue;
+            }
+
+            switch (event.getEventType()) {
+                case STATUS_CHANGED, KITCHEN_STARTED -> {
+                    if (event.getNotificationMessage() != null) {
+                        notificationService.sendOrderStatusUpdate(order, event.getNotificationMessage());
+                    }
+                }
+                case FOOD_READY -> notificationService.sendOrderReadyNotification(order);
+                case DELIVERY_ASSIGNED -> {
+                    User partner = partners.get(event.getDeliveryPartnerId());
+                    if (partner != null) {
+                        notificationService.sendDeliveryAssignment(partner, order);
+                        notificationService.sendDeliveryPartnerAssigned(order, partner);
+                    }
+                }
+                case DELIVERY_ACCEPTED -> notificationService.sendOrderUpdate(order, event.getNotificationMessage());
+                case OUT_FOR_DELIVERY -> {
+                    DeliveryAssignment assignment = assignments.get(event.getDeliveryAssignmentId());
+                    if (assignment != null) {
+                        notificationService.sendOrderOutForDelivery(order, assignment);
+                    }
+                }
+                case DELIVERED -> notificationService.sendOrderDelivered(order);
+            }
+        }
+    }
+
+    private static <T> Map<Long, T> byId(List<T> entities, Function<T, Long> id) {
+        return entities.stream().collect(Collectors.toMap(id, Function.identity()));
+    }
+}
@@ -0,0 +1,247 @@
+package com.rms.service.order.event;
+
+import com.rms.entity.OrderEvent;
+import com.rms.repository.OrderEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drains the order_events outbox.
+ *
+ * A batch is claimed in a short transaction: the rows are locked with FOR UPDATE SKIP
+ * LOCKED, given a claim deadline (next_attempt_at) and committed, so no row lock is held
+ * while handlers run and other dispatchers skip the batch until the deadline. The batch
+ * is fanned out to all handlers in parallel on orderEventExecutor; a handler whose batch
+ * fails gets its events one at a time, so one bad event cannot hold back the rest.
+ * Handlers whose batches are not atomic get one event at a time from the start, so a
+ * failure never delivers the events before it twice.
+ * Deliveries are recorded per event and handler: an event is marked dispatched once
+ * every handler processed it, otherwise only the missing handlers get it again after
+ * retry-delay, until max-attempts, then it is marked FAILED.
+ *
+ * The dispatcher is woken right after an event commits and also polls as a fallback.
+ */
+@Component
+@Slf4j
+public class OrderEventDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OrderEventRepository eventRepository;
+    private final List<OrderEventHandler> handlers;
+    private final TaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+
+    @Value("${app.orders.events.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.orders.events.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.orders.events.claim-timeout-seconds:300}")
+    private long claimTimeoutSeconds;
+
+    @Value("${app.orders.events.retry-delay-seconds:30}")
+    private long retryDelaySeconds;
+
+    @Value("${app.orders.events.retention-days:7}")
+    private int retentionDays;
+
+    public OrderEventDispatcher(OrderEventRepository eventRepository,
+                                List<OrderEventHandler> handlers,
+                                @Qualifier("orderEventExecutor") TaskExecutor executor,
+                                PlatformTransactionManager transactionManager) {
+        this.eventRepository = eventRepository;
+        this.handlers = handlers;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Request a drain after an event committed; coalesces with a drain already running
+     */
+    public void wakeUp() {
+        wakeRequested.set(true);
+        if (!draining.get()) {
+            executor.execute(this::drain);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.events.poll-interval-ms:2000}")
+    public void poll() {
+        wakeRequested.set(true);
+        drain();
+    }
+
+    void drain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            while (wakeRequested.getAndSet(false)) {
+                int dispatched;
+                do {
+                    dispatched = dispatchBatch();
+                } while (dispatched == batchSize);
+            }
+        } catch (Exception e) {
+            log.error("Order event dispatch failed", e);
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    int dispatchBatch() {
+        List<OrderEvent> batch = transactionTemplate.execute(status -> claim());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Delivery> deliveries = fanOut(batch);
+        transactionTemplate.executeWithoutResult(status -> record(batch, deliveries));
+        return batch.size();
+    }
+
+    private List<OrderEvent> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderEvent> batch = eventRepository.lockNextPendingBatch(now, batchSize);
+        if (batch.isEmpty()) {
+            return batch;
+        }
+        for (OrderEvent event : batch) {
+            event.setNextAttemptAt(now.plusSeconds(claimTimeoutSeconds));
+        }
+        eventRepository.saveAll(batch);
+        return batch;
+    }
+
+    private List<Delivery> fanOut(List<OrderEvent> batch) {
+        List<CompletableFuture<Delivery>> futures = new ArrayList<>(handlers.size());
+        for (OrderEventHandler handler : handlers) {
+            List<OrderEvent> pending = batch.stream()
+                    .filter(event -> !deliveredTo(event).contains(handler.name()))
+                    .toList();
+            if (!pending.isEmpty()) {
+                futures.add(CompletableFuture.supplyAsync(() -> deliver(handler, pending), executor));
+            }
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private Delivery deliver(OrderEventHandler handler, List<OrderEvent> events) {
+        Delivery delivery = new Delivery(handler.name());
+        if (handler.isBatchAtomic() && events.size() > 1) {
+            try {
+                handler.handle(events);
+                events.forEach(event -> delivery.delivered().add(event.getId()));
+                return delivery;
+            } catch (RuntimeException e) {
+                log.warn("Order event handler {} failed for batch starting at event {}, retrying one by one: {}",
+                        handler.name(), events.get(0).getId(), e.getMessage());
+            }
+        }
+
+        for (OrderEvent event : events) {
+            try {
+                handler.handle(List.of(event));
+                delivery.delivered().add(event.getId());
+            } catch (RuntimeException e) {
+                delivery.failed(event, e);
+            }
+        }
+        return delivery;
+    }
+
+    private void record(List<OrderEvent> batch, List<Delivery> deliveries) {
+        LocalDateTime now = LocalDateTime.now();
+        for (OrderEvent event : batch) {
+            Set<String> delivered = deliveredTo(event);
+            String error = null;
+            for (Delivery delivery : deliveries) {
+                if (delivery.delivered().contains(event.getId())) {
+                    delivered.add(delivery.handler());
+                }
+                String failure = delivery.errors().get(event.getId());
+                if (failure != null && error == null) {
+                    error = delivery.handler() + ": " + failure;
+                }
+            }
+
+            event.setAttempts(event.getAttempts() + 1);
+            event.setDeliveredTo(String.join(",", delivered));
+            if (error == null) {
+                event.setStatus(OrderEvent.DispatchStatus.DISPATCHED);
+                event.setDispatchedAt(now);
+                event.setNextAttemptAt(null);
+                event.setLastError(null);
+                continue;
+            }
+            event.setLastError(truncate(error));
+            event.setNextAttemptAt(now.plusSeconds(retryDelaySeconds));
+            if (event.getAttempts() >= maxAttempts) {
+                event.setStatus(OrderEvent.DispatchStatus.FAILED);
+                log.error("Order event {} for order {} failed after {} attempts: {}",
+                        event.getId(), event.getOrderId(), event.getAttempts(), error);
+            }
+        }
+        eventRepository.saveAll(batch);
+    }
+
+    private static Set<String> deliveredTo(OrderEvent event) {
+        Set<String> delivered = new TreeSet<>();
+        if (event.getDeliveredTo() != null && !event.getDeliveredTo().isEmpty()) {
+            delivered.addAll(Arrays.asList(event.getDeliveredTo().split(",")));
+        }
+        return delivered;
+    }
+
+    @Scheduled(cron = "${app.orders.events.cleanup-cron:0 30 3 * * *}")
+    public void purgeDispatched() {
+        Integer deleted = transactionTemplate.execute(status ->
+                eventRepository.deleteDispatchedBefore(LocalDateTime.now().minusDays(retentionDays)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} dispatched order events", deleted);
+        }
+    }
+
+    private String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * One handler's outcome for a batch: the events it processed and the error per failed event
+     */
+    private record Delivery(String handler, Set<Long> delivered, Map<Long, String> errors) {
+
+        private Delivery(String handler) {
+            this(handler, new HashSet<>(), new HashMap<>());
+        }
+
+        private void failed(OrderEvent event, RuntimeException e) {
+            errors.put(event.getId(), String.valueOf(e.getMessage()));
+            log.warn("Order event handler {} failed for event {} of order {}: {}",
+                    handler, event.getId(), event.getOrderId(), e.getMessage());
+        }
+    }
+}
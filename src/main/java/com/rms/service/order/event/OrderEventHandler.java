@@ -0,0 +1,32 @@
+package com.rms.service.order.event;
+
+import com.rms.entity.OrderEvent;
+
+import java.util.List;
+
+/**
+ * Consumer of dispatched order events.
+ *
+ * Each handler receives the whole batch (ordered by event id) on its own worker,
+ * so handlers should load what they need in bulk. Delivery is recorded per event and
+ * handler: a handler whose batch fails gets its events again one at a time, and a
+ * failing event is retried only for the handlers that have not processed it.
+ */
+public interface OrderEventHandler {
+
+    /**
+     * Stable name under which deliveries to this handler are recorded
+     */
+    String name();
+
+    void handle(List<OrderEvent> events);
+
+    /**
+     * Whether a failed batch leaves nothing behind. Handlers with side effects that cannot
+     * be undone (notifications, metrics) return false and get one event at a time from the
+     * start, so a failure part way through never repeats what was already done.
+     */
+    default boolean isBatchAtomic() {
+        return true;
+    }
+}
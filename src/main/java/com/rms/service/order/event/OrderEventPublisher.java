@@ -0,0 +1,34 @@
+package com.rms.service.order.event;
+
+import com.rms.entity.OrderEvent;
+import com.rms.repository.OrderEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Writes order events to the outbox as part of the caller's transaction and
+ * wakes the dispatcher once that transaction commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderEventPublisher {
+
+    private final OrderEventRepository eventRepository;
+    private final OrderEventDispatcher dispatcher;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(OrderEvent event) {
+        eventRepository.save(event);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatcher.wakeUp();
+            }
+        });
+    }
+}
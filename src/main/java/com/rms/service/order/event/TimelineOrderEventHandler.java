@@ -0,0 +1,54 @@
+package com.rms.service.order.event;
+
+import com.rms.entity.Order;
+import com.rms.entity.OrderEvent;
+import com.rms.repository.OrderRepository;
+import com.rms.service.tracking.OrderTimelineService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Appends customer-facing timeline entries for dispatched order events
+ */
+@Component
+@RequiredArgsConstructor
+public class TimelineOrderEventHandler implements OrderEventHandler {
+
+    private final OrderTimelineService timelineService;
+    private final OrderRepository orderRepository;
+
+    @Override
+    public String name() {
+        return "timeline";
+    }
+
+    @Override
+    @Transactional
+    public void handle(List<OrderEvent> events) {
+        List<OrderEvent> timelineEvents = events.stream()
+                .filter(event -> event.getTimelineEventType() != null)
+                .toList();
+        if (timelineEvents.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Order> orders = orderRepository.findAllById(
+                        timelineEvents.stream().map(OrderEvent::getOrderId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+        for (OrderEvent event : timelineEvents) {
+            Order order = orders.get(event.getOrderId());
+            if (order != null) {
+                timelineService.addEvent(order, event.getTimelineEventType(),
+                        event.getTimelineTitle(), event.getTimelineDescription());
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.rms.service.order.number;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * Short, human-friendly order numbers for pickup screens ("001".."999").
+ *
+ * Counters are per restaurant and restart every day. Each restaurant has one row in
+ * order_display_counters, advanced with a single upsert so all nodes share the sequence
+ * and a restart does not reuse numbers. The upsert joins the caller's transaction, so
+ * it takes no extra pooled connection and an order that rolls back gives its number
+ * back; callers allocate right before inserting the order, since the row stays locked
+ * until they commit. The unique identifier stays orders.order_number.
+ */
+@Component
+@RequiredArgsConstructor
+public class DisplayNumberAllocator {
+
+    private static final int MAX_DISPLAY_NUMBER = 999;
+
+    private static final String NEXT_VALUE_SQL =
+            "INSERT INTO order_display_counters (restaurant_id, business_date, last_value) VALUES (?, ?, 1) " +
+            "ON CONFLICT (restaurant_id) DO UPDATE SET " +
+            "last_value = CASE WHEN order_display_counters.business_date = EXCLUDED.business_date " +
+            "THEN order_display_counters.last_value % " + MAX_DISPLAY_NUMBER + " + 1 ELSE 1 END, " +
+            "business_date = EXCLUDED.business_date " +
+            "RETURNING last_value";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String next(Long restaurantId) {
+        Date today = Date.valueOf(LocalDate.now());
+        Integer value = jdbcTemplate.queryForObject(NEXT_VALUE_SQL, Integer.class, restaurantId, today);
+        if (value == null) {
+            throw new IllegalStateException("order_display_counters returned no value");
+        }
+        return String.format("%03d", value);
+    }
+}
@@ -0,0 +1,17 @@
+package com.rms.service.order.number;
+
+/**
+ * Generates values for orders.order_number (unique, at most 20 characters).
+ *
+ * Implementations are selected with app.orders.number.strategy:
+ * snowflake (default) - per-node time/sequence ids, no database round trip
+ * sequence            - backed by the order_number_seq database sequence
+ */
+public interface OrderNumberGenerator {
+
+    int MAX_LENGTH = 20;
+
+    String PREFIX = "ORD";
+
+    String nextOrderNumber();
+}
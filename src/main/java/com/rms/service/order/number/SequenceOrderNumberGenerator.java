@@ -0,0 +1,32 @@
+package com.rms.service.order.number;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Order numbers from the order_number_seq database sequence.
+ *
+ * Use when node ids cannot be assigned per instance. Costs one round trip per order;
+ * the sequence is created with a cache so PostgreSQL hands out blocks per session.
+ */
+@Component
+@ConditionalOnProperty(name = "app.orders.number.strategy", havingValue = "sequence")
+@RequiredArgsConstructor
+public class SequenceOrderNumberGenerator implements OrderNumberGenerator {
+
+    private static final String NEXT_VALUE_SQL = "SELECT nextval('order_number_seq')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public String nextOrderNumber() {
+        Long value = jdbcTemplate.queryForObject(NEXT_VALUE_SQL, Long.class);
+        if (value == null) {
+            throw new IllegalStateException("order_number_seq returned no value");
+        }
+        // ORD + 12 digits stays well inside the 20 character column
+        return String.format("%s%012d", PREFIX, value);
+    }
+}
@@ -0,0 +1,97 @@
+package com.rms.service.order.number;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style order numbers: 41 bits of milliseconds since EPOCH_MILLIS,
+ * 10 bits of node id and a 12 bit per-millisecond sequence.
+ *
+ * The id is encoded as 13 fixed-width base-36 characters after the ORD prefix
+ * (16 characters total), so order numbers sort in creation order.
+ *
+ * State is a single AtomicLong holding (timestamp << 12 | sequence). When the
+ * sequence of a millisecond is exhausted, or the clock moves backwards, the
+ * generator borrows from the next logical millisecond instead of blocking.
+ *
+ * Every node needs its own app.orders.number.node-id; two nodes sharing one would hand
+ * out the same numbers, so startup fails when it is not set.
+ */
+@Component
+@ConditionalOnProperty(name = "app.orders.number.strategy", havingValue = "snowflake", matchIfMissing = true)
+@Slf4j
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+
+    // 2024-01-01T00:00:00Z
+    static final long EPOCH_MILLIS = 1704067200000L;
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final int ENCODED_LENGTH = 13;
+    private static final char[] DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    private final long nodeId;
+    private final LongSupplier clock;
+    private final AtomicLong state = new AtomicLong();
+
+    @Autowired
+    public SnowflakeOrderNumberGenerator(@Value("${app.orders.number.node-id:-1}") long configuredNodeId) {
+        this(requireConfigured(configuredNodeId), System::currentTimeMillis);
+    }
+
+    SnowflakeOrderNumberGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Order number node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+        log.info("Snowflake order number generator using node id {}", nodeId);
+    }
+
+    @Override
+    public String nextOrderNumber() {
+        return encode(nextId());
+    }
+
+    long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long current;
+        long next;
+        do {
+            current = state.get();
+            next = Math.max(now, current + 1);
+        } while (!state.compareAndSet(current, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & SEQUENCE_MASK;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    static String encode(long id) {
+        char[] buffer = new char[PREFIX.length() + ENCODED_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), buffer, 0);
+        long remaining = id;
+        for (int i = buffer.length - 1; i >= PREFIX.length(); i--) {
+            buffer[i] = DIGITS[(int) (remaining % 36)];
+            remaining /= 36;
+        }
+        return new String(buffer);
+    }
+
+    private static long requireConfigured(long nodeId) {
+        if (nodeId < 0) {
+            throw new IllegalStateException("app.orders.number.node-id (ORDER_NUMBER_NODE_ID) must be set "
+                    + "to a value between 0 and " + MAX_NODE_ID + " unique to this node");
+        }
+        return nodeId;
+    }
+}
@@ -0,0 +1,22 @@
+package com.rms.service.order.state;
+
+import com.rms.entity.Order;
+import com.rms.exception.BadRequestException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Only delivery orders can go out for delivery or be marked delivered
+ */
+@Component
+public class DeliveryOrderGuard implements OrderTransitionGuard {
+
+    @Override
+    public void check(OrderTransition transition) {
+        Order.OrderStatus to = transition.to();
+        if ((to == Order.OrderStatus.OUT_FOR_DELIVERY || to == Order.OrderStatus.DELIVERED)
+                && transition.order().getOrderType() != Order.OrderType.DELIVERY) {
+            throw new BadRequestException(String.format(
+                    "Only delivery orders can move to %s", to));
+        }
+    }
+}
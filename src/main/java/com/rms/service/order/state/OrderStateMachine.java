@@ -0,0 +1,165 @@
+package com.rms.service.order.state;
+
+import com.rms.entity.Order;
+import com.rms.entity.Order.OrderStatus;
+import com.rms.exception.BadRequestException;
+import com.rms.exception.ForbiddenException;
+import com.rms.security.UserPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Order status transitions compiled into ordinal-indexed bitmask tables.
+ *
+ * TRANSITIONS[from] has bit {@code to.ordinal()} set for each allowed move, and
+ * ROLES[to] has one bit per role that may request that status, so the table and
+ * role checks are array reads plus a mask test. Guards add rules the table cannot
+ * express; listeners run after the status is set.
+ */
+@Component
+public class OrderStateMachine {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private static final int CUSTOMER = 1;
+    private static final int CHEF = 1 << 1;
+    private static final int DELIVERY_MAN = 1 << 2;
+    private static final int RESTAURANT_ADMIN = 1 << 3;
+    private static final int ADMIN = 1 << 4;
+    private static final int MANAGERS = RESTAURANT_ADMIN | ADMIN;
+
+    private static final int[] TRANSITIONS = new int[STATUSES.length];
+    private static final int[] ROLES = new int[STATUSES.length];
+    private static final String[] ROLE_DENIED_MESSAGES = new String[STATUSES.length];
+    private static final int TERMINAL = mask(OrderStatus.COMPLETED, OrderStatus.CANCELLED);
+
+    static {
+        allow(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.CANCELLED);
+        allow(OrderStatus.CONFIRMED, OrderStatus.PREPARING, OrderStatus.CANCELLED);
+        allow(OrderStatus.PREPARING, OrderStatus.READY, OrderStatus.CANCELLED);
+        allow(OrderStatus.READY, OrderStatus.OUT_FOR_DELIVERY, OrderStatus.COMPLETED);
+        allow(OrderStatus.OUT_FOR_DELIVERY, OrderStatus.DELIVERED, OrderStatus.COMPLETED);
+        allow(OrderStatus.DELIVERED, OrderStatus.COMPLETED);
+
+        roles(OrderStatus.PENDING, 0, "Orders cannot be moved back to pending");
+        roles(OrderStatus.CONFIRMED, MANAGERS, "Only restaurant admin can confirm orders");
+        roles(OrderStatus.PREPARING, CHEF | MANAGERS, "Only chef can update preparation status");
+        roles(OrderStatus.READY, CHEF | MANAGERS, "Only chef can update preparation status");
+        roles(OrderStatus.OUT_FOR_DELIVERY, DELIVERY_MAN | MANAGERS, "Only delivery man can update delivery status");
+        roles(OrderStatus.DELIVERED, DELIVERY_MAN | MANAGERS, "Only delivery man can update delivery status");
+        roles(OrderStatus.COMPLETED, CHEF | DELIVERY_MAN | MANAGERS, "Only restaurant staff can complete orders");
+        roles(OrderStatus.CANCELLED, CUSTOMER | CHEF | DELIVERY_MAN | MANAGERS, "Not allowed to cancel orders");
+    }
+
+    private final OrderTransitionGuard[] guards;
+    private final OrderTransitionListener[] listeners;
+
+    public OrderStateMachine(List<OrderTransitionGuard> guards, List<OrderTransitionListener> listeners) {
+        this.guards = guards.toArray(new OrderTransitionGuard[0]);
+        this.listeners = listeners.toArray(new OrderTransitionListener[0]);
+    }
+
+    /**
+     * Table check only: no guards, no allocation
+     */
+    public boolean canTransition(OrderStatus from, OrderStatus to) {
+        return (TRANSITIONS[from.ordinal()] & (1 << to.ordinal())) != 0;
+    }
+
+    public boolean isTerminal(OrderStatus status) {
+        return (TERMINAL & (1 << status.ordinal())) != 0;
+    }
+
+    public boolean isRoleAllowed(UserPrincipal user, OrderStatus to) {
+        return (ROLES[to.ordinal()] & roleMask(user)) != 0;
+    }
+
+    /**
+     * Throws ForbiddenException when none of the user's roles may request {@code to}
+     */
+    public void checkRole(UserPrincipal user, OrderStatus to) {
+        if (!isRoleAllowed(user, to)) {
+            throw new ForbiddenException(ROLE_DENIED_MESSAGES[to.ordinal()]);
+        }
+    }
+
+    /**
+     * Validate moving {@code order} to {@code to} against the table and all guards,
+     * without changing the order. Throws BadRequestException when rejected.
+     */
+    public void checkTransition(Order order, OrderStatus to, Long actorId) {
+        OrderStatus from = order.getStatus();
+        if (!canTransition(from, to)) {
+            if (isTerminal(from)) {
+                throw new BadRequestException(String.format(
+                        "Cannot update status of %s order", from.name().toLowerCase()));
+            }
+            throw new BadRequestException(String.format("Invalid status transition from %s to %s", from, to));
+        }
+        if (guards.length > 0) {
+            OrderTransition transition = new OrderTransition(order, from, to, actorId);
+            for (OrderTransitionGuard guard : guards) {
+                guard.check(transition);
+            }
+        }
+    }
+
+    /**
+     * Validate, set the new status and notify listeners. Returns the previous status.
+     */
+    public OrderStatus transition(Order order, OrderStatus to, Long actorId) {
+        checkTransition(order, to, actorId);
+        OrderStatus from = order.getStatus();
+        order.setStatus(to);
+        notifyListeners(new OrderTransition(order, from, to, actorId));
+        return from;
+    }
+
+    /**
+     * For writers that persist the status themselves (bulk updates) and only need
+     * listeners to run for a transition that was already checked and written.
+     */
+    public void notifyListeners(OrderTransition transition) {
+        for (OrderTransitionListener listener : listeners) {
+            listener.onTransition(transition);
+        }
+    }
+
+    private static int roleMask(UserPrincipal user) {
+        int mask = 0;
+        for (GrantedAuthority authority : user.getAuthorities()) {
+            mask |= roleBit(authority.getAuthority());
+        }
+        return mask;
+    }
+
+    private static int roleBit(String authority) {
+        return switch (authority) {
+            case "ROLE_CUSTOMER", "CUSTOMER" -> CUSTOMER;
+            case "ROLE_CHEF", "CHEF" -> CHEF;
+            case "ROLE_DELIVERY_MAN", "DELIVERY_MAN" -> DELIVERY_MAN;
+            case "ROLE_RESTAURANT_ADMIN", "RESTAURANT_ADMIN" -> RESTAURANT_ADMIN;
+            case "ROLE_ADMIN", "ADMIN" -> ADMIN;
+            default -> 0;
+        };
+    }
+
+    private static void allow(OrderStatus from, OrderStatus... targets) {
+        TRANSITIONS[from.ordinal()] = mask(targets);
+    }
+
+    private static void roles(OrderStatus to, int roleMask, String deniedMessage) {
+        ROLES[to.ordinal()] = roleMask;
+        ROLE_DENIED_MESSAGES[to.ordinal()] = deniedMessage;
+    }
+
+    private static int mask(OrderStatus... statuses) {
+        int mask = 0;
+        for (OrderStatus status : statuses) {
+            mask |= 1 << status.ordinal();
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,10 @@
+package com.rms.service.order.state;
+
+import com.rms.entity.Order;
+
+/**
+ * A status change about to be applied (guards) or just applied (listeners).
+ * actorId is the user driving the change and may be null for system transitions.
+ */
+public record OrderTransition(Order order, Order.OrderStatus from, Order.OrderStatus to, Long actorId) {
+}
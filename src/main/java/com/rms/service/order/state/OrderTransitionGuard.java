@@ -0,0 +1,10 @@
+package com.rms.service.order.state;
+
+/**
+ * Extra precondition on a transition that the static table allows.
+ * Implementations throw BadRequestException to veto.
+ */
+public interface OrderTransitionGuard {
+
+    void check(OrderTransition transition);
+}
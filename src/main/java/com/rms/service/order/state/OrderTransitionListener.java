@@ -0,0 +1,10 @@
+package com.rms.service.order.state;
+
+/**
+ * Called inside the caller's transaction after the new status is set on the order.
+ * Work that must survive only on commit belongs in the order_events outbox instead.
+ */
+public interface OrderTransitionListener {
+
+    void onTransition(OrderTransition transition);
+}
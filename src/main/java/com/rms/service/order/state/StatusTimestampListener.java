@@ -0,0 +1,29 @@
+package com.rms.service.order.state;
+
+import com.rms.entity.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stamps actual ready and delivery times when an order reaches those statuses
+ */
+@Component
+public class StatusTimestampListener implements OrderTransitionListener {
+
+    @Override
+    public void onTransition(OrderTransition transition) {
+        Order order = transition.order();
+        switch (transition.to()) {
+            case READY -> order.setActualReadyTime(LocalDateTime.now());
+            case DELIVERED -> order.setDeliveryTime(LocalDateTime.now());
+            case COMPLETED -> {
+                if (order.getOrderType() == Order.OrderType.DELIVERY && order.getDeliveryTime() == null) {
+                    order.setDeliveryTime(LocalDateTime.now());
+                }
+            }
+            default -> {
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.rms.service.payment;
 
+import com.rms.annotation.Idempotent;
 import com.rms.dto.payment.PaymentRequest;
 import com.rms.entity.Order;
 import com.rms.entity.Payment;
@@ -32,6 +33,11 @@ public class PaymentService {
     private final RestaurantRepository restaurantRepository;
     private final PaymentProvider paymentProvider;
 
+    /**
+     * Charging is deduplicated by Idempotency-Key so a retried request never
+     * charges the customer twice.
+     */
+    @Idempotent("payments")
     public Payment processPayment(Long orderId, PaymentRequest request) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
@@ -0,0 +1,182 @@
+package com.rms.service.support;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * In-memory snapshots loaded from the database, one per key (a restaurant, an inventory item).
+ *
+ * A snapshot is served until it is older than the TTL or dropped. Every change to a key
+ * bumps its generation: a load that started before the change is still returned to its
+ * caller but not kept, so the next read loads again. Snapshots nobody has read for a while
+ * can be swept. Snapshots that are updated in place must guard their own state.
+ */
+public final class SnapshotCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Map<K, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    /**
+     * The snapshot if it was loaded within the TTL, otherwise a fresh load
+     *
+     * @param ttlSeconds 0 or less to keep snapshots until they are dropped
+     */
+    public V get(K key, long ttlSeconds, Function<K, V> loader) {
+        V cached = getFresh(key, ttlSeconds);
+        if (cached != null) {
+            return cached;
+        }
+        Stamp stamp = stamp(key);
+        V loaded = loader.apply(key);
+        putIfUnchanged(key, loaded, stamp);
+        return loaded;
+    }
+
+    /**
+     * The snapshot if it was loaded within the TTL, or null
+     */
+    public V getFresh(K key, long ttlSeconds) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.isExpired(ttlSeconds)) {
+            return null;
+        }
+        entry.lastReadAt = System.nanoTime();
+        return entry.value;
+    }
+
+    /**
+     * The snapshot whatever its age, or null; not counted as a read
+     */
+    public V peek(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null ? entry.value : null;
+    }
+
+    /**
+     * The key's generation, taken before loading a snapshot to keep with
+     * {@link #putIfUnchanged}
+     */
+    public Stamp stamp(K key) {
+        AtomicLong generation = generation(key);
+        return new Stamp(generation, generation.get());
+    }
+
+    /**
+     * Keep a snapshot unless the key changed since the stamp was taken
+     */
+    public boolean putIfUnchanged(K key, V value, Stamp stamp) {
+        Entry<V> entry = new Entry<>(value);
+        entries.put(key, entry);
+        if (!isCurrent(key, stamp)) {
+            entries.remove(key, entry);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Swap the cached snapshot for one loaded since the stamp was taken, keeping its last
+     * read; nothing happens if the snapshot was replaced or the key changed meanwhile
+     */
+    public boolean replaceIfUnchanged(K key, V cached, V value, Stamp stamp) {
+        Entry<V> current = entries.get(key);
+        if (current == null || current.value != cached) {
+            return false;
+        }
+        Entry<V> entry = new Entry<>(value);
+        entry.lastReadAt = current.lastReadAt;
+        if (!entries.replace(key, current, entry)) {
+            return false;
+        }
+        if (!isCurrent(key, stamp)) {
+            entries.remove(key, entry);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Record a change to the key, so loads in flight are not kept
+     *
+     * @return the cached snapshot for the caller to bring up to date, or null
+     */
+    public V changed(K key) {
+        generation(key).incrementAndGet();
+        return peek(key);
+    }
+
+    /**
+     * Drop the key's snapshot, and any load in flight
+     */
+    public void invalidate(K key) {
+        generation(key).incrementAndGet();
+        entries.remove(key);
+    }
+
+    /**
+     * Drop the snapshot if it is still the given one
+     */
+    public void remove(K key, V value) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.value == value) {
+            entries.remove(key, entry);
+        }
+    }
+
+    /**
+     * Drop the snapshots nobody has read for the given time, and the generations of keys
+     * without a snapshot
+     */
+    public void evictIdle(long idle, TimeUnit unit) {
+        long idleNanos = unit.toNanos(idle);
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> now - entry.lastReadAt > idleNanos);
+        generations.keySet().removeIf(key -> !entries.containsKey(key));
+    }
+
+    public Set<K> keys() {
+        return Set.copyOf(entries.keySet());
+    }
+
+    private AtomicLong generation(K key) {
+        return generations.computeIfAbsent(key, k -> new AtomicLong());
+    }
+
+    private boolean isCurrent(K key, Stamp stamp) {
+        // A sweep may have dropped the counter the stamp was taken from
+        return stamp.generation.get() == stamp.value && generations.get(key) == stamp.generation;
+    }
+
+    /**
+     * A key's generation at one point in time
+     */
+    public static final class Stamp {
+
+        private final AtomicLong generation;
+        private final long value;
+
+        private Stamp(AtomicLong generation, long value) {
+            this.generation = generation;
+            this.value = value;
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private final long loadedAt = System.nanoTime();
+        private volatile long lastReadAt = loadedAt;
+
+        private Entry(V value) {
+            this.value = value;
+        }
+
+        private boolean isExpired(long ttlSeconds) {
+            return ttlSeconds > 0 && System.nanoTime() - loadedAt > TimeUnit.SECONDS.toNanos(ttlSeconds);
+        }
+    }
+}
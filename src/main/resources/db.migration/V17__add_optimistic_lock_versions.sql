@@ -0,0 +1,7 @@
+-- V17__add_optimistic_lock_versions.sql
+-- Optimistic locking for the order write path
+-- Order creation runs at READ COMMITTED; concurrent writers are detected via these version columns
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE inventory_items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE table_sessions ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
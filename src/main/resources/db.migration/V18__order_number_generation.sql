@@ -0,0 +1,7 @@
+-- V18__order_number_generation.sql
+-- Order number generation
+-- order_number_seq backs app.orders.number.strategy=sequence; display_number holds the short pickup number
+
+CREATE SEQUENCE IF NOT EXISTS order_number_seq START WITH 1 INCREMENT BY 1 CACHE 50;
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS display_number VARCHAR(10);
@@ -0,0 +1,29 @@
+-- V19__create_order_events.sql
+-- Transactional outbox for order lifecycle side effects (notifications, timeline, display, analytics)
+
+CREATE TABLE IF NOT EXISTS order_events (
+    id                     BIGSERIAL PRIMARY KEY,
+    order_id               BIGINT       NOT NULL REFERENCES orders (id) ON DELETE CASCADE,
+    restaurant_id          BIGINT       NOT NULL,
+    event_type             VARCHAR(30)  NOT NULL,
+    from_status            VARCHAR(30),
+    to_status              VARCHAR(30),
+    timeline_event_type    VARCHAR(30),
+    timeline_title         VARCHAR(200),
+    timeline_description   VARCHAR(500),
+    notification_message   VARCHAR(500),
+    notify_customer        BOOLEAN      NOT NULL DEFAULT TRUE,
+    delivery_partner_id    BIGINT,
+    delivery_assignment_id BIGINT,
+    status                 VARCHAR(20)  NOT NULL DEFAULT 'PENDING',
+    attempts               INTEGER      NOT NULL DEFAULT 0,
+    last_error             VARCHAR(1000),
+    created_at             TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    dispatched_at          TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_event_order ON order_events (order_id);
+CREATE INDEX IF NOT EXISTS idx_order_event_status ON order_events (status, id);
+
+-- Dispatcher polls only pending rows
+CREATE INDEX IF NOT EXISTS idx_order_event_pending ON order_events (id) WHERE status = 'PENDING';
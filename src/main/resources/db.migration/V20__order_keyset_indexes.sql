@@ -0,0 +1,12 @@
+-- V20__order_keyset_indexes.sql
+-- Covering indexes for keyset-paginated order listings (GET /api/orders/cursor).
+-- Rows are read in (created_at DESC, id DESC) order straight off the index, so a
+-- deep page costs the same as the first one.
+
+CREATE INDEX IF NOT EXISTS idx_orders_restaurant_created_id
+    ON orders (restaurant_id, created_at DESC, id DESC)
+    INCLUDE (status, order_type, customer_id);
+
+CREATE INDEX IF NOT EXISTS idx_orders_delivery_man_created_id
+    ON orders (delivery_man_id, created_at DESC, id DESC)
+    WHERE delivery_man_id IS NOT NULL;
@@ -0,0 +1,37 @@
+-- V21__stock_balance_snapshots.sql
+-- Daily per-item closing balances rolled up from the append-only stock_transactions ledger.
+-- Balance-at-date and movement-over-range reports read the snapshots for whole days
+-- already rolled up and only the raw transactions after them (the tail).
+
+CREATE TABLE IF NOT EXISTS stock_balance_snapshots (
+    id                  BIGSERIAL PRIMARY KEY,
+    inventory_item_id   BIGINT         NOT NULL REFERENCES inventory_items (id) ON DELETE CASCADE,
+    restaurant_id       BIGINT         NOT NULL REFERENCES restaurants (id) ON DELETE CASCADE,
+    snapshot_date       DATE           NOT NULL,
+    closing_quantity    DECIMAL(10, 3) NOT NULL,
+    quantity_in         DECIMAL(14, 3) NOT NULL DEFAULT 0,
+    quantity_out        DECIMAL(14, 3) NOT NULL DEFAULT 0,
+    purchase_cost       DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    transaction_count   INTEGER        NOT NULL,
+    last_transaction_id BIGINT         NOT NULL,
+    created_at          TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uk_stock_snapshot_item_date UNIQUE (inventory_item_id, snapshot_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_snapshot_restaurant_date
+    ON stock_balance_snapshots (restaurant_id, snapshot_date);
+
+-- Last day rolled up per restaurant; everything after it is read from stock_transactions
+CREATE TABLE IF NOT EXISTS stock_snapshot_progress (
+    restaurant_id    BIGINT    PRIMARY KEY REFERENCES restaurants (id) ON DELETE CASCADE,
+    snapshot_through DATE      NOT NULL,
+    updated_at       TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Tail reads: latest movement per item before a point in time, and a restaurant's recent range
+CREATE INDEX IF NOT EXISTS idx_stock_trans_item_created
+    ON stock_transactions (inventory_item_id, created_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_stock_trans_restaurant_created
+    ON stock_transactions (restaurant_id, created_at);
@@ -0,0 +1,21 @@
+-- V22__low_stock_alert_open_unique.sql
+-- At most one open (ACTIVE or ACKNOWLEDGED) alert per inventory item, so the alert engine
+-- can raise alerts with INSERT ... ON CONFLICT DO NOTHING.
+
+-- Keep the newest open alert per item; older duplicates are resolved
+UPDATE low_stock_alerts a
+SET status = 'RESOLVED', resolved_at = CURRENT_TIMESTAMP
+WHERE a.status IN ('ACTIVE', 'ACKNOWLEDGED')
+  AND EXISTS (SELECT 1 FROM low_stock_alerts b
+              WHERE b.inventory_item_id = a.inventory_item_id
+                AND b.status IN ('ACTIVE', 'ACKNOWLEDGED')
+                AND b.id > a.id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_low_stock_alert_open
+    ON low_stock_alerts (inventory_item_id)
+    WHERE status IN ('ACTIVE', 'ACKNOWLEDGED');
+
+-- Debounce lookup: latest resolution per item
+CREATE INDEX IF NOT EXISTS idx_alerts_inventory_resolved
+    ON low_stock_alerts (inventory_item_id, resolved_at)
+    WHERE resolved_at IS NOT NULL;
@@ -0,0 +1,24 @@
+-- V23__inventory_forecasts.sql
+-- Per-item demand model (exponential smoothing with day-of-week factors) maintained
+-- nightly from ORDER_DEDUCTION movements, and the reorder plan derived from it.
+
+CREATE TABLE IF NOT EXISTS inventory_forecasts (
+    inventory_item_id   BIGINT             PRIMARY KEY REFERENCES inventory_items (id) ON DELETE CASCADE,
+    restaurant_id       BIGINT             NOT NULL REFERENCES restaurants (id) ON DELETE CASCADE,
+    level               DOUBLE PRECISION   NOT NULL,
+    error_variance      DOUBLE PRECISION   NOT NULL,
+    weekday_factors     DOUBLE PRECISION[] NOT NULL,
+    observed_days       INTEGER            NOT NULL DEFAULT 0,
+    observed_through    DATE               NOT NULL,
+    daily_demand        DECIMAL(12, 3)     NOT NULL DEFAULT 0,
+    reorder_point       DECIMAL(12, 3)     NOT NULL DEFAULT 0,
+    order_up_to         DECIMAL(12, 3)     NOT NULL DEFAULT 0,
+    updated_at          TIMESTAMP          NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_inventory_forecast_restaurant
+    ON inventory_forecasts (restaurant_id);
+
+-- Nightly read of one restaurant's order deductions for the days since the last run
+CREATE INDEX IF NOT EXISTS idx_stock_trans_restaurant_type_created
+    ON stock_transactions (restaurant_id, transaction_type, created_at);
@@ -0,0 +1,45 @@
+-- V24__inventory_lots.sql
+-- Lot-level stock: every receipt is a lot with its own expiry, consumed first-expired-first-out.
+-- inventory_items.current_quantity stays the item total; open lots carry its breakdown.
+
+CREATE TABLE IF NOT EXISTS inventory_lots (
+    id                 BIGSERIAL PRIMARY KEY,
+    inventory_item_id  BIGINT         NOT NULL REFERENCES inventory_items (id) ON DELETE CASCADE,
+    restaurant_id      BIGINT         NOT NULL REFERENCES restaurants (id) ON DELETE CASCADE,
+    lot_number         VARCHAR(100),
+    received_quantity  DECIMAL(10, 3) NOT NULL,
+    remaining_quantity DECIMAL(10, 3) NOT NULL,
+    cost_per_unit      DECIMAL(10, 2),
+    expiry_date        DATE,
+    received_at        TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT chk_inventory_lot_remaining CHECK (remaining_quantity >= 0)
+);
+
+-- FEFO order of an item's open lots; ids follow receipt order
+CREATE INDEX IF NOT EXISTS idx_inventory_lot_open
+    ON inventory_lots (inventory_item_id, expiry_date, id)
+    WHERE remaining_quantity > 0;
+
+-- Expiry scan reads only open lots with an expiry date
+CREATE INDEX IF NOT EXISTS idx_inventory_lot_expiring
+    ON inventory_lots (expiry_date)
+    WHERE remaining_quantity > 0 AND expiry_date IS NOT NULL;
+
+-- Opening lot for the stock on hand before lots existed
+INSERT INTO inventory_lots (inventory_item_id, restaurant_id, lot_number, received_quantity,
+                            remaining_quantity, cost_per_unit, expiry_date, received_at)
+SELECT id, restaurant_id, 'OPENING', current_quantity, current_quantity, cost_per_unit, expiry_date, CURRENT_TIMESTAMP
+FROM inventory_items
+WHERE current_quantity > 0;
+
+-- An expiry alert is tracked separately from the item's stock-level alert
+DROP INDEX IF EXISTS uk_low_stock_alert_open;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_low_stock_alert_open
+    ON low_stock_alerts (inventory_item_id)
+    WHERE status IN ('ACTIVE', 'ACKNOWLEDGED') AND alert_type <> 'EXPIRING_SOON';
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_expiry_alert_open
+    ON low_stock_alerts (inventory_item_id)
+    WHERE status IN ('ACTIVE', 'ACKNOWLEDGED') AND alert_type = 'EXPIRING_SOON';
@@ -0,0 +1,30 @@
+-- V25__branch_stock.sql
+-- Per-branch stock: an item code is held once per branch, plus once at restaurant level
+-- (no branch). Rows sharing a code are the same stock at different locations.
+
+ALTER TABLE inventory_items DROP CONSTRAINT IF EXISTS uq_inventory_item_code;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_inventory_item_code_branch
+    ON inventory_items (restaurant_id, (COALESCE(branch_id, 0)), item_code);
+
+-- A transfer is booked as a TRANSFER_OUT / TRANSFER_IN pair of stock transactions that
+-- carry this row's reference (TRF-<id>)
+CREATE TABLE IF NOT EXISTS stock_transfers (
+    id             BIGSERIAL PRIMARY KEY,
+    restaurant_id  BIGINT         NOT NULL REFERENCES restaurants (id) ON DELETE CASCADE,
+    item_code      VARCHAR(50)    NOT NULL,
+    from_item_id   BIGINT         NOT NULL REFERENCES inventory_items (id) ON DELETE CASCADE,
+    to_item_id     BIGINT         NOT NULL REFERENCES inventory_items (id) ON DELETE CASCADE,
+    from_branch_id BIGINT,
+    to_branch_id   BIGINT,
+    quantity       DECIMAL(10, 3) NOT NULL,
+    performed_by   BIGINT         NOT NULL,
+    notes          TEXT,
+    created_at     TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT chk_stock_transfer_quantity CHECK (quantity > 0),
+    CONSTRAINT chk_stock_transfer_items CHECK (from_item_id <> to_item_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_transfer_restaurant_created
+    ON stock_transfers (restaurant_id, created_at DESC);
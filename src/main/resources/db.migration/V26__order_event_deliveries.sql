@@ -0,0 +1,5 @@
+-- V26__order_event_deliveries.sql
+-- Per-handler delivery state and claim/retry time for the order event outbox
+
+ALTER TABLE order_events ADD COLUMN IF NOT EXISTS delivered_to VARCHAR(500);
+ALTER TABLE order_events ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP;
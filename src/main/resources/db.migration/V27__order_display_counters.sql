@@ -0,0 +1,8 @@
+-- V27__order_display_counters.sql
+-- Today's pickup display counter per restaurant, shared by all nodes
+
+CREATE TABLE IF NOT EXISTS order_display_counters (
+    restaurant_id BIGINT  PRIMARY KEY,
+    business_date DATE    NOT NULL,
+    last_value    INTEGER NOT NULL
+);
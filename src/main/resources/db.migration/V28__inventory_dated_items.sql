@@ -0,0 +1,8 @@
+-- V28__inventory_dated_items.sql
+-- The expiry scan clears the expiry date of items whose lots are used up; only dated items
+-- are candidates, so it walks this partial index instead of the whole items table.
+-- The open-lot side of the sync is served by idx_inventory_lot_open (V24).
+
+CREATE INDEX IF NOT EXISTS idx_inventory_item_dated
+    ON inventory_items (id)
+    WHERE expiry_date IS NOT NULL;
@@ -0,0 +1,21 @@
+-- V29__order_stock_reversal.sql
+-- Cancelling an order that already had its stock deducted puts the stock back: item totals
+-- through ORDER_REVERSAL transactions, lots through the draws recorded for the order.
+
+ALTER TABLE stock_transactions DROP CONSTRAINT IF EXISTS stock_transactions_transaction_type_check;
+
+ALTER TABLE stock_transactions ADD CONSTRAINT stock_transactions_transaction_type_check
+    CHECK (transaction_type IN (
+        'PURCHASE', 'MANUAL_ADDITION', 'ORDER_DEDUCTION', 'ORDER_REVERSAL', 'WASTAGE',
+        'MANUAL_DEDUCTION', 'ADJUSTMENT', 'TRANSFER_IN', 'TRANSFER_OUT', 'RETURN_TO_SUPPLIER'
+    ));
+
+-- Lot quantities an order took; deleted when they are returned
+CREATE TABLE IF NOT EXISTS inventory_lot_draws (
+    id        BIGSERIAL PRIMARY KEY,
+    order_id  BIGINT         NOT NULL REFERENCES orders (id) ON DELETE CASCADE,
+    lot_id    BIGINT         NOT NULL REFERENCES inventory_lots (id) ON DELETE CASCADE,
+    quantity  DECIMAL(10, 3) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_inventory_lot_draw_order ON inventory_lot_draws (order_id);
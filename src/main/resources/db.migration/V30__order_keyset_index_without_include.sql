@@ -0,0 +1,10 @@
+-- V30__order_keyset_index_without_include.sql
+-- The keyset listings load whole orders, so every row is fetched from the table anyway and
+-- the INCLUDE columns added in V20 never made the index covering; they only widened it.
+-- The index serves the (restaurant_id, created_at, id) seek and the page order; the
+-- status, type and customer filters are checked on the fetched rows.
+
+DROP INDEX IF EXISTS idx_orders_restaurant_created_id;
+
+CREATE INDEX IF NOT EXISTS idx_orders_restaurant_created_id
+    ON orders (restaurant_id, created_at DESC, id DESC);
@@ -0,0 +1,186 @@
+package com.rms.aspect;
+
+import com.rms.annotation.Idempotent;
+import com.rms.exception.BadRequestException;
+import com.rms.exception.IdempotencyConflictException;
+import com.rms.service.idempotency.IdempotencyStore;
+import com.rms.service.idempotency.InMemoryIdempotencyStore;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyAspectTest {
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    @Mock
+    private Idempotent idempotent;
+
+    private InMemoryIdempotencyStore store;
+    private IdempotencyAspect aspect;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryIdempotencyStore(60, 60, 100);
+        aspect = new IdempotencyAspect(store);
+        request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void deduplicate_RepeatedKey_ReplaysFirstResponse() throws Throwable {
+        // Arrange
+        request.addHeader(IdempotencyStore.HEADER, "key-1");
+        when(idempotent.value()).thenReturn("orders");
+        when(joinPoint.getArgs()).thenReturn(new Object[]{"payload"});
+        when(joinPoint.proceed()).thenReturn("created");
+
+        // Act
+        Object first = aspect.deduplicate(joinPoint, idempotent);
+        Object second = aspect.deduplicate(joinPoint, idempotent);
+
+        // Assert
+        assertEquals("created", first);
+        assertSame(first, second);
+        verify(joinPoint, times(1)).proceed();
+    }
+
+    @Test
+    void deduplicate_SameKeyDifferentPayload_ThrowsBadRequest() throws Throwable {
+        // Arrange
+        request.addHeader(IdempotencyStore.HEADER, "key-1");
+        when(idempotent.value()).thenReturn("orders");
+        when(joinPoint.getArgs()).thenReturn(new Object[]{"payload"}, new Object[]{"other"});
+        when(joinPoint.proceed()).thenReturn("created");
+        aspect.deduplicate(joinPoint, idempotent);
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> aspect.deduplicate(joinPoint, idempotent));
+    }
+
+    @Test
+    void deduplicate_SamePayloadInOtherKeyOrder_Replays() throws Throwable {
+        // Arrange
+        request.addHeader(IdempotencyStore.HEADER, "key-1");
+        when(idempotent.value()).thenReturn("orders");
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("tableId", 4);
+        first.put("notes", "no onions");
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("notes", "no onions");
+        second.put("tableId", 4);
+        when(joinPoint.getArgs()).thenReturn(new Object[]{first}, new Object[]{second});
+        when(joinPoint.proceed()).thenReturn("created");
+
+        // Act
+        aspect.deduplicate(joinPoint, idempotent);
+        Object replayed = aspect.deduplicate(joinPoint, idempotent);
+
+        // Assert
+        assertEquals("created", replayed);
+        verify(joinPoint, times(1)).proceed();
+    }
+
+    @Test
+    void deduplicate_KeyStillInProgress_ThrowsConflict() throws NoSuchAlgorithmException {
+        // Arrange
+        request.addHeader(IdempotencyStore.HEADER, "key-1");
+        when(idempotent.value()).thenReturn("orders");
+        when(joinPoint.getArgs()).thenReturn(new Object[]{"payload"});
+        store.claim("orders:anonymous:key-1", sha256("[\"payload\"]"));
+
+        // Act & Assert
+        assertThrows(IdempotencyConflictException.class, () -> aspect.deduplicate(joinPoint, idempotent));
+    }
+
+    @Test
+    void deduplicate_FailedCall_ReleasesKeyForRetry() throws Throwable {
+        // Arrange
+        request.addHeader(IdempotencyStore.HEADER, "key-1");
+        when(idempotent.value()).thenReturn("orders");
+        when(joinPoint.getArgs()).thenReturn(new Object[]{"payload"});
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("boom")).thenReturn("created");
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> aspect.deduplicate(joinPoint, idempotent));
+        Object retried = aspect.deduplicate(joinPoint, idempotent);
+
+        // Assert
+        assertEquals("created", retried);
+        verify(joinPoint, times(2)).proceed();
+    }
+
+    @Test
+    void deduplicate_NoHeader_AlwaysProceeds() throws Throwable {
+        // Arrange
+        when(joinPoint.proceed()).thenReturn("created");
+
+        // Act
+        aspect.deduplicate(joinPoint, idempotent);
+        aspect.deduplicate(joinPoint, idempotent);
+
+        // Assert
+        verify(joinPoint, times(2)).proceed();
+        verifyNoInteractions(idempotent);
+    }
+
+    @Test
+    void inMemoryStore_OverCapacity_EvictsOldest() {
+        // Arrange
+        InMemoryIdempotencyStore small = new InMemoryIdempotencyStore(60, 60, 2);
+
+        // Act
+        small.complete("a", "f", "A");
+        small.complete("b", "f", "B");
+        small.complete("c", "f", "C");
+
+        // Assert
+        assertNull(small.claim("a", "f"));
+        assertNotNull(small.claim("c", "f"));
+    }
+
+    @Test
+    void inMemoryStore_OverCapacity_EvictsEarliestExpiryFirst() {
+        // Arrange
+        InMemoryIdempotencyStore small = new InMemoryIdempotencyStore(60, 60, 2);
+        small.complete("a", "f", "A");
+        small.claim("b", "f"); // in progress: expires long before "a"
+
+        // Act
+        small.complete("c", "f", "C");
+
+        // Assert
+        assertNotNull(small.claim("a", "f"));
+        assertNull(small.claim("b", "f"));
+    }
+
+    private String sha256(String json) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
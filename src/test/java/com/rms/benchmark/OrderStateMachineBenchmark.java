@@ -0,0 +1,120 @@
+package com.rms.benchmark;
+
+import com.rms.entity.Order.OrderStatus;
+import com.rms.security.UserPrincipal;
+import com.rms.service.order.state.OrderStateMachine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Status transition checks: Map/Set lookups vs OrderStateMachine bitmasks. The lookup
+ * tables are filled from the machine, so both sides answer the same table.
+ * Each invocation checks every (from, to) pair, plus the role table for every target status.
+ *
+ * Run from the IDE or with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.rms.benchmark.OrderStateMachineBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class OrderStateMachineBenchmark {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final List<String> ROLES = List.of("CUSTOMER", "CHEF", "DELIVERY_MAN", "RESTAURANT_ADMIN", "ADMIN");
+
+    private final OrderStateMachine stateMachine = new OrderStateMachine(List.of(), List.of());
+    private final UserPrincipal chef = new UserPrincipal(1L, "chef@test.com", "password", 1L,
+            List.of(new SimpleGrantedAuthority("ROLE_CHEF")), true);
+
+    private final Map<OrderStatus, Set<OrderStatus>> transitions = new EnumMap<>(OrderStatus.class);
+    private final Map<OrderStatus, Set<String>> roles = new EnumMap<>(OrderStatus.class);
+
+    @Setup
+    public void setUp() {
+        for (OrderStatus from : STATUSES) {
+            Set<OrderStatus> targets = EnumSet.noneOf(OrderStatus.class);
+            for (OrderStatus to : STATUSES) {
+                if (stateMachine.canTransition(from, to)) {
+                    targets.add(to);
+                }
+            }
+            transitions.put(from, targets);
+        }
+        for (OrderStatus to : STATUSES) {
+            Set<String> allowed = new HashSet<>();
+            for (String role : ROLES) {
+                UserPrincipal user = new UserPrincipal(1L, "user@test.com", "password", 1L,
+                        List.of(new SimpleGrantedAuthority("ROLE_" + role)), true);
+                if (stateMachine.isRoleAllowed(user, to)) {
+                    allowed.add(role);
+                }
+            }
+            roles.put(to, allowed);
+        }
+    }
+
+    @Benchmark
+    public void lookupTransitions(Blackhole blackhole) {
+        for (OrderStatus from : STATUSES) {
+            for (OrderStatus to : STATUSES) {
+                blackhole.consume(transitions.getOrDefault(from, Set.of()).contains(to));
+            }
+        }
+    }
+
+    @Benchmark
+    public void stateMachineTransitions(Blackhole blackhole) {
+        for (OrderStatus from : STATUSES) {
+            for (OrderStatus to : STATUSES) {
+                blackhole.consume(stateMachine.canTransition(from, to));
+            }
+        }
+    }
+
+    @Benchmark
+    public void lookupRoles(Blackhole blackhole) {
+        for (OrderStatus to : STATUSES) {
+            blackhole.consume(roles.getOrDefault(to, Set.of()).contains("CHEF"));
+        }
+    }
+
+    @Benchmark
+    public void stateMachineRoles(Blackhole blackhole) {
+        for (OrderStatus to : STATUSES) {
+            blackhole.consume(stateMachine.isRoleAllowed(chef, to));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OrderStateMachineBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,52 @@
+package com.rms.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheConfigTest {
+
+    private final CacheConfig cacheConfig = new CacheConfig();
+
+    private javax.cache.CacheManager jCacheManager;
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        jCacheManager = cacheConfig.jCacheManager(2, 600);
+        cacheManager = cacheConfig.cacheManager(jCacheManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jCacheManager.close();
+    }
+
+    @Test
+    void cacheManager_AllNamedCachesExist() {
+        for (String name : CacheConfig.CACHE_NAMES) {
+            assertNotNull(cacheManager.getCache(name), name);
+        }
+    }
+
+    @Test
+    void cache_MoreEntriesThanTheLimit_EvictsDownToTheLimit() {
+        // Arrange
+        Cache cache = cacheManager.getCache("displayData");
+
+        // Act
+        for (long key = 1; key <= 5; key++) {
+            cache.put(key, "value " + key);
+        }
+
+        // Assert
+        javax.cache.Cache<?, ?> nativeCache = (javax.cache.Cache<?, ?>) cache.getNativeCache();
+        assertEquals(2, StreamSupport.stream(nativeCache.spliterator(), false).count());
+    }
+}
@@ -9,17 +9,32 @@ import com.rms.exception.InsufficientStockException;
 import com.rms.exception.ResourceNotFoundException;
 import com.rms.repository.*;
 import com.rms.security.UserPrincipal;
+import com.rms.service.inventory.BranchStockIndex;
+import com.rms.service.inventory.FefoLotAllocator;
+import com.rms.service.inventory.LowStockAlertEngine;
+import com.rms.service.inventory.RecipeGraph;
+import com.rms.service.inventory.RecipeGraph.RecipeLine;
+import com.rms.service.inventory.StockDeductionWriter;
+import com.rms.service.inventory.StockReservationLedger;
+import com.rms.service.menu.MenuAvailabilityService;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,7 +54,31 @@ class InventoryServiceTest {
     private StockTransactionRepository transactionRepository;
 
     @Mock
-    private LowStockAlertRepository alertRepository;
+    private StockReservationLedger reservationLedger;
+
+    @Mock
+    private StockDeductionWriter stockDeductionWriter;
+
+    @Mock
+    private RecipeGraph recipeGraph;
+
+    @Mock
+    private MenuAvailabilityService menuAvailability;
+
+    @Mock
+    private LowStockAlertEngine alertEngine;
+
+    @Mock
+    private FefoLotAllocator lotAllocator;
+
+    @Mock
+    private BranchStockIndex branchStock;
+
+    @Mock
+    private RestaurantBranchRepository branchRepository;
+
+    @Mock
+    private StockTransferRepository transferRepository;
 
     @InjectMocks
     private InventoryService inventoryService;
@@ -63,7 +102,7 @@ class InventoryServiceTest {
         request.setMinimumQuantity(new BigDecimal("10.00"));
         request.setCostPerUnit(new BigDecimal("2.50"));
 
-        when(inventoryRepository.existsByRestaurantIdAndItemCode(100L, "TOMATO-001"))
+        when(inventoryRepository.existsByRestaurantIdAndBranchIdAndItemCode(100L, null, "TOMATO-001"))
                 .thenReturn(false);
         when(inventoryRepository.save(any(InventoryItem.class))).thenAnswer(i -> {
             InventoryItem item = i.getArgument(0);
@@ -81,6 +120,9 @@ class InventoryServiceTest {
         assertEquals("Fresh Tomatoes", response.getName());
         assertEquals(new BigDecimal("50.00"), response.getCurrentQuantity());
         verify(inventoryRepository).save(any(InventoryItem.class));
+        verify(lotAllocator).receive(any(InventoryItem.class), eq(new BigDecimal("50.00")),
+                eq(new BigDecimal("2.50")), isNull(), isNull());
+        verify(branchStock).invalidateAfterCommit(100L);
     }
 
     @Test
@@ -95,7 +137,7 @@ class InventoryServiceTest {
         request.setMinimumQuantity(new BigDecimal("10.00"));
         request.setCostPerUnit(new BigDecimal("2.50"));
 
-        when(inventoryRepository.existsByRestaurantIdAndItemCode(100L, "TOMATO-001"))
+        when(inventoryRepository.existsByRestaurantIdAndBranchIdAndItemCode(100L, null, "TOMATO-001"))
                 .thenReturn(true);
 
         // Act & Assert
@@ -111,6 +153,8 @@ class InventoryServiceTest {
         request.setQuantity(new BigDecimal("30.00"));
         request.setTransactionType(StockTransaction.TransactionType.PURCHASE);
         request.setCostPerUnit(new BigDecimal("2.50"));
+        request.setReferenceNumber("INV-42");
+        request.setExpiryDate(LocalDate.of(2026, 3, 1));
 
         when(inventoryRepository.findByIdAndRestaurantId(1L, 100L))
                 .thenReturn(Optional.of(item));
@@ -119,9 +163,38 @@ class InventoryServiceTest {
         // Act
         inventoryService.addStock(1L, request, adminPrincipal);
 
-        // Assert
+        // Assert: the delivery becomes a lot numbered after its reference
         assertEquals(new BigDecimal("50.00"), item.getCurrentQuantity());
+        assertEquals(LocalDate.of(2026, 3, 1), item.getExpiryDate());
         verify(inventoryRepository).save(item);
+        verify(lotAllocator).receive(item, new BigDecimal("30.00"), new BigDecimal("2.50"),
+                LocalDate.of(2026, 3, 1), "INV-42");
+        verify(alertEngine).markDirty(1L);
+    }
+
+    @Test
+    void deductStock_WithinTransaction_AdjustsLedgerOnlyAfterCommit() {
+        // Arrange
+        InventoryItem item = createMockInventoryItem(1L, new BigDecimal("20.00"));
+        DeductStockRequest request = new DeductStockRequest();
+        request.setQuantity(new BigDecimal("5.00"));
+        request.setTransactionType(StockTransaction.TransactionType.WASTAGE);
+
+        when(inventoryRepository.findByIdAndRestaurantId(1L, 100L))
+                .thenReturn(Optional.of(item));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            inventoryService.deductStock(1L, request, adminPrincipal);
+            verify(reservationLedger, never()).adjust(anyLong(), any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        verify(reservationLedger).adjust(1L, new BigDecimal("5.00").negate());
+        verify(lotAllocator).writeOff(Map.of(1L, new BigDecimal("5.00")));
     }
 
     @Test
@@ -142,6 +215,8 @@ class InventoryServiceTest {
         // Assert
         assertEquals(new BigDecimal("35.00"), item.getCurrentQuantity());
         verify(inventoryRepository).save(item);
+        verify(lotAllocator).consume(Map.of(1L, new BigDecimal("15.00")));
+        verify(alertEngine).markDirty(1L);
     }
 
     @Test
@@ -167,29 +242,51 @@ class InventoryServiceTest {
         InventoryItem tomatoes = createMockInventoryItem(1L, new BigDecimal("100.00"));
         InventoryItem cheese = createMockInventoryItem(2L, new BigDecimal("50.00"));
 
-        MenuItemInventory link1 = new MenuItemInventory();
-        link1.setInventoryItem(tomatoes);
-        link1.setQuantityRequired(new BigDecimal("0.5"));
-        link1.setIsOptional(false);
-
-        MenuItemInventory link2 = new MenuItemInventory();
-        link2.setInventoryItem(cheese);
-        link2.setQuantityRequired(new BigDecimal("0.2"));
-        link2.setIsOptional(false);
-
-        when(menuItemInventoryRepository.findByMenuItemId(1L))
-                .thenReturn(List.of(link1, link2));
-        when(inventoryRepository.save(any(InventoryItem.class)))
-                .thenAnswer(i -> i.getArgument(0));
+        stubRecipes(recipeRow(1L, 1L, "0.5", false), recipeRow(1L, 2L, "0.2", false));
+        stubInventoryItems(tomatoes, cheese);
+        when(stockDeductionWriter.deduct(any())).thenReturn(List.of());
 
         // Act
         inventoryService.deductStockForOrder(order, adminPrincipal);
 
         // Assert
         // Order has 2 items, each requiring 0.5kg tomatoes and 0.2kg cheese
-        assertEquals(new BigDecimal("99.00"), tomatoes.getCurrentQuantity()); // 100 - (0.5 * 2)
-        assertEquals(new BigDecimal("49.60"), cheese.getCurrentQuantity());   // 50 - (0.2 * 2)
-        verify(inventoryRepository, times(4)).save(any(InventoryItem.class)); // 2 items * 2 ingredients
+        ArgumentCaptor<Map<Long, BigDecimal>> totals = ArgumentCaptor.forClass(Map.class);
+        verify(stockDeductionWriter).deduct(totals.capture());
+        assertEquals(0, new BigDecimal("1.0").compareTo(totals.getValue().get(1L)));
+        assertEquals(0, new BigDecimal("0.4").compareTo(totals.getValue().get(2L)));
+        verify(stockDeductionWriter).insertTransactions(
+                argThat(lines -> lines.size() == 2), eq(1L), eq("ORD123"), eq(1L));
+        verify(inventoryRepository, never()).save(any(InventoryItem.class));
+        verify(alertEngine).markDirty(Set.of(1L, 2L));
+        verify(lotAllocator).consume(totals.getValue(), 1L);
+        verify(inventoryRepository, never()).findCurrentQuantitiesByIdIn(anyList());
+    }
+
+    @Test
+    void deductStockForOrder_AggregatesSharedIngredientAcrossLines() {
+        // Arrange
+        Order order = createMockOrder();
+        OrderItem fries = new OrderItem();
+        fries.setMenuItemId(2L);
+        fries.setQuantity(3);
+        order.addOrderItem(fries);
+
+        InventoryItem oil = createMockInventoryItem(1L, new BigDecimal("20.00"));
+        stubRecipes(recipeRow(1L, 1L, "0.1", false), recipeRow(2L, 1L, "0.2", false));
+        stubInventoryItems(oil);
+        when(stockDeductionWriter.deduct(any())).thenReturn(List.of());
+
+        // Act
+        inventoryService.deductStockForOrder(order, adminPrincipal);
+
+        // Assert: one UPDATE for oil (0.1 x2 + 0.2 x3), one audit row per line
+        ArgumentCaptor<Map<Long, BigDecimal>> totals = ArgumentCaptor.forClass(Map.class);
+        verify(stockDeductionWriter).deduct(totals.capture());
+        assertEquals(1, totals.getValue().size());
+        assertEquals(0, new BigDecimal("0.8").compareTo(totals.getValue().get(1L)));
+        verify(stockDeductionWriter).insertTransactions(
+                argThat(lines -> lines.size() == 2), eq(1L), eq("ORD123"), eq(1L));
     }
 
     @Test
@@ -198,17 +295,211 @@ class InventoryServiceTest {
         Order order = createMockOrder();
         InventoryItem tomatoes = createMockInventoryItem(1L, new BigDecimal("0.5")); // Not enough
 
-        MenuItemInventory link = new MenuItemInventory();
-        link.setInventoryItem(tomatoes);
-        link.setQuantityRequired(new BigDecimal("0.5"));
-        link.setIsOptional(false);
+        stubRecipes(recipeRow(1L, 1L, "0.5", false));
+        stubInventoryItems(tomatoes);
 
-        when(menuItemInventoryRepository.findByMenuItemId(1L))
-                .thenReturn(List.of(link));
+        // Act & Assert
+        assertThrows(InsufficientStockException.class,
+                () -> inventoryService.deductStockForOrder(order, adminPrincipal));
+        verifyNoInteractions(stockDeductionWriter);
+    }
+
+    @Test
+    void deductStockForOrder_ConcurrentDeductionLeftTooLittle_ThrowsException() {
+        // Arrange
+        Order order = createMockOrder();
+        InventoryItem tomatoes = createMockInventoryItem(1L, new BigDecimal("100.00"));
+
+        stubRecipes(recipeRow(1L, 1L, "0.5", false));
+        stubInventoryItems(tomatoes);
+        when(stockDeductionWriter.deduct(any())).thenReturn(List.of(1L));
 
         // Act & Assert
         assertThrows(InsufficientStockException.class,
                 () -> inventoryService.deductStockForOrder(order, adminPrincipal));
+        verify(stockDeductionWriter, never()).insertTransactions(any(), any(), any(), any());
+        verifyNoInteractions(alertEngine, lotAllocator);
+    }
+
+    @Test
+    void deductStockForOrder_OptionalIngredientShort_IsSkipped() {
+        // Arrange
+        Order order = createMockOrder();
+        InventoryItem bun = createMockInventoryItem(1L, new BigDecimal("100.00"));
+        InventoryItem sauce = createMockInventoryItem(2L, new BigDecimal("0.1"));
+
+        stubRecipes(recipeRow(1L, 1L, "1", false), recipeRow(1L, 2L, "0.5", true));
+        stubInventoryItems(bun, sauce);
+        when(stockDeductionWriter.deduct(any())).thenReturn(List.of());
+
+        // Act
+        inventoryService.deductStockForOrder(order, adminPrincipal);
+
+        // Assert
+        ArgumentCaptor<Map<Long, BigDecimal>> totals = ArgumentCaptor.forClass(Map.class);
+        verify(stockDeductionWriter).deduct(totals.capture());
+        assertEquals(Set.of(1L), totals.getValue().keySet());
+    }
+
+    @Test
+    void deductStockForOrder_OptionalIngredientTakenConcurrently_DeductsRequiredShareOnly() {
+        // Arrange: the loaded row covers both lines, the UPDATE then refuses the combined total
+        Order order = createMockOrder();
+        InventoryItem cheese = createMockInventoryItem(1L, new BigDecimal("100.00"));
+
+        stubRecipes(recipeRow(1L, 1L, "1", false), recipeRow(1L, 1L, "0.5", true));
+        stubInventoryItems(cheese);
+        List<Map<Long, BigDecimal>> attempts = new ArrayList<>();
+        when(stockDeductionWriter.deduct(any())).thenAnswer(invocation -> {
+            attempts.add(Map.copyOf(invocation.getArgument(0)));
+            return attempts.size() == 1 ? List.of(1L) : List.of();
+        });
+
+        // Act
+        inventoryService.deductStockForOrder(order, adminPrincipal);
+
+        // Assert
+        assertEquals(2, attempts.size());
+        assertEquals(0, new BigDecimal("3.0").compareTo(attempts.get(0).get(1L)));
+        assertEquals(0, new BigDecimal("2").compareTo(attempts.get(1).get(1L)));
+        verify(stockDeductionWriter).insertTransactions(
+                argThat(lines -> lines.size() == 1 && lines.get(0).quantity().compareTo(new BigDecimal("2")) == 0),
+                eq(1L), eq("ORD123"), eq(1L));
+        verify(lotAllocator).consume(argThat(totals -> totals.get(1L).compareTo(new BigDecimal("2")) == 0), eq(1L));
+    }
+
+    @Test
+    void deductStockForOrder_RequiredIngredientTakenConcurrently_ThrowsException() {
+        // Arrange
+        Order order = createMockOrder();
+        InventoryItem bun = createMockInventoryItem(1L, new BigDecimal("100.00"));
+        InventoryItem sauce = createMockInventoryItem(2L, new BigDecimal("100.00"));
+
+        stubRecipes(recipeRow(1L, 1L, "1", false), recipeRow(1L, 2L, "0.5", true));
+        stubInventoryItems(bun, sauce);
+        when(stockDeductionWriter.deduct(any())).thenReturn(List.of(1L, 2L));
+
+        // Act & Assert
+        assertThrows(InsufficientStockException.class,
+                () -> inventoryService.deductStockForOrder(order, adminPrincipal));
+        verify(stockDeductionWriter).deduct(any());
+        verify(stockDeductionWriter, never()).insertTransactions(any(), any(), any(), any());
+    }
+
+    @Test
+    void deductStockForOrder_TableAtBranch_DeductsBranchStock() {
+        // Arrange: the recipe links the restaurant-level item 1; branch 7 keeps item 11
+        Order order = createMockOrder();
+        Table table = new Table();
+        table.setBranchId(7L);
+        TableSession session = new TableSession();
+        session.setTable(table);
+        order.setTableSession(session);
+        InventoryItem branchTomatoes = createMockInventoryItem(11L, new BigDecimal("5.00"));
+
+        stubRecipes(recipeRow(1L, 1L, "0.5", false));
+        when(branchStock.resolve(100L, 7L, 1L)).thenReturn(11L);
+        stubInventoryItems(branchTomatoes);
+        when(stockDeductionWriter.deduct(any())).thenReturn(List.of());
+
+        // Act
+        inventoryService.deductStockForOrder(order, adminPrincipal);
+
+        // Assert
+        ArgumentCaptor<Map<Long, BigDecimal>> totals = ArgumentCaptor.forClass(Map.class);
+        verify(stockDeductionWriter).deduct(totals.capture());
+        assertEquals(Set.of(11L), totals.getValue().keySet());
+        verify(branchStock).applyAfterCommit(100L, Map.of(11L, new BigDecimal("1.0").negate()));
+    }
+
+    @Test
+    void restoreStockForOrder_Deducted_PutsBackWhatTheOrderStillHolds() {
+        // Arrange
+        Order order = createMockOrder();
+        when(transactionRepository.findOutstandingOrderDeductions(1L)).thenReturn(List.of(
+                new Object[]{2L, new BigDecimal("0.4")},
+                new Object[]{1L, new BigDecimal("1.0")}));
+
+        // Act
+        inventoryService.restoreStockForOrder(order, adminPrincipal);
+
+        // Assert
+        Map<Long, BigDecimal> restored = Map.of(1L, new BigDecimal("1.0"), 2L, new BigDecimal("0.4"));
+        verify(stockDeductionWriter).restore(restored, 1L, "ORD123", 1L);
+        verify(lotAllocator).returnOrder(1L);
+        verify(reservationLedger).adjust(1L, new BigDecimal("1.0"));
+        verify(reservationLedger).adjust(2L, new BigDecimal("0.4"));
+        verify(branchStock).applyAfterCommit(100L, restored);
+        verify(alertEngine).markDirty(Set.of(1L, 2L));
+    }
+
+    @Test
+    void restoreStockForOrder_NothingDeducted_LeavesStockAlone() {
+        // Arrange
+        Order order = createMockOrder();
+        when(transactionRepository.findOutstandingOrderDeductions(1L)).thenReturn(List.of());
+
+        // Act
+        inventoryService.restoreStockForOrder(order, adminPrincipal);
+
+        // Assert
+        verifyNoInteractions(stockDeductionWriter, lotAllocator, reservationLedger, branchStock);
+    }
+
+    @Test
+    void transferStock_ToBranch_BooksPairedTransactions() {
+        // Arrange
+        InventoryItem central = createMockInventoryItem(1L, new BigDecimal("50.00"));
+        central.setExpiryDate(LocalDate.of(2026, 3, 1));
+        InventoryItem branchItem = createMockInventoryItem(2L, new BigDecimal("5.00"));
+        branchItem.setItemCode("ITEM-1");
+        branchItem.setBranchId(7L);
+        TransferStockRequest request = new TransferStockRequest(7L, new BigDecimal("20.00"), null);
+
+        when(inventoryRepository.findByIdAndRestaurantId(1L, 100L)).thenReturn(Optional.of(central));
+        when(branchRepository.findByIdAndRestaurantId(7L, 100L)).thenReturn(Optional.of(new RestaurantBranch()));
+        when(inventoryRepository.findByRestaurantIdAndBranchIdAndItemCode(100L, 7L, "ITEM-1"))
+                .thenReturn(Optional.of(branchItem));
+        when(transferRepository.save(any(StockTransfer.class))).thenAnswer(i -> {
+            StockTransfer transfer = i.getArgument(0);
+            transfer.setId(9L);
+            return transfer;
+        });
+
+        // Act
+        StockTransferResponse response = inventoryService.transferStock(1L, request, adminPrincipal);
+
+        // Assert
+        assertEquals("TRF-9", response.getReferenceNumber());
+        assertEquals(new BigDecimal("30.00"), central.getCurrentQuantity());
+        assertEquals(new BigDecimal("25.00"), branchItem.getCurrentQuantity());
+        assertEquals(LocalDate.of(2026, 3, 1), branchItem.getExpiryDate());
+        StockTransaction out = central.getTransactions().get(0);
+        StockTransaction in = branchItem.getTransactions().get(0);
+        assertEquals(StockTransaction.TransactionType.TRANSFER_OUT, out.getTransactionType());
+        assertEquals(new BigDecimal("-20.00"), out.getQuantity());
+        assertEquals(StockTransaction.TransactionType.TRANSFER_IN, in.getTransactionType());
+        assertEquals("TRF-9", out.getReferenceNumber());
+        assertEquals("TRF-9", in.getReferenceNumber());
+        verify(lotAllocator).consume(Map.of(1L, new BigDecimal("20.00")));
+        verify(lotAllocator).receive(branchItem, new BigDecimal("20.00"), new BigDecimal("2.50"),
+                LocalDate.of(2026, 3, 1), "TRF-9");
+        verify(branchStock).applyAfterCommit(100L,
+                Map.of(1L, new BigDecimal("-20.00"), 2L, new BigDecimal("20.00")));
+    }
+
+    @Test
+    void transferStock_SameLocation_ThrowsBadRequest() {
+        // Arrange
+        InventoryItem central = createMockInventoryItem(1L, new BigDecimal("50.00"));
+        TransferStockRequest request = new TransferStockRequest(null, new BigDecimal("20.00"), null);
+
+        when(inventoryRepository.findByIdAndRestaurantId(1L, 100L)).thenReturn(Optional.of(central));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class,
+                () -> inventoryService.transferStock(1L, request, adminPrincipal));
+        verifyNoInteractions(transferRepository, lotAllocator);
     }
 
     @Test
@@ -216,17 +507,13 @@ class InventoryServiceTest {
         // Arrange
         InventoryItem tomatoes = createMockInventoryItem(1L, new BigDecimal("100.00"));
 
-        MenuItemInventory link = new MenuItemInventory();
-        link.setInventoryItem(tomatoes);
-        link.setQuantityRequired(new BigDecimal("0.5"));
-        link.setIsOptional(false);
-
-        when(menuItemInventoryRepository.findByMenuItemId(1L))
-                .thenReturn(List.of(link));
+        when(recipeGraph.ingredients(100L, 1L))
+                .thenReturn(List.of(new RecipeLine(1L, new BigDecimal("0.5"), false)));
+        when(inventoryRepository.findAllById(List.of(1L))).thenReturn(List.of(tomatoes));
 
         // Act
         StockAvailabilityResponse response = inventoryService
-                .checkMenuItemAvailability(1L, 10);
+                .checkMenuItemAvailability(100L, 1L, 10);
 
         // Assert
         assertTrue(response.getIsAvailable());
@@ -239,23 +526,73 @@ class InventoryServiceTest {
         // Arrange
         InventoryItem tomatoes = createMockInventoryItem(1L, new BigDecimal("2.00"));
 
-        MenuItemInventory link = new MenuItemInventory();
-        link.setInventoryItem(tomatoes);
-        link.setQuantityRequired(new BigDecimal("0.5"));
-        link.setIsOptional(false);
-
-        when(menuItemInventoryRepository.findByMenuItemId(1L))
-                .thenReturn(List.of(link));
+        when(recipeGraph.ingredients(100L, 1L))
+                .thenReturn(List.of(new RecipeLine(1L, new BigDecimal("0.5"), false)));
+        when(inventoryRepository.findAllById(List.of(1L))).thenReturn(List.of(tomatoes));
 
         // Act
         StockAvailabilityResponse response = inventoryService
-                .checkMenuItemAvailability(1L, 10); // Requires 5kg, only 2kg available
+                .checkMenuItemAvailability(100L, 1L, 10); // Requires 5kg, only 2kg available
 
         // Assert
         assertFalse(response.getIsAvailable());
         assertFalse(response.getIngredients().get(0).getIsAvailable());
     }
 
+    @Test
+    void checkAndReserve_Available_ReservesUnderOrderNumber() {
+        // Arrange
+        when(recipeGraph.ingredients(100L, 1L))
+                .thenReturn(List.of(new RecipeLine(1L, new BigDecimal("0.5"), false)));
+        when(reservationLedger.reserve(eq("ORD123"), eq(1L), any(BigDecimal.class), any()))
+                .thenReturn(true);
+
+        // Act
+        boolean reserved = inventoryService.checkAndReserve("ORD123", 100L, 1L, 4);
+
+        // Assert
+        assertTrue(reserved);
+        verify(reservationLedger).reserve(eq("ORD123"), eq(1L),
+                eq(new BigDecimal("2.0")), any());
+        verify(reservationLedger, never()).release(anyString());
+        verify(menuAvailability).refreshAfterCommit(List.of(1L));
+    }
+
+    @Test
+    void checkAndReserve_InsufficientStock_ReleasesReservation() {
+        // Arrange
+        when(recipeGraph.ingredients(100L, 1L))
+                .thenReturn(List.of(new RecipeLine(1L, new BigDecimal("0.5"), false)));
+        when(reservationLedger.reserve(eq("ORD123"), eq(1L), any(BigDecimal.class), any()))
+                .thenReturn(false);
+
+        // Act
+        boolean reserved = inventoryService.checkAndReserve("ORD123", 100L, 1L, 4);
+
+        // Assert
+        assertFalse(reserved);
+        verify(reservationLedger).release("ORD123");
+    }
+
+    @Test
+    void releaseReservation_WithinTransaction_ReleasesOnlyAfterCommit() {
+        // Arrange
+        when(reservationLedger.release("ORD123")).thenReturn(Map.of(1L, 2000L));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            inventoryService.releaseReservation("ORD123");
+            verify(reservationLedger, never()).release(anyString());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        verify(reservationLedger).release("ORD123");
+        verify(menuAvailability).refresh(Set.of(1L));
+    }
+
     @Test
     void linkInventoryToMenuItem_Success() {
         // Arrange
@@ -285,6 +622,7 @@ class InventoryServiceTest {
         assertEquals(10L, response.getMenuItemId());
         assertEquals(new BigDecimal("0.5"), response.getQuantityRequired());
         verify(menuItemInventoryRepository).save(any(MenuItemInventory.class));
+        verify(recipeGraph).invalidateAfterCommit(100L);
     }
 
     @Test
@@ -336,9 +674,22 @@ class InventoryServiceTest {
         return item;
     }
 
+    private Object[] recipeRow(Long menuItemId, Long inventoryItemId, String quantity, boolean optional) {
+        return new Object[]{menuItemId, inventoryItemId, new BigDecimal(quantity), optional};
+    }
+
+    private void stubRecipes(Object[]... rows) {
+        when(recipeGraph.forRestaurant(100L)).thenReturn(RecipeGraph.Recipes.build(List.of(rows)));
+    }
+
+    private void stubInventoryItems(InventoryItem... items) {
+        when(inventoryRepository.findAllById(anyIterable())).thenReturn(List.of(items));
+    }
+
     private Order createMockOrder() {
         Order order = new Order();
         order.setId(1L);
+        order.setRestaurantId(100L);
         order.setOrderNumber("ORD123");
 
         OrderItem item1 = new OrderItem();
@@ -3,22 +3,37 @@ package com.rms.service;
 //package com.rms.service;
 
 import com.rms.dto.order.OrderDTO.*;
+import com.rms.entity.MenuItem;
 import com.rms.entity.Order;
+import com.rms.entity.OrderEvent;
 import com.rms.entity.User;
 import com.rms.exception.BadRequestException;
 import com.rms.exception.ForbiddenException;
 import com.rms.exception.ResourceNotFoundException;
+import com.rms.repository.OrderItemRepository;
 import com.rms.repository.OrderRepository;
 import com.rms.repository.UserRepository;
 import com.rms.security.UserPrincipal;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import com.rms.service.menu.MenuService;
+import com.rms.service.order.OrderCursor;
+import com.rms.service.order.OrderPricingContext;
+import com.rms.service.order.OrderPricingResolver;
 import com.rms.service.order.OrderService;
+import com.rms.service.order.OrderStatusBatchWriter;
+import com.rms.service.order.OrderStatusBatchWriter.StatusTransition;
+import com.rms.service.order.event.OrderEventPublisher;
+import com.rms.service.order.state.DeliveryOrderGuard;
+import com.rms.service.order.state.OrderStateMachine;
+import com.rms.service.order.state.StatusTimestampListener;
+import com.rms.service.order.number.DisplayNumberAllocator;
+import com.rms.service.order.number.OrderNumberGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -26,8 +41,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -41,12 +58,37 @@ class OrderServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
     @Mock
     private UserRepository userRepository;
 
     @Mock
     private MenuService menuService;
 
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @Mock
+    private DisplayNumberAllocator displayNumberAllocator;
+
+    @Mock
+    private OrderPricingResolver pricingResolver;
+
+    @Mock
+    private OrderEventPublisher eventPublisher;
+
+    @Mock
+    private OrderStatusBatchWriter statusBatchWriter;
+
+    @Spy
+    private OrderStateMachine stateMachine = new OrderStateMachine(
+            List.of(new DeliveryOrderGuard()), List.of(new StatusTimestampListener()));
+
     @InjectMocks
     private OrderService orderService;
 
@@ -75,6 +117,9 @@ class OrderServiceTest {
         itemRequest.setQuantity(2);
         request.setItems(List.of(itemRequest));
 
+        when(pricingResolver.resolve(eq(100L), anyList())).thenReturn(pricingFor(1L, "10.00"));
+        when(orderNumberGenerator.nextOrderNumber()).thenReturn("ORD0000000000001");
+        when(inventoryService.checkAndReserve(anyString(), anyLong(), anyLong(), anyInt())).thenReturn(true);
         when(orderRepository.save(any(Order.class))).thenAnswer(i -> {
             Order order = i.getArgument(0);
             order.setId(1L);
@@ -89,6 +134,7 @@ class OrderServiceTest {
         assertEquals(Order.OrderType.DINE_IN, response.getOrderType());
         assertEquals("T5", response.getTableNumber());
         assertEquals(Order.OrderStatus.PENDING, response.getStatus());
+        assertEquals(0, new BigDecimal("20.00").compareTo(response.getSubtotal()));
         verify(orderRepository).save(any(Order.class));
     }
 
@@ -116,6 +162,9 @@ class OrderServiceTest {
         itemRequest.setQuantity(1);
         request.setItems(List.of(itemRequest));
 
+        when(pricingResolver.resolve(eq(100L), anyList())).thenReturn(pricingFor(1L, "10.00"));
+        when(orderNumberGenerator.nextOrderNumber()).thenReturn("ORD0000000000001");
+        when(inventoryService.checkAndReserve(anyString(), anyLong(), anyLong(), anyInt())).thenReturn(true);
         when(orderRepository.save(any(Order.class))).thenAnswer(i -> {
             Order order = i.getArgument(0);
             order.setId(1L);
@@ -175,6 +224,11 @@ class OrderServiceTest {
         verify(orderRepository).save(argThat(o ->
                 o.getStatus() == Order.OrderStatus.CONFIRMED
         ));
+        verify(eventPublisher).publish(argThat(e ->
+                e.getEventType() == OrderEvent.EventType.STATUS_CHANGED
+                        && e.getFromStatus() == Order.OrderStatus.PENDING
+                        && e.getToStatus() == Order.OrderStatus.CONFIRMED
+        ));
     }
 
     @Test
@@ -222,6 +276,87 @@ class OrderServiceTest {
                 () -> orderService.updateOrderStatus(1L, request, chefPrincipal));
     }
 
+    @Test
+    void bulkUpdateOrderStatus_MixedBatch_ReportsPerOrderResults() {
+        // Arrange: 10 and 11 can start preparing, 12 is still pending, 13 is missing,
+        // and 11 is changed by someone else before the batch lands
+        BulkUpdateOrderStatusRequest request = new BulkUpdateOrderStatusRequest(
+                List.of(10L, 11L, 12L, 13L, 10L), Order.OrderStatus.PREPARING, "Rush start");
+        Order first = createMockOrder(10L, Order.OrderStatus.CONFIRMED);
+        Order second = createMockOrder(11L, Order.OrderStatus.CONFIRMED);
+        Order pending = createMockOrder(12L, Order.OrderStatus.PENDING);
+
+        when(orderRepository.findByIdInAndRestaurantId(List.of(10L, 11L, 12L, 13L), 100L))
+                .thenReturn(List.of(first, second, pending));
+        when(statusBatchWriter.apply(anyList(), eq(3L), eq("Rush start")))
+                .thenAnswer(i -> {
+                    List<StatusTransition> transitions = i.getArgument(0);
+                    assertEquals(2, transitions.size());
+                    return List.of(transitions.get(0));
+                });
+
+        // Act
+        BulkUpdateOrderStatusResponse response = orderService.bulkUpdateOrderStatus(request, chefPrincipal);
+
+        // Assert
+        assertEquals(1, response.getUpdatedCount());
+        assertEquals(3, response.getFailedCount());
+        List<BulkOrderStatusResult> results = response.getResults();
+        assertEquals(List.of(10L, 11L, 12L, 13L),
+                results.stream().map(BulkOrderStatusResult::getOrderId).collect(Collectors.toList()));
+        assertTrue(results.get(0).isUpdated());
+        assertEquals(Order.OrderStatus.CONFIRMED, results.get(0).getFromStatus());
+        assertFalse(results.get(1).isUpdated());
+        assertTrue(results.get(2).getError().contains("PENDING to PREPARING"));
+        assertEquals("Order not found", results.get(3).getError());
+        verify(eventPublisher, times(1)).publish(any(OrderEvent.class));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void bulkUpdateOrderStatus_ToReady_LeavesLoadedOrdersUntouched() {
+        // Arrange
+        BulkUpdateOrderStatusRequest request = new BulkUpdateOrderStatusRequest(
+                List.of(10L), Order.OrderStatus.READY, null);
+        Order order = createMockOrder(10L, Order.OrderStatus.PREPARING);
+        order.setVersion(4L);
+        when(orderRepository.findByIdInAndRestaurantId(List.of(10L), 100L)).thenReturn(List.of(order));
+        when(statusBatchWriter.apply(anyList(), eq(3L), isNull())).thenAnswer(i -> i.getArgument(0));
+
+        // Act
+        BulkUpdateOrderStatusResponse response = orderService.bulkUpdateOrderStatus(request, chefPrincipal);
+
+        // Assert: the entity is not dirty, so the commit does not flush it against the bumped version
+        assertEquals(1, response.getUpdatedCount());
+        assertNull(order.getActualReadyTime());
+        assertEquals(Order.OrderStatus.PREPARING, order.getStatus());
+        assertEquals(4L, order.getVersion());
+        verify(stateMachine, never()).notifyListeners(any());
+    }
+
+    @Test
+    void bulkUpdateOrderStatus_Confirm_ThrowsBadRequest() {
+        // Arrange
+        BulkUpdateOrderStatusRequest request = new BulkUpdateOrderStatusRequest(
+                List.of(10L), Order.OrderStatus.CONFIRMED, null);
+
+        // Act & Assert
+        assertThrows(BadRequestException.class,
+                () -> orderService.bulkUpdateOrderStatus(request, adminPrincipal));
+        verifyNoInteractions(statusBatchWriter);
+    }
+
+    @Test
+    void bulkUpdateOrderStatus_CustomerMarksReady_ThrowsForbidden() {
+        // Arrange
+        BulkUpdateOrderStatusRequest request = new BulkUpdateOrderStatusRequest(
+                List.of(10L), Order.OrderStatus.READY, null);
+
+        // Act & Assert
+        assertThrows(ForbiddenException.class,
+                () -> orderService.bulkUpdateOrderStatus(request, customerPrincipal));
+    }
+
     @Test
     void cancelOrder_CustomerCancelsPending_Success() {
         // Arrange
@@ -243,6 +378,27 @@ class OrderServiceTest {
                 o.getStatus() == Order.OrderStatus.CANCELLED &&
                         o.getCancellationReason().equals("Changed my mind")
         ));
+        verify(inventoryService, never()).restoreStockForOrder(any(), any());
+        verify(inventoryService).releaseReservation(order.getOrderNumber());
+    }
+
+    @Test
+    void cancelOrder_AdminCancelsConfirmed_RestoresDeductedStock() {
+        // Arrange
+        Order order = createMockOrder(1L, Order.OrderStatus.CONFIRMED);
+        CancelOrderRequest request = new CancelOrderRequest();
+        request.setReason("Kitchen closed");
+
+        when(orderRepository.findByIdAndRestaurantId(1L, 100L))
+                .thenReturn(Optional.of(order));
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+
+        // Act
+        orderService.cancelOrder(1L, request, adminPrincipal);
+
+        // Assert
+        assertEquals(Order.OrderStatus.CANCELLED, order.getStatus());
+        verify(inventoryService).restoreStockForOrder(order, adminPrincipal);
     }
 
     @Test
@@ -359,6 +515,61 @@ class OrderServiceTest {
         verify(orderRepository).findByDeliveryManId(4L, pageable);
     }
 
+    @Test
+    void getOrdersByCursor_Staff_ReturnsNextCursorWithoutCounting() {
+        // Arrange: one row beyond the requested size signals another page
+        LocalDateTime now = LocalDateTime.now();
+        List<Order> orders = List.of(
+                createMockOrder(3L, now),
+                createMockOrder(2L, now),
+                createMockOrder(1L, now.minusMinutes(1)));
+
+        when(orderRepository.findRestaurantPageBefore(eq(100L), isNull(), isNull(), isNull(),
+                eq(OrderCursor.NEWEST.createdAt()), eq(Long.MAX_VALUE), eq(PageRequest.of(0, 3))))
+                .thenReturn(orders);
+
+        // Act
+        OrderCursorPage<OrderSummaryResponse> result = orderService.getOrdersByCursor(
+                adminPrincipal, null, null, null, 2, false);
+
+        // Assert
+        assertEquals(2, result.getItems().size());
+        assertTrue(result.isHasMore());
+        assertNull(result.getTotalCount());
+        assertEquals(new OrderCursor(now, 2L), OrderCursor.decode(result.getNextCursor(), null));
+        verify(orderRepository, never()).countRestaurantOrders(any(), any(), any(), any());
+    }
+
+    @Test
+    void getOrdersByCursor_Customer_ResumesFromCursorScopedToCustomer() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2024, 6, 3, 12, 30);
+        String cursor = new OrderCursor(createdAt, 42L).encode();
+
+        when(orderRepository.findRestaurantPageBefore(eq(100L), eq(1L), isNull(), isNull(),
+                eq(createdAt), eq(42L), any(Pageable.class)))
+                .thenReturn(List.of(createMockOrder(41L, createdAt)));
+        when(orderRepository.countRestaurantOrders(100L, 1L, null, null)).thenReturn(43L);
+
+        // Act
+        OrderCursorPage<OrderSummaryResponse> result = orderService.getOrdersByCursor(
+                customerPrincipal, null, null, cursor, 20, true);
+
+        // Assert
+        assertEquals(1, result.getItems().size());
+        assertFalse(result.isHasMore());
+        assertNull(result.getNextCursor());
+        assertEquals(43L, result.getTotalCount());
+    }
+
+    @Test
+    void getOrdersByCursor_MalformedCursor_ThrowsBadRequest() {
+        // Act & Assert
+        assertThrows(BadRequestException.class,
+                () -> orderService.getOrdersByCursor(adminPrincipal, null, null, "not-a-cursor", 20, false));
+        verifyNoInteractions(orderRepository);
+    }
+
     @Test
     void getOrderById_CustomerAccessesOwnOrder_Success() {
         // Arrange
@@ -391,6 +602,16 @@ class OrderServiceTest {
     }
 
     // Helper methods
+    private OrderPricingContext pricingFor(Long menuItemId, String basePrice) {
+        MenuItem menuItem = MenuItem.builder()
+                .id(menuItemId)
+                .name("Item " + menuItemId)
+                .basePrice(new BigDecimal(basePrice))
+                .build();
+        return new OrderPricingContext(Map.of(menuItemId, menuItem), Map.of(), Map.of(), Map.of(),
+                LocalDateTime.now());
+    }
+
     private UserPrincipal createUserPrincipal(Long userId, Long restaurantId, List<String> roles) {
         return new UserPrincipal(
                 userId,
@@ -405,6 +626,12 @@ class OrderServiceTest {
         );
     }
 
+    private Order createMockOrder(Long id, LocalDateTime createdAt) {
+        Order order = createMockOrder(id, Order.OrderStatus.CONFIRMED);
+        order.setCreatedAt(createdAt);
+        return order;
+    }
+
     private Order createMockOrder(Long id, Order.OrderStatus status) {
         Order order = new Order();
         order.setId(id);
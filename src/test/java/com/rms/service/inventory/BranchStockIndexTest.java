@@ -0,0 +1,90 @@
+package com.rms.service.inventory;
+
+import com.rms.dto.InventoryDTO.BranchStock;
+import com.rms.dto.InventoryDTO.StockRollupResponse;
+import com.rms.entity.InventoryItem;
+import com.rms.repository.InventoryItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BranchStockIndexTest {
+
+    @Mock
+    private InventoryItemRepository inventoryRepository;
+
+    private BranchStockIndex branchStock;
+
+    @BeforeEach
+    void setUp() {
+        branchStock = new BranchStockIndex(inventoryRepository);
+        ReflectionTestUtils.setField(branchStock, "ttlSeconds", 300L);
+        when(inventoryRepository.findStockPositionsByRestaurantId(100L)).thenReturn(List.of(
+                position(1L, "TOM", null, "10", true),
+                position(2L, "TOM", 7L, "4", true),
+                position(3L, "OIL", 7L, "2", true),
+                position(4L, "TOM", 8L, "9", false)));
+    }
+
+    @Test
+    void resolve_PrefersBranchItemThenRestaurantLevel() {
+        // Act & Assert
+        assertEquals(2L, branchStock.resolve(100L, 7L, 1L));
+        assertEquals(1L, branchStock.resolve(100L, 8L, 1L)); // branch 8's item is inactive
+        assertEquals(3L, branchStock.resolve(100L, 8L, 3L)); // no other location holds OIL
+        verify(inventoryRepository, times(1)).findStockPositionsByRestaurantId(100L);
+    }
+
+    @Test
+    void rollup_MovesWithCommittedChangesWithoutReloading() {
+        // Arrange
+        branchStock.rollup(100L);
+
+        // Act: a transfer of 3 from restaurant level to branch 7, then an order at branch 7
+        branchStock.applyAfterCommit(100L, Map.of(1L, new BigDecimal("-3"), 2L, new BigDecimal("3")));
+        branchStock.applyAfterCommit(100L, Map.of(2L, new BigDecimal("-1.5")));
+        List<StockRollupResponse> rollup = branchStock.rollup(100L);
+
+        // Assert
+        assertEquals(List.of("OIL", "TOM"), rollup.stream().map(StockRollupResponse::getItemCode).toList());
+        StockRollupResponse tomatoes = rollup.get(1);
+        assertEquals(0, new BigDecimal("12.5").compareTo(tomatoes.getTotalQuantity()));
+        assertEquals(List.of("null:7", "7:5.5"), tomatoes.getBranches().stream()
+                .map(this::describe)
+                .toList());
+        verify(inventoryRepository, times(1)).findStockPositionsByRestaurantId(100L);
+    }
+
+    @Test
+    void applyAfterCommit_UnknownItem_ReloadsOnNextRead() {
+        // Arrange
+        branchStock.rollup(100L);
+
+        // Act
+        branchStock.applyAfterCommit(100L, Map.of(99L, BigDecimal.ONE));
+        branchStock.rollup(100L);
+
+        // Assert
+        verify(inventoryRepository, times(2)).findStockPositionsByRestaurantId(100L);
+    }
+
+    private String describe(BranchStock stock) {
+        return stock.getBranchId() + ":" + stock.getQuantity().stripTrailingZeros().toPlainString();
+    }
+
+    private Object[] position(Long id, String itemCode, Long branchId, String quantity, boolean active) {
+        return new Object[]{id, itemCode, branchId, "Item " + id, InventoryItem.Unit.KG,
+                new BigDecimal(quantity), active};
+    }
+}
@@ -0,0 +1,48 @@
+package com.rms.service.inventory;
+
+import com.rms.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void next_ParsesQuotedFieldsAcrossLines() throws IOException {
+        // Arrange
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "a,b,c\r\n\"x, y\",\"say \"\"hi\"\"\",\"two\nlines\"\r\n\r\nlast,,\n"));
+
+        // Act & Assert
+        assertEquals(List.of("a", "b", "c"), reader.next());
+        assertEquals(List.of("x, y", "say \"hi\"", "two\nlines"), reader.next());
+        assertEquals(2, reader.getRecordLine());
+        assertEquals(List.of("last", "", ""), reader.next());
+        assertEquals(5, reader.getRecordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_UnterminatedQuote_ThrowsBadRequest() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("ok\n\"open,field\n"));
+
+        reader.next();
+
+        assertThrows(BadRequestException.class, reader::next);
+    }
+
+    @Test
+    void format_QuotesOnlyWhenNeeded() throws IOException {
+        // Act
+        String record = CsvRecordReader.format(Arrays.asList("plain", "a,b", "q\"t", null));
+
+        // Assert: reads back to the same fields, null as empty
+        assertEquals("plain,\"a,b\",\"q\"\"t\",\n", record);
+        assertEquals(List.of("plain", "a,b", "q\"t", ""), new CsvRecordReader(new StringReader(record)).next());
+    }
+}
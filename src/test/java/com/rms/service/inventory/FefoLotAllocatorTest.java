@@ -0,0 +1,221 @@
+package com.rms.service.inventory;
+
+import com.rms.entity.InventoryItem;
+import com.rms.entity.InventoryLot;
+import com.rms.repository.InventoryLotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FefoLotAllocatorTest {
+
+    private static final LocalDate SOON = LocalDate.now().plusDays(1);
+    private static final LocalDate LATER = LocalDate.now().plusDays(5);
+
+    @Mock
+    private InventoryLotRepository lotRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private FefoLotAllocator lotAllocator;
+
+    @BeforeEach
+    void setUp() {
+        lotAllocator = new FefoLotAllocator(lotRepository, jdbcTemplate);
+        ReflectionTestUtils.setField(lotAllocator, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(lotAllocator, "batchSize", 50);
+    }
+
+    @Test
+    void consume_DrawsEarliestExpiryFirstAndUndatedLast() {
+        // Arrange: rows come back in FEFO order
+        when(lotRepository.findOpenLots(anyCollection())).thenReturn(List.of(
+                lot(1L, 13L, "1", SOON),
+                lot(1L, 12L, "2", LATER),
+                lot(1L, 11L, "5", null)));
+        stubUpdates(null);
+
+        // Act
+        lotAllocator.consume(Map.of(1L, new BigDecimal("4")));
+
+        // Assert
+        assertEquals(List.of("13:1", "12:2", "11:1"), draws().get(0));
+    }
+
+    @Test
+    void consume_ExpiredLotIsSkipped() {
+        // Arrange
+        when(lotRepository.findOpenLots(anyCollection())).thenReturn(List.of(
+                lot(1L, 14L, "3", LocalDate.now().minusDays(1)),
+                lot(1L, 13L, "1", SOON),
+                lot(1L, 11L, "5", null)));
+        stubUpdates(null);
+
+        // Act
+        lotAllocator.consume(Map.of(1L, new BigDecimal("2")));
+
+        // Assert
+        assertEquals(List.of("13:1", "11:1"), draws().get(0));
+    }
+
+    @Test
+    void writeOff_DrawsExpiredLotsFirst() {
+        // Arrange
+        when(lotRepository.findOpenLots(anyCollection())).thenReturn(List.of(
+                lot(1L, 14L, "3", LocalDate.now().minusDays(1)),
+                lot(1L, 13L, "1", SOON),
+                lot(1L, 11L, "5", null)));
+        stubUpdates(null);
+
+        // Act
+        lotAllocator.writeOff(Map.of(1L, new BigDecimal("4")));
+
+        // Assert
+        assertEquals(List.of("14:3", "13:1"), draws().get(0));
+    }
+
+    @Test
+    void consume_LaterDeductionIsPlannedFromCachedLots() {
+        // Arrange
+        when(lotRepository.findOpenLots(anyCollection())).thenReturn(List.of(
+                lot(1L, 13L, "1", SOON),
+                lot(1L, 11L, "5", null)));
+        stubUpdates(null);
+        lotAllocator.consume(Map.of(1L, new BigDecimal("2"))); // no transaction: cache updated at once
+
+        // Act
+        lotAllocator.consume(Map.of(1L, new BigDecimal("3")));
+
+        // Assert: lot 13 is used up, lot 11 continues from 4
+        assertEquals(List.of("11:3"), draws().get(1));
+        verify(lotRepository, times(1)).findOpenLots(anyCollection());
+    }
+
+    @Test
+    void consume_RefusedDraw_ReloadsAndReplansShortfall() {
+        // Arrange: lot 13 was partly consumed elsewhere since it was cached
+        when(lotRepository.findOpenLots(anyCollection()))
+                .thenReturn(List.of(lot(1L, 13L, "3", SOON), lot(1L, 11L, "5", null)))
+                .thenReturn(List.of(lot(1L, 13L, "1", SOON), lot(1L, 11L, "5", null)));
+        stubUpdates(13L);
+
+        // Act
+        lotAllocator.consume(Map.of(1L, new BigDecimal("2")));
+
+        // Assert
+        List<List<String>> draws = draws();
+        assertEquals(List.of("13:2"), draws.get(0));
+        assertEquals(List.of("13:1", "11:1"), draws.get(1));
+        verify(lotRepository, times(2)).findOpenLots(anyCollection());
+    }
+
+    @Test
+    void consume_ForOrder_RecordsOnlyAppliedDraws() {
+        // Arrange: the first draw on lot 13 is refused and re-planned
+        when(lotRepository.findOpenLots(anyCollection()))
+                .thenReturn(List.of(lot(1L, 13L, "3", SOON), lot(1L, 11L, "5", null)))
+                .thenReturn(List.of(lot(1L, 13L, "1", SOON), lot(1L, 11L, "5", null)));
+        stubUpdates(13L);
+
+        // Act
+        lotAllocator.consume(Map.of(1L, new BigDecimal("2")), 42L);
+
+        // Assert
+        assertEquals(List.of("13:1", "11:1"), draws().get(2));
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO inventory_lot_draws"),
+                anyCollection(), anyInt(), any());
+    }
+
+    @Test
+    void returnOrder_ReturnedItemsReloadTheirLots() {
+        // Arrange
+        when(lotRepository.findOpenLots(anyCollection())).thenReturn(List.<Object[]>of(lot(1L, 11L, "5", null)));
+        stubUpdates(null);
+        lotAllocator.consume(Map.of(1L, new BigDecimal("1")));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(42L))).thenReturn(List.of(1L));
+
+        // Act
+        lotAllocator.returnOrder(42L); // no transaction: cache dropped at once
+        lotAllocator.consume(Map.of(1L, new BigDecimal("1")));
+
+        // Assert
+        verify(lotRepository, times(2)).findOpenLots(anyCollection());
+    }
+
+    @Test
+    void receive_NewLotJoinsCachedOrderByExpiry() {
+        // Arrange
+        InventoryItem item = new InventoryItem();
+        item.setId(1L);
+        item.setRestaurantId(100L);
+        when(lotRepository.findOpenLots(anyCollection())).thenReturn(List.<Object[]>of(lot(1L, 11L, "5", null)));
+        when(lotRepository.save(any(InventoryLot.class))).thenAnswer(i -> {
+            InventoryLot lot = i.getArgument(0);
+            lot.setId(20L);
+            return lot;
+        });
+        stubUpdates(null);
+        lotAllocator.consume(Map.of(1L, new BigDecimal("1")));
+
+        // Act
+        lotAllocator.receive(item, new BigDecimal("2"), new BigDecimal("1.50"), SOON, "INV-42");
+        lotAllocator.consume(Map.of(1L, new BigDecimal("3")));
+
+        // Assert: the dated delivery is used before the older undated lot
+        assertEquals(List.of("20:2", "11:1"), draws().get(1));
+        verify(lotRepository, times(1)).findOpenLots(anyCollection());
+    }
+
+    /**
+     * Every draw succeeds except those on the refused lot, once
+     */
+    @SuppressWarnings("unchecked")
+    private void stubUpdates(Long refusedLotId) {
+        boolean[] refused = {false};
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenAnswer(i -> {
+            Collection<FefoLotAllocator.Draw> draws = i.getArgument(1);
+            int[] counts = draws.stream()
+                    .mapToInt(draw -> {
+                        if (refusedLotId != null && draw.lotId() == refusedLotId && !refused[0]) {
+                            refused[0] = true;
+                            return 0;
+                        }
+                        return 1;
+                    })
+                    .toArray();
+            return new int[][]{counts};
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<String>> draws() {
+        ArgumentCaptor<Collection<FefoLotAllocator.Draw>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(anyString(), captor.capture(), anyInt(), any());
+        return captor.getAllValues().stream()
+                .map(draws -> draws.stream()
+                        .map(draw -> draw.lotId() + ":" + draw.quantity().stripTrailingZeros().toPlainString())
+                        .toList())
+                .toList();
+    }
+
+    private Object[] lot(Long itemId, Long lotId, String remaining, LocalDate expiryDate) {
+        return new Object[]{itemId, lotId, new BigDecimal(remaining), expiryDate};
+    }
+}
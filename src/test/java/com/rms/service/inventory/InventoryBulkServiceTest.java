@@ -0,0 +1,136 @@
+package com.rms.service.inventory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rms.dto.InventoryDTO.ImportRowError;
+import com.rms.dto.InventoryDTO.InventoryImportResponse;
+import com.rms.repository.InventoryItemRepository;
+import com.rms.repository.RestaurantBranchRepository;
+import com.rms.security.UserPrincipal;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryBulkServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private InventoryItemRepository inventoryRepository;
+
+    @Mock
+    private RestaurantBranchRepository branchRepository;
+
+    @Mock
+    private BranchStockIndex branchStock;
+
+    private InventoryBulkService bulkService;
+    private UserPrincipal adminPrincipal;
+
+    @BeforeEach
+    void setUp() {
+        bulkService = new InventoryBulkService(jdbcTemplate, transactionTemplate, inventoryRepository,
+                branchRepository, branchStock, new ObjectMapper().findAndRegisterModules(),
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(bulkService, "batchSize", 50);
+        ReflectionTestUtils.setField(bulkService, "chunkSize", 500);
+        adminPrincipal = new UserPrincipal(1L, "admin@test.com", "password", 100L,
+                List.of(new SimpleGrantedAuthority("ROLE_RESTAURANT_ADMIN")), true);
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(new SimpleTransactionStatus()));
+        when(inventoryRepository.findItemCodesAndBranchesByRestaurantId(100L))
+                .thenReturn(List.<Object[]>of(new Object[]{"OLD-1", null}, new Object[]{"FLR-1", 7L}));
+        when(branchRepository.findByRestaurantId(100L)).thenReturn(List.of());
+    }
+
+    @Test
+    void importItems_Csv_ReportsRowErrorsAndBatchesValidRows() {
+        // Arrange
+        String csv = """
+                itemCode,name,category,unit,initialQuantity,minimumQuantity,costPerUnit
+                TOM-1,Tomatoes,VEGETABLES,KG,10,2,2.50
+                OLD-1,Existing,VEGETABLES,KG,0,1,1.00
+                TOM-1,Duplicate,VEGETABLES,KG,1,1,1.00
+                BAD-1,"Cheese, aged",DAIRY,LITRES,1,1,1.00
+                FLR-1,Flour,GRAINS,KG,0,1,1.00
+                """;
+        stubInserts(1);
+
+        // Act
+        InventoryImportResponse response = bulkService.importItems(stream(csv),
+                InventoryBulkService.Format.CSV, adminPrincipal);
+
+        // Assert: one item batch for both valid rows; stock row and lot only for TOM-1
+        assertEquals(5, response.getTotalRows());
+        assertEquals(2, response.getImportedRows());
+        assertEquals(List.of(3L, 4L, 5L), response.getErrors().stream().map(ImportRowError::getLine).toList());
+        assertEquals("Item code already exists", response.getErrors().get(0).getMessage());
+        assertEquals("Item code repeated in this file, first on line 2", response.getErrors().get(1).getMessage());
+        assertEquals("Invalid value for unit", response.getErrors().get(2).getMessage());
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        verify(inventoryRepository, never()).existsByRestaurantIdAndBranchIdAndItemCode(any(), any(), any());
+        verify(branchStock).invalidate(100L);
+    }
+
+    @Test
+    void importItems_JsonLines_CodeTakenConcurrently_ReportedAsRowError() {
+        // Arrange
+        String lines = "{\"itemCode\":\"TOM-1\",\"name\":\"Tomatoes\",\"category\":\"VEGETABLES\",\"unit\":\"KG\"," +
+                "\"initialQuantity\":5,\"minimumQuantity\":1,\"costPerUnit\":2.5}\n\n" +
+                "{\"itemCode\":\"TOM-2\",\"name\":\"\",\"category\":\"VEGETABLES\",\"unit\":\"KG\"," +
+                "\"initialQuantity\":5,\"minimumQuantity\":1,\"costPerUnit\":2.5}\n";
+        stubInserts(0);
+
+        // Act
+        InventoryImportResponse response = bulkService.importItems(stream(lines),
+                InventoryBulkService.Format.JSONL, adminPrincipal);
+
+        // Assert
+        assertEquals(2, response.getTotalRows());
+        assertEquals(0, response.getImportedRows());
+        assertEquals("name: Item name is required", response.getErrors().get(0).getMessage());
+        assertEquals(3L, response.getErrors().get(0).getLine());
+        assertEquals("Item code already exists", response.getErrors().get(1).getMessage());
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        verifyNoInteractions(branchStock);
+    }
+
+    /**
+     * Every batched statement reports the given update count
+     */
+    private void stubInserts(int count) {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenAnswer(invocation -> {
+            int[] counts = new int[invocation.<Collection<?>>getArgument(1).size()];
+            Arrays.fill(counts, count);
+            return new int[][]{counts};
+        });
+    }
+
+    private ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,133 @@
+package com.rms.service.inventory;
+
+import com.rms.repository.LowStockAlertRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LowStockAlertEngineTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private LowStockAlertRepository alertRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LowStockAlertEngine alertEngine;
+
+    @BeforeEach
+    void setUp() {
+        alertEngine = new LowStockAlertEngine(jdbcTemplate, alertRepository, transactionManager);
+        ReflectionTestUtils.setField(alertEngine, "debounceSeconds", 900L);
+        ReflectionTestUtils.setField(alertEngine, "recheckBatchSize", 500);
+        ReflectionTestUtils.setField(alertEngine, "countTtlSeconds", 300L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void markDirty_WithinTransaction_EvaluatesOnceAfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of());
+
+        // Act
+        alertEngine.markDirty(2L);
+        alertEngine.markDirty(List.of(1L, 2L));
+        verifyNoInteractions(jdbcTemplate);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Assert: one statement for both items
+        verify(jdbcTemplate, times(1)).query(anyString(),
+                argThat((SqlParameterSource params) -> List.of(1L, 2L).equals(params.getValue("ids"))),
+                any(RowMapper.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void evaluate_AppliesRaisedAndResolvedToActiveCount() {
+        // Arrange
+        when(alertRepository.countActiveAlerts(100L)).thenReturn(3L);
+        assertEquals(3L, alertEngine.getActiveCount(100L));
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of(new long[]{100L, 1L}, new long[]{100L, 1L}, new long[]{100L, -1L}));
+
+        // Act
+        alertEngine.evaluate(List.of(1L, 2L, 3L));
+
+        // Assert: served from the counter, no second COUNT
+        assertEquals(4L, alertEngine.getActiveCount(100L));
+        verify(alertRepository, times(1)).countActiveAlerts(100L);
+    }
+
+    @Test
+    void adjustActiveCountAfterCommit_AppliedOnlyAfterCommit() {
+        // Arrange
+        when(alertRepository.countActiveAlerts(100L)).thenReturn(2L);
+        alertEngine.getActiveCount(100L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        alertEngine.adjustActiveCountAfterCommit(100L, -1);
+        long beforeCommit = alertEngine.getActiveCount(100L);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        assertEquals(2L, beforeCommit);
+        assertEquals(1L, alertEngine.getActiveCount(100L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recheckPending_DebouncedItemsStillBelow_EvaluatesThem() {
+        // Arrange
+        when(jdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(4L, 7L));
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of());
+
+        // Act
+        alertEngine.recheckPending();
+
+        // Assert
+        verify(jdbcTemplate).query(anyString(),
+                argThat((SqlParameterSource params) -> List.of(4L, 7L).equals(params.getValue("ids"))),
+                any(RowMapper.class));
+    }
+
+    @Test
+    void markDirty_Empty_DoesNothing() {
+        // Act
+        alertEngine.markDirty(List.of());
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate, transactionManager);
+    }
+}
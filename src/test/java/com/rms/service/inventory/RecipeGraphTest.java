@@ -0,0 +1,92 @@
+package com.rms.service.inventory;
+
+import com.rms.repository.MenuItemInventoryRepository;
+import com.rms.service.inventory.RecipeGraph.RecipeLine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecipeGraphTest {
+
+    @Mock
+    private MenuItemInventoryRepository menuItemInventoryRepository;
+
+    private RecipeGraph recipeGraph;
+
+    @BeforeEach
+    void setUp() {
+        recipeGraph = new RecipeGraph(menuItemInventoryRepository);
+        ReflectionTestUtils.setField(recipeGraph, "ttlSeconds", 300L);
+    }
+
+    @Test
+    void build_GroupsLinesByMenuItem() {
+        // Act
+        RecipeGraph.Recipes recipes = RecipeGraph.Recipes.build(List.of(
+                row(3L, 10L, "0.5", false),
+                row(3L, 11L, "0.2", true),
+                row(7L, 10L, "1", false)));
+
+        // Assert
+        assertEquals(2, recipes.size());
+        assertEquals(List.of(
+                new RecipeLine(10L, new BigDecimal("0.5"), false),
+                new RecipeLine(11L, new BigDecimal("0.2"), true)), recipes.ingredients(3L));
+        assertEquals(List.of(new RecipeLine(10L, new BigDecimal("1"), false)), recipes.ingredients(7L));
+        assertTrue(recipes.ingredients(5L).isEmpty());
+        assertTrue(RecipeGraph.Recipes.build(List.of()).ingredients(3L).isEmpty());
+    }
+
+    @Test
+    void requiredFor_MultipliesByPortions() {
+        RecipeLine line = new RecipeLine(10L, new BigDecimal("0.25"), false);
+
+        assertEquals(0, new BigDecimal("0.75").compareTo(line.requiredFor(3)));
+    }
+
+    @Test
+    void ingredients_CachedPerRestaurant() {
+        // Arrange
+        when(menuItemInventoryRepository.findRecipeRowsByRestaurantId(100L))
+                .thenReturn(List.<Object[]>of(row(3L, 10L, "0.5", false)));
+
+        // Act
+        recipeGraph.ingredients(100L, 3L);
+        List<RecipeLine> lines = recipeGraph.ingredients(100L, 3L);
+
+        // Assert
+        assertEquals(1, lines.size());
+        verify(menuItemInventoryRepository, times(1)).findRecipeRowsByRestaurantId(100L);
+    }
+
+    @Test
+    void invalidate_RebuildsOnNextLookup() {
+        // Arrange
+        when(menuItemInventoryRepository.findRecipeRowsByRestaurantId(100L))
+                .thenReturn(List.of())
+                .thenReturn(List.<Object[]>of(row(3L, 10L, "0.5", false)));
+        assertTrue(recipeGraph.ingredients(100L, 3L).isEmpty());
+
+        // Act
+        recipeGraph.invalidateAfterCommit(100L); // no transaction: immediate
+        List<RecipeLine> lines = recipeGraph.ingredients(100L, 3L);
+
+        // Assert
+        assertEquals(1, lines.size());
+        verify(menuItemInventoryRepository, times(2)).findRecipeRowsByRestaurantId(100L);
+    }
+
+    private Object[] row(Long menuItemId, Long inventoryItemId, String quantity, boolean optional) {
+        return new Object[]{menuItemId, inventoryItemId, new BigDecimal(quantity), optional};
+    }
+}
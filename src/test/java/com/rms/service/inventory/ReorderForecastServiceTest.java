@@ -0,0 +1,136 @@
+package com.rms.service.inventory;
+
+import com.rms.entity.InventoryForecast;
+import com.rms.entity.InventoryItem;
+import com.rms.repository.InventoryForecastRepository;
+import com.rms.repository.InventoryItemRepository;
+import com.rms.repository.RestaurantRepository;
+import com.rms.repository.StockTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReorderForecastServiceTest {
+
+    private static final LocalDate THROUGH = LocalDate.of(2026, 10, 14);
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Mock
+    private InventoryItemRepository inventoryRepository;
+
+    @Mock
+    private InventoryForecastRepository forecastRepository;
+
+    @Mock
+    private StockTransactionRepository transactionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReorderForecastService reorderForecastService;
+
+    @BeforeEach
+    void setUp() {
+        reorderForecastService = new ReorderForecastService(restaurantRepository, inventoryRepository,
+                forecastRepository, transactionRepository, new SyncTaskExecutor(), transactionManager);
+        ReflectionTestUtils.setField(reorderForecastService, "historyDays", 14);
+        ReflectionTestUtils.setField(reorderForecastService, "alpha", 0.3);
+        ReflectionTestUtils.setField(reorderForecastService, "gamma", 0.1);
+        ReflectionTestUtils.setField(reorderForecastService, "leadTimeDays", 2);
+        ReflectionTestUtils.setField(reorderForecastService, "reviewPeriodDays", 7);
+        ReflectionTestUtils.setField(reorderForecastService, "safetyFactor", 1.65);
+    }
+
+    @Test
+    void forecastRestaurant_FirstRun_LearnsFromHistoryWindow() {
+        // Arrange: 10 units used every day of the 14-day window
+        when(forecastRepository.findByRestaurantId(100L)).thenReturn(List.of());
+        when(inventoryRepository.findByRestaurantIdAndIsActive(100L, true)).thenReturn(List.of(item(1L)));
+        List<Object[]> rows = new ArrayList<>();
+        for (int day = 0; day < 14; day++) {
+            rows.add(new Object[]{1L, day, new BigDecimal("10")});
+        }
+        when(transactionRepository.findDailyOrderUsage(100L, THROUGH.minusDays(13), THROUGH.plusDays(1)))
+                .thenReturn(rows);
+
+        // Act
+        int forecast = reorderForecastService.forecastRestaurant(100L, THROUGH);
+
+        // Assert: no variance, so reorder at 2 days of usage and order up to 7 more
+        assertEquals(1, forecast);
+        InventoryForecast saved = savedForecasts().get(0);
+        assertEquals(14, saved.getObservedDays());
+        assertEquals(THROUGH, saved.getObservedThrough());
+        assertEquals(new BigDecimal("10.000"), saved.getDailyDemand());
+        assertEquals(new BigDecimal("20.000"), saved.getReorderPoint());
+        assertEquals(new BigDecimal("90.000"), saved.getOrderUpTo());
+    }
+
+    @Test
+    void forecastRestaurant_ReadsOnlyDaysSinceLastRun() {
+        // Arrange
+        InventoryForecast existing = InventoryForecast.start(1L, 100L, THROUGH.minusDays(30));
+        existing.setLevel(10);
+        existing.setObservedDays(30);
+        existing.setObservedThrough(THROUGH.minusDays(1));
+        when(forecastRepository.findByRestaurantId(100L)).thenReturn(List.of(existing));
+        when(inventoryRepository.findByRestaurantIdAndIsActive(100L, true)).thenReturn(List.of(item(1L)));
+        when(transactionRepository.findDailyOrderUsage(100L, THROUGH, THROUGH.plusDays(1)))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 0, new BigDecimal("20")}));
+
+        // Act
+        reorderForecastService.forecastRestaurant(100L, THROUGH);
+
+        // Assert: level moves alpha of the way towards the new day
+        assertEquals(13.0, existing.getLevel(), 1e-9);
+        assertEquals(31, existing.getObservedDays());
+    }
+
+    @Test
+    void suggestedQuantity_CappedAtMaximumAndRoundedToPackSize() {
+        // Arrange
+        InventoryItem item = item(1L);
+        item.setCurrentQuantity(new BigDecimal("15"));
+        item.setMaximumQuantity(new BigDecimal("60"));
+        item.setReorderQuantity(new BigDecimal("10"));
+        InventoryForecast forecast = InventoryForecast.start(1L, 100L, THROUGH);
+        forecast.setOrderUpTo(new BigDecimal("90.000"));
+
+        // Act & Assert: 60 - 15 = 45, in packs of 10
+        assertEquals(0, new BigDecimal("50").compareTo(
+                ReorderForecastService.suggestedQuantity(item, forecast)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<InventoryForecast> savedForecasts() {
+        ArgumentCaptor<Collection<InventoryForecast>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(forecastRepository).saveAll(captor.capture());
+        return new ArrayList<>(captor.getValue());
+    }
+
+    private InventoryItem item(Long id) {
+        InventoryItem item = new InventoryItem();
+        item.setId(id);
+        item.setRestaurantId(100L);
+        item.setCurrentQuantity(new BigDecimal("5"));
+        return item;
+    }
+}
@@ -0,0 +1,166 @@
+package com.rms.service.inventory;
+
+import com.rms.repository.InventoryItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationLedgerTest {
+
+    @Mock
+    private InventoryItemRepository inventoryRepository;
+
+    private StockReservationLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new StockReservationLedger(inventoryRepository);
+        ReflectionTestUtils.setField(ledger, "reservationTtlMinutes", 30L);
+    }
+
+    @Test
+    void reserve_WithinAvailable_ReducesPool() {
+        // Act
+        boolean reserved = ledger.reserve("ORD1", 1L, new BigDecimal("2.5"),
+                () -> new BigDecimal("10.000"));
+
+        // Assert
+        assertTrue(reserved);
+        assertEquals(new BigDecimal("7.500"), ledger.getAvailable(1L));
+    }
+
+    @Test
+    void reserve_MoreThanAvailable_ReturnsFalse() {
+        // Act
+        boolean reserved = ledger.reserve("ORD1", 1L, new BigDecimal("10.001"),
+                () -> new BigDecimal("10.000"));
+
+        // Assert
+        assertFalse(reserved);
+        assertEquals(new BigDecimal("10.000"), ledger.getAvailable(1L));
+    }
+
+    @Test
+    void release_ReturnsQuantityToPool() {
+        // Arrange
+        ledger.reserve("ORD1", 1L, new BigDecimal("4"), () -> new BigDecimal("10"));
+        ledger.reserve("ORD1", 1L, new BigDecimal("1"), () -> new BigDecimal("10"));
+
+        // Act
+        ledger.release("ORD1");
+
+        // Assert
+        assertEquals(new BigDecimal("10.000"), ledger.getAvailable(1L));
+        assertFalse(ledger.hasReservation("ORD1"));
+    }
+
+    @Test
+    void commit_KeepsQuantityOutOfPool() {
+        // Arrange
+        ledger.reserve("ORD1", 1L, new BigDecimal("4"), () -> new BigDecimal("10"));
+
+        // Act
+        Map<Long, Long> committed = ledger.commit("ORD1");
+
+        // Assert
+        assertEquals(4000L, committed.get(1L));
+        assertEquals(new BigDecimal("6.000"), ledger.getAvailable(1L));
+        assertFalse(ledger.hasReservation("ORD1"));
+    }
+
+    @Test
+    void releaseExpiredReservations_ReleasesOnlyExpired() {
+        // Arrange
+        ReflectionTestUtils.setField(ledger, "reservationTtlMinutes", -1L);
+        ledger.reserve("ORD1", 1L, new BigDecimal("3"), () -> new BigDecimal("10"));
+
+        // Act
+        ledger.releaseExpiredReservations();
+
+        // Assert
+        assertEquals(new BigDecimal("10.000"), ledger.getAvailable(1L));
+        assertFalse(ledger.hasReservation("ORD1"));
+    }
+
+    @Test
+    void reconcile_DatabaseChanged_CorrectsDrift() {
+        // Arrange
+        ledger.reserve("ORD1", 1L, new BigDecimal("2"), () -> new BigDecimal("10"));
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, new BigDecimal("20.000")});
+        when(inventoryRepository.findCurrentQuantitiesByIdIn(anyList())).thenReturn(rows);
+
+        // Act
+        ledger.reconcile();
+
+        // Assert
+        assertEquals(new BigDecimal("18.000"), ledger.getAvailable(1L));
+    }
+
+    @Test
+    void reconcile_ReservedDuringRead_KeepsTheReservation() {
+        // Arrange: a reservation lands while the database row is being read
+        ledger.reserve("ORD1", 1L, new BigDecimal("2"), () -> new BigDecimal("10"));
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, new BigDecimal("20.000")});
+        when(inventoryRepository.findCurrentQuantitiesByIdIn(anyList())).thenAnswer(i -> {
+            ledger.reserve("ORD2", 1L, new BigDecimal("3"), () -> BigDecimal.ZERO);
+            return rows;
+        });
+
+        // Act
+        ledger.reconcile();
+
+        // Assert: left for the next run instead of overwriting ORD2
+        assertEquals(new BigDecimal("5.000"), ledger.getAvailable(1L));
+    }
+
+    @Test
+    void reserve_Concurrent_NeverOversells() throws Exception {
+        // Arrange: 100 units, 400 attempts of 1 unit each
+        int attempts = 400;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        for (int i = 0; i < attempts; i++) {
+            String key = "ORD" + i;
+            results.add(executor.submit(() -> {
+                start.await();
+                return ledger.reserve(key, 1L, BigDecimal.ONE, () -> new BigDecimal("100"));
+            }));
+        }
+
+        // Act
+        start.countDown();
+        int successful = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(10, TimeUnit.SECONDS)) {
+                successful++;
+            }
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(100, successful);
+        assertEquals(new BigDecimal("0.000"), ledger.getAvailable(1L));
+    }
+}
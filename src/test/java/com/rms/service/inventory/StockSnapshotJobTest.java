@@ -0,0 +1,122 @@
+package com.rms.service.inventory;
+
+import com.rms.entity.StockSnapshotProgress;
+import com.rms.repository.RestaurantRepository;
+import com.rms.repository.StockBalanceSnapshotRepository;
+import com.rms.repository.StockSnapshotProgressRepository;
+import com.rms.repository.StockTransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockSnapshotJobTest {
+
+    private static final LocalDate THROUGH = LocalDate.of(2026, 10, 16);
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Mock
+    private StockTransactionRepository transactionRepository;
+
+    @Mock
+    private StockBalanceSnapshotRepository snapshotRepository;
+
+    @Mock
+    private StockSnapshotProgressRepository progressRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private StockSnapshotJob stockSnapshotJob;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(new SimpleTransactionStatus()));
+    }
+
+    @Test
+    void backfill_ResumesAfterProgressMarker() {
+        // Arrange
+        when(progressRepository.findById(100L)).thenReturn(Optional.of(
+                new StockSnapshotProgress(100L, LocalDate.of(2026, 10, 14), null)));
+
+        // Act
+        int days = stockSnapshotJob.backfill(100L, THROUGH);
+
+        // Assert
+        assertEquals(2, days);
+        verify(snapshotRepository).rollUpDay(100L, LocalDate.of(2026, 10, 15));
+        verify(snapshotRepository).rollUpDay(100L, THROUGH);
+        verifyNoMoreInteractions(snapshotRepository);
+        verify(transactionRepository, never()).findFirstTransactionAt(any());
+
+        ArgumentCaptor<StockSnapshotProgress> progress = ArgumentCaptor.forClass(StockSnapshotProgress.class);
+        verify(progressRepository, times(2)).save(progress.capture());
+        assertEquals(THROUGH, progress.getValue().getSnapshotThrough());
+    }
+
+    @Test
+    void backfill_FirstRun_StartsAtEarliestTransaction() {
+        // Arrange
+        when(progressRepository.findById(100L)).thenReturn(Optional.empty());
+        when(transactionRepository.findFirstTransactionAt(100L))
+                .thenReturn(LocalDateTime.of(2026, 10, 13, 9, 30));
+
+        // Act
+        int days = stockSnapshotJob.backfill(100L, THROUGH);
+
+        // Assert
+        assertEquals(4, days);
+        verify(snapshotRepository).rollUpDay(100L, LocalDate.of(2026, 10, 13));
+        verify(snapshotRepository, times(4)).rollUpDay(eq(100L), any());
+    }
+
+    @Test
+    void backfill_NoHistory_OnlyMarksProgress() {
+        // Arrange
+        when(progressRepository.findById(100L)).thenReturn(Optional.empty());
+        when(transactionRepository.findFirstTransactionAt(100L)).thenReturn(null);
+
+        // Act
+        int days = stockSnapshotJob.backfill(100L, THROUGH);
+
+        // Assert
+        assertEquals(0, days);
+        verifyNoInteractions(snapshotRepository, transactionTemplate);
+        verify(progressRepository).save(argThat(progress -> THROUGH.equals(progress.getSnapshotThrough())));
+    }
+
+    @Test
+    void backfill_AlreadyUpToDate_DoesNothing() {
+        // Arrange
+        when(progressRepository.findById(100L)).thenReturn(Optional.of(
+                new StockSnapshotProgress(100L, THROUGH, null)));
+
+        // Act
+        int days = stockSnapshotJob.backfill(100L, THROUGH);
+
+        // Assert
+        assertEquals(0, days);
+        verifyNoInteractions(snapshotRepository);
+        verify(progressRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,147 @@
+package com.rms.service.menu;
+
+import com.rms.dto.menu.MenuAvailabilityResponse;
+import com.rms.exception.ResourceNotFoundException;
+import com.rms.repository.InventoryItemRepository;
+import com.rms.repository.MenuItemRepository;
+import com.rms.repository.RestaurantRepository;
+import com.rms.service.inventory.RecipeGraph;
+import com.rms.service.inventory.StockReservationLedger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MenuAvailabilityServiceTest {
+
+    @Mock
+    private RecipeGraph recipeGraph;
+
+    @Mock
+    private InventoryItemRepository inventoryRepository;
+
+    @Mock
+    private MenuItemRepository menuItemRepository;
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    private StockReservationLedger ledger;
+    private MenuAvailabilityService menuAvailabilityService;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new StockReservationLedger(inventoryRepository);
+        ReflectionTestUtils.setField(ledger, "reservationTtlMinutes", 30L);
+        menuAvailabilityService = new MenuAvailabilityService(recipeGraph, ledger, inventoryRepository,
+                menuItemRepository, restaurantRepository, new SyncTaskExecutor());
+        ReflectionTestUtils.setField(menuAvailabilityService, "idleMinutes", 60L);
+        lenient().when(restaurantRepository.existsByIdAndIsActiveTrue(100L)).thenReturn(true);
+        lenient().when(menuItemRepository.findUnavailableIdsByRestaurantId(100L)).thenReturn(List.of(3L));
+
+        // Burger: 1 bun + 0.2 beef (+ optional sauce); Fries: 0.3 potato; Soda: untracked
+        lenient().when(recipeGraph.forRestaurant(100L)).thenReturn(RecipeGraph.Recipes.build(List.of(
+                row(1L, 10L, "1", false),
+                row(1L, 11L, "0.2", false),
+                row(1L, 12L, "0.05", true),
+                row(2L, 13L, "0.3", false))));
+        lenient().when(inventoryRepository.findCurrentQuantitiesByIdIn(anyList())).thenReturn(List.of(
+                new Object[]{10L, new BigDecimal("40")},
+                new Object[]{11L, new BigDecimal("5.000")},
+                new Object[]{13L, new BigDecimal("0.2")}));
+    }
+
+    @Test
+    void getAvailability_MinPortionsOverRequiredIngredients() {
+        // Act
+        MenuAvailabilityResponse response = menuAvailabilityService.getAvailability(100L);
+
+        // Assert: burger limited by beef (5 / 0.2), fries sold out, optional sauce ignored
+        assertEquals(Map.of(1L, 25, 2L, 0), response.getItems());
+        assertEquals(1L, response.getVersion());
+    }
+
+    @Test
+    void refresh_RecomputesOnlyAffectedItemsAndBumpsVersion() {
+        // Arrange
+        menuAvailabilityService.getAvailability(100L);
+        ledger.reserve("ORD1", 11L, new BigDecimal("1.0"), () -> BigDecimal.ZERO);
+
+        // Act
+        menuAvailabilityService.refresh(List.of(11L));
+        MenuAvailabilityResponse response = menuAvailabilityService.getAvailability(100L);
+
+        // Assert: 4kg beef left -> 20 burgers; cached recipes were not rebuilt
+        assertEquals(Map.of(1L, 20, 2L, 0), response.getItems());
+        assertEquals(2L, response.getVersion());
+        verify(inventoryRepository, times(1)).findCurrentQuantitiesByIdIn(anyList());
+    }
+
+    @Test
+    void refresh_UnchangedOrUnknownItems_KeepsVersion() {
+        // Arrange
+        menuAvailabilityService.getAvailability(100L);
+
+        // Act
+        menuAvailabilityService.refresh(List.of(10L, 999L));
+        MenuAvailabilityResponse response = menuAvailabilityService.getAvailability(100L);
+
+        // Assert
+        assertEquals(1L, response.getVersion());
+    }
+
+    @Test
+    void publishToggleAfterCommit_LoadedView_BumpsVersionAndUpdatesSnapshot() {
+        // Arrange
+        menuAvailabilityService.subscribe(100L);
+
+        // Act
+        menuAvailabilityService.publishToggleAfterCommit(100L, List.of(1L, 2L), false);
+        menuAvailabilityService.publishToggleAfterCommit(100L, List.of(3L), true);
+        menuAvailabilityService.publishToggleAfterCommit(200L, List.of(9L), false);
+        MenuAvailabilityResponse response = menuAvailabilityService.getAvailability(100L);
+
+        // Assert: each toggle took a version; restaurant 200 has no view
+        assertEquals(3L, response.getVersion());
+        assertEquals(List.of(1L, 2L), response.getUnavailableItemIds());
+        verify(menuItemRepository, times(1)).findUnavailableIdsByRestaurantId(100L);
+        verify(recipeGraph, never()).forRestaurant(200L);
+    }
+
+    @Test
+    void getAvailability_UnknownRestaurant_ThrowsWithoutBuildingView() {
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> menuAvailabilityService.getAvailability(200L));
+        verify(recipeGraph, never()).forRestaurant(200L);
+    }
+
+    @Test
+    void evictIdle_ViewStillStreamed_IsKept() {
+        // Arrange
+        menuAvailabilityService.subscribe(100L);
+        ReflectionTestUtils.setField(menuAvailabilityService, "idleMinutes", 0L);
+
+        // Act
+        menuAvailabilityService.evictIdle();
+        menuAvailabilityService.getAvailability(100L);
+
+        // Assert: the view was not rebuilt
+        verify(restaurantRepository, times(1)).existsByIdAndIsActiveTrue(100L);
+    }
+
+    private Object[] row(Long menuItemId, Long inventoryItemId, String quantity, boolean optional) {
+        return new Object[]{menuItemId, inventoryItemId, new BigDecimal(quantity), optional};
+    }
+}
@@ -0,0 +1,181 @@
+package com.rms.service.menu;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rms.dto.menu.MenuItemResponse;
+import com.rms.entity.MenuItem;
+import com.rms.exception.ResourceNotFoundException;
+import com.rms.repository.MenuCategoryRepository;
+import com.rms.repository.MenuItemRepository;
+import com.rms.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MenuReadModelTest {
+
+    @Mock
+    private MenuCategoryRepository categoryRepository;
+
+    @Mock
+    private MenuItemRepository menuItemRepository;
+
+    @Mock
+    private MenuResponseMapper responseMapper;
+
+    @Mock
+    private PriceScheduleIndex priceScheduleIndex;
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<Runnable> queued = new ArrayList<>();
+    private MenuReadModel menuReadModel;
+
+    @BeforeEach
+    void setUp() {
+        menuReadModel = new MenuReadModel(categoryRepository, menuItemRepository, responseMapper,
+                priceScheduleIndex, restaurantRepository, objectMapper, queued::add, transactionManager);
+        ReflectionTestUtils.setField(menuReadModel, "maxAgeSeconds", 300L);
+        lenient().when(restaurantRepository.existsByIdAndIsActiveTrue(100L)).thenReturn(true);
+        lenient().when(categoryRepository.findByRestaurantIdAndParentCategoryIsNullAndIsActiveTrueOrderByDisplayOrderAsc(100L))
+                .thenReturn(List.of());
+        lenient().when(responseMapper.mapToMenuItemResponse(any(), any())).thenAnswer(invocation -> {
+            MenuItem item = invocation.getArgument(0);
+            return MenuItemResponse.builder()
+                    .id(item.getId())
+                    .categoryId(7L)
+                    .name(item.getName())
+                    .isFeatured(item.getIsFeatured())
+                    .build();
+        });
+    }
+
+    @Test
+    void get_BuildsOnceAndServesPagesFromTheDocument() throws IOException {
+        // Arrange
+        when(menuItemRepository.findByRestaurantIdAndIsActiveTrueOrderByDisplayOrderAsc(100L))
+                .thenReturn(List.of(item(2L, "Fries", 1, false), item(1L, "Burger", 1, true)));
+
+        // Act
+        MenuReadModel.Document first = menuReadModel.get(100L);
+        MenuReadModel.Document second = menuReadModel.get(100L);
+
+        // Assert
+        assertSame(first, second);
+        assertFalse(first.isStale(300, LocalDateTime.now()));
+        assertTrue(first.getEtag().matches("\"[0-9a-f]{32}\""));
+        assertEquals(List.of("Burger", "Fries"), names(first.items(7L)));
+        assertEquals(List.of("Burger"), names(first.getFeaturedItems()));
+        assertEquals(List.of(), names(first.items(8L)));
+        verify(menuItemRepository, times(1)).findByRestaurantIdAndIsActiveTrueOrderByDisplayOrderAsc(100L);
+    }
+
+    @Test
+    void requestRebuild_CoalescesAndPublishesChangedMenu() {
+        // Arrange
+        when(menuItemRepository.findByRestaurantIdAndIsActiveTrueOrderByDisplayOrderAsc(100L))
+                .thenReturn(List.of(item(1L, "Burger", 1, false)))
+                .thenReturn(List.of(item(1L, "Cheeseburger", 1, false)));
+        MenuReadModel.Document before = menuReadModel.get(100L);
+
+        // Act
+        menuReadModel.requestRebuild(100L);
+        menuReadModel.requestRebuild(100L);
+        MenuReadModel.Document whileQueued = menuReadModel.get(100L);
+        queued.forEach(Runnable::run);
+        MenuReadModel.Document after = menuReadModel.get(100L);
+
+        // Assert
+        assertEquals(1, queued.size());
+        assertSame(before, whileQueued);
+        assertNotEquals(before.getEtag(), after.getEtag());
+    }
+
+    @Test
+    void requestRebuild_UnchangedMenu_KeepsDocument() {
+        // Arrange
+        when(menuItemRepository.findByRestaurantIdAndIsActiveTrueOrderByDisplayOrderAsc(100L))
+                .thenReturn(List.of(item(1L, "Burger", 1, false)));
+        MenuReadModel.Document before = menuReadModel.get(100L);
+
+        // Act
+        menuReadModel.requestRebuild(100L);
+        queued.forEach(Runnable::run);
+
+        // Assert: same bytes under the same ETag
+        assertSame(before, menuReadModel.get(100L));
+        verify(menuItemRepository, times(2)).findByRestaurantIdAndIsActiveTrueOrderByDisplayOrderAsc(100L);
+    }
+
+    @Test
+    void get_PastScheduledPriceChange_QueuesRebuild() {
+        // Arrange
+        when(menuItemRepository.findByRestaurantIdAndIsActiveTrueOrderByDisplayOrderAsc(100L))
+                .thenReturn(List.of(item(1L, "Burger", 1, false)));
+        when(priceScheduleIndex.nextChangeAfter(eq(100L), any())).thenReturn(LocalDateTime.now().minusSeconds(1));
+
+        // Act
+        MenuReadModel.Document document = menuReadModel.get(100L);
+        menuReadModel.get(100L);
+
+        // Assert
+        assertTrue(document.isStale(300, LocalDateTime.now()));
+        assertEquals(1, queued.size());
+    }
+
+    @Test
+    void requestRebuild_NeverRead_Skipped() {
+        // Act
+        menuReadModel.requestRebuild(100L);
+
+        // Assert
+        assertTrue(queued.isEmpty());
+        verifyNoInteractions(menuItemRepository);
+    }
+
+    @Test
+    void get_UnknownRestaurant_ThrowsWithoutBuilding() {
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> menuReadModel.get(200L));
+        menuReadModel.requestRebuild(200L);
+        assertTrue(queued.isEmpty());
+        verifyNoInteractions(menuItemRepository, categoryRepository);
+    }
+
+    private List<String> names(byte[] body) throws IOException {
+        List<String> names = new ArrayList<>();
+        for (JsonNode item : objectMapper.readTree(body).get("data")) {
+            names.add(item.get("name").asText());
+        }
+        return names;
+    }
+
+    private MenuItem item(Long id, String name, int displayOrder, boolean featured) {
+        return MenuItem.builder()
+                .id(id)
+                .name(name)
+                .displayOrder(displayOrder)
+                .isFeatured(featured)
+                .build();
+    }
+}
@@ -0,0 +1,161 @@
+package com.rms.service.menu;
+
+import com.rms.dto.menu.MenuSearchRequest;
+import com.rms.dto.menu.MenuSearchResponse;
+import com.rms.dto.menu.MenuSearchResponse.FacetCount;
+import com.rms.enums.ItemType;
+import com.rms.exception.ResourceNotFoundException;
+import com.rms.repository.MenuItemRepository;
+import com.rms.repository.RestaurantRepository;
+import com.rms.service.menu.event.MenuChange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MenuSearchIndexTest {
+
+    @Mock
+    private MenuItemRepository menuItemRepository;
+
+    @Mock
+    private PriceScheduleIndex priceScheduleIndex;
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    private MenuSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new MenuSearchIndex(menuItemRepository, priceScheduleIndex, restaurantRepository);
+        ReflectionTestUtils.setField(searchIndex, "ttlSeconds", 600L);
+        ReflectionTestUtils.setField(searchIndex, "idleMinutes", 60L);
+        lenient().when(restaurantRepository.existsByIdAndIsActiveTrue(100L)).thenReturn(true);
+        ReflectionTestUtils.setField(searchIndex, "priceBands", List.of(new BigDecimal("5"), new BigDecimal("10")));
+        lenient().when(menuItemRepository.findSearchRowsByRestaurantId(100L)).thenReturn(List.of(
+                row(1L, "Chicken Burger", "Grilled chicken, lettuce", 1L, "Burgers", "9.50", false, 1),
+                row(2L, "Veggie Burger", "Bean patty with crème fraîche", 1L, "Burgers", "8.00", true, 2),
+                row(3L, "Chicken Wings", "Six wings, spicy sauce", 2L, "Starters", "6.00", false, 1),
+                row(4L, "Lemonade", null, 3L, "Drinks", "3.00", true, 1)));
+        lenient().when(priceScheduleIndex.scheduledPrices(eq(100L), anyCollection(), any())).thenReturn(Map.of());
+    }
+
+    @Test
+    void search_PrefixAndTypoTolerant_NameMatchesFirst() {
+        // Act
+        MenuSearchResponse response = searchIndex.search(100L, query("chiken burg"));
+
+        // Assert
+        assertEquals(1, response.getTotal());
+        assertEquals("Chicken Burger", response.getItems().get(0).getName());
+        assertEquals(List.of(2L), ids(searchIndex.search(100L, query("CREME")))); // case and accents folded
+        assertEquals(List.of(1L, 3L), ids(searchIndex.search(100L, query("chicken"))));
+    }
+
+    @Test
+    void search_FacetsBeforeFiltersAndScheduledPrices() {
+        // Arrange: wings on happy hour
+        when(priceScheduleIndex.scheduledPrices(eq(100L), anyCollection(), any()))
+                .thenReturn(Map.of(3L, new BigDecimal("4.00")));
+        MenuSearchRequest request = query("");
+        request.setVegetarian(true);
+
+        // Act
+        MenuSearchResponse response = searchIndex.search(100L, request);
+
+        // Assert
+        assertEquals(List.of(4L, 2L), ids(response));
+        assertEquals(List.of("1:2", "3:1", "2:1"), counts(response.getFacets().getCategories()));
+        assertEquals(List.of("vegetarian:2"), counts(response.getFacets().getDietary()));
+        assertEquals(List.of("0-5:2", "5-10:2"), counts(response.getFacets().getPriceBands()));
+    }
+
+    @Test
+    void onMenuChanged_KnownItems_ReReadOnNextSearch() {
+        // Arrange
+        searchIndex.search(100L, query("lemonade"));
+        when(menuItemRepository.findSearchRowsByRestaurantIdAndIdIn(eq(100L), eq(Set.of(4L, 1L))))
+                .thenReturn(List.<Object[]>of(row(4L, "Pink Lemonade", null, 3L, "Drinks", "3.50", true, 1)));
+
+        // Act: lemonade renamed, chicken burger deactivated
+        searchIndex.onMenuChanged(new MenuChange(100L, Set.of(MenuChange.Scope.ITEMS), Set.of(4L, 1L)));
+
+        // Assert
+        assertEquals(List.of(4L), ids(searchIndex.search(100L, query("pink"))));
+        assertEquals(List.of(3L), ids(searchIndex.search(100L, query("chicken"))));
+        verify(menuItemRepository, times(1)).findSearchRowsByRestaurantId(100L);
+    }
+
+    @Test
+    void onMenuChanged_NotPerItem_Reloads() {
+        // Arrange
+        searchIndex.search(100L, query("burger"));
+
+        // Act
+        searchIndex.onMenuChanged(new MenuChange(100L, Set.of(MenuChange.Scope.CATEGORIES)));
+        searchIndex.search(100L, query("burger"));
+
+        // Assert
+        verify(menuItemRepository, times(2)).findSearchRowsByRestaurantId(100L);
+    }
+
+    @Test
+    void search_UnknownRestaurant_ThrowsWithoutLoading() {
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> searchIndex.search(200L, query("burger")));
+        verify(menuItemRepository, never()).findSearchRowsByRestaurantId(200L);
+    }
+
+    @Test
+    void evictIdle_DropsIndexesNotSearchedLately() {
+        // Arrange
+        searchIndex.search(100L, query("burger"));
+        ReflectionTestUtils.setField(searchIndex, "idleMinutes", 0L);
+
+        // Act
+        searchIndex.evictIdle();
+        searchIndex.search(100L, query("burger"));
+
+        // Assert
+        verify(menuItemRepository, times(2)).findSearchRowsByRestaurantId(100L);
+    }
+
+    @Test
+    void distance_CountsTranspositionAsOneEdit() {
+        // Act & Assert
+        assertEquals(1, MenuSearchIndex.distance("chikcen", "chicken", 2));
+        assertEquals(1, MenuSearchIndex.distance("chiken", "chicken", 2));
+        assertEquals(2, MenuSearchIndex.distance("brgr", "burger", 1)); // above max
+    }
+
+    private MenuSearchRequest query(String text) {
+        return MenuSearchRequest.builder().query(text).build();
+    }
+
+    private List<Long> ids(MenuSearchResponse response) {
+        return response.getItems().stream().map(MenuSearchResponse.Hit::getId).toList();
+    }
+
+    private List<String> counts(List<FacetCount> facets) {
+        return facets.stream().map(facet -> facet.getKey() + ":" + facet.getCount()).toList();
+    }
+
+    private Object[] row(Long id, String name, String description, Long categoryId, String categoryName,
+                         String price, boolean vegetarian, int displayOrder) {
+        return new Object[]{id, name, description, categoryId, categoryName, ItemType.FOOD, null,
+                new BigDecimal(price), null, vegetarian, false, false, false, false, false, true,
+                displayOrder, null};
+    }
+}
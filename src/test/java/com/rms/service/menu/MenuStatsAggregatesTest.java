@@ -0,0 +1,111 @@
+package com.rms.service.menu;
+
+import com.rms.dto.menu.MenuStatsResponse;
+import com.rms.repository.MenuCategoryRepository;
+import com.rms.repository.MenuItemRepository;
+import com.rms.service.menu.event.MenuChange;
+import com.rms.service.menu.event.MenuChange.Scope;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MenuStatsAggregatesTest {
+
+    @Mock
+    private MenuItemRepository menuItemRepository;
+
+    @Mock
+    private MenuCategoryRepository categoryRepository;
+
+    private MenuStatsAggregates statsAggregates;
+
+    @BeforeEach
+    void setUp() {
+        statsAggregates = new MenuStatsAggregates(menuItemRepository, categoryRepository);
+        ReflectionTestUtils.setField(statsAggregates, "idleMinutes", 60L);
+        when(menuItemRepository.findStatsRowsByRestaurantId(100L)).thenReturn(List.of(
+                row(1L, true, true, true, false, "10.00", 2, 5),
+                row(2L, true, false, false, true, "4.00", null, null),
+                row(3L, true, true, false, false, "7.00", 10, 5),
+                row(4L, false, true, true, false, "99.00", 1, 5)));
+        when(categoryRepository.countByRestaurantIdAndIsActiveTrue(100L)).thenReturn(3L);
+    }
+
+    @Test
+    void stats_CountsFromOneProjection() {
+        // Act
+        MenuStatsResponse stats = statsAggregates.stats(100L);
+
+        // Assert
+        assertEquals(3L, stats.getTotalCategories());
+        assertEquals(3L, stats.getActiveItems());
+        assertEquals(1L, stats.getInactiveItems());
+        assertEquals(1L, stats.getUnavailableItems());
+        assertEquals(2L, stats.getLowStockItems());
+        assertEquals(1L, stats.getFeaturedItems());
+        assertEquals(1L, stats.getBestSellerItems());
+        assertEquals(new BigDecimal("7.00"), stats.getAveragePrice());
+        assertEquals(new BigDecimal("4.00"), stats.getLowestPrice());
+        assertEquals(new BigDecimal("10.00"), stats.getHighestPrice());
+    }
+
+    @Test
+    void onMenuChanged_KnownItems_SwapsTheirContributions() {
+        // Arrange
+        statsAggregates.stats(100L);
+        when(menuItemRepository.findStatsRowsByRestaurantIdAndIdIn(100L, Set.of(2L, 5L))).thenReturn(List.of(
+                row(2L, true, true, false, true, "4.00", null, null),
+                row(5L, true, true, false, false, "12.00", null, null)));
+
+        // Act: item 2 back on, item 5 created in a new category
+        statsAggregates.onMenuChanged(new MenuChange(100L, Set.of(Scope.ITEMS, Scope.CATEGORIES), Set.of(2L, 5L)));
+        when(categoryRepository.countByRestaurantIdAndIsActiveTrue(100L)).thenReturn(4L);
+        MenuStatsResponse stats = statsAggregates.stats(100L);
+
+        // Assert
+        assertEquals(4L, stats.getTotalCategories());
+        assertEquals(4L, stats.getActiveItems());
+        assertEquals(0L, stats.getUnavailableItems());
+        assertEquals(new BigDecimal("8.25"), stats.getAveragePrice());
+        assertEquals(new BigDecimal("12.00"), stats.getHighestPrice());
+        verify(menuItemRepository, times(1)).findStatsRowsByRestaurantId(100L);
+    }
+
+    @Test
+    void checkConsistency_Drifted_ReplacesAggregate() {
+        // Arrange: item 1 deactivated by SQL, no change published
+        statsAggregates.stats(100L);
+        when(menuItemRepository.findStatsRowsByRestaurantId(100L)).thenReturn(List.of(
+                row(1L, false, true, true, false, "10.00", 2, 5),
+                row(2L, true, false, false, true, "4.00", null, null),
+                row(3L, true, true, false, false, "7.00", 10, 5),
+                row(4L, false, true, true, false, "99.00", 1, 5)));
+
+        // Act
+        statsAggregates.checkConsistency();
+        MenuStatsResponse stats = statsAggregates.stats(100L);
+
+        // Assert
+        assertEquals(2L, stats.getActiveItems());
+        assertEquals(0L, stats.getFeaturedItems());
+        assertEquals(new BigDecimal("7.00"), stats.getHighestPrice());
+        verify(menuItemRepository, times(2)).findStatsRowsByRestaurantId(100L);
+    }
+
+    private Object[] row(Long id, boolean active, boolean available, boolean featured, boolean bestSeller,
+                         String price, Integer stockQuantity, Integer lowStockThreshold) {
+        return new Object[]{id, active, available, featured, bestSeller, new BigDecimal(price),
+                stockQuantity, lowStockThreshold};
+    }
+}
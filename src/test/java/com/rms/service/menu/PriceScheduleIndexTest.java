@@ -0,0 +1,101 @@
+package com.rms.service.menu;
+
+import com.rms.repository.PriceScheduleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceScheduleIndexTest {
+
+    // A Monday
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2024, 6, 3, 0, 0);
+
+    @Mock
+    private PriceScheduleRepository priceScheduleRepository;
+
+    private PriceScheduleIndex priceScheduleIndex;
+
+    @BeforeEach
+    void setUp() {
+        priceScheduleIndex = new PriceScheduleIndex(priceScheduleRepository);
+        ReflectionTestUtils.setField(priceScheduleIndex, "ttlSeconds", 300L);
+        lenient().when(priceScheduleRepository.findActiveScheduleRowsByRestaurantId(100L)).thenReturn(List.of(
+                // Item 1: happy hour every day, a Monday lunch special on top
+                row(1L, 1L, "6.00", null, "17:00", "19:00", null, null),
+                row(2L, 1L, "7.50", 1, "12:00", "14:00", null, null),
+                // Item 2: June promotion all day, overlapping an older evening price
+                row(3L, 2L, "9.00", null, "18:00", "23:00", null, null),
+                row(4L, 2L, "8.00", null, null, null, MONDAY.plusDays(2), MONDAY.plusDays(10)),
+                // Never matches: window ends before it starts
+                row(5L, 3L, "1.00", null, "22:00", "02:00", null, null)));
+    }
+
+    @Test
+    void scheduledPrice_NewestMatchInWindowIncludingEnds() {
+        // Act & Assert
+        assertEquals(new BigDecimal("7.50"), price(1L, MONDAY.withHour(12)));
+        assertEquals(new BigDecimal("7.50"), price(1L, MONDAY.with(LocalTime.of(14, 0))));
+        assertNull(price(1L, MONDAY.with(LocalTime.of(14, 0, 1))));
+        assertNull(price(1L, MONDAY.plusDays(1).withHour(13))); // Tuesday: no lunch special
+        assertEquals(new BigDecimal("6.00"), price(1L, MONDAY.plusDays(1).withHour(18)));
+        assertEquals(new BigDecimal("9.00"), price(2L, MONDAY.withHour(20)));
+        assertEquals(new BigDecimal("8.00"), price(2L, MONDAY.plusDays(3).withHour(20))); // newer promotion
+        assertNull(price(3L, MONDAY.withHour(23)));
+        verify(priceScheduleRepository, times(1)).findActiveScheduleRowsByRestaurantId(100L);
+    }
+
+    @Test
+    void scheduledPrices_LeavesOutItemsWithoutSchedule() {
+        // Act
+        Map<Long, BigDecimal> prices = priceScheduleIndex.scheduledPrices(100L, List.of(1L, 2L, 99L),
+                MONDAY.withHour(18));
+
+        // Assert
+        assertEquals(Map.of(1L, new BigDecimal("6.00"), 2L, new BigDecimal("9.00")), prices);
+    }
+
+    @Test
+    void nextChangeAfter_NextWindowBoundaryOrDateBoundary() {
+        // Act & Assert
+        assertEquals(MONDAY.withHour(12), priceScheduleIndex.nextChangeAfter(100L, MONDAY.withHour(9)));
+        assertEquals(MONDAY.with(LocalTime.of(14, 0, 1)),
+                priceScheduleIndex.nextChangeAfter(100L, MONDAY.withHour(12)));
+        assertEquals(MONDAY.plusDays(1), priceScheduleIndex.nextChangeAfter(100L, MONDAY.withHour(23).withMinute(30)));
+        assertEquals(MONDAY.plusDays(2), priceScheduleIndex.nextChangeAfter(100L, MONDAY.plusDays(1).withHour(23)
+                .withMinute(30)));
+    }
+
+    @Test
+    void nextChangeAfter_NoSchedules_Null() {
+        // Arrange
+        when(priceScheduleRepository.findActiveScheduleRowsByRestaurantId(200L)).thenReturn(List.of());
+
+        // Act & Assert
+        assertNull(priceScheduleIndex.nextChangeAfter(200L, MONDAY));
+    }
+
+    private BigDecimal price(Long menuItemId, LocalDateTime at) {
+        return priceScheduleIndex.scheduledPrice(100L, menuItemId, at);
+    }
+
+    private Object[] row(Long id, Long menuItemId, String price, Integer dayOfWeek, String startTime,
+                         String endTime, LocalDateTime startDate, LocalDateTime endDate) {
+        return new Object[]{id, menuItemId, new BigDecimal(price), dayOfWeek,
+                startTime != null ? LocalTime.parse(startTime) : null,
+                endTime != null ? LocalTime.parse(endTime) : null,
+                startDate, endDate};
+    }
+}
@@ -0,0 +1,108 @@
+package com.rms.service.menu.event;
+
+import com.rms.service.menu.event.MenuChange.Scope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MenuInvalidationBusTest {
+
+    private final List<MenuChange> delivered = new ArrayList<>();
+    private MenuInvalidationBus bus;
+
+    @BeforeEach
+    void setUp() {
+        bus = new MenuInvalidationBus(List.of(delivered::add));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void publish_InTransaction_MergedPerRestaurantAndDeliveredAfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        bus.publish(100L, Scope.ITEMS);
+        bus.publish(100L, Scope.CATEGORIES);
+        bus.publish(200L, Scope.ITEMS);
+        assertTrue(delivered.isEmpty());
+        complete(true);
+
+        // Assert
+        assertEquals(List.of(
+                new MenuChange(100L, Set.of(Scope.ITEMS, Scope.CATEGORIES)),
+                new MenuChange(200L, Set.of(Scope.ITEMS))), delivered);
+        assertFalse(TransactionSynchronizationManager.hasResource(bus));
+    }
+
+    @Test
+    void publish_ItemIds_UnionUnlessAChangeIsNotPerItem() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        bus.publish(100L, List.of(1L), Scope.ITEMS);
+        bus.publish(100L, List.of(2L), Scope.ITEMS);
+        bus.publish(200L, List.of(3L), Scope.ITEMS);
+        bus.publish(200L, Scope.CATEGORIES);
+        complete(true);
+
+        // Assert
+        assertEquals(List.of(
+                new MenuChange(100L, Set.of(Scope.ITEMS), Set.of(1L, 2L)),
+                new MenuChange(200L, Set.of(Scope.ITEMS, Scope.CATEGORIES), Set.of())), delivered);
+    }
+
+    @Test
+    void publish_RolledBack_DeliversNothing() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        bus.publish(100L, Scope.ITEMS);
+        complete(false);
+
+        // Assert
+        assertTrue(delivered.isEmpty());
+        assertFalse(TransactionSynchronizationManager.hasResource(bus));
+    }
+
+    @Test
+    void publish_ListenerFails_OthersStillNotified() {
+        // Arrange
+        MenuChangeListener failing = change -> {
+            throw new IllegalStateException("boom");
+        };
+        bus = new MenuInvalidationBus(List.of(failing, delivered::add));
+
+        // Act
+        bus.publish(100L, Scope.ITEMS);
+
+        // Assert
+        assertEquals(List.of(new MenuChange(100L, Set.of(Scope.ITEMS))), delivered);
+    }
+
+    private void complete(boolean committed) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (committed) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(committed
+                ? TransactionSynchronization.STATUS_COMMITTED
+                : TransactionSynchronization.STATUS_ROLLED_BACK));
+    }
+}
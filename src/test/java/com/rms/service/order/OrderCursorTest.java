@@ -0,0 +1,45 @@
+package com.rms.service.order;
+
+import com.rms.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderCursorTest {
+
+    @Test
+    void encode_Decode_RoundTripsCreatedAtAndId() {
+        // Arrange
+        OrderCursor cursor = new OrderCursor(LocalDateTime.of(2024, 6, 3, 12, 30, 15, 123_456_000), 987654321L);
+
+        // Act
+        String token = cursor.encode();
+
+        // Assert
+        assertFalse(token.contains("="));
+        assertEquals(cursor, OrderCursor.decode(token, OrderCursor.NEWEST));
+    }
+
+    @Test
+    void decode_MissingToken_ReturnsStart() {
+        assertSame(OrderCursor.NEWEST, OrderCursor.decode(null, OrderCursor.NEWEST));
+        assertSame(OrderCursor.OLDEST, OrderCursor.decode(" ", OrderCursor.OLDEST));
+    }
+
+    @Test
+    void decode_TamperedToken_ThrowsBadRequest() {
+        assertThrows(BadRequestException.class, () -> OrderCursor.decode("%%%", OrderCursor.NEWEST));
+        assertThrows(BadRequestException.class, () -> OrderCursor.decode(encode("no-separator"), OrderCursor.NEWEST));
+        assertThrows(BadRequestException.class, () -> OrderCursor.decode(encode("yesterday|1"), OrderCursor.NEWEST));
+        assertThrows(BadRequestException.class,
+                () -> OrderCursor.decode(encode("2024-06-03T12:30|abc"), OrderCursor.NEWEST));
+    }
+
+    private String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
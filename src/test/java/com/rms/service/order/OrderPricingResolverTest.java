@@ -0,0 +1,153 @@
+package com.rms.service.order;
+
+import com.rms.dto.order.OrderDTO.OrderItemRequest;
+import com.rms.entity.ItemVariant;
+import com.rms.entity.MenuItem;
+import com.rms.entity.ModifierOption;
+import com.rms.exception.BadRequestException;
+import com.rms.exception.ResourceNotFoundException;
+import com.rms.repository.ItemVariantRepository;
+import com.rms.repository.MenuItemRepository;
+import com.rms.repository.ModifierOptionRepository;
+import com.rms.service.menu.PriceScheduleIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderPricingResolverTest {
+
+    private static final Long RESTAURANT_ID = 100L;
+    private static final LocalDateTime PRICED_AT = LocalDateTime.of(2024, 6, 3, 12, 30);
+
+    @Mock
+    private MenuItemRepository menuItemRepository;
+
+    @Mock
+    private ItemVariantRepository variantRepository;
+
+    @Mock
+    private ModifierOptionRepository modifierOptionRepository;
+
+    @Mock
+    private PriceScheduleIndex priceScheduleIndex;
+
+    @InjectMocks
+    private OrderPricingResolver resolver;
+
+    @Test
+    void resolve_ManyLines_LoadsEachTableOnce() {
+        // Arrange: 15 lines over 3 menu items
+        List<OrderItemRequest> lines = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            lines.add(line((long) (i % 3) + 1, List.of(10L)));
+        }
+        when(menuItemRepository.findByIdInAndRestaurantId(anyCollection(), eq(RESTAURANT_ID)))
+                .thenReturn(List.of(menuItem(1L, "10.00"), menuItem(2L, "12.00"), menuItem(3L, "8.00")));
+        when(modifierOptionRepository.findByIdInAndRestaurantId(anyCollection(), eq(RESTAURANT_ID)))
+                .thenReturn(List.of(modifier(10L, "1.50")));
+        when(priceScheduleIndex.scheduledPrices(eq(RESTAURANT_ID), anyCollection(), eq(PRICED_AT)))
+                .thenReturn(Map.of());
+
+        // Act
+        OrderPricingContext pricing = resolver.resolve(RESTAURANT_ID, lines, PRICED_AT);
+
+        // Assert
+        assertEquals(new BigDecimal("12.00"), pricing.getUnitPrice(2L, null));
+        assertEquals("Extra cheese", pricing.getModifier(10L).getName());
+        verify(menuItemRepository, times(1)).findByIdInAndRestaurantId(anyCollection(), anyLong());
+        verify(modifierOptionRepository, times(1)).findByIdInAndRestaurantId(anyCollection(), anyLong());
+        verify(priceScheduleIndex, times(1)).scheduledPrices(anyLong(), anyCollection(), any());
+        verifyNoInteractions(variantRepository);
+    }
+
+    @Test
+    void resolve_ScheduleAndVariant_AppliesScheduledPriceAndAdjustment() {
+        // Arrange
+        MenuItem burger = menuItem(1L, "10.00");
+        OrderItemRequest request = line(1L, null);
+        request.setVariantId(5L);
+
+        ItemVariant large = ItemVariant.builder()
+                .id(5L).menuItem(burger).name("Large")
+                .priceAdjustment(new BigDecimal("3.00")).isAvailable(true).build();
+
+        when(menuItemRepository.findByIdInAndRestaurantId(anyCollection(), eq(RESTAURANT_ID)))
+                .thenReturn(List.of(burger));
+        when(variantRepository.findByIdInAndMenuItemIdIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of(large));
+        when(priceScheduleIndex.scheduledPrices(eq(RESTAURANT_ID), anyCollection(), eq(PRICED_AT)))
+                .thenReturn(Map.of(1L, new BigDecimal("7.00")));
+
+        // Act
+        OrderPricingContext pricing = resolver.resolve(RESTAURANT_ID, List.of(request), PRICED_AT);
+
+        // Assert
+        assertEquals(new BigDecimal("10.00"), pricing.getUnitPrice(1L, 5L));
+        assertEquals("Burger 1 (Large)", pricing.getItemName(1L, 5L));
+    }
+
+    @Test
+    void resolve_MenuItemFromOtherRestaurant_ThrowsNotFound() {
+        // Arrange
+        when(menuItemRepository.findByIdInAndRestaurantId(anyCollection(), eq(RESTAURANT_ID)))
+                .thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class,
+                () -> resolver.resolve(RESTAURANT_ID, List.of(line(1L, null)), PRICED_AT));
+    }
+
+    @Test
+    void resolve_UnavailableMenuItem_ThrowsBadRequest() {
+        // Arrange
+        MenuItem soldOut = menuItem(1L, "10.00");
+        soldOut.setIsAvailable(false);
+        when(menuItemRepository.findByIdInAndRestaurantId(anyCollection(), eq(RESTAURANT_ID)))
+                .thenReturn(List.of(soldOut));
+
+        // Act & Assert
+        assertThrows(BadRequestException.class,
+                () -> resolver.resolve(RESTAURANT_ID, List.of(line(1L, null)), PRICED_AT));
+    }
+
+    private OrderItemRequest line(Long menuItemId, List<Long> modifierIds) {
+        OrderItemRequest request = new OrderItemRequest();
+        request.setMenuItemId(menuItemId);
+        request.setQuantity(1);
+        request.setModifierIds(modifierIds);
+        return request;
+    }
+
+    private MenuItem menuItem(Long id, String basePrice) {
+        return MenuItem.builder()
+                .id(id)
+                .restaurantId(RESTAURANT_ID)
+                .name("Burger " + id)
+                .basePrice(new BigDecimal(basePrice))
+                .isActive(true)
+                .isAvailable(true)
+                .build();
+    }
+
+    private ModifierOption modifier(Long id, String priceAdjustment) {
+        return ModifierOption.builder()
+                .id(id)
+                .name("Extra cheese")
+                .priceAdjustment(new BigDecimal(priceAdjustment))
+                .isAvailable(true)
+                .build();
+    }
+}
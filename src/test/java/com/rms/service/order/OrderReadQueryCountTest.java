@@ -0,0 +1,177 @@
+package com.rms.service.order;
+
+import com.rms.dto.order.OrderDTO.OrderResponse;
+import com.rms.dto.order.OrderDTO.OrderSummaryResponse;
+import com.rms.entity.*;
+import com.rms.security.UserPrincipal;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the order read model against lazy-load N+1: the statement count of the
+ * detail and list endpoints must not depend on item or modifier count.
+ * Background pollers are pushed out so they do not touch the shared statistics.
+ */
+@SpringBootTest(properties = {
+        "app.orders.events.poll-interval-ms=3600000",
+        "app.inventory.reservation.sweep-interval-ms=3600000",
+        "app.inventory.reservation.reconcile-interval-ms=3600000",
+        "app.display.refresh-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+@Transactional
+class OrderReadQueryCountTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Restaurant restaurant;
+    private User customer;
+    private MenuItem menuItem;
+    private UserPrincipal admin;
+    private int sequence;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        restaurant = Restaurant.builder()
+                .restaurantCode("QC" + System.nanoTime() % 1_000_000_000L)
+                .name("Query Count Bistro")
+                .email("qc" + System.nanoTime() + "@test.com")
+                .build();
+        entityManager.persist(restaurant);
+
+        customer = User.builder()
+                .restaurantId(restaurant.getId())
+                .fullName("Query Count Customer")
+                .email("customer" + System.nanoTime() + "@test.com")
+                .password("password")
+                .build();
+        entityManager.persist(customer);
+
+        MenuCategory category = MenuCategory.builder()
+                .restaurantId(restaurant.getId())
+                .name("Mains")
+                .build();
+        entityManager.persist(category);
+
+        menuItem = MenuItem.builder()
+                .restaurantId(restaurant.getId())
+                .category(category)
+                .sku("QC-1")
+                .name("Burger")
+                .basePrice(new BigDecimal("10.00"))
+                .build();
+        entityManager.persist(menuItem);
+
+        admin = new UserPrincipal(customer.getId() + 1_000_000, "admin@test.com", "password",
+                restaurant.getId(), List.of(new SimpleGrantedAuthority("ROLE_RESTAURANT_ADMIN")), true);
+    }
+
+    @Test
+    void getOrderById_StatementCountIndependentOfItemAndModifierCount() {
+        // Arrange
+        Long smallOrderId = persistOrder(1, 0);
+        Long largeOrderId = persistOrder(12, 4);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        long smallStatements = countStatements(() -> orderService.getOrderById(smallOrderId, admin));
+        entityManager.clear();
+        AtomicReference<OrderResponse> large = new AtomicReference<>();
+        long largeStatements = countStatements(() -> large.set(orderService.getOrderById(largeOrderId, admin)));
+
+        // Assert: order row + one JOIN FETCH for items and modifiers
+        assertEquals(2, smallStatements);
+        assertEquals(smallStatements, largeStatements);
+        assertEquals(12, large.get().getItems().size());
+        assertEquals(4, large.get().getItems().get(0).getModifiers().size());
+    }
+
+    @Test
+    void getOrders_StatementCountIndependentOfPageContents() {
+        // Arrange
+        for (int i = 0; i < 10; i++) {
+            persistOrder(i + 1, 3);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        AtomicReference<Page<OrderSummaryResponse>> page = new AtomicReference<>();
+        long statements = countStatements(() ->
+                page.set(orderService.getOrders(admin, null, null, PageRequest.of(0, 20))));
+
+        // Assert: page query + one grouped item count (no COUNT(*) for a short first page)
+        assertEquals(2, statements);
+        assertEquals(10, page.get().getContent().size());
+        assertTrue(page.get().getContent().stream().allMatch(o -> o.getItemCount() > 0));
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        assertEquals(0, statistics.getCollectionFetchCount(), "lazy collection loads");
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Long persistOrder(int itemCount, int modifiersPerItem) {
+        Order order = new Order();
+        order.setRestaurantId(restaurant.getId());
+        order.setCustomerId(customer.getId());
+        order.setOrderNumber("QC" + System.nanoTime() % 1_000_000_000_000L + sequence++);
+        order.setOrderType(Order.OrderType.TAKEAWAY);
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setSubtotal(BigDecimal.ZERO);
+        order.setTaxAmount(BigDecimal.ZERO);
+        order.setTotalAmount(BigDecimal.ZERO);
+
+        for (int i = 0; i < itemCount; i++) {
+            OrderItem item = new OrderItem();
+            item.setMenuItemId(menuItem.getId());
+            item.setItemName(menuItem.getName());
+            item.setQuantity(1);
+            item.setUnitPrice(menuItem.getBasePrice());
+            for (int m = 0; m < modifiersPerItem; m++) {
+                OrderItemModifier modifier = new OrderItemModifier();
+                modifier.setModifierId((long) m + 1);
+                modifier.setModifierName("Extra " + m);
+                modifier.setPrice(new BigDecimal("0.50"));
+                item.addModifier(modifier);
+            }
+            item.calculateSubtotal();
+            order.addOrderItem(item);
+        }
+
+        entityManager.persist(order);
+        return order.getId();
+    }
+}
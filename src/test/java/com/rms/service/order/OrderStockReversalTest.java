@@ -0,0 +1,180 @@
+package com.rms.service.order;
+
+import com.rms.dto.order.OrderDTO.CancelOrderRequest;
+import com.rms.dto.order.OrderDTO.UpdateOrderStatusRequest;
+import com.rms.entity.*;
+import com.rms.security.UserPrincipal;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cancelling a confirmed order puts its deducted stock back: the item total, the lots it
+ * was drawn from, and an ORDER_REVERSAL row per item that nets out the deduction.
+ */
+@SpringBootTest(properties = {
+        "app.orders.events.poll-interval-ms=3600000",
+        "app.inventory.reservation.sweep-interval-ms=3600000",
+        "app.inventory.reservation.reconcile-interval-ms=3600000",
+        "app.display.refresh-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+@Transactional
+class OrderStockReversalTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private InventoryItem tomatoes;
+    private InventoryLot earlyLot;
+    private InventoryLot lateLot;
+    private Order order;
+    private UserPrincipal admin;
+
+    @BeforeEach
+    void setUp() {
+        Restaurant restaurant = Restaurant.builder()
+                .restaurantCode("SR" + System.nanoTime() % 1_000_000_000L)
+                .name("Reversal Bistro")
+                .email("sr" + System.nanoTime() + "@test.com")
+                .build();
+        entityManager.persist(restaurant);
+
+        User staff = User.builder()
+                .restaurantId(restaurant.getId())
+                .fullName("Reversal Admin")
+                .email("admin" + System.nanoTime() + "@test.com")
+                .password("password")
+                .build();
+        entityManager.persist(staff);
+
+        MenuCategory category = MenuCategory.builder()
+                .restaurantId(restaurant.getId())
+                .name("Salads")
+                .build();
+        entityManager.persist(category);
+
+        MenuItem salad = MenuItem.builder()
+                .restaurantId(restaurant.getId())
+                .category(category)
+                .sku("SR-1")
+                .name("Tomato Salad")
+                .basePrice(new BigDecimal("8.00"))
+                .build();
+        entityManager.persist(salad);
+
+        tomatoes = new InventoryItem();
+        tomatoes.setRestaurantId(restaurant.getId());
+        tomatoes.setItemCode("TOMATO-SR");
+        tomatoes.setName("Tomatoes");
+        tomatoes.setCategory(InventoryItem.InventoryCategory.VEGETABLES);
+        tomatoes.setUnit(InventoryItem.Unit.KG);
+        tomatoes.setCurrentQuantity(new BigDecimal("5.000"));
+        tomatoes.setMinimumQuantity(new BigDecimal("1.000"));
+        tomatoes.setCostPerUnit(new BigDecimal("2.00"));
+        tomatoes.updateStatus();
+        entityManager.persist(tomatoes);
+
+        earlyLot = persistLot(new BigDecimal("1.000"), LocalDate.now().plusDays(2));
+        lateLot = persistLot(new BigDecimal("4.000"), LocalDate.now().plusDays(9));
+
+        MenuItemInventory link = new MenuItemInventory();
+        link.setMenuItem(salad);
+        link.setInventoryItem(tomatoes);
+        link.setQuantityRequired(new BigDecimal("0.750"));
+        entityManager.persist(link);
+
+        order = new Order();
+        order.setRestaurantId(restaurant.getId());
+        order.setCustomerId(staff.getId());
+        order.setOrderNumber("SR" + System.nanoTime() % 1_000_000_000_000L);
+        order.setOrderType(Order.OrderType.TAKEAWAY);
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setSubtotal(BigDecimal.ZERO);
+        order.setTaxAmount(BigDecimal.ZERO);
+        order.setTotalAmount(BigDecimal.ZERO);
+        OrderItem item = new OrderItem();
+        item.setMenuItemId(salad.getId());
+        item.setItemName(salad.getName());
+        item.setQuantity(2);
+        item.setUnitPrice(salad.getBasePrice());
+        item.calculateSubtotal();
+        order.addOrderItem(item);
+        entityManager.persist(order);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        admin = new UserPrincipal(staff.getId(), staff.getEmail(), "password",
+                restaurant.getId(), List.of(new SimpleGrantedAuthority("ROLE_RESTAURANT_ADMIN")), true);
+    }
+
+    @Test
+    void cancelOrder_AfterConfirmation_RestoresItemAndLotQuantities() {
+        // Arrange
+        UpdateOrderStatusRequest confirm = new UpdateOrderStatusRequest();
+        confirm.setStatus(Order.OrderStatus.CONFIRMED);
+        orderService.updateOrderStatus(order.getId(), confirm, admin);
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals(0, new BigDecimal("3.500").compareTo(itemQuantity()), "deducted on confirmation");
+        assertEquals(0, BigDecimal.ZERO.compareTo(lotQuantity(earlyLot)), "earliest lot drawn first");
+
+        CancelOrderRequest cancel = new CancelOrderRequest();
+        cancel.setReason("Kitchen closed");
+
+        // Act
+        orderService.cancelOrder(order.getId(), cancel, admin);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        assertEquals(0, new BigDecimal("5.000").compareTo(itemQuantity()));
+        assertEquals(0, new BigDecimal("1.000").compareTo(lotQuantity(earlyLot)));
+        assertEquals(0, new BigDecimal("4.000").compareTo(lotQuantity(lateLot)));
+        BigDecimal net = jdbcTemplate.queryForObject(
+                "SELECT SUM(quantity) FROM stock_transactions WHERE order_id = ?", BigDecimal.class, order.getId());
+        assertEquals(0, BigDecimal.ZERO.compareTo(net));
+    }
+
+    private InventoryLot persistLot(BigDecimal quantity, LocalDate expiryDate) {
+        InventoryLot lot = new InventoryLot();
+        lot.setInventoryItemId(tomatoes.getId());
+        lot.setRestaurantId(tomatoes.getRestaurantId());
+        lot.setReceivedQuantity(quantity);
+        lot.setRemainingQuantity(quantity);
+        lot.setCostPerUnit(tomatoes.getCostPerUnit());
+        lot.setExpiryDate(expiryDate);
+        entityManager.persist(lot);
+        return lot;
+    }
+
+    private BigDecimal itemQuantity() {
+        return jdbcTemplate.queryForObject(
+                "SELECT current_quantity FROM inventory_items WHERE id = ?", BigDecimal.class, tomatoes.getId());
+    }
+
+    private BigDecimal lotQuantity(InventoryLot lot) {
+        return jdbcTemplate.queryForObject(
+                "SELECT remaining_quantity FROM inventory_lots WHERE id = ?", BigDecimal.class, lot.getId());
+    }
+}
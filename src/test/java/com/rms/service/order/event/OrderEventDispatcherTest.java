@@ -0,0 +1,159 @@
+package com.rms.service.order.event;
+
+import com.rms.entity.OrderEvent;
+import com.rms.repository.OrderEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderEventDispatcherTest {
+
+    @Mock
+    private OrderEventRepository eventRepository;
+
+    @Mock
+    private OrderEventHandler notificationHandler;
+
+    @Mock
+    private OrderEventHandler timelineHandler;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderEventDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new OrderEventDispatcher(eventRepository,
+                List.of(notificationHandler, timelineHandler),
+                new SyncTaskExecutor(),
+                transactionManager);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 100);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 2);
+        ReflectionTestUtils.setField(dispatcher, "claimTimeoutSeconds", 300L);
+        ReflectionTestUtils.setField(dispatcher, "retryDelaySeconds", 30L);
+        lenient().when(notificationHandler.name()).thenReturn("notification");
+        lenient().when(timelineHandler.name()).thenReturn("timeline");
+        lenient().when(timelineHandler.isBatchAtomic()).thenReturn(true);
+    }
+
+    @Test
+    void dispatchBatch_AllHandlersSucceed_MarksDispatched() {
+        // Arrange
+        OrderEvent event = pendingEvent(1L);
+        when(eventRepository.lockNextPendingBatch(any(), anyInt())).thenReturn(List.of(event));
+
+        // Act
+        int dispatched = dispatcher.dispatchBatch();
+
+        // Assert: the claim committed before any handler ran
+        assertEquals(1, dispatched);
+        assertEquals(OrderEvent.DispatchStatus.DISPATCHED, event.getStatus());
+        assertNotNull(event.getDispatchedAt());
+        assertEquals("notification,timeline", event.getDeliveredTo());
+        InOrder inOrder = inOrder(transactionManager, notificationHandler);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(notificationHandler).handle(List.of(event));
+        verify(timelineHandler).handle(List.of(event));
+    }
+
+    @Test
+    void dispatchBatch_HandlerFails_RetriesOnlyThatHandlerThenFails() {
+        // Arrange
+        OrderEvent event = pendingEvent(1L);
+        when(eventRepository.lockNextPendingBatch(any(), anyInt())).thenReturn(List.of(event));
+        doThrow(new IllegalStateException("smtp down")).when(notificationHandler).handle(anyList());
+
+        // Act
+        dispatcher.dispatchBatch();
+        OrderEvent.DispatchStatus afterFirst = event.getStatus();
+        dispatcher.dispatchBatch();
+
+        // Assert
+        assertEquals(OrderEvent.DispatchStatus.PENDING, afterFirst);
+        assertEquals(OrderEvent.DispatchStatus.FAILED, event.getStatus());
+        assertEquals(2, event.getAttempts());
+        assertEquals("notification: smtp down", event.getLastError());
+        assertEquals("timeline", event.getDeliveredTo());
+        verify(timelineHandler, times(1)).handle(anyList());
+    }
+
+    @Test
+    void dispatchBatch_PoisonEvent_OthersStillDispatched() {
+        // Arrange
+        OrderEvent good = pendingEvent(1L);
+        OrderEvent poison = pendingEvent(2L);
+        when(eventRepository.lockNextPendingBatch(any(), anyInt())).thenReturn(List.of(good, poison));
+        doAnswer(invocation -> {
+            List<OrderEvent> events = invocation.getArgument(0);
+            if (events.contains(poison)) {
+                throw new IllegalStateException("bad payload");
+            }
+            return null;
+        }).when(timelineHandler).handle(anyList());
+
+        // Act
+        dispatcher.dispatchBatch();
+
+        // Assert
+        assertEquals(OrderEvent.DispatchStatus.DISPATCHED, good.getStatus());
+        assertEquals(OrderEvent.DispatchStatus.PENDING, poison.getStatus());
+        assertEquals("notification", poison.getDeliveredTo());
+        assertNotNull(poison.getNextAttemptAt());
+        verify(notificationHandler).handle(List.of(good));
+        verify(notificationHandler).handle(List.of(poison));
+    }
+
+    @Test
+    void dispatchBatch_NonAtomicHandlerFails_DoesNotRepeatEarlierEvents() {
+        // Arrange: notifications are sent one by one, the second one fails
+        OrderEvent sent = pendingEvent(1L);
+        OrderEvent failing = pendingEvent(2L);
+        when(eventRepository.lockNextPendingBatch(any(), anyInt())).thenReturn(List.of(sent, failing));
+        lenient().doThrow(new IllegalStateException("smtp down")).when(notificationHandler).handle(List.of(failing));
+
+        // Act
+        dispatcher.dispatchBatch();
+
+        // Assert
+        verify(notificationHandler, times(1)).handle(List.of(sent));
+        verify(notificationHandler, never()).handle(List.of(sent, failing));
+        assertEquals(OrderEvent.DispatchStatus.DISPATCHED, sent.getStatus());
+        assertEquals("timeline", failing.getDeliveredTo());
+        verify(timelineHandler).handle(List.of(sent, failing));
+    }
+
+    @Test
+    void poll_EmptyOutbox_DoesNothing() {
+        // Arrange
+        when(eventRepository.lockNextPendingBatch(any(), anyInt())).thenReturn(List.of());
+
+        // Act
+        dispatcher.poll();
+
+        // Assert
+        verifyNoInteractions(notificationHandler, timelineHandler);
+        verify(eventRepository, never()).saveAll(any());
+    }
+
+    private OrderEvent pendingEvent(Long orderId) {
+        return OrderEvent.builder()
+                .id(orderId)
+                .orderId(orderId)
+                .restaurantId(100L)
+                .eventType(OrderEvent.EventType.STATUS_CHANGED)
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.rms.service.order.number;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeOrderNumberGeneratorTest {
+
+    @Test
+    void nextOrderNumber_FitsColumnAndHasPrefix() {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(1023);
+
+        String orderNumber = generator.nextOrderNumber();
+
+        assertTrue(orderNumber.startsWith(OrderNumberGenerator.PREFIX));
+        assertTrue(orderNumber.length() <= OrderNumberGenerator.MAX_LENGTH);
+    }
+
+    @Test
+    void nextOrderNumber_SameMillisecond_IncreasesMonotonically() {
+        // Clock frozen: 10,000 ids exceed the 4,096 per-millisecond sequence
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(
+                7, () -> SnowflakeOrderNumberGenerator.EPOCH_MILLIS + 1_000);
+
+        String previous = generator.nextOrderNumber();
+        for (int i = 0; i < 10_000; i++) {
+            String next = generator.nextOrderNumber();
+            assertTrue(next.compareTo(previous) > 0, previous + " !< " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    void nextOrderNumber_ClockMovesBackwards_StaysMonotonic() {
+        AtomicLong now = new AtomicLong(SnowflakeOrderNumberGenerator.EPOCH_MILLIS + 5_000);
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(3, now::get);
+
+        String before = generator.nextOrderNumber();
+        now.addAndGet(-2_000);
+        String after = generator.nextOrderNumber();
+
+        assertTrue(after.compareTo(before) > 0);
+    }
+
+    @Test
+    void nextOrderNumber_DifferentNodes_DoNotCollide() {
+        long frozen = SnowflakeOrderNumberGenerator.EPOCH_MILLIS + 42;
+        SnowflakeOrderNumberGenerator nodeA = new SnowflakeOrderNumberGenerator(1, () -> frozen);
+        SnowflakeOrderNumberGenerator nodeB = new SnowflakeOrderNumberGenerator(2, () -> frozen);
+
+        assertNotEquals(nodeA.nextOrderNumber(), nodeB.nextOrderNumber());
+    }
+
+    @Test
+    void nextOrderNumber_ConcurrentStress_AllUnique() throws Exception {
+        SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(5);
+        int threads = 16;
+        int perThread = 20_000;
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                String previous = "";
+                for (int i = 0; i < perThread; i++) {
+                    String next = generator.nextOrderNumber();
+                    assertTrue(next.compareTo(previous) > 0);
+                    seen.add(next);
+                    previous = next;
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(threads * perThread, seen.size());
+    }
+
+    @Test
+    void constructor_NodeIdOutOfRange_Throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeOrderNumberGenerator(1024, System::currentTimeMillis));
+    }
+
+    @Test
+    void constructor_NodeIdNotConfigured_FailsStartup() {
+        assertThrows(IllegalStateException.class, () -> new SnowflakeOrderNumberGenerator(-1));
+    }
+}
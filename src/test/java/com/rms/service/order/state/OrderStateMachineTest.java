@@ -0,0 +1,106 @@
+package com.rms.service.order.state;
+
+import com.rms.entity.Order;
+import com.rms.entity.Order.OrderStatus;
+import com.rms.exception.BadRequestException;
+import com.rms.exception.ForbiddenException;
+import com.rms.security.UserPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStateMachineTest {
+
+    private final List<OrderTransition> observed = new ArrayList<>();
+    private final OrderStateMachine stateMachine = new OrderStateMachine(
+            List.of(new DeliveryOrderGuard()),
+            List.of(new StatusTimestampListener(), observed::add));
+
+    @Test
+    void canTransition_FollowsTransitionTable() {
+        Map<OrderStatus, Set<OrderStatus>> expected = Map.of(
+                OrderStatus.PENDING, Set.of(OrderStatus.CONFIRMED, OrderStatus.CANCELLED),
+                OrderStatus.CONFIRMED, Set.of(OrderStatus.PREPARING, OrderStatus.CANCELLED),
+                OrderStatus.PREPARING, Set.of(OrderStatus.READY, OrderStatus.CANCELLED),
+                OrderStatus.READY, Set.of(OrderStatus.OUT_FOR_DELIVERY, OrderStatus.COMPLETED),
+                OrderStatus.OUT_FOR_DELIVERY, Set.of(OrderStatus.DELIVERED, OrderStatus.COMPLETED),
+                OrderStatus.DELIVERED, Set.of(OrderStatus.COMPLETED));
+
+        for (OrderStatus from : OrderStatus.values()) {
+            for (OrderStatus to : OrderStatus.values()) {
+                assertEquals(expected.getOrDefault(from, Set.of()).contains(to),
+                        stateMachine.canTransition(from, to), from + " -> " + to);
+            }
+        }
+    }
+
+    @Test
+    void transition_Valid_SetsStatusStampsReadyTimeAndNotifiesListeners() {
+        // Arrange
+        Order order = order(OrderStatus.PREPARING, Order.OrderType.TAKEAWAY);
+
+        // Act
+        OrderStatus previous = stateMachine.transition(order, OrderStatus.READY, 7L);
+
+        // Assert
+        assertEquals(OrderStatus.PREPARING, previous);
+        assertEquals(OrderStatus.READY, order.getStatus());
+        assertNotNull(order.getActualReadyTime());
+        assertEquals(1, observed.size());
+        assertEquals(7L, observed.get(0).actorId());
+    }
+
+    @Test
+    void transition_FromTerminal_ThrowsBadRequestAndLeavesOrderUntouched() {
+        // Arrange
+        Order order = order(OrderStatus.CANCELLED, Order.OrderType.DINE_IN);
+
+        // Act & Assert
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> stateMachine.transition(order, OrderStatus.CONFIRMED, 1L));
+        assertEquals("Cannot update status of cancelled order", e.getMessage());
+        assertEquals(OrderStatus.CANCELLED, order.getStatus());
+        assertTrue(observed.isEmpty());
+    }
+
+    @Test
+    void transition_DineInOutForDelivery_RejectedByGuard() {
+        // Arrange
+        Order order = order(OrderStatus.READY, Order.OrderType.DINE_IN);
+
+        // Act & Assert
+        assertThrows(BadRequestException.class,
+                () -> stateMachine.transition(order, OrderStatus.OUT_FOR_DELIVERY, 1L));
+        assertEquals(OrderStatus.READY, order.getStatus());
+    }
+
+    @Test
+    void checkRole_UsesRoleBitmask() {
+        UserPrincipal chef = principal("ROLE_CHEF");
+        UserPrincipal courier = principal("ROLE_DELIVERY_MAN");
+
+        assertDoesNotThrow(() -> stateMachine.checkRole(chef, OrderStatus.PREPARING));
+        assertDoesNotThrow(() -> stateMachine.checkRole(courier, OrderStatus.OUT_FOR_DELIVERY));
+        assertThrows(ForbiddenException.class, () -> stateMachine.checkRole(chef, OrderStatus.CONFIRMED));
+        assertThrows(ForbiddenException.class, () -> stateMachine.checkRole(courier, OrderStatus.READY));
+    }
+
+    private Order order(OrderStatus status, Order.OrderType type) {
+        Order order = new Order();
+        order.setId(1L);
+        order.setStatus(status);
+        order.setOrderType(type);
+        return order;
+    }
+
+    private UserPrincipal principal(String role) {
+        return new UserPrincipal(1L, "user@test.com", "password", 100L,
+                List.of(new SimpleGrantedAuthority(role)), true);
+    }
+}
@@ -0,0 +1,74 @@
+package com.rms.service.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotCacheTest {
+
+    private final SnapshotCache<Long, String> cache = new SnapshotCache<>();
+
+    @Test
+    void get_LoadsOnceUntilInvalidated() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        String first = cache.get(1L, 300, id -> "v" + loads.incrementAndGet());
+        String second = cache.get(1L, 300, id -> "v" + loads.incrementAndGet());
+        cache.invalidate(1L);
+        String third = cache.get(1L, 300, id -> "v" + loads.incrementAndGet());
+
+        // Assert
+        assertEquals("v1", first);
+        assertEquals("v1", second);
+        assertEquals("v2", third);
+    }
+
+    @Test
+    void get_ChangedDuringLoad_ReturnsButDoesNotKeepIt() {
+        // Act
+        String loaded = cache.get(1L, 300, id -> {
+            cache.changed(id);
+            return "raced";
+        });
+
+        // Assert
+        assertEquals("raced", loaded);
+        assertNull(cache.peek(1L));
+    }
+
+    @Test
+    void putIfUnchanged_GenerationSweptDuringLoad_DoesNotKeepIt() {
+        // Arrange
+        SnapshotCache.Stamp stamp = cache.stamp(1L);
+        cache.evictIdle(0, TimeUnit.MINUTES);
+        cache.changed(1L);
+
+        // Act
+        boolean kept = cache.putIfUnchanged(1L, "raced", stamp);
+
+        // Assert
+        assertFalse(kept);
+        assertNull(cache.peek(1L));
+    }
+
+    @Test
+    void replaceIfUnchanged_ReplacesOnlyTheSnapshotItWasGiven() {
+        // Arrange
+        cache.get(1L, 0, id -> "maintained");
+        SnapshotCache.Stamp stamp = cache.stamp(1L);
+
+        // Act
+        boolean staleSwap = cache.replaceIfUnchanged(1L, "other", "loaded", stamp);
+        boolean swap = cache.replaceIfUnchanged(1L, "maintained", "loaded", stamp);
+
+        // Assert
+        assertFalse(staleSwap);
+        assertTrue(swap);
+        assertEquals("loaded", cache.peek(1L));
+    }
+}